@@ -0,0 +1,80 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.server.model.common.AuthorizationCodeGrant;
+import io.jans.as.server.model.common.CacheGrant;
+
+/**
+ * JMH benchmark of {@link CacheGrant} creation and java serialization (the form in which grant is put into
+ * distributed cache, e.g. memcached or redis).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheGrantBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private AuthorizationCodeGrant grant;
+    private CacheGrant cacheGrant;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        environment = BenchmarkEnvironment.create();
+        grant = environment.newAuthorizationCodeGrant();
+        cacheGrant = newCacheGrant();
+        serialized = serialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public CacheGrant newCacheGrant() {
+        return new CacheGrant(grant, environment.getAppConfiguration());
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return SerializationUtils.serialize(cacheGrant);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return SerializationUtils.deserialize(serialized);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheGrantBenchmark.class.getSimpleName()).build()).run();
+    }
+}
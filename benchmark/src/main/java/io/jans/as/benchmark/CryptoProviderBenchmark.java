@@ -0,0 +1,94 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.model.crypto.AuthCryptoProvider;
+import io.jans.as.model.crypto.signature.SignatureAlgorithm;
+
+/**
+ * JMH benchmark of {@link AuthCryptoProvider#sign} and {@link AuthCryptoProvider#verifySignature} with keys from
+ * local keystore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoProviderBenchmark {
+
+    private static final String SIGNING_INPUT = "eyJraWQiOiJrZXkiLCJ0eXAiOiJKV1QiLCJhbGciOiJSUzI1NiJ9." +
+            "eyJpc3MiOiJodHRwczovL2phbnMuZXhhbXBsZS5vcmciLCJzdWIiOiI2Y2Y4ZDZlMCIsImF1ZCI6IjEwMDEiLCJleHAiOjE2MDAwMDAwMDB9";
+
+    @Param({"RS256", "ES256", "HS256"})
+    private String algorithm;
+
+    private BenchmarkEnvironment environment;
+    private AuthCryptoProvider cryptoProvider;
+    private SignatureAlgorithm signatureAlgorithm;
+    private String keyId;
+    private String sharedSecret;
+    private String signature;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        environment = BenchmarkEnvironment.create();
+        cryptoProvider = environment.getCryptoProvider();
+        signatureAlgorithm = SignatureAlgorithm.fromString(algorithm);
+
+        switch (signatureAlgorithm) {
+            case RS256:
+                keyId = environment.getRsaKeyId();
+                break;
+            case ES256:
+                keyId = environment.getEcKeyId();
+                break;
+            default:
+                sharedSecret = BenchmarkEnvironment.CLIENT_SECRET;
+        }
+        signature = sign();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public String sign() throws Exception {
+        return cryptoProvider.sign(SIGNING_INPUT, keyId, sharedSecret, signatureAlgorithm);
+    }
+
+    @Benchmark
+    public boolean verifySignature() throws Exception {
+        return cryptoProvider.verifySignature(SIGNING_INPUT, signature, keyId, environment.getJwks(), sharedSecret, signatureAlgorithm);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CryptoProviderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
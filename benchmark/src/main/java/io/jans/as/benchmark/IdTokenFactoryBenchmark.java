@@ -0,0 +1,73 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.model.token.JsonWebResponse;
+import io.jans.as.server.model.common.AccessToken;
+import io.jans.as.server.model.common.AuthorizationCodeGrant;
+import io.jans.as.server.model.token.IdTokenFactory;
+
+/**
+ * JMH benchmark of {@link IdTokenFactory#createJwr}: claims of openid, profile and email scopes are resolved via
+ * scope/attribute services (served from cache after first invocation) and id_token is signed with RS256.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdTokenFactoryBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private IdTokenFactory idTokenFactory;
+    private AuthorizationCodeGrant grant;
+    private AccessToken accessToken;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        environment = BenchmarkEnvironment.create();
+        idTokenFactory = environment.get(IdTokenFactory.class);
+        grant = environment.newAuthorizationCodeGrant();
+        accessToken = new AccessToken(environment.getAppConfiguration().getAccessTokenLifetime());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public String createJwr() throws Exception {
+        JsonWebResponse jwr = idTokenFactory.createJwr(grant, grant.getNonce(), grant.getAuthorizationCode(), accessToken,
+                null, "af0ifjsldkj", grant.getScopes(), true, null, null, null);
+        return jwr.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdTokenFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
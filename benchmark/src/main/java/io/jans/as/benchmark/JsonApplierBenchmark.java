@@ -0,0 +1,111 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import io.jans.as.client.RegisterRequest;
+import io.jans.as.common.model.registration.Client;
+import io.jans.as.model.json.JsonApplier;
+
+/**
+ * JMH benchmark of {@link JsonApplier} on dynamic registration path: transfer of request into client and rendering
+ * of client attributes into registration response, plus the generic apply/transfer paths used by the client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonApplierBenchmark {
+
+    private RegisterRequest registerRequest;
+    private JSONObject registerRequestJson;
+    private Client client;
+
+    @Setup
+    public void setup() {
+        registerRequest = new RegisterRequest();
+        registerRequest.setAdditionalAudience(Lists.newArrayList("aud1", "aud2", "aud3"));
+
+        registerRequestJson = new JSONObject();
+        registerRequestJson.put("additional_audience", new JSONArray(Lists.newArrayList("aud1", "aud2", "aud3")));
+
+        client = new Client();
+        JsonApplier.getInstance().transfer(registerRequest, client);
+        JsonApplier.getInstance().transfer(registerRequest, client.getAttributes());
+    }
+
+    @Benchmark
+    public Client transferToClient() {
+        Client target = new Client();
+        JsonApplier.getInstance().transfer(registerRequest, target);
+        JsonApplier.getInstance().transfer(registerRequest, target.getAttributes());
+        return target;
+    }
+
+    @Benchmark
+    public JSONObject applyToResponse() {
+        JSONObject response = new JSONObject();
+        JsonApplier.getInstance().apply(client, response);
+        JsonApplier.getInstance().apply(client.getAttributes(), response);
+        return response;
+    }
+
+    @Benchmark
+    public JSONObject applyToJSONObject() {
+        JSONObject target = new JSONObject();
+        JsonApplier.getInstance().apply(registerRequest, target);
+        return target;
+    }
+
+    @Benchmark
+    public Map<String, String> applyToParameters() {
+        Map<String, String> target = new HashMap<>();
+        JsonApplier.getInstance().apply(registerRequest, target);
+        return target;
+    }
+
+    @Benchmark
+    public RegisterRequest applyFromJSONObject() {
+        RegisterRequest target = new RegisterRequest();
+        JsonApplier.getInstance().apply(registerRequestJson, target);
+        return target;
+    }
+
+    @Benchmark
+    public RegisterRequest transfer() {
+        RegisterRequest target = new RegisterRequest();
+        JsonApplier.getInstance().transfer(registerRequest, target);
+        return target;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonApplierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.io.File;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import io.jans.as.model.crypto.AuthCryptoProvider;
+import io.jans.as.model.crypto.signature.SignatureAlgorithm;
+import io.jans.as.model.jwk.Algorithm;
+import io.jans.as.model.jwk.Use;
+import io.jans.as.model.jwt.Jwt;
+import io.jans.as.model.jwt.JwtClaims;
+import io.jans.as.model.jwt.JwtType;
+import io.jans.as.model.util.SecurityProviderUtility;
+
+/**
+ * JMH benchmark of {@link Jwt} parsing, serialization and signing for token of typical id_token size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SHARED_SECRET = "benchmark_shared_secret_benchmark_shared_secret";
+
+    private File keyStoreFile;
+    private AuthCryptoProvider cryptoProvider;
+    private String rsaKeyId;
+
+    private Jwt idToken;
+    private String encodedIdToken;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SecurityProviderUtility.installBCProvider(true);
+
+        keyStoreFile = File.createTempFile("jwt-benchmark", ".jks");
+        keyStoreFile.delete();
+        cryptoProvider = new AuthCryptoProvider(keyStoreFile.getAbsolutePath(), "secret", "CN=Jans Auth CA Certificates");
+
+        Calendar expiration = Calendar.getInstance();
+        expiration.add(Calendar.DAY_OF_YEAR, 1);
+        JSONObject key = cryptoProvider.generateKey(Algorithm.RS256, expiration.getTimeInMillis(), Use.SIGNATURE);
+        rsaKeyId = key.getString("kid");
+
+        idToken = createIdToken();
+        idToken.setEncodedSignature(cryptoProvider.sign(idToken.getSigningInput(), rsaKeyId, null, SignatureAlgorithm.RS256));
+        encodedIdToken = idToken.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        keyStoreFile.delete();
+    }
+
+    private Jwt createIdToken() {
+        final Date now = new Date();
+
+        Jwt jwt = new Jwt();
+        jwt.getHeader().setType(JwtType.JWT);
+        jwt.getHeader().setAlgorithm(SignatureAlgorithm.RS256);
+        jwt.getHeader().setKeyId(rsaKeyId);
+
+        JwtClaims claims = jwt.getClaims();
+        claims.setIssuer("https://jans.example.org");
+        claims.setAudience("1001.c66a6a8d-7c51-4bd5-9a5d-8d6a9bd0a5f5");
+        claims.setExpirationTime(new Date(now.getTime() + 3600 * 1000));
+        claims.setIssuedAt(now);
+        claims.setSubjectIdentifier("6cf8d6e0-0f34-4a7e-9b2c-0c4ab0f3c9a1");
+        claims.setClaim("nonce", "a8a0cbf7-3c5e-4b7e-8c5d-6d9d7b3f2e1a");
+        claims.setClaim("auth_time", now);
+        claims.setClaim("at_hash", "3x8PUEdu8y0jUfFRzOgbwQ");
+        claims.setClaim("oxOpenIDConnectVersion", "openidconnect-1.0");
+        claims.setClaim("sid", "1d4b2ec2-6a7f-43d4-bb62-e1e4c8c9b6f2");
+        claims.setClaim("acr", "simple_password_auth");
+        claims.setClaim("amr", Lists.newArrayList("10"));
+        claims.setClaim("email", "admin@jans.example.org");
+        claims.setClaim("name", "Default Admin User");
+        claims.setClaim("website", "https://jans.example.org/users/admin");
+        return jwt;
+    }
+
+    @Benchmark
+    public Jwt parse() throws Exception {
+        return Jwt.parse(encodedIdToken);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return createIdToken().getSigningInput();
+    }
+
+    @Benchmark
+    public String signHS256() throws Exception {
+        return cryptoProvider.sign(idToken.getSigningInput(), null, SHARED_SECRET, SignatureAlgorithm.HS256);
+    }
+
+    @Benchmark
+    public String signRS256() throws Exception {
+        return cryptoProvider.sign(idToken.getSigningInput(), rsaKeyId, null, SignatureAlgorithm.RS256);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.model.jwt.Jwt;
+import io.jans.as.server.model.token.JwtSigner;
+import io.jans.as.server.service.ClientService;
+
+/**
+ * JMH benchmark of {@link JwtSigner}: signer creation (client secret decryption, key lookup) and signing of access
+ * token sized JWT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSignerBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private ClientService clientService;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        environment = BenchmarkEnvironment.create();
+        clientService = environment.get(ClientService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public JwtSigner newJwtSigner() throws Exception {
+        return JwtSigner.newJwtSigner(environment.getAppConfiguration(), environment.getWebKeys(), environment.getClient(),
+                clientService, environment.newServerCryptoProvider());
+    }
+
+    @Benchmark
+    public String signAccessToken() throws Exception {
+        JwtSigner jwtSigner = newJwtSigner();
+        Jwt jwt = jwtSigner.newJwt();
+        jwt.getClaims().setSubjectIdentifier(environment.getUser().getAttribute("inum"));
+        jwt.getClaims().setClaim("scope", BenchmarkEnvironment.SCOPES.toString());
+        jwt.getClaims().setClaim("client_id", environment.getClient().getClientId());
+        jwt.getClaims().setClaim("token_type", "bearer");
+        return jwtSigner.sign().toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtSignerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
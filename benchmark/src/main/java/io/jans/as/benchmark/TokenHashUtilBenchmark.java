@@ -0,0 +1,66 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.server.util.TokenHashUtil;
+
+/**
+ * JMH benchmark of {@link TokenHashUtil} (token hashing performed on every token persist and lookup).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenHashUtilBenchmark {
+
+    private String token;
+    private String hashedToken;
+
+    @Setup
+    public void setup() {
+        token = UUID.randomUUID().toString();
+        hashedToken = TokenHashUtil.getHashWithPrefix(token);
+    }
+
+    @Benchmark
+    public String getHashWithPrefix() {
+        return TokenHashUtil.getHashWithPrefix(token);
+    }
+
+    @Benchmark
+    public String hashOfHashed() {
+        return TokenHashUtil.hash(hashedToken);
+    }
+
+    @Benchmark
+    public String hash() {
+        return TokenHashUtil.hash(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenHashUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.server.model.common.AuthorizationCodeGrant;
+import io.jans.as.server.userinfo.ws.rs.UserInfoRestWebServiceImpl;
+
+/**
+ * JMH benchmark of {@link UserInfoRestWebServiceImpl#getJSonResponse} (plain JSON user info response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private UserInfoRestWebServiceImpl userInfoService;
+    private AuthorizationCodeGrant grant;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        environment = BenchmarkEnvironment.create();
+        userInfoService = environment.get(UserInfoRestWebServiceImpl.class);
+        grant = environment.newAuthorizationCodeGrant();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public String getJSonResponse() throws Exception {
+        return userInfoService.getJSonResponse(environment.getUser(), grant, grant.getScopes());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserInfoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.load;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+/**
+ * Latency, throughput and allocation of single flow step. Each worker thread records into its own instance
+ * (no synchronization on hot path), instances are merged when the run is finished.
+ */
+public class FlowStatistics {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = initThreadMXBean();
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<String, Integer> errorTypes = new TreeMap<>();
+    private Throwable firstError;
+    private long allocatedBytes;
+
+    private long startedAt;
+    private long allocatedAtStart;
+
+    private static com.sun.management.ThreadMXBean initThreadMXBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+
+    public static boolean isAllocationSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    public void start() {
+        allocatedAtStart = currentThreadAllocatedBytes();
+        startedAt = System.nanoTime();
+    }
+
+    public void success() {
+        final long latency = System.nanoTime() - startedAt;
+        allocatedBytes += currentThreadAllocatedBytes() - allocatedAtStart;
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+    }
+
+    /**
+     * Counts failure by exception class, first failure is kept with its stack trace.
+     */
+    public void error(Throwable error) {
+        errors++;
+        errorTypes.merge(error.getClass().getName(), 1, Integer::sum);
+        if (firstError == null) {
+            firstError = error;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    public static FlowStatistics merge(List<FlowStatistics> statistics) {
+        final FlowStatistics result = new FlowStatistics();
+        int total = 0;
+        for (FlowStatistics s : statistics) {
+            total += s.count;
+        }
+
+        result.latencies = new long[Math.max(total, 1)];
+        for (FlowStatistics s : statistics) {
+            System.arraycopy(s.latencies, 0, result.latencies, result.count, s.count);
+            result.count += s.count;
+            result.errors += s.errors;
+            for (Map.Entry<String, Integer> errorType : s.errorTypes.entrySet()) {
+                result.errorTypes.merge(errorType.getKey(), errorType.getValue(), Integer::sum);
+            }
+            if (result.firstError == null) {
+                result.firstError = s.firstError;
+            }
+            result.allocatedBytes += s.allocatedBytes;
+        }
+        Arrays.sort(result.latencies, 0, result.count);
+        return result;
+    }
+
+    /**
+     * @param percentile percentile in range (0, 100]
+     * @return latency in nanoseconds (nearest-rank), latencies must be sorted (see {@link #merge(List)})
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * count);
+        return latencies[Math.min(Math.max(rank, 1), count) - 1];
+    }
+
+    public JSONObject toJson(long durationNanos) {
+        final JSONObject json = new JSONObject();
+        json.put("count", count);
+        json.put("errors", errors);
+        json.put("errorTypes", new JSONObject(errorTypes));
+        json.put("throughputPerSecond", durationNanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0);
+        json.put("p50Micros", toMicros(percentile(50)));
+        json.put("p99Micros", toMicros(percentile(99)));
+        json.put("maxMicros", toMicros(percentile(100)));
+        json.put("allocatedBytesPerOp", isAllocationSupported() && count > 0 ? allocatedBytes / count : -1);
+        return json;
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1000d;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.load;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+
+/**
+ * In-process load test of authorize -> token -> userinfo -> introspect sequence. Server beans are wired by
+ * {@link BenchmarkEnvironment} (in-memory persistence and cache), so the run measures server code only: no network,
+ * database or cache server is involved.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar io.jans.as.benchmark.load.LoadTestHarness [-threads 8] [-warmup 10]
+ * [-duration 30] [-output result.json]} (time in seconds). Result is written as JSON with p50/p99/max latency,
+ * throughput and allocated bytes per operation for each step and for the whole sequence. Failures are counted per
+ * exception class, first failure of each step is logged with its stack trace.
+ */
+public class LoadTestHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    public enum Step {
+        AUTHORIZE, TOKEN, USERINFO, INTROSPECT, SEQUENCE
+    }
+
+    private final OAuthFlows flows;
+    private final int threads;
+
+    public LoadTestHarness(OAuthFlows flows, int threads) {
+        this.flows = flows;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> options = parseOptions(args);
+        final int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        final int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        final int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+
+        try (BenchmarkEnvironment environment = BenchmarkEnvironment.create()) {
+            final LoadTestHarness harness = new LoadTestHarness(new OAuthFlows(environment), threads);
+            harness.run(TimeUnit.SECONDS.toNanos(warmup));
+
+            final long durationNanos = TimeUnit.SECONDS.toNanos(duration);
+            final Map<Step, FlowStatistics> result = harness.run(durationNanos);
+            logFirstErrors(result);
+
+            final String report = toJson(result, threads, durationNanos).toString(2);
+            final String output = options.get("output");
+            if (output != null) {
+                Files.write(Paths.get(output), report.getBytes(StandardCharsets.UTF_8));
+            }
+            System.out.println(report);
+        }
+    }
+
+    private static void logFirstErrors(Map<Step, FlowStatistics> statistics) {
+        for (Map.Entry<Step, FlowStatistics> entry : statistics.entrySet()) {
+            if (entry.getKey() != Step.SEQUENCE && entry.getValue().getFirstError() != null) {
+                log.warn("Step {} failed {} times, first failure:", entry.getKey(), entry.getValue().getErrors(), entry.getValue().getFirstError());
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Runs sequence in {@code threads} threads for given time.
+     *
+     * @return merged statistics per step
+     */
+    public Map<Step, FlowStatistics> run(long durationNanos) throws InterruptedException {
+        final List<Map<Step, FlowStatistics>> perThread = new ArrayList<>();
+        final List<Thread> workers = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < threads; i++) {
+            final Map<Step, FlowStatistics> statistics = newStatistics();
+            perThread.add(statistics);
+
+            final Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                final long deadline = System.nanoTime() + durationNanos;
+                while (System.nanoTime() < deadline) {
+                    runSequence(statistics);
+                }
+            }, "load-test-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        final Map<Step, FlowStatistics> result = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            final List<FlowStatistics> stepStatistics = new ArrayList<>();
+            for (Map<Step, FlowStatistics> statistics : perThread) {
+                stepStatistics.add(statistics.get(step));
+            }
+            result.put(step, FlowStatistics.merge(stepStatistics));
+        }
+        return result;
+    }
+
+    private void runSequence(Map<Step, FlowStatistics> statistics) {
+        final FlowStatistics sequence = statistics.get(Step.SEQUENCE);
+        OAuthFlows.Tokens tokens = null;
+        Step current = Step.AUTHORIZE;
+        try {
+            sequence.start();
+
+            FlowStatistics stat = statistics.get(current);
+            stat.start();
+            final String code = flows.authorize();
+            stat.success();
+
+            current = Step.TOKEN;
+            stat = statistics.get(current);
+            stat.start();
+            tokens = flows.token(code);
+            stat.success();
+
+            current = Step.USERINFO;
+            stat = statistics.get(current);
+            stat.start();
+            flows.userInfo(tokens.getAccessToken());
+            stat.success();
+
+            current = Step.INTROSPECT;
+            stat = statistics.get(current);
+            stat.start();
+            flows.introspect(tokens.getAccessToken());
+            stat.success();
+
+            sequence.success();
+        } catch (Exception e) {
+            statistics.get(current).error(e);
+            sequence.error(e);
+        } finally {
+            flows.cleanup(tokens);
+        }
+    }
+
+    private static Map<Step, FlowStatistics> newStatistics() {
+        final Map<Step, FlowStatistics> statistics = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            statistics.put(step, new FlowStatistics());
+        }
+        return statistics;
+    }
+
+    public static JSONObject toJson(Map<Step, FlowStatistics> statistics, int threads, long durationNanos) {
+        final JSONObject steps = new JSONObject();
+        for (Map.Entry<Step, FlowStatistics> entry : statistics.entrySet()) {
+            steps.put(entry.getKey().name().toLowerCase(), entry.getValue().toJson(durationNanos));
+        }
+
+        final JSONObject json = new JSONObject();
+        json.put("threads", threads);
+        json.put("durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        json.put("allocationMeasured", FlowStatistics.isAllocationSupported());
+        json.put("steps", steps);
+        return json;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.load;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.apache.commons.lang.StringUtils;
+import org.json.JSONObject;
+
+import com.google.common.collect.Lists;
+
+import io.jans.as.benchmark.support.BenchmarkEnvironment;
+import io.jans.as.common.model.common.User;
+import io.jans.as.model.common.IntrospectionResponse;
+import io.jans.as.model.common.TokenType;
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.common.AbstractToken;
+import io.jans.as.server.model.common.AccessToken;
+import io.jans.as.server.model.common.AuthorizationCodeGrant;
+import io.jans.as.server.model.common.AuthorizationGrant;
+import io.jans.as.server.model.common.AuthorizationGrantList;
+import io.jans.as.server.model.common.ExecutionContext;
+import io.jans.as.server.model.common.IdToken;
+import io.jans.as.server.model.token.JwrService;
+import io.jans.as.server.service.GrantService;
+import io.jans.as.server.service.UserService;
+import io.jans.as.server.userinfo.ws.rs.UserInfoRestWebServiceImpl;
+import io.jans.as.server.util.ServerUtil;
+
+/**
+ * Steps of authorization code flow performed with the same service calls as corresponding endpoints
+ * (authorization, token, userinfo and introspection), without HTTP layer, audit logging and custom scripts.
+ */
+public class OAuthFlows {
+
+    private final BenchmarkEnvironment environment;
+    private final AppConfiguration appConfiguration;
+    private final AuthorizationGrantList authorizationGrantList;
+    private final GrantService grantService;
+    private final UserService userService;
+    private final UserInfoRestWebServiceImpl userInfoService;
+
+    public OAuthFlows(BenchmarkEnvironment environment) {
+        this.environment = environment;
+        this.appConfiguration = environment.getAppConfiguration();
+        this.authorizationGrantList = environment.get(AuthorizationGrantList.class);
+        this.grantService = environment.get(GrantService.class);
+        this.userService = environment.get(UserService.class);
+        this.userInfoService = environment.get(UserInfoRestWebServiceImpl.class);
+    }
+
+    /**
+     * Mirrors code branch of {@code AuthorizeRestWebServiceImpl}.
+     *
+     * @return authorization code
+     */
+    public String authorize() {
+        AuthorizationCodeGrant grant = authorizationGrantList.createAuthorizationCodeGrant(environment.getUser(),
+                environment.getClient(), new Date());
+        grant.setNonce(StringUtils.remove(UUID.randomUUID().toString(), '-'));
+        grant.setScopes(BenchmarkEnvironment.SCOPES);
+        grant.setAcrValues("basic");
+        grant.save();
+        return grant.getAuthorizationCode().getCode();
+    }
+
+    /**
+     * Mirrors authorization code grant of {@code TokenRestWebServiceImpl}.
+     */
+    public Tokens token(String code) {
+        final AuthorizationCodeGrant grant = authorizationGrantList.getAuthorizationCodeGrant(code);
+        if (grant == null) {
+            throw new IllegalStateException("Unable to find grant object for given code.");
+        }
+        if (!environment.getClient().getClientId().equals(grant.getClientId())) {
+            throw new IllegalStateException("Client mismatch.");
+        }
+
+        grant.setIsCachedWithNoPersistence(false);
+        grant.save();
+
+        final AccessToken accessToken = grant.createAccessToken(null, new ExecutionContext(null, null));
+        if (accessToken == null) {
+            throw new IllegalStateException("Failed to create access_token.");
+        }
+
+        IdToken idToken = null;
+        if (grant.getScopes().contains("openid")) {
+            idToken = grant.createIdToken(grant.getNonce(), grant.getAuthorizationCode(), accessToken, null, null,
+                    grant, Boolean.TRUE.equals(appConfiguration.getLegacyIdTokenClaims()),
+                    JwrService.wrapWithSidFunction(null, null), null);
+            if (idToken == null) {
+                throw new IllegalStateException("Failed to create id_token.");
+            }
+        }
+
+        grantService.removeAuthorizationCode(code);
+        return new Tokens(accessToken.getCode(), idToken != null ? idToken.getCode() : null);
+    }
+
+    /**
+     * Mirrors {@code UserInfoRestWebServiceImpl.requestUserInfo} for plain JSON response.
+     */
+    public String userInfo(String accessToken) throws Exception {
+        final AuthorizationGrant grant = getValidGrant(accessToken);
+        if (!grant.getScopes().contains("openid")) {
+            throw new IllegalStateException("Missed openid scope.");
+        }
+
+        final User user = userService.getUserByDn(grant.getUserDn());
+        return userInfoService.getJSonResponse(user != null ? user : grant.getUser(), grant, grant.getScopes());
+    }
+
+    /**
+     * Mirrors {@code IntrospectionWebService} where the introspected token is also used for authorization.
+     */
+    public String introspect(String accessToken) throws Exception {
+        getValidGrant(accessToken);
+
+        final IntrospectionResponse response = new IntrospectionResponse(false);
+        final AuthorizationGrant grant = authorizationGrantList.getAuthorizationGrantByAccessToken(accessToken);
+        if (grant != null) {
+            final AbstractToken token = grant.getAccessToken(accessToken);
+            response.setActive(token.isValid());
+            response.setExpiresAt(ServerUtil.dateToSeconds(token.getExpirationDate()));
+            response.setIssuedAt(ServerUtil.dateToSeconds(token.getCreationDate()));
+            response.setAcrValues(grant.getAcrValues());
+            response.setScope(grant.getScopes() != null ? grant.getScopes() : Lists.newArrayList());
+            response.setClientId(grant.getClientId());
+            response.setSub(grant.getSub());
+            response.setUsername(grant.getUserId());
+            response.setIssuer(appConfiguration.getIssuer());
+            response.setAudience(grant.getClientId());
+            if (token instanceof AccessToken) {
+                final AccessToken at = (AccessToken) token;
+                response.setTokenType(at.getTokenType() != null ? at.getTokenType().getName() : TokenType.BEARER.getName());
+            }
+        }
+
+        final JSONObject json = new JSONObject(ServerUtil.asJson(response));
+        if (response.getScope() != null && !appConfiguration.getIntrospectionResponseScopesBackwardCompatibility()) {
+            json.put("scope", StringUtils.join(response.getScope().toArray(), " "));
+        }
+        return json.toString();
+    }
+
+    /**
+     * Removes tokens issued by {@link #token(String)}, so in-memory persistence does not grow during the run.
+     */
+    public void cleanup(Tokens tokens) {
+        if (tokens == null) {
+            return;
+        }
+        grantService.removeByCode(tokens.getAccessToken());
+        if (tokens.getIdToken() != null) {
+            grantService.removeByCode(tokens.getIdToken());
+        }
+    }
+
+    private AuthorizationGrant getValidGrant(String accessToken) {
+        final AuthorizationGrant grant = authorizationGrantList.getAuthorizationGrantByAccessToken(accessToken);
+        if (grant == null) {
+            throw new IllegalStateException("Failed to find authorization grant by access_token.");
+        }
+        final AbstractToken token = grant.getAccessToken(accessToken);
+        if (token == null || !token.isValid()) {
+            throw new IllegalStateException("Invalid access token object.");
+        }
+        return grant;
+    }
+
+    public static class Tokens {
+
+        private final String accessToken;
+        private final String idToken;
+
+        public Tokens(String accessToken, String idToken) {
+            this.accessToken = accessToken;
+            this.idToken = idToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getIdToken() {
+            return idToken;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal replacement of CDI container for benchmarks. Beans are registered explicitly and {@link Inject} fields
+ * (including fields of super classes) are resolved by type, {@link Instance} fields are backed by
+ * {@link BeanInstance}. Fields which can't be resolved (e.g. events or script services which are not part of
+ * benchmarked path) are left null.
+ */
+public class BeanContainer {
+
+    private final List<Object> beans = new ArrayList<>();
+
+    public <T> T register(T bean) {
+        beans.add(bean);
+        return bean;
+    }
+
+    /**
+     * Instantiates bean with no-arg constructor and registers it. Injection is deferred till {@link #injectAll()},
+     * so beans can be registered in any order.
+     */
+    public <T> T create(Class<T> beanClass) {
+        try {
+            return register(beanClass.newInstance());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to instantiate " + beanClass.getName(), e);
+        }
+    }
+
+    /**
+     * @return registered bean of given type or otherwise new injected (but not registered) instance
+     */
+    public <T> T getOrCreate(Class<T> type) {
+        T found = find(type);
+        if (found != null) {
+            return found;
+        }
+        try {
+            return inject(type.newInstance());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to instantiate " + type.getName(), e);
+        }
+    }
+
+    public <T> T get(Class<T> type) {
+        T found = find(type);
+        if (found == null) {
+            throw new IllegalStateException("Bean is not registered: " + type.getName());
+        }
+        return found;
+    }
+
+    public void injectAll() {
+        for (Object bean : beans) {
+            inject(bean);
+        }
+    }
+
+    public <T> T inject(T bean) {
+        for (Class<?> clazz = bean.getClass(); clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(Inject.class) || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                Object value;
+                if (Logger.class.equals(field.getType())) {
+                    value = LoggerFactory.getLogger(clazz);
+                } else if (Instance.class.equals(field.getType())) {
+                    value = newInstance(field.getGenericType());
+                } else {
+                    value = find(field.getType());
+                }
+                if (value != null) {
+                    setField(bean, field, value);
+                }
+            }
+        }
+        return bean;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Instance<?> newInstance(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return new BeanInstance(this, (Class) argument);
+            }
+        }
+        return null;
+    }
+
+    public void postConstruct(Object bean) {
+        for (Method method : bean.getClass().getMethods()) {
+            if (method.isAnnotationPresent(PostConstruct.class)) {
+                try {
+                    method.invoke(bean);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Failed to call post construct method of " + bean.getClass().getName(), e);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T find(Class<T> type) {
+        for (Object bean : beans) {
+            if (type.isInstance(bean)) {
+                return (T) bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets private field which has no setter (e.g. {@code ConfigurationFactory.conf}).
+     */
+    public static void setField(Object target, String fieldName, Object value) {
+        for (Class<?> clazz = target.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                setField(target, clazz.getDeclaredField(fieldName), value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // continue with super class
+            }
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " is not found in " + target.getClass().getName());
+    }
+
+    private static void setField(Object target, Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to set field " + field.getName() + " of " + target.getClass().getName(), e);
+        }
+    }
+}
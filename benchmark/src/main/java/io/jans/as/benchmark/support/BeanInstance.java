@@ -0,0 +1,70 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.support;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.util.TypeLiteral;
+
+/**
+ * {@link Instance} backed by {@link BeanContainer}. Returns registered bean of requested type if there is one
+ * (application scoped beans), otherwise creates and injects new instance (e.g. grants selected from
+ * {@code Instance<AbstractAuthorizationGrant>}). Qualifiers are ignored.
+ */
+public class BeanInstance<T> implements Instance<T> {
+
+    private final BeanContainer container;
+    private final Class<T> type;
+
+    public BeanInstance(BeanContainer container, Class<T> type) {
+        this.container = container;
+        this.type = type;
+    }
+
+    @Override
+    public T get() {
+        return container.getOrCreate(type);
+    }
+
+    @Override
+    public Instance<T> select(Annotation... qualifiers) {
+        return this;
+    }
+
+    @Override
+    public <U extends T> Instance<U> select(Class<U> subtype, Annotation... qualifiers) {
+        return new BeanInstance<>(container, subtype);
+    }
+
+    @Override
+    public <U extends T> Instance<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+        throw new UnsupportedOperationException("Type literal selection is not supported");
+    }
+
+    @Override
+    public boolean isUnsatisfied() {
+        return false;
+    }
+
+    @Override
+    public boolean isAmbiguous() {
+        return false;
+    }
+
+    @Override
+    public void destroy(T instance) {
+        // beans are not managed
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.singletonList(get()).iterator();
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import io.jans.as.common.model.common.User;
+import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.service.common.EncryptionService;
+import io.jans.as.model.common.ScopeType;
+import io.jans.as.model.common.SubjectType;
+import io.jans.as.model.config.BaseDnConfiguration;
+import io.jans.as.model.config.StaticConfiguration;
+import io.jans.as.model.config.WebKeysConfiguration;
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.model.crypto.AuthCryptoProvider;
+import io.jans.as.model.jwk.Algorithm;
+import io.jans.as.model.jwk.JSONWebKeySet;
+import io.jans.as.model.jwk.Use;
+import io.jans.as.model.util.SecurityProviderUtility;
+import io.jans.as.persistence.model.Scope;
+import io.jans.as.server.model.common.AuthorizationCodeGrant;
+import io.jans.as.server.model.common.AuthorizationGrantList;
+import io.jans.as.server.model.config.ConfigurationFactory;
+import io.jans.as.server.model.token.IdTokenFactory;
+import io.jans.as.server.model.token.JwrService;
+import io.jans.as.server.service.AttributeService;
+import io.jans.as.server.service.ClientService;
+import io.jans.as.server.service.GrantService;
+import io.jans.as.server.service.MetricService;
+import io.jans.as.server.service.ScopeService;
+import io.jans.as.server.service.SectorIdentifierService;
+import io.jans.as.server.service.ServerCryptoProvider;
+import io.jans.as.server.service.SessionIdService;
+import io.jans.as.server.service.UserService;
+import io.jans.as.server.service.stat.StatService;
+import io.jans.as.server.userinfo.ws.rs.UserInfoRestWebServiceImpl;
+import io.jans.model.GluuAttribute;
+import io.jans.model.attribute.AttributeDataType;
+import io.jans.service.CacheService;
+import io.jans.service.LocalCacheService;
+import io.jans.service.cache.CacheConfiguration;
+import io.jans.service.cache.CacheProviderType;
+import io.jans.service.cache.InMemoryCacheProvider;
+import io.jans.service.cache.InMemoryConfiguration;
+import io.jans.util.security.StringEncrypter;
+
+/**
+ * Server beans wired against in-memory persistence and in-memory cache, plus test data (keys, client, user, scopes
+ * and attributes) typical for id_token issuance. Everything is created locally, no network or database is required.
+ * Metric reporting is disabled and statistic service is left uninitialized, so they don't touch persistence.
+ */
+public class BenchmarkEnvironment implements Closeable {
+
+    public static final String ISSUER = "https://jans.example.org";
+    public static final String CLIENT_SECRET = "5f8a7e3a-7d2b-4b0e-9a56-1f0c2d6e8b11";
+    public static final Set<String> SCOPES = Sets.newHashSet("openid", "profile", "email");
+
+    private static final String BASE_DN = "o=jans";
+    private static final String ATTRIBUTES_DN = "ou=attributes," + BASE_DN;
+
+    private final BeanContainer container = new BeanContainer();
+    private final InMemoryPersistenceEntryManager persistence = new InMemoryPersistenceEntryManager();
+
+    private File keyStoreFile;
+    private AppConfiguration appConfiguration;
+    private WebKeysConfiguration webKeys;
+    private AuthCryptoProvider cryptoProvider;
+    private String rsaKeyId;
+    private String ecKeyId;
+    private JSONObject jwks;
+    private Client client;
+    private User user;
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static BenchmarkEnvironment create() throws Exception {
+        BenchmarkEnvironment environment = new BenchmarkEnvironment();
+        environment.init();
+        return environment;
+    }
+
+    private void init() throws Exception {
+        SecurityProviderUtility.installBCProvider(true);
+
+        appConfiguration = createAppConfiguration();
+        initKeys();
+
+        ConfigurationFactory configurationFactory = new ConfigurationFactory();
+        BeanContainer.setField(configurationFactory, "conf", appConfiguration);
+
+        container.register(appConfiguration);
+        container.register(createStaticConfiguration());
+        container.register(webKeys);
+        container.register(cryptoProvider);
+        container.register(configurationFactory);
+        container.register(persistence.getEntryManager());
+        container.register(StringEncrypter.instance("benchmark_salt"));
+        container.register(createCacheConfiguration());
+        container.register(new MetricService() {
+            @Override
+            public boolean isMetricReporterEnabled() {
+                return false;
+            }
+        });
+
+        InMemoryCacheProvider cacheProvider = container.create(InMemoryCacheProvider.class);
+        container.create(CacheService.class);
+        container.create(LocalCacheService.class);
+        container.create(EncryptionService.class);
+        container.create(ClientService.class);
+        container.create(ScopeService.class);
+        container.create(AttributeService.class);
+        container.create(SessionIdService.class);
+        container.create(SectorIdentifierService.class);
+        container.create(JwrService.class);
+        container.create(IdTokenFactory.class);
+        container.create(UserInfoRestWebServiceImpl.class);
+        container.create(UserService.class);
+        container.create(GrantService.class);
+        container.create(AuthorizationGrantList.class);
+        container.create(StatService.class); // not initialized, so reporting is skipped
+        container.injectAll();
+
+        container.postConstruct(cacheProvider);
+        cacheProvider.create();
+
+        initData();
+    }
+
+    private AppConfiguration createAppConfiguration() {
+        AppConfiguration conf = new AppConfiguration();
+        conf.setIssuer(ISSUER);
+        conf.setIdTokenLifetime(3600);
+        conf.setAuthorizationCodeLifetime(60);
+        conf.setAccessTokenLifetime(300);
+        conf.setDefaultSignatureAlgorithm("RS256");
+        conf.setOxOpenIdConnectVersion("openidconnect-1.0");
+        conf.setOpenidSubAttribute("inum");
+        conf.setIdTokenFilterClaimsBasedOnAccessToken(false);
+        conf.setUseLocalCache(false);
+        conf.setKeySignWithSameKeyButDiffAlg(false);
+        conf.setUseNestedJwtDuringEncryption(false);
+        conf.setRejectJwtWithNoneAlg(true);
+        conf.setLegacyIdTokenClaims(false);
+        conf.setSessionIdPersistInCache(false);
+        conf.setOpenidScopeBackwardCompatibility(false);
+        conf.setIntrospectionResponseScopesBackwardCompatibility(false);
+        return conf;
+    }
+
+    private StaticConfiguration createStaticConfiguration() {
+        BaseDnConfiguration baseDn = new BaseDnConfiguration();
+        baseDn.setAttributes(ATTRIBUTES_DN);
+        baseDn.setScopes("ou=scopes," + BASE_DN);
+        baseDn.setClients("ou=clients," + BASE_DN);
+        baseDn.setPeople("ou=people," + BASE_DN);
+        baseDn.setSessions("ou=sessions," + BASE_DN);
+        baseDn.setTokens("ou=tokens," + BASE_DN);
+        baseDn.setAuthorizations("ou=authorizations," + BASE_DN);
+        baseDn.setSectorIdentifiers("ou=sector_identifiers," + BASE_DN);
+
+        StaticConfiguration staticConfiguration = new StaticConfiguration();
+        staticConfiguration.setBaseDn(baseDn);
+        return staticConfiguration;
+    }
+
+    private CacheConfiguration createCacheConfiguration() {
+        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setCacheProviderType(CacheProviderType.IN_MEMORY);
+        cacheConfiguration.setInMemoryConfiguration(new InMemoryConfiguration());
+        return cacheConfiguration;
+    }
+
+    private void initKeys() throws Exception {
+        keyStoreFile = File.createTempFile("jans-benchmark", ".jks");
+        keyStoreFile.delete();
+        cryptoProvider = new AuthCryptoProvider(keyStoreFile.getAbsolutePath(), "secret", "CN=Jans Auth CA Certificates");
+
+        Calendar expiration = Calendar.getInstance();
+        expiration.add(Calendar.DAY_OF_YEAR, 1);
+
+        JSONObject rsaKey = cryptoProvider.generateKey(Algorithm.RS256, expiration.getTimeInMillis(), Use.SIGNATURE);
+        JSONObject ecKey = cryptoProvider.generateKey(Algorithm.ES256, expiration.getTimeInMillis(), Use.SIGNATURE);
+        rsaKeyId = rsaKey.getString("kid");
+        ecKeyId = ecKey.getString("kid");
+
+        jwks = new JSONObject();
+        jwks.put("keys", new JSONArray().put(rsaKey).put(ecKey));
+
+        webKeys = new WebKeysConfiguration();
+        webKeys.setKeys(JSONWebKeySet.fromJSONObject(jwks).getKeys());
+    }
+
+    private void initData() throws Exception {
+        final GluuAttribute name = addAttribute("name", "displayName", AttributeDataType.STRING);
+        final GluuAttribute givenName = addAttribute("given_name", "givenName", AttributeDataType.STRING);
+        final GluuAttribute familyName = addAttribute("family_name", "sn", AttributeDataType.STRING);
+        final GluuAttribute nickname = addAttribute("nickname", "nickname", AttributeDataType.STRING);
+        final GluuAttribute website = addAttribute("website", "website", AttributeDataType.STRING);
+        final GluuAttribute email = addAttribute("email", "mail", AttributeDataType.STRING);
+        final GluuAttribute emailVerified = addAttribute("email_verified", "emailVerified", AttributeDataType.BOOLEAN);
+        final GluuAttribute inum = addAttribute("inum", "inum", AttributeDataType.STRING);
+
+        addScope("openid", ScopeType.OPENID, inum);
+        addScope("profile", ScopeType.OPENID, name, givenName, familyName, nickname, website);
+        addScope("email", ScopeType.OPENID, email, emailVerified);
+
+        client = new Client();
+        client.setClientId("1001.b5a7e7c4-2b8f-4f61-9a0b-4c3b7f3d2a10");
+        client.setDn("inum=" + client.getClientId() + ",ou=clients," + BASE_DN);
+        client.setClientName("Benchmark client");
+        client.setClientSecret(get(ClientService.class).encryptSecret(CLIENT_SECRET));
+        client.setRedirectUris(new String[]{"https://client.example.org/cb"});
+        client.setSubjectType(SubjectType.PUBLIC);
+        client.setIdTokenSignedResponseAlg("RS256");
+        client.setIncludeClaimsInIdToken(true);
+        client.setScopes(new String[]{"inum=openid,ou=scopes," + BASE_DN, "inum=profile,ou=scopes," + BASE_DN, "inum=email,ou=scopes," + BASE_DN});
+        persistence.add(client);
+
+        user = new User();
+        user.setDn("inum=6cf8d6e0-0f34-4a7e-9b2c-0c4ab0f3c9a1,ou=people," + BASE_DN);
+        user.setUserId("admin");
+        user.setAttribute("inum", "6cf8d6e0-0f34-4a7e-9b2c-0c4ab0f3c9a1");
+        user.setAttribute("displayName", "Default Admin User");
+        user.setAttribute("givenName", "Admin");
+        user.setAttribute("sn", "User");
+        user.setAttribute("nickname", "admin");
+        user.setAttribute("website", "https://jans.example.org/users/admin");
+        user.setAttribute("mail", "admin@jans.example.org");
+        user.setAttribute("emailVerified", "true");
+        persistence.add(user);
+    }
+
+    private GluuAttribute addAttribute(String claimName, String name, AttributeDataType dataType) {
+        GluuAttribute attribute = new GluuAttribute();
+        attribute.setInum(claimName.toUpperCase());
+        attribute.setDn("inum=" + attribute.getInum() + "," + ATTRIBUTES_DN);
+        attribute.setName(name);
+        attribute.setDisplayName(name);
+        attribute.setClaimName(claimName);
+        attribute.setDataType(dataType);
+        attribute.setOxMultiValuedAttribute(false);
+        persistence.add(attribute);
+        return attribute;
+    }
+
+    private void addScope(String id, ScopeType scopeType, GluuAttribute... claims) {
+        List<String> claimDns = Lists.newArrayList();
+        for (GluuAttribute claim : claims) {
+            claimDns.add(claim.getDn());
+        }
+
+        Scope scope = new Scope();
+        scope.setId(id);
+        scope.setInum(id);
+        scope.setDn("inum=" + id + ",ou=scopes," + BASE_DN);
+        scope.setDisplayName(id);
+        scope.setScopeType(scopeType);
+        scope.setClaims(claimDns);
+        persistence.add(scope);
+    }
+
+    /**
+     * Creates grant the same way as authorization endpoint does for code flow (without persisting it).
+     */
+    public AuthorizationCodeGrant newAuthorizationCodeGrant() {
+        AuthorizationCodeGrant grant = container.inject(new AuthorizationCodeGrant());
+        grant.init(user, client, new Date());
+        grant.setScopes(SCOPES);
+        grant.setNonce("a8a0cbf7-3c5e-4b7e-8c5d-6d9d7b3f2e1a");
+        return grant;
+    }
+
+    public ServerCryptoProvider newServerCryptoProvider() {
+        return new ServerCryptoProvider(get(ConfigurationFactory.class), cryptoProvider);
+    }
+
+    public InMemoryPersistenceEntryManager getPersistence() {
+        return persistence;
+    }
+
+    public <T> T get(Class<T> type) {
+        return container.get(type);
+    }
+
+    public AppConfiguration getAppConfiguration() {
+        return appConfiguration;
+    }
+
+    public WebKeysConfiguration getWebKeys() {
+        return webKeys;
+    }
+
+    public AuthCryptoProvider getCryptoProvider() {
+        return cryptoProvider;
+    }
+
+    public String getRsaKeyId() {
+        return rsaKeyId;
+    }
+
+    public String getEcKeyId() {
+        return ecKeyId;
+    }
+
+    public JSONObject getJwks() {
+        return jwks;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public void close() {
+        if (keyStoreFile != null) {
+            keyStoreFile.delete();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.benchmark.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang.StringUtils;
+
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.annotation.AttributeName;
+import io.jans.orm.annotation.DN;
+import io.jans.orm.search.filter.Filter;
+import io.jans.orm.search.filter.FilterType;
+
+/**
+ * In-memory stand-in of {@link PersistenceEntryManager} backed by map of entries keyed by DN.
+ * <p>
+ * Supported operations: {@code find(Class, Object)}, {@code find(Object, Class, ...)},
+ * {@code findEntries(baseDn, Class, Filter, ...)} with equality filters (optionally combined with AND),
+ * {@code persist}, {@code merge}, {@code remove} and {@code contains}.
+ * All other methods return default value of their return type, which is enough for benchmarked code paths.
+ */
+public class InMemoryPersistenceEntryManager implements InvocationHandler {
+
+    private final Map<String, Object> entries = new ConcurrentHashMap<>();
+    private final PersistenceEntryManager proxy;
+
+    public InMemoryPersistenceEntryManager() {
+        this.proxy = (PersistenceEntryManager) Proxy.newProxyInstance(PersistenceEntryManager.class.getClassLoader(),
+                new Class<?>[]{PersistenceEntryManager.class}, this);
+    }
+
+    public PersistenceEntryManager getEntryManager() {
+        return proxy;
+    }
+
+    public void add(Object entry) {
+        entries.put(normalize(getDn(entry)), entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final String name = method.getName();
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(name, args);
+        }
+
+        switch (name) {
+            case "find":
+                if (args.length >= 2 && args[0] instanceof Class) {
+                    return find((Class<?>) args[0], args[1]);
+                }
+                if (args.length >= 2 && args[1] instanceof Class) {
+                    return find((Class<?>) args[1], args[0]);
+                }
+                break;
+            case "findEntries":
+                if (args.length >= 3 && args[0] instanceof String && args[1] instanceof Class) {
+                    return findEntries((String) args[0], (Class<?>) args[1], (Filter) args[2]);
+                }
+                break;
+            case "persist":
+            case "merge":
+                add(args[0]);
+                return "merge".equals(name) ? args[0] : null;
+            case "remove":
+                if (args.length >= 1 && args[0] instanceof String) {
+                    entries.remove(normalize((String) args[0]));
+                } else if (args.length >= 1) {
+                    entries.remove(normalize(getDn(args[0])));
+                }
+                return null;
+            case "contains":
+                if (args.length >= 1 && args[0] instanceof String) {
+                    return entries.containsKey(normalize((String) args[0]));
+                } else if (args.length >= 1) {
+                    return entries.containsKey(normalize(getDn(args[0])));
+                }
+                break;
+            default:
+                break;
+        }
+        return defaultValue(method.getReturnType());
+    }
+
+    private Object invokeObjectMethod(String name, Object[] args) {
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "InMemoryPersistenceEntryManager{entries=" + entries.size() + "}";
+        }
+    }
+
+    private Object find(Class<?> entryClass, Object primaryKey) {
+        final Object entry = primaryKey != null ? entries.get(normalize(primaryKey.toString())) : null;
+        return entryClass.isInstance(entry) ? entry : null;
+    }
+
+    private List<Object> findEntries(String baseDn, Class<?> entryClass, Filter filter) {
+        final String suffix = normalize(baseDn);
+        final List<Object> result = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            if (entry.getKey().endsWith(suffix) && entryClass.isInstance(entry.getValue()) && matches(entry.getValue(), filter)) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(Object entry, Filter filter) {
+        if (filter == null) {
+            return true;
+        }
+
+        if (filter.getType() == FilterType.AND) {
+            for (Filter nested : filter.getFilters()) {
+                if (!matches(entry, nested)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (filter.getType() == FilterType.EQUALITY) {
+            final Object value = getAttributeValue(entry, getAttributeName(filter));
+            return value != null && StringUtils.equalsIgnoreCase(value.toString(), String.valueOf(filter.getAssertionValue()));
+        }
+
+        throw new UnsupportedOperationException("Filter is not supported by in-memory entry manager: " + filter);
+    }
+
+    /**
+     * Attribute name is either set directly or wrapped by nested filter (e.g. lowercase filter created by
+     * {@code Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), value)}).
+     */
+    private static String getAttributeName(Filter filter) {
+        if (filter.getAttributeName() != null || filter.getFilters() == null) {
+            return filter.getAttributeName();
+        }
+        for (Filter nested : filter.getFilters()) {
+            if (nested.getAttributeName() != null) {
+                return nested.getAttributeName();
+            }
+        }
+        return null;
+    }
+
+    private static Object getAttributeValue(Object entry, String attributeName) {
+        if (attributeName == null) {
+            return null;
+        }
+
+        for (Class<?> clazz = entry.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                final AttributeName annotation = field.getAnnotation(AttributeName.class);
+                if (annotation != null && attributeName.equalsIgnoreCase(annotation.name())) {
+                    return readField(entry, field);
+                }
+            }
+        }
+
+        try {
+            // custom attributes (e.g. User)
+            return entry.getClass().getMethod("getAttribute", String.class).invoke(entry, attributeName);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static String getDn(Object entry) {
+        for (Class<?> clazz = entry.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(DN.class)) {
+                    final Object dn = readField(entry, field);
+                    if (dn != null) {
+                        return dn.toString();
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Entry does not have DN: " + entry);
+    }
+
+    private static Object readField(Object entry, Field field) {
+        try {
+            field.setAccessible(true);
+            return field.get(entry);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String dn) {
+        return StringUtils.deleteWhitespace(dn).toLowerCase();
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -38,7 +38,7 @@ public class PingCallbackClient extends BaseClient<PingCallbackRequest, PingCall
     }
 
     public PingCallbackResponse exec() {
-        if (this.fapiCompatibility) {
+        if (this.fapiCompatibility && getExecutor() == null) {
             setExecutor(getApacheHttpClient4ExecutorForMTLS());
         }
         initClientRequest();
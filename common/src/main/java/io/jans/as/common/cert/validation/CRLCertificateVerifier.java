@@ -9,47 +9,39 @@ package io.jans.as.common.cert.validation;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigInteger;
 import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
 import java.net.URL;
-import java.security.NoSuchProviderException;
 import java.security.Principal;
-import java.security.cert.CRLException;
-import java.security.cert.CertificateException;
-import java.security.cert.CertificateFactory;
-import java.security.cert.X509CRL;
-import java.security.cert.X509CRLEntry;
 import java.security.cert.X509Certificate;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BoundedInputStream;
 import org.bouncycastle.asn1.ASN1InputStream;
-import org.bouncycastle.asn1.ASN1Integer;
 import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1TaggedObject;
 import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x509.CRLDistPoint;
 import org.bouncycastle.asn1.x509.DistributionPoint;
 import org.bouncycastle.asn1.x509.DistributionPointName;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.GeneralName;
 import org.bouncycastle.asn1.x509.GeneralNames;
-import org.bouncycastle.asn1.x509.X509Extensions;
-import org.bouncycastle.x509.NoSuchParserException;
-import org.bouncycastle.x509.util.StreamParsingException;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.operator.OperatorCreationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 
 import io.jans.as.common.cert.validation.model.ValidationStatus;
 import io.jans.as.model.util.SecurityProviderUtility;
@@ -64,25 +56,33 @@ public class CRLCertificateVerifier implements CertificateVerifier {
 
 	private static final Logger log = LoggerFactory.getLogger(CRLCertificateVerifier.class);
 
+	// Cache size is defined in bytes of encoded CRLs, by default it can hold this count of CRLs of max size
+	private static final int DEFAULT_CACHE_SIZE_IN_CRLS = 10;
+
 	private int maxCrlSize;
 
-	private LoadingCache<String, X509CRL> crlCache;
+	private Cache<String, CRLIndex> crlCache;
 
 	public CRLCertificateVerifier(final int maxCrlSize) {
+		this(maxCrlSize, (long) DEFAULT_CACHE_SIZE_IN_CRLS * maxCrlSize);
+	}
+
+	/**
+	 * @param maxCrlSize max size of downloaded CRL in bytes
+	 * @param maxCacheSize max total size of cached CRL indexes in bytes
+	 */
+	public CRLCertificateVerifier(final int maxCrlSize, final long maxCacheSize) {
 		SecurityProviderUtility.installBCProvider(true);
 
 		this.maxCrlSize = maxCrlSize;
-		
-		CacheLoader<String, X509CRL> checkedLoader = new CacheLoader<String, X509CRL>() {
-			public X509CRL load(String crlURL) throws CertificateException, CRLException, NoSuchProviderException, NoSuchParserException, StreamParsingException, MalformedURLException, IOException, ExecutionException {
-				X509CRL result = requestCRL(crlURL);
-				Preconditions.checkNotNull(result);
 
-				return result;
+		Weigher<String, CRLIndex> crlWeigher = new Weigher<String, CRLIndex>() {
+			public int weigh(String cacheKey, CRLIndex crlIndex) {
+				return cacheKey.length() + crlIndex.getWeight();
 			}
 		};
 
-		this.crlCache = CacheBuilder.newBuilder().maximumSize(10).expireAfterWrite(60, TimeUnit.MINUTES).build(checkedLoader);
+		this.crlCache = CacheBuilder.newBuilder().maximumWeight(maxCacheSize).weigher(crlWeigher).expireAfterWrite(60, TimeUnit.MINUTES).build();
 	}
 
 	@Override
@@ -101,25 +101,37 @@ public class CRLCertificateVerifier implements CertificateVerifier {
 
 			log.debug("CRL's URL for '" + subjectX500Principal + "' is '" + crlURL + "'");
 
-			X509CRL x509crl = getCrl(crlURL);
-			if (!validateCRL(x509crl, certificate, issuer, validationDate)) {
+			CRLIndex crlIndex;
+			try {
+				crlIndex = getCrl(crlURL, issuer);
+			} catch (ExecutionException ex) {
+				if (!(ex.getCause() instanceof CertException)) {
+					throw ex;
+				}
+
+				log.error("The CRL is not valid: " + ex.getCause().getMessage());
+				status.setValidity(ValidationStatus.CertificateValidity.INVALID);
+				return status;
+			}
+
+			if (!validateCRL(crlIndex, certificate, issuer, validationDate)) {
 				log.error("The CRL is not valid!");
 				status.setValidity(ValidationStatus.CertificateValidity.INVALID);
 				return status;
 			}
 
-			X509CRLEntry crlEntry = x509crl.getRevokedCertificate(certificate.getSerialNumber());
-			if (crlEntry == null) {
+			Date revocationDate = crlIndex.getRevocationDate(certificate.getSerialNumber());
+			if (revocationDate == null) {
 				log.debug("CRL status is valid for '" + subjectX500Principal + "'");
 				status.setValidity(ValidationStatus.CertificateValidity.VALID);
-			} else if (crlEntry.getRevocationDate().after(validationDate)) {
+			} else if (revocationDate.after(validationDate)) {
 				log.warn("CRL revocation time after the validation date, the certificate '" + subjectX500Principal + "' was valid at " + validationDate);
-				status.setRevocationObjectIssuingTime(x509crl.getThisUpdate());
+				status.setRevocationObjectIssuingTime(crlIndex.getThisUpdate());
 				status.setValidity(ValidationStatus.CertificateValidity.VALID);
 			} else {
-				log.info("CRL for certificate '" + subjectX500Principal + "' is revoked since " + crlEntry.getRevocationDate());
-				status.setRevocationObjectIssuingTime(x509crl.getThisUpdate());
-				status.setRevocationDate(crlEntry.getRevocationDate());
+				log.info("CRL for certificate '" + subjectX500Principal + "' is revoked since " + revocationDate);
+				status.setRevocationObjectIssuingTime(crlIndex.getThisUpdate());
+				status.setRevocationDate(revocationDate);
 				status.setValidity(ValidationStatus.CertificateValidity.REVOKED);
 			}
 		} catch (Exception ex) {
@@ -129,40 +141,23 @@ public class CRLCertificateVerifier implements CertificateVerifier {
 		return status;
 	}
 
-	private boolean validateCRL(X509CRL x509crl, X509Certificate certificate, X509Certificate issuerCertificate, Date validationDate) {
+	private boolean validateCRL(CRLIndex crlIndex, X509Certificate certificate, X509Certificate issuerCertificate, Date validationDate) {
 		Principal subjectX500Principal = certificate.getSubjectX500Principal();
 
-		if (x509crl == null) {
+		if (crlIndex == null) {
 			log.error("No CRL found for certificate '" + subjectX500Principal + "'");
 			return false;
 		}
 
 		if (log.isTraceEnabled()) {
-			try {
-				log.trace("CRL number: " + getCrlNumber(x509crl));
-			} catch (IOException ex) {
-				log.error("Failed to get CRL number", ex);
-			}
-		}
-
-		if (!x509crl.getIssuerX500Principal().equals(issuerCertificate.getSubjectX500Principal())) {
-			log.error("The CRL must be signed by the issuer '" + subjectX500Principal + "' but instead is signed by '"
-					+ x509crl.getIssuerX500Principal() + "'");
-			return false;
-		}
-
-		try {
-			x509crl.verify(issuerCertificate.getPublicKey());
-		} catch (Exception ex) {
-			log.error("The signature verification for CRL cannot be performed", ex);
-			return false;
+			log.trace("CRL number: " + crlIndex.getCrlNumber() + ", revoked certificates: " + crlIndex.size());
 		}
 
 		log.debug("CRL validationDate: " + validationDate);
-		log.debug("CRL nextUpdate: " + x509crl.getThisUpdate());
-		log.debug("CRL thisUpdate: " + x509crl.getNextUpdate());
+		log.debug("CRL nextUpdate: " + crlIndex.getNextUpdate());
+		log.debug("CRL thisUpdate: " + crlIndex.getThisUpdate());
 
-		if (x509crl.getNextUpdate() != null && validationDate.after(x509crl.getNextUpdate())) {
+		if (crlIndex.getNextUpdate() != null && validationDate.after(crlIndex.getNextUpdate())) {
 			log.error("CRL is too old");
 			return false;
 		}
@@ -181,58 +176,60 @@ public class CRLCertificateVerifier implements CertificateVerifier {
 
 	}
 
-	private X509CRL getCrl(String url) throws CertificateException, CRLException, NoSuchProviderException, NoSuchParserException, StreamParsingException,
-			MalformedURLException, IOException, ExecutionException {
+	private CRLIndex getCrl(String url, X509Certificate issuerCertificate) throws ExecutionException {
 		if (!(url.startsWith("http://") || url.startsWith("https://"))) {
 			log.error("It's possible to download CRL via HTTP and HTTPS only");
 			return null;
 		}
-		
-		String cacheKey = url.toLowerCase();
-		X509CRL crl = crlCache.get(cacheKey);
 
-		return crl;
+		// Index is built for CRL verified with issuer's key, so key is part of cache key
+		String cacheKey = url.toLowerCase() + "|" + DigestUtils.sha256Hex(issuerCertificate.getPublicKey().getEncoded());
+		CRLIndex crlIndex = crlCache.get(cacheKey, () -> requestCRLIndex(url, issuerCertificate));
+
+		return crlIndex;
 	}
 
-	public X509CRL requestCRL(String url) throws IOException, MalformedURLException, CertificateException, CRLException {
+	/**
+	 * Downloads CRL, checks issuer and signature and builds index. Whole CRL (up to <code>maxCrlSize</code> bytes)
+	 * is parsed in memory, only index is kept after it is built.
+	 */
+	public CRLIndex requestCRLIndex(String url, X509Certificate issuerCertificate) throws IOException, CertException, OperatorCreationException {
+		X509CRLHolder crlHolder;
+
 		HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
 		try {
 			con.setUseCaches(false);
 
 			InputStream in = new BoundedInputStream(con.getInputStream(), maxCrlSize);
 			try {
-				CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
-				X509CRL crl = (X509CRL) certificateFactory.generateCRL(in);
-				log.debug("CRL size: " + crl.getEncoded().length + " bytes");
-
-				return crl;
+				crlHolder = new X509CRLHolder(in);
 			} finally {
 				IOUtils.closeQuietly(in);
 			}
 		} catch (IOException ex) {
 			log.error("Failed to download CRL from '" + url + "'", ex);
+			throw ex;
 		} finally {
 			if (con != null) {
 				con.disconnect();
 			}
 		}
-		
-		return null;
-	}
 
-	@SuppressWarnings({ "deprecation", "resource" })
-	private BigInteger getCrlNumber(X509CRL crl) throws IOException {
-		byte[] crlNumberExtensionValue = crl.getExtensionValue(X509Extensions.CRLNumber.getId());
-		if (crlNumberExtensionValue == null) {
-			return null;
+		X500Name issuerName = X500Name.getInstance(issuerCertificate.getSubjectX500Principal().getEncoded());
+		if (!crlHolder.getIssuer().equals(issuerName)) {
+			throw new CertException("The CRL must be signed by the issuer '" + issuerCertificate.getSubjectX500Principal() + "' but instead is signed by '"
+					+ crlHolder.getIssuer() + "'");
 		}
 
-		ASN1OctetString octetString = (ASN1OctetString) (new ASN1InputStream(new ByteArrayInputStream(crlNumberExtensionValue)).readObject());
-		byte[] octets = octetString.getOctets();
-		ASN1Integer integer = (ASN1Integer) new ASN1InputStream(octets).readObject();
-		BigInteger crlNumber = integer.getPositiveValue();
+		try {
+			CRLIndex crlIndex = CRLIndex.build(crlHolder, issuerCertificate.getPublicKey());
+			log.debug("CRL index size: " + crlIndex.size() + " entries, " + crlIndex.getWeight() + " bytes");
 
-		return crlNumber;
+			return crlIndex;
+		} catch (CertException ex) {
+			log.error("The signature verification for CRL cannot be performed", ex);
+			throw ex;
+		}
 	}
 
 	public String getCrlUri(X509Certificate certificate) throws IOException {
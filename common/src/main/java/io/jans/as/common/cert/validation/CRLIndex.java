@@ -0,0 +1,146 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.common.cert.validation;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CRLEntryHolder;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+
+/**
+ * Preprocessed CRL. Keeps only sorted serial numbers of revoked certificates and their revocation dates,
+ * so lookup is binary search without access to CRL structures and without signature verification. Index is built
+ * only from CRL which signature was verified.
+ */
+public final class CRLIndex {
+
+	// BigInteger object, its int[] and slot in arrays
+	private static final int ENTRY_OVERHEAD_IN_BYTES = 64;
+
+	private final X500Name issuer;
+	private final Date thisUpdate;
+	private final Date nextUpdate;
+	private final BigInteger crlNumber;
+
+	private final BigInteger[] serialNumbers;
+	private final long[] revocationDates;
+	private final int weight;
+
+	private CRLIndex(X500Name issuer, Date thisUpdate, Date nextUpdate, BigInteger crlNumber, BigInteger[] serialNumbers, long[] revocationDates, int weight) {
+		this.issuer = issuer;
+		this.thisUpdate = thisUpdate;
+		this.nextUpdate = nextUpdate;
+		this.crlNumber = crlNumber;
+		this.serialNumbers = serialNumbers;
+		this.revocationDates = revocationDates;
+		this.weight = weight;
+	}
+
+	/**
+	 * Verifies CRL signature and builds index
+	 *
+	 * @throws CertException if signature is not valid or can't be verified
+	 */
+	public static CRLIndex build(X509CRLHolder crlHolder, PublicKey issuerPublicKey) throws CertException, OperatorCreationException {
+		if (!crlHolder.isSignatureValid(new JcaContentVerifierProviderBuilder().build(issuerPublicKey))) {
+			throw new CertException("CRL signature is not valid");
+		}
+
+		@SuppressWarnings("unchecked")
+		Collection<X509CRLEntryHolder> entries = crlHolder.getRevokedCertificates();
+
+		Entry[] sorted = new Entry[entries.size()];
+		int count = 0;
+		long weight = ENTRY_OVERHEAD_IN_BYTES;
+		for (X509CRLEntryHolder entry : entries) {
+			sorted[count++] = new Entry(entry.getSerialNumber(), entry.getRevocationDate().getTime());
+			weight += ENTRY_OVERHEAD_IN_BYTES + entry.getSerialNumber().bitLength() / 8;
+		}
+		Arrays.sort(sorted, (e1, e2) -> e1.serialNumber.compareTo(e2.serialNumber));
+
+		BigInteger[] serialNumbers = new BigInteger[count];
+		long[] revocationDates = new long[count];
+		for (int i = 0; i < count; i++) {
+			serialNumbers[i] = sorted[i].serialNumber;
+			revocationDates[i] = sorted[i].revocationDate;
+		}
+
+		BigInteger crlNumber = null;
+		Extension crlNumberExtension = crlHolder.getExtension(Extension.cRLNumber);
+		if (crlNumberExtension != null) {
+			crlNumber = ASN1Integer.getInstance(crlNumberExtension.getParsedValue()).getPositiveValue();
+		}
+
+		return new CRLIndex(crlHolder.getIssuer(), crlHolder.getThisUpdate(), crlHolder.getNextUpdate(), crlNumber,
+				serialNumbers, revocationDates, (int) Math.min(Integer.MAX_VALUE, weight));
+	}
+
+	/**
+	 * @return revocation date or null if certificate with specified serial number is not revoked
+	 */
+	public Date getRevocationDate(BigInteger serialNumber) {
+		int index = Arrays.binarySearch(serialNumbers, serialNumber);
+		if (index < 0) {
+			return null;
+		}
+
+		return new Date(revocationDates[index]);
+	}
+
+	public boolean isRevoked(BigInteger serialNumber) {
+		return Arrays.binarySearch(serialNumbers, serialNumber) >= 0;
+	}
+
+	public X500Name getIssuer() {
+		return issuer;
+	}
+
+	public Date getThisUpdate() {
+		return thisUpdate;
+	}
+
+	public Date getNextUpdate() {
+		return nextUpdate;
+	}
+
+	public BigInteger getCrlNumber() {
+		return crlNumber;
+	}
+
+	public int size() {
+		return serialNumbers.length;
+	}
+
+	/**
+	 * @return approximate size of index in memory in bytes
+	 */
+	public int getWeight() {
+		return weight;
+	}
+
+	private static final class Entry {
+
+		private final BigInteger serialNumber;
+		private final long revocationDate;
+
+		private Entry(BigInteger serialNumber, long revocationDate) {
+			this.serialNumber = serialNumber;
+			this.revocationDate = revocationDate;
+		}
+	}
+
+}
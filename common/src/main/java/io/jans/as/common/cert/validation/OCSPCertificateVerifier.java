@@ -14,11 +14,16 @@ import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1TaggedObject;
 import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x509.AccessDescription;
 import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
 import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cert.ocsp.BasicOCSPResp;
 import org.bouncycastle.cert.ocsp.CertificateID;
@@ -32,24 +37,53 @@ import org.bouncycastle.cert.ocsp.RevokedStatus;
 import org.bouncycastle.cert.ocsp.SingleResp;
 import org.bouncycastle.operator.DigestCalculator;
 import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.lang.ref.WeakReference;
 import java.security.Principal;
-import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Certificate verifier based on OCSP
+ * <p>
+ * Only responses signed by certificate issuer or by responder certificate which issuer delegated OCSP signing to are
+ * accepted. Responses are cached by {@link CertificateID} until their <code>nextUpdate</code> (or for
+ * one minute if responder doesn't provide it), cached response is used only if validation date is within its
+ * <code>thisUpdate</code> and <code>nextUpdate</code>. Only one request to responder is sent at a time, certificates
+ * requested meanwhile are sent to responder in next single request. Like OCSP stapling on web servers,
+ * responses which are still in use are refreshed in background before they expire, so validation doesn't wait
+ * for responder. Background refresh is done by one task per responder URL at a time on two daemon threads shared by
+ * all verifiers, which are started when first verifier with enabled cache is created. Verifier which is not destroyed
+ * explicitly stops its prefetch when it is garbage collected.
  * 
  * @author Yuriy Movchan
  * @version March 10, 2016
@@ -58,8 +92,45 @@ public class OCSPCertificateVerifier implements CertificateVerifier {
 
 	private static final Logger log = LoggerFactory.getLogger(OCSPCertificateVerifier.class);
 
+	public static final int DEFAULT_CACHE_SIZE = 1000;
+
+	private static final long DEFAULT_RESPONSE_LIFETIME_IN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final long MAX_RESPONSE_LIFETIME_IN_MILLIS = TimeUnit.HOURS.toMillis(24);
+	private static final long PREFETCH_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final long ALLOWED_CLOCK_SKEW_IN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final Cache<CertificateID, OCSPResponseEntry> responseCache;
+	private final ScheduledFuture<?> prefetchTask;
+	private final Set<String> refreshingResponders = ConcurrentHashMap.newKeySet();
+	private final ConcurrentMap<String, Responder> responders = new ConcurrentHashMap<String, Responder>();
+
+	private static final class PrefetchExecutorHolder {
+
+		private static final ScheduledExecutorService EXECUTOR = Executors.newScheduledThreadPool(2, runnable -> {
+			Thread thread = new Thread(runnable, "ocsp-prefetch");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	public OCSPCertificateVerifier() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param maxCacheSize max count of cached responses, 0 disables caching and prefetch
+	 */
+	public OCSPCertificateVerifier(final int maxCacheSize) {
 		SecurityProviderUtility.installBCProvider(true);
+
+		if (maxCacheSize > 0) {
+			this.responseCache = CacheBuilder.newBuilder().maximumSize(maxCacheSize).expireAfterWrite(MAX_RESPONSE_LIFETIME_IN_MILLIS, TimeUnit.MILLISECONDS).build();
+			this.prefetchTask = PrefetchExecutorHolder.EXECUTOR.scheduleWithFixedDelay(new PrefetchTask(this),
+					PREFETCH_INTERVAL_IN_MILLIS, PREFETCH_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+		} else {
+			this.responseCache = null;
+			this.prefetchTask = null;
+		}
 	}
 
 	@Override
@@ -81,69 +152,253 @@ public class OCSPCertificateVerifier implements CertificateVerifier {
 			DigestCalculator digestCalculator = new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1);
 			CertificateID certificateId = new CertificateID(digestCalculator, new JcaX509CertificateHolder(certificate), certificate.getSerialNumber());
 
-			// Generate OCSP request
-			OCSPReq ocspReq = generateOCSPRequest(certificateId);
-
-			// Get OCSP response from server
-			OCSPResp ocspResp = requestOCSPResponse(ocspUrl, ocspReq);
-			if (ocspResp.getStatus() != OCSPRespBuilder.SUCCESSFUL) {
+			// Get OCSP response from cache or from server
+			OCSPResponseEntry responseEntry = getOCSPResponse(ocspUrl, certificateId, issuer, validationDate);
+			if (!responseEntry.isSuccessful()) {
 				log.error("OCSP response is invalid!");
 				status.setValidity(ValidationStatus.CertificateValidity.INVALID);
 				return status;
 			}
 
-			boolean foundResponse = false;
-			BasicOCSPResp basicOCSPResp = (BasicOCSPResp) ocspResp.getResponseObject();
-			SingleResp[] singleResps = basicOCSPResp.getResponses();
-			for (SingleResp singleResp : singleResps) {
-				CertificateID responseCertificateId = singleResp.getCertID();
-				if (!certificateId.equals(responseCertificateId)) {
-					continue;
+			SingleResp singleResp = responseEntry.getSingleResp();
+			if (singleResp == null) {
+				log.error("There is no matching OCSP response entries");
+				return status;
+			}
+
+			log.debug("OCSP validationDate: " + validationDate);
+			log.debug("OCSP thisUpdate: " + singleResp.getThisUpdate());
+			log.debug("OCSP nextUpdate: " + singleResp.getNextUpdate());
+
+			status.setRevocationObjectIssuingTime(responseEntry.getProducedAt());
+
+			Object certStatus = singleResp.getCertStatus();
+			if (certStatus == CertificateStatus.GOOD) {
+				log.debug("OCSP status is valid for '" + certificate.getSubjectX500Principal() + "'");
+				status.setValidity(ValidationStatus.CertificateValidity.VALID);
+			} else {
+				if (singleResp.getCertStatus() instanceof RevokedStatus) {
+					log.warn("OCSP status is revoked for: " + subjectX500Principal);
+					if (validationDate.before(((RevokedStatus) singleResp.getCertStatus()).getRevocationTime())) {
+						log.warn("OCSP revocation time after the validation date, the certificate '" + subjectX500Principal + "' was valid at " + validationDate);
+						status.setValidity(ValidationStatus.CertificateValidity.VALID);
+					} else {
+						Date revocationDate = ((RevokedStatus) singleResp.getCertStatus()).getRevocationTime();
+						log.info("OCSP for certificate '" + subjectX500Principal + "' is revoked since " + revocationDate);
+						status.setRevocationDate(revocationDate);
+						status.setRevocationObjectIssuingTime(singleResp.getThisUpdate());
+						status.setValidity(ValidationStatus.CertificateValidity.REVOKED);
+					}
 				}
+			}
+		} catch (Exception ex) {
+			log.error("OCSP exception: ", ex);
+		}
+
+		return status;
+	}
+
+	private OCSPResponseEntry getOCSPResponse(String ocspUrl, CertificateID certificateId, X509Certificate issuer, Date validationDate) throws IOException, ExecutionException {
+		if (responseCache == null) {
+			return loadOCSPResponse(ocspUrl, certificateId, issuer);
+		}
+
+		OCSPResponseEntry cached = responseCache.getIfPresent(certificateId);
+		if (cached != null && (cached.isExpired() || !cached.isValidAt(validationDate))) {
+			responseCache.asMap().remove(certificateId, cached);
+		}
+
+		// Concurrent validations of the same certificate wait for one request to responder
+		OCSPResponseEntry responseEntry = responseCache.get(certificateId, () -> loadOCSPResponse(ocspUrl, certificateId, issuer));
+		if (!responseEntry.isCacheable()) {
+			responseCache.asMap().remove(certificateId, responseEntry);
+		}
+		responseEntry.touch();
+
+		return responseEntry;
+	}
+
+	/**
+	 * Adds certificate to next request to responder and waits for its response. Request is sent by first thread which
+	 * gets responder after previous request finished, other threads just take their responses.
+	 */
+	private OCSPResponseEntry loadOCSPResponse(String ocspUrl, CertificateID certificateId, X509Certificate issuer) throws IOException {
+		Responder responder = responders.computeIfAbsent(ocspUrl, key -> new Responder());
+
+		ResponderRequest request;
+		synchronized (responder) {
+			if (responder.pending == null) {
+				responder.pending = new ResponderRequest();
+			}
+			request = responder.pending;
+			request.issuers.put(certificateId, issuer);
+		}
 
-				foundResponse = true;
-
-				log.debug("OCSP validationDate: " + validationDate);
-				log.debug("OCSP thisUpdate: " + singleResp.getThisUpdate());
-				log.debug("OCSP nextUpdate: " + singleResp.getNextUpdate());
-
-				status.setRevocationObjectIssuingTime(basicOCSPResp.getProducedAt());
-
-				Object certStatus = singleResp.getCertStatus();
-				if (certStatus == CertificateStatus.GOOD) {
-					log.debug("OCSP status is valid for '" + certificate.getSubjectX500Principal() + "'");
-					status.setValidity(ValidationStatus.CertificateValidity.VALID);
-				} else {
-					if (singleResp.getCertStatus() instanceof RevokedStatus) {
-						log.warn("OCSP status is revoked for: " + subjectX500Principal);
-						if (validationDate.before(((RevokedStatus) singleResp.getCertStatus()).getRevocationTime())) {
-							log.warn("OCSP revocation time after the validation date, the certificate '" + subjectX500Principal + "' was valid at " + validationDate);
-							status.setValidity(ValidationStatus.CertificateValidity.VALID);
-						} else {
-							Date revocationDate = ((RevokedStatus) singleResp.getCertStatus()).getRevocationTime();
-							log.info("OCSP for certificate '" + subjectX500Principal + "' is revoked since " + revocationDate);
-							status.setRevocationDate(revocationDate);
-							status.setRevocationObjectIssuingTime(singleResp.getThisUpdate());
-							status.setValidity(ValidationStatus.CertificateValidity.REVOKED);
-						}
+		synchronized (responder.sendLock) {
+			if (!request.done) {
+				synchronized (responder) {
+					if (responder.pending == request) {
+						responder.pending = null;
 					}
 				}
+
+				try {
+					request.responses = loadOCSPResponses(ocspUrl, request.issuers);
+				} catch (IOException ex) {
+					request.failure = ex;
+				} catch (Exception ex) {
+					request.failure = new IOException("Failed to get OCSP response from '" + ocspUrl + "'", ex);
+				}
+				request.done = true;
 			}
+		}
 
-			if (!foundResponse) {
-				log.error("There is no matching OCSP response entries");
+		if (request.failure != null) {
+			throw request.failure;
+		}
+
+		return request.responses.get(certificateId);
+	}
+
+	private Map<CertificateID, OCSPResponseEntry> loadOCSPResponses(String ocspUrl, Map<CertificateID, X509Certificate> issuers) throws OCSPException, OperatorCreationException, CertificateException, CertException, IOException {
+		Map<CertificateID, OCSPResponseEntry> result = new HashMap<CertificateID, OCSPResponseEntry>();
+
+		// Generate OCSP request
+		OCSPReq ocspReq = generateOCSPRequest(issuers.keySet());
+
+		// Get OCSP response from server
+		OCSPResp ocspResp = requestOCSPResponse(ocspUrl, ocspReq);
+		if (ocspResp.getStatus() != OCSPRespBuilder.SUCCESSFUL) {
+			for (Map.Entry<CertificateID, X509Certificate> entry : issuers.entrySet()) {
+				result.put(entry.getKey(), new OCSPResponseEntry(ocspUrl, entry.getKey(), entry.getValue(), null, null));
+			}
+			return result;
+		}
+
+		BasicOCSPResp basicOCSPResp = (BasicOCSPResp) ocspResp.getResponseObject();
+		Map<X509Certificate, Boolean> verifiedIssuers = new HashMap<X509Certificate, Boolean>();
+		for (Map.Entry<CertificateID, X509Certificate> entry : issuers.entrySet()) {
+			CertificateID certificateId = entry.getKey();
+			X509Certificate issuer = entry.getValue();
+
+			Boolean signatureValid = verifiedIssuers.get(issuer);
+			if (signatureValid == null) {
+				signatureValid = isSignatureValid(basicOCSPResp, issuer);
+				verifiedIssuers.put(issuer, signatureValid);
+				if (!signatureValid) {
+					log.error("OCSP response from '" + ocspUrl + "' is not signed by '" + issuer.getSubjectX500Principal() + "' or its OCSP responder");
+				}
+			}
+
+			if (!signatureValid) {
+				result.put(certificateId, new OCSPResponseEntry(ocspUrl, certificateId, issuer, null, null));
+				continue;
+			}
+
+			SingleResp matchingResp = null;
+			for (SingleResp singleResp : basicOCSPResp.getResponses()) {
+				if (certificateId.equals(singleResp.getCertID())) {
+					matchingResp = singleResp;
+					break;
+				}
+			}
+			result.put(certificateId, new OCSPResponseEntry(ocspUrl, certificateId, issuer, basicOCSPResp, matchingResp));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Response should be signed by certificate issuer or by responder certificate which is issued by it for OCSP signing
+	 */
+	private boolean isSignatureValid(BasicOCSPResp basicOCSPResp, X509Certificate issuer) throws OCSPException, OperatorCreationException, CertificateException, CertException {
+		JcaContentVerifierProviderBuilder verifierProviderBuilder = new JcaContentVerifierProviderBuilder();
+		if (basicOCSPResp.isSignatureValid(verifierProviderBuilder.build(issuer.getPublicKey()))) {
+			return true;
+		}
+
+		X500Name issuerName = new JcaX509CertificateHolder(issuer).getSubject();
+		Date now = new Date();
+		for (X509CertificateHolder responderCert : basicOCSPResp.getCerts()) {
+			if (!issuerName.equals(responderCert.getIssuer()) || !responderCert.isValidOn(now)) {
+				continue;
+			}
+
+			ExtendedKeyUsage extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responderCert.getExtensions());
+			if ((extendedKeyUsage == null) || !extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning)) {
+				continue;
+			}
+
+			if (responderCert.isSignatureValid(verifierProviderBuilder.build(issuer.getPublicKey()))
+					&& basicOCSPResp.isSignatureValid(verifierProviderBuilder.build(responderCert))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Schedules refresh of responses which are in use and expire soon. Responses of one responder are refreshed
+	 * by single task with one request, next task for the same responder isn't started until previous one finishes.
+	 */
+	private void prefetch() {
+		try {
+			Map<String, List<OCSPResponseEntry>> dueByResponder = new HashMap<String, List<OCSPResponseEntry>>();
+			long now = System.currentTimeMillis();
+			for (OCSPResponseEntry responseEntry : responseCache.asMap().values()) {
+				if (responseEntry.isRefreshDue(now)) {
+					dueByResponder.computeIfAbsent(responseEntry.getOcspUrl(), key -> new ArrayList<OCSPResponseEntry>()).add(responseEntry);
+				}
+			}
+
+			for (Map.Entry<String, List<OCSPResponseEntry>> due : dueByResponder.entrySet()) {
+				final String ocspUrl = due.getKey();
+				if (!refreshingResponders.add(ocspUrl)) {
+					continue;
+				}
+
+				try {
+					PrefetchExecutorHolder.EXECUTOR.execute(() -> refresh(ocspUrl, due.getValue()));
+				} catch (RejectedExecutionException ex) {
+					refreshingResponders.remove(ocspUrl);
+				}
 			}
 		} catch (Exception ex) {
-			log.error("OCSP exception: ", ex);
+			log.error("Failed to prefetch OCSP responses", ex);
 		}
+	}
 
-		return status;
+	private void refresh(String ocspUrl, List<OCSPResponseEntry> responseEntries) {
+		try {
+			Map<CertificateID, X509Certificate> issuers = new LinkedHashMap<CertificateID, X509Certificate>();
+			for (OCSPResponseEntry responseEntry : responseEntries) {
+				issuers.put(responseEntry.getCertificateId(), responseEntry.getIssuer());
+			}
+
+			Map<CertificateID, OCSPResponseEntry> refreshedEntries = loadOCSPResponses(ocspUrl, issuers);
+			for (OCSPResponseEntry responseEntry : responseEntries) {
+				OCSPResponseEntry refreshed = refreshedEntries.get(responseEntry.getCertificateId());
+				if ((refreshed != null) && refreshed.isCacheable()) {
+					refreshed.setLastAccessedAt(responseEntry.getLastAccessedAt());
+					responseCache.asMap().replace(responseEntry.getCertificateId(), responseEntry, refreshed);
+				}
+			}
+			log.debug("Refreshed {} OCSP responses from '{}'", responseEntries.size(), ocspUrl);
+		} catch (Exception ex) {
+			// Keep current responses until they expire
+			log.debug("Failed to refresh OCSP responses from '" + ocspUrl + "'", ex);
+		} finally {
+			refreshingResponders.remove(ocspUrl);
+		}
 	}
 
-	private OCSPReq generateOCSPRequest(CertificateID certificateId) throws OCSPException, OperatorCreationException, CertificateEncodingException {
+	private OCSPReq generateOCSPRequest(Collection<CertificateID> certificateIds) throws OCSPException {
 		OCSPReqBuilder ocspReqGenerator = new OCSPReqBuilder();
 
-		ocspReqGenerator.addRequest(certificateId);
+		for (CertificateID certificateId : certificateIds) {
+			ocspReqGenerator.addRequest(certificateId);
+		}
 
 		OCSPReq ocspReq = ocspReqGenerator.build();
 		return ocspReq;
@@ -235,7 +490,164 @@ public class OCSPCertificateVerifier implements CertificateVerifier {
 
 	@Override
 	public void destroy() {
-	    // nothing to destroy
+		if (prefetchTask != null) {
+			prefetchTask.cancel(false);
+		}
+		if (responseCache != null) {
+			responseCache.invalidateAll();
+		}
+	}
+
+	/**
+	 * Keeps only weak reference to verifier, so scheduled task doesn't keep verifier which was not destroyed alive.
+	 */
+	private static class PrefetchTask implements Runnable {
+
+		private final WeakReference<OCSPCertificateVerifier> verifier;
+
+		private PrefetchTask(OCSPCertificateVerifier verifier) {
+			this.verifier = new WeakReference<OCSPCertificateVerifier>(verifier);
+		}
+
+		@Override
+		public void run() {
+			OCSPCertificateVerifier current = verifier.get();
+			if (current == null) {
+				// Exception suppresses subsequent executions of periodic task
+				throw new IllegalStateException("OCSP verifier was garbage collected");
+			}
+			current.prefetch();
+		}
+	}
+
+	private static final class Responder {
+
+		private final Object sendLock = new Object();
+
+		// Guarded by responder
+		private ResponderRequest pending;
+	}
+
+	/**
+	 * Certificates which are sent to responder in one request. Response fields are guarded by responder send lock.
+	 */
+	private static final class ResponderRequest {
+
+		private final Map<CertificateID, X509Certificate> issuers = new LinkedHashMap<CertificateID, X509Certificate>();
+
+		private boolean done;
+		private Map<CertificateID, OCSPResponseEntry> responses;
+		private IOException failure;
+	}
+
+	private static class OCSPResponseEntry {
+
+		private final String ocspUrl;
+		private final CertificateID certificateId;
+		private final X509Certificate issuer;
+		private final Date producedAt;
+		private final SingleResp singleResp;
+		private final boolean successful;
+		private final long fetchedAt;
+		private final long expiresAt;
+
+		private volatile long lastAccessedAt;
+
+		private OCSPResponseEntry(String ocspUrl, CertificateID certificateId, X509Certificate issuer, BasicOCSPResp basicOCSPResp, SingleResp singleResp) {
+			this.ocspUrl = ocspUrl;
+			this.certificateId = certificateId;
+			this.issuer = issuer;
+			this.producedAt = basicOCSPResp != null ? basicOCSPResp.getProducedAt() : null;
+			this.singleResp = singleResp;
+			this.successful = basicOCSPResp != null;
+			this.fetchedAt = System.currentTimeMillis();
+			this.expiresAt = singleResp != null ? getExpiration(singleResp.getNextUpdate(), fetchedAt) : fetchedAt;
+			this.lastAccessedAt = fetchedAt;
+		}
+
+		public String getOcspUrl() {
+			return ocspUrl;
+		}
+
+		public CertificateID getCertificateId() {
+			return certificateId;
+		}
+
+		public X509Certificate getIssuer() {
+			return issuer;
+		}
+
+		public Date getProducedAt() {
+			return producedAt;
+		}
+
+		public SingleResp getSingleResp() {
+			return singleResp;
+		}
+
+		public boolean isSuccessful() {
+			return successful;
+		}
+
+		public boolean isCacheable() {
+			return expiresAt > fetchedAt;
+		}
+
+		public boolean isExpired() {
+			return expiresAt <= System.currentTimeMillis();
+		}
+
+		/**
+		 * @return true if validation date is within response <code>thisUpdate</code> (allowing clock skew) and <code>nextUpdate</code>
+		 */
+		public boolean isValidAt(Date validationDate) {
+			if (singleResp == null) {
+				return false;
+			}
+
+			long time = validationDate.getTime();
+			if (time + ALLOWED_CLOCK_SKEW_IN_MILLIS < singleResp.getThisUpdate().getTime()) {
+				return false;
+			}
+
+			Date nextUpdate = singleResp.getNextUpdate();
+			return (nextUpdate == null) || (time <= nextUpdate.getTime());
+		}
+
+		public long getLastAccessedAt() {
+			return lastAccessedAt;
+		}
+
+		public void setLastAccessedAt(long lastAccessedAt) {
+			this.lastAccessedAt = lastAccessedAt;
+		}
+
+		public void touch() {
+			this.lastAccessedAt = System.currentTimeMillis();
+		}
+
+		/**
+		 * Response is refreshed when last fifth of its lifetime starts (but not later than two prefetch intervals before expiration)
+		 * and only if it was used during its lifetime. Otherwise it just expires.
+		 */
+		public boolean isRefreshDue(long now) {
+			long lifetime = expiresAt - fetchedAt;
+			if (lifetime < 2 * PREFETCH_INTERVAL_IN_MILLIS || lastAccessedAt <= fetchedAt || now >= expiresAt) {
+				return false;
+			}
+
+			long refreshAhead = Math.max(lifetime / 5, 2 * PREFETCH_INTERVAL_IN_MILLIS);
+			return now >= expiresAt - refreshAhead;
+		}
+
+		private static long getExpiration(Date nextUpdate, long now) {
+			if (nextUpdate == null) {
+				// Responder has newer information all the time
+				return now + DEFAULT_RESPONSE_LIFETIME_IN_MILLIS;
+			}
+
+			return Math.min(nextUpdate.getTime(), now + MAX_RESPONSE_LIFETIME_IN_MILLIS);
+		}
 	}
 
 }
@@ -13,6 +13,7 @@ import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -113,6 +114,9 @@ public class Client extends DeletableEntity implements Serializable {
     @AttributeName(name = "jansJwks")
     private String jwks;
 
+    @JsonIgnore
+    private transient volatile ClientJwks parsedJwks;
+
     @AttributeName(name = "jansSectorIdentifierURI")
     private String sectorIdentifierUri;
 
@@ -723,6 +727,31 @@ public class Client extends DeletableEntity implements Serializable {
      */
     public void setJwks(String jwks) {
         this.jwks = jwks;
+        this.parsedJwks = null;
+    }
+
+    /**
+     * Returns parsed {@link #getJwks()} value. It is parsed on first call and kept until jwks value is changed.
+     *
+     * @return parsed JWKS or null if client does not have jwks defined by value
+     */
+    @JsonIgnore
+    public ClientJwks getParsedJwks() {
+        final String value = jwks;
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+
+        ClientJwks current = parsedJwks;
+        if (current == null || !current.isParsedFrom(value)) {
+            current = ClientJwks.parse(value);
+            parsedJwks = current;
+        }
+        return current;
+    }
+
+    public void clearParsedJwks() {
+        this.parsedJwks = null;
     }
 
     /**
@@ -0,0 +1,114 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.common.model.registration;
+
+import java.security.PublicKey;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jans.as.model.crypto.AbstractCryptoProvider;
+import io.jans.as.model.crypto.signature.AlgorithmFamily;
+import io.jans.as.model.crypto.signature.SignatureAlgorithm;
+import io.jans.as.model.jwk.Algorithm;
+import io.jans.as.model.jwk.JSONWebKeySet;
+
+/**
+ * Parsed form of client's <code>jwks</code> attribute. Instances are built lazily by {@link Client#getParsedJwks()}
+ * and kept on client object, so cached clients do not parse the same JWKS again on every request. Public keys are
+ * built from JWKS once per kid and algorithm and reused for signature verification.
+ * <p>
+ * Parsed JSON and key set must be treated as read-only.
+ */
+public class ClientJwks {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientJwks.class);
+
+    private static final String NULL_KID = "";
+
+    private final String source;
+    private final int sourceHash;
+    private final JSONObject json;
+    private final JSONWebKeySet keySet;
+    private final ConcurrentMap<String, PublicKey> publicKeys = new ConcurrentHashMap<String, PublicKey>();
+
+    private ClientJwks(String source) {
+        this.source = source;
+        this.sourceHash = source.hashCode();
+        this.json = new JSONObject(source);
+        this.keySet = JSONWebKeySet.fromJSONObject(json);
+    }
+
+    public static ClientJwks parse(String jwks) {
+        return new ClientJwks(jwks);
+    }
+
+    /**
+     * @return true if this object was parsed from given jwks value
+     */
+    public boolean isParsedFrom(String jwks) {
+        return jwks == source || (jwks != null && jwks.hashCode() == sourceHash && jwks.equals(source));
+    }
+
+    public JSONObject getJson() {
+        return json;
+    }
+
+    public JSONWebKeySet getKeySet() {
+        return keySet;
+    }
+
+    /**
+     * @return public key with given kid (or the only key if kid is null), built once per kid
+     */
+    public PublicKey getPublicKey(String kid, AbstractCryptoProvider cryptoProvider) throws Exception {
+        return getPublicKey(kid, null, cryptoProvider);
+    }
+
+    /**
+     * @return public key with given kid (or the only key if kid is null) and algorithm (any if null), built once per
+     * kid and algorithm
+     */
+    public PublicKey getPublicKey(String kid, Algorithm algorithm, AbstractCryptoProvider cryptoProvider) throws Exception {
+        final String key = (kid != null ? kid : NULL_KID) + " " + (algorithm != null ? algorithm.getParamName() : "");
+
+        PublicKey publicKey = publicKeys.get(key);
+        if (publicKey == null) {
+            publicKey = cryptoProvider.getPublicKey(kid, json, algorithm);
+            if (publicKey != null) {
+                publicKeys.putIfAbsent(key, publicKey);
+            }
+        }
+        return publicKey;
+    }
+
+    /**
+     * Verifies RSA and EC signatures with cached public key, other algorithms (HMAC, none) are verified by crypto
+     * provider as usual. Like crypto provider, returns false if RSA or EC signature can't be verified.
+     */
+    public boolean verifySignature(AbstractCryptoProvider cryptoProvider, String signingInput, String encodedSignature,
+                                   String kid, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        if (signatureAlgorithm == null || !(AlgorithmFamily.RSA.equals(signatureAlgorithm.getFamily())
+                || AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily()))) {
+            return cryptoProvider.verifySignature(signingInput, encodedSignature, kid, json, sharedSecret, signatureAlgorithm);
+        }
+
+        try {
+            final PublicKey publicKey = getPublicKey(kid, signatureAlgorithm.getAlg(), cryptoProvider);
+            if (publicKey == null) {
+                return false;
+            }
+            return cryptoProvider.verifySignature(signingInput, encodedSignature, publicKey, signatureAlgorithm);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return false;
+        }
+    }
+}
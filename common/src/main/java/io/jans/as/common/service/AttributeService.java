@@ -83,6 +83,26 @@ public abstract class AttributeService extends io.jans.service.AttributeService
 		}, 30);
     }
 
+    /**
+     * Puts all attributes into cache (by dn, by name and by claim name).
+     *
+     * @return number of cached attributes
+     */
+    public int warmUpCache() {
+        BaseCacheService usedCacheService = getCacheService();
+        final List<GluuAttribute> attributes = getAllAttributes();
+        for (GluuAttribute attribute : attributes) {
+            usedCacheService.put(60, attribute.getDn(), attribute);
+            if (StringHelper.isNotEmpty(attribute.getName())) {
+                usedCacheService.put(30, OxConstants.CACHE_ATTRIBUTE_DB_NAME + "_" + attribute.getName(), attribute);
+            }
+            if (StringHelper.isNotEmpty(attribute.getClaimName())) {
+                usedCacheService.put(30, OxConstants.CACHE_ATTRIBUTE_CLAIM_NAME + "_" + attribute.getClaimName(), attribute);
+            }
+        }
+        return attributes.size();
+    }
+
     public String generateInumForNewAttribute() {
         String newInum = null;
         String newDn = null;
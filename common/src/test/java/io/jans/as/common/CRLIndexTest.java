@@ -0,0 +1,81 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.common;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.testng.annotations.Test;
+
+import io.jans.as.common.cert.validation.CRLIndex;
+
+public class CRLIndexTest {
+
+    private static final X500Name ISSUER = new X500Name("CN=Test CA");
+
+    @Test
+    public void build_withRevokedCertificates_shouldFindRevocationDates() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        Date revoked1 = new Date(1500000000000L);
+        Date revoked2 = new Date(1600000000000L);
+
+        X509v2CRLBuilder builder = new X509v2CRLBuilder(ISSUER, new Date());
+        builder.addCRLEntry(BigInteger.valueOf(300), revoked2, CRLReason.keyCompromise);
+        builder.addCRLEntry(BigInteger.valueOf(5), revoked1, CRLReason.keyCompromise);
+        builder.addCRLEntry(new BigInteger("123456789012345678901234567890"), revoked1, CRLReason.superseded);
+        X509CRLHolder crlHolder = builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate()));
+
+        CRLIndex crlIndex = CRLIndex.build(crlHolder, keyPair.getPublic());
+
+        assertEquals(crlIndex.size(), 3);
+        assertEquals(crlIndex.getIssuer(), ISSUER);
+        assertEquals(crlIndex.getRevocationDate(BigInteger.valueOf(5)).getTime(), revoked1.getTime());
+        assertEquals(crlIndex.getRevocationDate(BigInteger.valueOf(300)).getTime(), revoked2.getTime());
+        assertTrue(crlIndex.isRevoked(new BigInteger("123456789012345678901234567890")));
+        assertFalse(crlIndex.isRevoked(BigInteger.valueOf(6)));
+        assertNull(crlIndex.getRevocationDate(BigInteger.ONE));
+    }
+
+    @Test
+    public void build_emptyCrl_shouldNotFindAnything() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        X509CRLHolder crlHolder = new X509v2CRLBuilder(ISSUER, new Date())
+                .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate()));
+
+        CRLIndex crlIndex = CRLIndex.build(crlHolder, keyPair.getPublic());
+
+        assertEquals(crlIndex.size(), 0);
+        assertFalse(crlIndex.isRevoked(BigInteger.TEN));
+    }
+
+    @Test(expectedExceptions = CertException.class)
+    public void build_signedWithOtherKey_shouldFail() throws Exception {
+        X509CRLHolder crlHolder = new X509v2CRLBuilder(ISSUER, new Date())
+                .build(new JcaContentSignerBuilder("SHA256withRSA").build(generateKeyPair().getPrivate()));
+
+        CRLIndex.build(crlHolder, generateKeyPair().getPublic());
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.common;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
+import io.jans.as.model.crypto.AuthCryptoProvider;
+import io.jans.as.model.crypto.signature.SignatureAlgorithm;
+import io.jans.as.model.util.Base64Util;
+import io.jans.as.model.util.SecurityProviderUtility;
+
+public class ClientJwksTest {
+
+    private static final String JWKS_1 = "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"key1\",\"use\":\"sig\",\"alg\":\"RS256\",\"n\":\"AQAB\",\"e\":\"AQAB\"}]}";
+    private static final String JWKS_2 = "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"key2\",\"use\":\"sig\",\"alg\":\"RS256\",\"n\":\"AQAB\",\"e\":\"AQAB\"}]}";
+    private static final String SIGNING_INPUT = "header.payload";
+
+    @Test
+    public void getParsedJwks_calledTwice_shouldParseOnce() {
+        Client client = new Client();
+        client.setJwks(JWKS_1);
+
+        ClientJwks parsed = client.getParsedJwks();
+        assertEquals(parsed.getKeySet().getKeys().get(0).getKid(), "key1");
+        assertSame(client.getParsedJwks(), parsed);
+    }
+
+    @Test
+    public void getParsedJwks_afterJwksChange_shouldParseNewValue() {
+        Client client = new Client();
+        client.setJwks(JWKS_1);
+        ClientJwks parsed = client.getParsedJwks();
+
+        client.setJwks(JWKS_2);
+        ClientJwks reparsed = client.getParsedJwks();
+
+        assertNotSame(reparsed, parsed);
+        assertEquals(reparsed.getKeySet().getKeys().get(0).getKid(), "key2");
+    }
+
+    @Test
+    public void getParsedJwks_withEqualButNotSameString_shouldReuseParsedValue() {
+        Client client = new Client();
+        client.setJwks(JWKS_1);
+        ClientJwks parsed = client.getParsedJwks();
+
+        client.setJwks(new String(JWKS_1));
+
+        assertTrue(parsed.isParsedFrom(client.getJwks()));
+        assertSame(client.getParsedJwks(), parsed);
+    }
+
+    @Test
+    public void getParsedJwks_withoutJwks_shouldReturnNull() {
+        assertNull(new Client().getParsedJwks());
+    }
+
+    @Test
+    public void verifySignature_withRsaKey_shouldReuseParsedPublicKey() throws Exception {
+        KeyPair keyPair = generateRsaKeyPair();
+        ClientJwks clientJwks = clientJwks(keyPair);
+        String signature = sign(keyPair, SIGNING_INPUT);
+
+        AuthCryptoProvider cryptoProvider = new AuthCryptoProvider();
+
+        assertTrue(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, signature, "key1", null, SignatureAlgorithm.RS256));
+        assertFalse(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT + "x", signature, "key1", null, SignatureAlgorithm.RS256));
+        assertFalse(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, signature, "unknown", null, SignatureAlgorithm.RS256));
+
+        assertSame(clientJwks.getPublicKey("key1", SignatureAlgorithm.RS256.getAlg(), cryptoProvider),
+                clientJwks.getPublicKey("key1", SignatureAlgorithm.RS256.getAlg(), cryptoProvider));
+    }
+
+    @Test
+    public void verifySignature_withRsaKey_shouldVerifyThroughGivenProvider() throws Exception {
+        KeyPair keyPair = generateRsaKeyPair();
+        ClientJwks clientJwks = clientJwks(keyPair);
+        String signature = sign(keyPair, SIGNING_INPUT);
+
+        final AtomicInteger calls = new AtomicInteger();
+        AuthCryptoProvider cryptoProvider = new AuthCryptoProvider() {
+            @Override
+            public boolean verifySignature(String signingInput, String encodedSignature, PublicKey publicKey, SignatureAlgorithm signatureAlgorithm) throws Exception {
+                calls.incrementAndGet();
+                return super.verifySignature(signingInput, encodedSignature, publicKey, signatureAlgorithm);
+            }
+        };
+
+        assertTrue(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, signature, "key1", null, SignatureAlgorithm.RS256));
+        assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void verifySignature_withMalformedSignature_shouldReturnFalse() throws Exception {
+        ClientJwks clientJwks = clientJwks(generateRsaKeyPair());
+
+        assertFalse(clientJwks.verifySignature(new AuthCryptoProvider(), SIGNING_INPUT, "AAAA", "key1", null, SignatureAlgorithm.RS256));
+    }
+
+    @Test
+    public void verifySignature_whenProviderFails_shouldReturnFalse() throws Exception {
+        KeyPair keyPair = generateRsaKeyPair();
+        ClientJwks clientJwks = clientJwks(keyPair);
+
+        AuthCryptoProvider cryptoProvider = new AuthCryptoProvider() {
+            @Override
+            public boolean verifySignature(String signingInput, String encodedSignature, PublicKey publicKey, SignatureAlgorithm signatureAlgorithm) throws Exception {
+                throw new SignatureException("Failed to verify signature");
+            }
+        };
+
+        assertFalse(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, sign(keyPair, SIGNING_INPUT), "key1", null, SignatureAlgorithm.RS256));
+    }
+
+    @Test
+    public void verifySignature_withHmac_shouldVerifyWithSharedSecret() throws Exception {
+        ClientJwks clientJwks = ClientJwks.parse(JWKS_1);
+        AuthCryptoProvider cryptoProvider = new AuthCryptoProvider();
+        String sharedSecret = "shared_secret_shared_secret_shared_secret";
+        String signature = cryptoProvider.sign(SIGNING_INPUT, null, sharedSecret, SignatureAlgorithm.HS256);
+
+        assertTrue(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, signature, null, sharedSecret, SignatureAlgorithm.HS256));
+        assertFalse(clientJwks.verifySignature(cryptoProvider, SIGNING_INPUT, signature, null, sharedSecret + "x", SignatureAlgorithm.HS256));
+    }
+
+    private static ClientJwks clientJwks(KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+
+        Client client = new Client();
+        client.setJwks("{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"key1\",\"use\":\"sig\",\"alg\":\"RS256\",\"n\":\""
+                + Base64Util.base64urlencodeUnsignedBigInt(publicKey.getModulus()) + "\",\"e\":\""
+                + Base64Util.base64urlencodeUnsignedBigInt(publicKey.getPublicExponent()) + "\"}]}");
+        return client.getParsedJwks();
+    }
+
+    private static KeyPair generateRsaKeyPair() throws Exception {
+        SecurityProviderUtility.installBCProvider();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String sign(KeyPair keyPair, String signingInput) throws Exception {
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(signingInput.getBytes(StandardCharsets.UTF_8));
+        return Base64Util.base64urlencode(signer.sign());
+    }
+}
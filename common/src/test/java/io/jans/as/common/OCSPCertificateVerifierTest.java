@@ -0,0 +1,253 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.common;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.jans.as.common.cert.validation.OCSPCertificateVerifier;
+import io.jans.as.common.cert.validation.model.ValidationStatus.CertificateValidity;
+
+public class OCSPCertificateVerifierTest {
+
+    private static final String OCSP_URL = "http://ocsp.test.local";
+    private static final X500Name CA_NAME = new X500Name("CN=Test CA");
+
+    private KeyPair caKeyPair;
+    private X509Certificate caCertificate;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        caKeyPair = generateKeyPair();
+        caCertificate = toCertificate(new JcaX509v3CertificateBuilder(CA_NAME, BigInteger.ONE, new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)),
+                new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)), CA_NAME, caKeyPair.getPublic()), caKeyPair);
+    }
+
+    @Test
+    public void validate_responseSignedByIssuer_shouldBeCached() throws Exception {
+        TestVerifier verifier = new TestVerifier(caKeyPair, null);
+        X509Certificate certificate = issueCertificate(10);
+
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.VALID);
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.VALID);
+        assertEquals(verifier.requests.get(), 1);
+
+        verifier.destroy();
+    }
+
+    @Test
+    public void validate_responseSignedByOtherKey_shouldBeInvalidAndNotCached() throws Exception {
+        TestVerifier verifier = new TestVerifier(generateKeyPair(), null);
+        X509Certificate certificate = issueCertificate(11);
+
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.INVALID);
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.INVALID);
+        assertEquals(verifier.requests.get(), 2);
+
+        verifier.destroy();
+    }
+
+    @Test
+    public void validate_responseSignedByDelegatedResponder_shouldBeValid() throws Exception {
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCertificate = issueResponderCertificate(responderKeyPair, true);
+        TestVerifier verifier = new TestVerifier(responderKeyPair, responderCertificate);
+
+        assertEquals(verifier.validate(issueCertificate(12), issuers(), new Date()).getValidity(), CertificateValidity.VALID);
+
+        verifier.destroy();
+    }
+
+    @Test
+    public void validate_responderWithoutOcspSigningUsage_shouldBeInvalid() throws Exception {
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCertificate = issueResponderCertificate(responderKeyPair, false);
+        TestVerifier verifier = new TestVerifier(responderKeyPair, responderCertificate);
+
+        assertEquals(verifier.validate(issueCertificate(13), issuers(), new Date()).getValidity(), CertificateValidity.INVALID);
+
+        verifier.destroy();
+    }
+
+    @Test
+    public void validate_cachedResponseNotCoveringValidationDate_shouldBeReloaded() throws Exception {
+        TestVerifier verifier = new TestVerifier(caKeyPair, null);
+        X509Certificate certificate = issueCertificate(14);
+
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.VALID);
+        assertEquals(verifier.requests.get(), 1);
+
+        Date beforeThisUpdate = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+        verifier.validate(certificate, issuers(), beforeThisUpdate);
+        assertEquals(verifier.requests.get(), 2);
+
+        assertEquals(verifier.validate(certificate, issuers(), new Date()).getValidity(), CertificateValidity.VALID);
+        assertEquals(verifier.requests.get(), 2);
+
+        verifier.destroy();
+    }
+
+    @Test
+    public void validate_concurrentValidationsOfOneResponder_shouldBeSentInOneRequest() throws Exception {
+        final CountDownLatch firstRequestSent = new CountDownLatch(1);
+        final CountDownLatch releaseFirstRequest = new CountDownLatch(1);
+        final TestVerifier verifier = new TestVerifier(caKeyPair, null) {
+            @Override
+            public OCSPResp requestOCSPResponse(String url, OCSPReq ocspReq) throws IOException {
+                if (requests.get() == 0) {
+                    firstRequestSent.countDown();
+                    try {
+                        releaseFirstRequest.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.requestOCSPResponse(url, ocspReq);
+            }
+        };
+
+        List<Thread> threads = new ArrayList<Thread>();
+        final List<CertificateValidity> validities = Collections.synchronizedList(new ArrayList<CertificateValidity>());
+        for (int i = 0; i < 3; i++) {
+            final X509Certificate certificate = issueCertificate(20 + i);
+            Thread thread = new Thread(() -> validities.add(verifier.validate(certificate, issuers(), new Date()).getValidity()));
+            threads.add(thread);
+            thread.start();
+
+            if (i == 0) {
+                assertTrue(firstRequestSent.await(10, TimeUnit.SECONDS));
+            }
+        }
+
+        // Wait until other validations are added to next request and wait for responder
+        for (Thread thread : threads.subList(1, threads.size())) {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while ((thread.getState() != Thread.State.BLOCKED) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+        }
+        releaseFirstRequest.countDown();
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertEquals(validities, Collections.nCopies(3, CertificateValidity.VALID));
+        assertEquals(verifier.requests.get(), 2);
+        assertEquals(verifier.lastRequestSize, 2);
+
+        verifier.destroy();
+    }
+
+    private List<X509Certificate> issuers() {
+        return Collections.singletonList(caCertificate);
+    }
+
+    private X509Certificate issueCertificate(long serialNumber) throws Exception {
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(CA_NAME, BigInteger.valueOf(serialNumber),
+                new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)), new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)),
+                new X500Name("CN=Test " + serialNumber), generateKeyPair().getPublic());
+        builder.addExtension(Extension.authorityInfoAccess, false, new AuthorityInformationAccess(
+                new AccessDescription(AccessDescription.id_ad_ocsp, new GeneralName(GeneralName.uniformResourceIdentifier, OCSP_URL))));
+
+        return toCertificate(builder, caKeyPair);
+    }
+
+    private X509CertificateHolder issueResponderCertificate(KeyPair responderKeyPair, boolean ocspSigning) throws Exception {
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(CA_NAME, BigInteger.valueOf(2),
+                new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)), new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)),
+                new X500Name("CN=Test OCSP Responder"), responderKeyPair.getPublic());
+        builder.addExtension(Extension.extendedKeyUsage, false,
+                new ExtendedKeyUsage(ocspSigning ? KeyPurposeId.id_kp_OCSPSigning : KeyPurposeId.id_kp_serverAuth));
+
+        return builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(caKeyPair.getPrivate()));
+    }
+
+    private static X509Certificate toCertificate(X509v3CertificateBuilder builder, KeyPair signerKeyPair) throws Exception {
+        return new JcaX509CertificateConverter().getCertificate(builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signerKeyPair.getPrivate())));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    /**
+     * Answers with GOOD status for every requested certificate, response is valid for one hour
+     */
+    private static class TestVerifier extends OCSPCertificateVerifier {
+
+        protected final AtomicInteger requests = new AtomicInteger();
+        protected volatile int lastRequestSize;
+
+        private final KeyPair signerKeyPair;
+        private final X509CertificateHolder signerCertificate;
+
+        private TestVerifier(KeyPair signerKeyPair, X509CertificateHolder signerCertificate) {
+            this.signerKeyPair = signerKeyPair;
+            this.signerCertificate = signerCertificate;
+        }
+
+        @Override
+        public OCSPResp requestOCSPResponse(String url, OCSPReq ocspReq) throws IOException {
+            try {
+                Date now = new Date();
+                BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(new RespID(CA_NAME));
+                for (Req req : ocspReq.getRequestList()) {
+                    builder.addResponse(req.getCertID(), CertificateStatus.GOOD, new Date(now.getTime() - TimeUnit.MINUTES.toMillis(1)),
+                            new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)), null);
+                }
+                X509CertificateHolder[] chain = signerCertificate != null ? new X509CertificateHolder[] { signerCertificate } : null;
+                BasicOCSPResp basicOCSPResp = builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signerKeyPair.getPrivate()), chain, now);
+
+                lastRequestSize = ocspReq.getRequestList().length;
+                requests.incrementAndGet();
+
+                return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicOCSPResp);
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+}
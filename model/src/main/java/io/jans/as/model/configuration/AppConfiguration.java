@@ -67,6 +67,9 @@ public class AppConfiguration implements Configuration {
 
     private int statTimerIntervalInSeconds;
     private int statWebServiceIntervalLimitInSeconds;
+    private String statTimeBucketGranularity; // hour, day; not set - time buckets are disabled
+    private int statTimeBucketHllLog2m = 11; // HLL precision of time bucket
+    private int statTimeBucketRetentionInMonths = 3; // number of months (including current one) time buckets are kept
 
     private int spontaneousScopeLifetime;
     private String openidSubAttribute;
@@ -98,6 +101,10 @@ public class AppConfiguration implements Configuration {
     private Boolean requestParameterSupported;
     private Boolean requestUriParameterSupported;
     private Boolean requestUriHashVerificationEnabled;
+    private int requestUriCacheLifetimeInSeconds = 60;
+    private int requestUriNegativeCacheLifetimeInSeconds = 5;
+    private int requestUriCacheMaxSizeInBytes = 10485760; // 10 MB
+    private int requestUriFetchTimeoutInMillis = 3000;
     private Boolean requireRequestUriRegistration;
     private String opPolicyUri;
     private String opTosUri;
@@ -139,6 +146,7 @@ public class AppConfiguration implements Configuration {
 
     private Boolean authenticationFiltersEnabled;
     private Boolean clientAuthenticationFiltersEnabled;
+    private int authenticationFiltersEntryDnCacheLifetimeInSeconds = 5;
     private Boolean clientRegDefaultToCodeFlowWithRefresh;
     private List<AuthenticationFilter> authenticationFilters;
     private List<ClientAuthenticationFilter> clientAuthenticationFilters;
@@ -151,6 +159,8 @@ public class AppConfiguration implements Configuration {
     private Boolean sessionIdRequestParameterEnabled = false; // #1195
     private Boolean changeSessionIdOnAuthentication = true;
     private Boolean sessionIdPersistInCache = false;
+    private Boolean u2fRequestPersistInCache = false;
+    private int u2fDeviceRegistrationCacheLifetimeInSeconds = 0; // 0 - cache is disabled
     /**
      * SessionId will be expired after sessionIdLifetime seconds
      */
@@ -204,6 +214,8 @@ public class AppConfiguration implements Configuration {
     private String loggingLayout;
     private Boolean updateUserLastLogonTime;
     private Boolean updateClientAccessTime;
+    private int accessTimeUpdateWindowInSeconds = 10; // 0 - update synchronously on request thread
+    private int accessTimeUpdateQueueSizeLimit = 100000;
     private Boolean logClientIdOnClientAuthentication;
     private Boolean logClientNameOnClientAuthentication;
     private Boolean disableJdkLogger = true;
@@ -221,10 +233,32 @@ public class AppConfiguration implements Configuration {
     private Boolean dcrSkipSignatureValidation = false;
 
     private Boolean useLocalCache = false;
+
+    private int outboundHttpMaxConnections = 200;
+    private int outboundHttpMaxConnectionsPerRoute = 20;
+    private int outboundHttpConnectTimeoutInMillis = 5000;
+    private int outboundHttpReadTimeoutInMillis = 10000;
+    private int outboundHttpMaxResponseSizeInBytes = 1048576; // 1 MB
+
     private Boolean fapiCompatibility = false;
+    private int mtlsCertificateCacheSize = 10000;
+    private int mtlsAuthorizedKeysCacheLifetimeInSeconds = 300;
     private Boolean forceIdTokenHintPrecense = false;
     private Boolean forceOfflineAccessScopeToEnableRefreshToken = true;
     private Boolean errorReasonEnabled  = false;
+    private Boolean metricsEndpointEnabled = false;
+    private Boolean serverTimingHeaderEnabled = false;
+    private int phaseTimingLogSamplingPercentage = 0; // 0 - don't log phase timings
+    private int customScriptTimeBudgetInMillis = 0; // 0 - no time budget
+    private int customScriptCircuitBreakerFailureThreshold = 0; // 0 - circuit breaker is disabled
+    private int customScriptCircuitBreakerOpenIntervalInSeconds = 30;
+    private int introspectionScriptCacheLifetimeInSeconds = 0; // 0 - results of introspection scripts are not cached
+    private List<String> startupWarmUpCategories; // clients, scopes, attributes, discovery; empty - warm-up is disabled
+    private int startupWarmUpConcurrency = 4;
+    private int startupWarmUpClientsLimit = 1000;
+    private int startupWarmUpTimeoutInSeconds = 60;
+    private Boolean startupParallelInitEnabled = false; // independent subsystems are initialized concurrently, timers which don't serve requests are started after initialization in background: failure of such timer is only logged, while in sequential mode it aborts startup
+    private int startupParallelInitThreads = 4;
     private Boolean removeRefreshTokensForClientOnLogout  = true;
     private Boolean skipRefreshTokenDuringRefreshing  = false;
     private Boolean refreshTokenExtendLifetimeOnRotation  = false;
@@ -461,6 +495,114 @@ public class AppConfiguration implements Configuration {
         this.consentGatheringScriptBackwardCompatibility = consentGatheringScriptBackwardCompatibility;
     }
 
+    public Boolean getMetricsEndpointEnabled() {
+        if (metricsEndpointEnabled == null) metricsEndpointEnabled = false;
+        return metricsEndpointEnabled;
+    }
+
+    public void setMetricsEndpointEnabled(Boolean metricsEndpointEnabled) {
+        this.metricsEndpointEnabled = metricsEndpointEnabled;
+    }
+
+    public Boolean getServerTimingHeaderEnabled() {
+        if (serverTimingHeaderEnabled == null) serverTimingHeaderEnabled = false;
+        return serverTimingHeaderEnabled;
+    }
+
+    public void setServerTimingHeaderEnabled(Boolean serverTimingHeaderEnabled) {
+        this.serverTimingHeaderEnabled = serverTimingHeaderEnabled;
+    }
+
+    public int getPhaseTimingLogSamplingPercentage() {
+        return phaseTimingLogSamplingPercentage;
+    }
+
+    public void setPhaseTimingLogSamplingPercentage(int phaseTimingLogSamplingPercentage) {
+        this.phaseTimingLogSamplingPercentage = phaseTimingLogSamplingPercentage;
+    }
+
+    public int getCustomScriptTimeBudgetInMillis() {
+        return customScriptTimeBudgetInMillis;
+    }
+
+    public void setCustomScriptTimeBudgetInMillis(int customScriptTimeBudgetInMillis) {
+        this.customScriptTimeBudgetInMillis = customScriptTimeBudgetInMillis;
+    }
+
+    public int getCustomScriptCircuitBreakerFailureThreshold() {
+        return customScriptCircuitBreakerFailureThreshold;
+    }
+
+    public void setCustomScriptCircuitBreakerFailureThreshold(int customScriptCircuitBreakerFailureThreshold) {
+        this.customScriptCircuitBreakerFailureThreshold = customScriptCircuitBreakerFailureThreshold;
+    }
+
+    public int getCustomScriptCircuitBreakerOpenIntervalInSeconds() {
+        return customScriptCircuitBreakerOpenIntervalInSeconds;
+    }
+
+    public void setCustomScriptCircuitBreakerOpenIntervalInSeconds(int customScriptCircuitBreakerOpenIntervalInSeconds) {
+        this.customScriptCircuitBreakerOpenIntervalInSeconds = customScriptCircuitBreakerOpenIntervalInSeconds;
+    }
+
+    public int getIntrospectionScriptCacheLifetimeInSeconds() {
+        return introspectionScriptCacheLifetimeInSeconds;
+    }
+
+    public void setIntrospectionScriptCacheLifetimeInSeconds(int introspectionScriptCacheLifetimeInSeconds) {
+        this.introspectionScriptCacheLifetimeInSeconds = introspectionScriptCacheLifetimeInSeconds;
+    }
+
+    public List<String> getStartupWarmUpCategories() {
+        if (startupWarmUpCategories == null) startupWarmUpCategories = new ArrayList<>();
+        return startupWarmUpCategories;
+    }
+
+    public void setStartupWarmUpCategories(List<String> startupWarmUpCategories) {
+        this.startupWarmUpCategories = startupWarmUpCategories;
+    }
+
+    public int getStartupWarmUpConcurrency() {
+        return startupWarmUpConcurrency;
+    }
+
+    public void setStartupWarmUpConcurrency(int startupWarmUpConcurrency) {
+        this.startupWarmUpConcurrency = startupWarmUpConcurrency;
+    }
+
+    public int getStartupWarmUpClientsLimit() {
+        return startupWarmUpClientsLimit;
+    }
+
+    public void setStartupWarmUpClientsLimit(int startupWarmUpClientsLimit) {
+        this.startupWarmUpClientsLimit = startupWarmUpClientsLimit;
+    }
+
+    public int getStartupWarmUpTimeoutInSeconds() {
+        return startupWarmUpTimeoutInSeconds;
+    }
+
+    public void setStartupWarmUpTimeoutInSeconds(int startupWarmUpTimeoutInSeconds) {
+        this.startupWarmUpTimeoutInSeconds = startupWarmUpTimeoutInSeconds;
+    }
+
+    public Boolean getStartupParallelInitEnabled() {
+        if (startupParallelInitEnabled == null) startupParallelInitEnabled = false;
+        return startupParallelInitEnabled;
+    }
+
+    public void setStartupParallelInitEnabled(Boolean startupParallelInitEnabled) {
+        this.startupParallelInitEnabled = startupParallelInitEnabled;
+    }
+
+    public int getStartupParallelInitThreads() {
+        return startupParallelInitThreads;
+    }
+
+    public void setStartupParallelInitThreads(int startupParallelInitThreads) {
+        this.startupParallelInitThreads = startupParallelInitThreads;
+    }
+
     public Boolean getErrorReasonEnabled() {
         if (errorReasonEnabled == null) errorReasonEnabled = false;
         return errorReasonEnabled;
@@ -488,6 +630,23 @@ public class AppConfiguration implements Configuration {
         this.sessionIdPersistInCache = sessionIdPersistInCache;
     }
 
+    public Boolean getU2fRequestPersistInCache() {
+        if (u2fRequestPersistInCache == null) u2fRequestPersistInCache = false;
+        return u2fRequestPersistInCache;
+    }
+
+    public void setU2fRequestPersistInCache(Boolean u2fRequestPersistInCache) {
+        this.u2fRequestPersistInCache = u2fRequestPersistInCache;
+    }
+
+    public int getU2fDeviceRegistrationCacheLifetimeInSeconds() {
+        return u2fDeviceRegistrationCacheLifetimeInSeconds;
+    }
+
+    public void setU2fDeviceRegistrationCacheLifetimeInSeconds(int u2fDeviceRegistrationCacheLifetimeInSeconds) {
+        this.u2fDeviceRegistrationCacheLifetimeInSeconds = u2fDeviceRegistrationCacheLifetimeInSeconds;
+    }
+
     public Boolean getChangeSessionIdOnAuthentication() {
         if (changeSessionIdOnAuthentication == null) changeSessionIdOnAuthentication = true;
         return changeSessionIdOnAuthentication;
@@ -515,6 +674,22 @@ public class AppConfiguration implements Configuration {
         this.fapiCompatibility = fapiCompatibility;
     }
 
+    public int getMtlsCertificateCacheSize() {
+        return mtlsCertificateCacheSize;
+    }
+
+    public void setMtlsCertificateCacheSize(int mtlsCertificateCacheSize) {
+        this.mtlsCertificateCacheSize = mtlsCertificateCacheSize;
+    }
+
+    public int getMtlsAuthorizedKeysCacheLifetimeInSeconds() {
+        return mtlsAuthorizedKeysCacheLifetimeInSeconds;
+    }
+
+    public void setMtlsAuthorizedKeysCacheLifetimeInSeconds(int mtlsAuthorizedKeysCacheLifetimeInSeconds) {
+        this.mtlsAuthorizedKeysCacheLifetimeInSeconds = mtlsAuthorizedKeysCacheLifetimeInSeconds;
+    }
+
     public Boolean getDcrSkipSignatureValidation() {
         if (dcrSkipSignatureValidation == null) dcrSkipSignatureValidation = false;
         return dcrSkipSignatureValidation;
@@ -1001,6 +1176,30 @@ public class AppConfiguration implements Configuration {
         this.statWebServiceIntervalLimitInSeconds = statWebServiceIntervalLimitInSeconds;
     }
 
+    public String getStatTimeBucketGranularity() {
+        return statTimeBucketGranularity;
+    }
+
+    public void setStatTimeBucketGranularity(String statTimeBucketGranularity) {
+        this.statTimeBucketGranularity = statTimeBucketGranularity;
+    }
+
+    public int getStatTimeBucketHllLog2m() {
+        return statTimeBucketHllLog2m;
+    }
+
+    public void setStatTimeBucketHllLog2m(int statTimeBucketHllLog2m) {
+        this.statTimeBucketHllLog2m = statTimeBucketHllLog2m;
+    }
+
+    public int getStatTimeBucketRetentionInMonths() {
+        return statTimeBucketRetentionInMonths;
+    }
+
+    public void setStatTimeBucketRetentionInMonths(int statTimeBucketRetentionInMonths) {
+        this.statTimeBucketRetentionInMonths = statTimeBucketRetentionInMonths;
+    }
+
     public int getStatTimerIntervalInSeconds() {
         return statTimerIntervalInSeconds;
     }
@@ -1443,6 +1642,14 @@ public class AppConfiguration implements Configuration {
         clientAuthenticationFiltersEnabled = p_clientAuthenticationFiltersEnabled;
     }
 
+    public int getAuthenticationFiltersEntryDnCacheLifetimeInSeconds() {
+        return authenticationFiltersEntryDnCacheLifetimeInSeconds;
+    }
+
+    public void setAuthenticationFiltersEntryDnCacheLifetimeInSeconds(int authenticationFiltersEntryDnCacheLifetimeInSeconds) {
+        this.authenticationFiltersEntryDnCacheLifetimeInSeconds = authenticationFiltersEntryDnCacheLifetimeInSeconds;
+    }
+
     public List<AuthenticationFilter> getAuthenticationFilters() {
         if (authenticationFilters == null) {
             authenticationFilters = new ArrayList<AuthenticationFilter>();
@@ -1763,6 +1970,22 @@ public class AppConfiguration implements Configuration {
         this.updateClientAccessTime = updateClientAccessTime;
     }
 
+    public int getAccessTimeUpdateWindowInSeconds() {
+        return accessTimeUpdateWindowInSeconds;
+    }
+
+    public void setAccessTimeUpdateWindowInSeconds(int accessTimeUpdateWindowInSeconds) {
+        this.accessTimeUpdateWindowInSeconds = accessTimeUpdateWindowInSeconds;
+    }
+
+    public int getAccessTimeUpdateQueueSizeLimit() {
+        return accessTimeUpdateQueueSizeLimit;
+    }
+
+    public void setAccessTimeUpdateQueueSizeLimit(int accessTimeUpdateQueueSizeLimit) {
+        this.accessTimeUpdateQueueSizeLimit = accessTimeUpdateQueueSizeLimit;
+    }
+
     public Boolean getHttpLoggingEnabled() {
         return httpLoggingEnabled;
     }
@@ -1902,6 +2125,46 @@ public class AppConfiguration implements Configuration {
         this.useLocalCache = useLocalCache;
     }
 
+    public int getOutboundHttpMaxConnections() {
+        return outboundHttpMaxConnections;
+    }
+
+    public void setOutboundHttpMaxConnections(int outboundHttpMaxConnections) {
+        this.outboundHttpMaxConnections = outboundHttpMaxConnections;
+    }
+
+    public int getOutboundHttpMaxConnectionsPerRoute() {
+        return outboundHttpMaxConnectionsPerRoute;
+    }
+
+    public void setOutboundHttpMaxConnectionsPerRoute(int outboundHttpMaxConnectionsPerRoute) {
+        this.outboundHttpMaxConnectionsPerRoute = outboundHttpMaxConnectionsPerRoute;
+    }
+
+    public int getOutboundHttpConnectTimeoutInMillis() {
+        return outboundHttpConnectTimeoutInMillis;
+    }
+
+    public void setOutboundHttpConnectTimeoutInMillis(int outboundHttpConnectTimeoutInMillis) {
+        this.outboundHttpConnectTimeoutInMillis = outboundHttpConnectTimeoutInMillis;
+    }
+
+    public int getOutboundHttpReadTimeoutInMillis() {
+        return outboundHttpReadTimeoutInMillis;
+    }
+
+    public void setOutboundHttpReadTimeoutInMillis(int outboundHttpReadTimeoutInMillis) {
+        this.outboundHttpReadTimeoutInMillis = outboundHttpReadTimeoutInMillis;
+    }
+
+    public int getOutboundHttpMaxResponseSizeInBytes() {
+        return outboundHttpMaxResponseSizeInBytes;
+    }
+
+    public void setOutboundHttpMaxResponseSizeInBytes(int outboundHttpMaxResponseSizeInBytes) {
+        this.outboundHttpMaxResponseSizeInBytes = outboundHttpMaxResponseSizeInBytes;
+    }
+
     public Boolean getKeepAuthenticatorAttributesOnAcrChange() {
 		return keepAuthenticatorAttributesOnAcrChange;
 	}
@@ -2132,6 +2395,38 @@ public class AppConfiguration implements Configuration {
         this.requestUriHashVerificationEnabled = requestUriHashVerificationEnabled;
     }
 
+    public int getRequestUriCacheLifetimeInSeconds() {
+        return requestUriCacheLifetimeInSeconds;
+    }
+
+    public void setRequestUriCacheLifetimeInSeconds(int requestUriCacheLifetimeInSeconds) {
+        this.requestUriCacheLifetimeInSeconds = requestUriCacheLifetimeInSeconds;
+    }
+
+    public int getRequestUriNegativeCacheLifetimeInSeconds() {
+        return requestUriNegativeCacheLifetimeInSeconds;
+    }
+
+    public void setRequestUriNegativeCacheLifetimeInSeconds(int requestUriNegativeCacheLifetimeInSeconds) {
+        this.requestUriNegativeCacheLifetimeInSeconds = requestUriNegativeCacheLifetimeInSeconds;
+    }
+
+    public int getRequestUriCacheMaxSizeInBytes() {
+        return requestUriCacheMaxSizeInBytes;
+    }
+
+    public void setRequestUriCacheMaxSizeInBytes(int requestUriCacheMaxSizeInBytes) {
+        this.requestUriCacheMaxSizeInBytes = requestUriCacheMaxSizeInBytes;
+    }
+
+    public int getRequestUriFetchTimeoutInMillis() {
+        return requestUriFetchTimeoutInMillis;
+    }
+
+    public void setRequestUriFetchTimeoutInMillis(int requestUriFetchTimeoutInMillis) {
+        this.requestUriFetchTimeoutInMillis = requestUriFetchTimeoutInMillis;
+    }
+
     public Boolean getIdTokenFilterClaimsBasedOnAccessToken() {
         return idTokenFilterClaimsBasedOnAccessToken != null ? idTokenFilterClaimsBasedOnAccessToken : false;
     }
@@ -7,6 +7,7 @@
 package io.jans.as.model.crypto;
 
 import com.google.common.collect.Lists;
+import com.nimbusds.jose.crypto.impl.ECDSA;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.crypto.signature.AlgorithmFamily;
 import io.jans.as.model.crypto.signature.ECEllipticCurve;
@@ -29,6 +30,8 @@ import java.security.AlgorithmParameters;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
 import java.security.spec.ECGenParameterSpec;
 import java.security.spec.ECParameterSpec;
 import java.security.spec.ECPoint;
@@ -61,6 +64,28 @@ public abstract class AbstractCryptoProvider {
 
     public abstract boolean verifySignature(String signingInput, String encodedSignature, String keyId, JSONObject jwks, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception;
 
+    /**
+     * Verifies RSA or EC signature with given public key (e.g. key which was parsed from client jwks before).
+     */
+    public boolean verifySignature(String signingInput, String encodedSignature, PublicKey publicKey, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        byte[] signature = Base64Util.base64urldecode(encodedSignature);
+        byte[] signatureDer = signature;
+        if (AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily())) {
+            signatureDer = ECDSA.transcodeSignatureToDER(signatureDer);
+        }
+
+        Signature verifier = Signature.getInstance(signatureAlgorithm.getAlgorithm(), "BC");
+        verifier.initVerify(publicKey);
+        verifier.update(signingInput.getBytes());
+        try {
+            return verifier.verify(signatureDer);
+        } catch (SignatureException e) {
+            // Fall back to old format
+            // TODO: remove in Gluu 5.0
+            return verifier.verify(signature);
+        }
+    }
+
     public abstract boolean deleteKey(String keyId) throws Exception;
 
     public abstract boolean containsKey(String keyId);
@@ -56,7 +56,6 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.Signature;
-import java.security.SignatureException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
@@ -309,22 +308,7 @@ public class AuthCryptoProvider extends AbstractCryptoProvider {
                     return false;
                 }
 
-                byte[] signature = Base64Util.base64urldecode(encodedSignature);
-                byte[] signatureDer = signature;
-                if (AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily())) {
-                	signatureDer = ECDSA.transcodeSignatureToDER(signatureDer);
-                }
-
-                Signature verifier = Signature.getInstance(signatureAlgorithm.getAlgorithm(), "BC");
-                verifier.initVerify(publicKey);
-                verifier.update(signingInput.getBytes());
-                try {
-                	return verifier.verify(signatureDer);
-                } catch (SignatureException e) {
-                	// Fall back to old format
-                	// TODO: remove in Gluu 5.0
-                	return verifier.verify(signature);
-                }
+                return verifySignature(signingInput, encodedSignature, publicKey, signatureAlgorithm);
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
                 return false;
@@ -0,0 +1,158 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.model.json;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONString;
+
+/**
+ * Streaming writer of compact JSON into {@link StringBuilder}. Values are written the same way as
+ * {@link JSONObject#toString()} writes them except that forward slash is never escaped, so output doesn't need
+ * post-processing (e.g. <code>replace("\\/", "/")</code> which also corrupts strings containing <code>\/</code>).
+ */
+public final class CompactJsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder out;
+    private boolean first = true;
+
+    public CompactJsonWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    public CompactJsonWriter beginObject() {
+        out.append('{');
+        first = true;
+        return this;
+    }
+
+    public CompactJsonWriter endObject() {
+        out.append('}');
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes key of object member. Must be followed by value.
+     */
+    public CompactJsonWriter name(String name) {
+        if (!first) {
+            out.append(',');
+        }
+        quote(name);
+        out.append(':');
+        first = true;
+        return this;
+    }
+
+    public CompactJsonWriter value(Object value) {
+        writeValue(value);
+        first = false;
+        return this;
+    }
+
+    private void writeValue(Object value) {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            out.append("null");
+        } else if (value instanceof String) {
+            quote((String) value);
+        } else if (value instanceof Number) {
+            out.append(JSONObject.numberToString((Number) value));
+        } else if (value instanceof Boolean) {
+            out.append(value.toString());
+        } else if (value instanceof JSONString) {
+            out.append(((JSONString) value).toJSONString());
+        } else if (value instanceof JSONObject) {
+            writeObject((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            writeArray(((JSONArray) value).iterator());
+        } else if (value instanceof Map) {
+            writeObject(new JSONObject((Map<?, ?>) value));
+        } else if (value instanceof Collection) {
+            writeArray(((Collection<?>) value).iterator());
+        } else if (value.getClass().isArray()) {
+            writeArray(new JSONArray(value).iterator());
+        } else if (value instanceof Enum<?>) {
+            quote(((Enum<?>) value).name());
+        } else {
+            quote(value.toString());
+        }
+    }
+
+    private void writeObject(JSONObject jsonObject) {
+        out.append('{');
+        boolean firstMember = true;
+        for (String key : jsonObject.keySet()) {
+            if (!firstMember) {
+                out.append(',');
+            }
+            quote(key);
+            out.append(':');
+            writeValue(jsonObject.opt(key));
+            firstMember = false;
+        }
+        out.append('}');
+    }
+
+    private void writeArray(Iterator<?> iterator) {
+        out.append('[');
+        boolean firstElement = true;
+        while (iterator.hasNext()) {
+            if (!firstElement) {
+                out.append(',');
+            }
+            writeValue(iterator.next());
+            firstElement = false;
+        }
+        out.append(']');
+    }
+
+    private void quote(String string) {
+        out.append('"');
+        final int length = string.length();
+        for (int i = 0; i < length; i++) {
+            final char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                default:
+                    if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                        out.append("\\u").append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF])
+                                .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
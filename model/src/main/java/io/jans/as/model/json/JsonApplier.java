@@ -6,18 +6,21 @@
 
 package io.jans.as.model.json;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import io.jans.as.model.json.PropertyAccessors.PropertyAccessor;
+
 /**
+ * Applies {@link PropertyDefinition}s between java objects, JSON and request parameters. Fields are accessed via
+ * handles cached per class in {@link PropertyAccessors}, there is no reflection lookup per call.
+ *
  * @author Yuriy Zabrovarnyy
  */
 public class JsonApplier {
@@ -34,26 +37,31 @@ public class JsonApplier {
     }
 
     public void apply(Object source, JSONObject target) {
-        for (PropertyDefinition definition : PropertyDefinition.values()) {
+        if (source == null || target == null) {
+            return;
+        }
+        for (PropertyDefinition definition : PropertyAccessors.definitions()) {
             apply(source, target, definition);
         }
     }
 
     public void apply(Object source, Map<String, String> parameters) {
-        for (PropertyDefinition definition : PropertyDefinition.values()) {
+        if (source == null || parameters == null) {
+            return;
+        }
+        for (PropertyDefinition definition : PropertyAccessors.definitions()) {
             apply(source, parameters, definition);
         }
     }
 
     private void apply(Object source, Map<String, String> target, PropertyDefinition property) {
         try {
-            if (!isAllowed(source, target, property, source.getClass())) {
+            final PropertyAccessor accessor = PropertyAccessors.get(source.getClass(), property);
+            if (accessor == null) {
                 return;
             }
 
-            Field field = source.getClass().getDeclaredField(property.getJavaTargetPropertyName());
-            field.setAccessible(true);
-            Object value = field.get(source);
+            Object value = accessor.get(source);
             if (value == null) {
                 return;
             }
@@ -64,7 +72,7 @@ public class JsonApplier {
                 return;
             }
             if (Collection.class.isAssignableFrom(property.getJavaType())) {
-                Collection valueAsCollection = (Collection) field.get(source);
+                Collection valueAsCollection = (Collection) value;
                 target.put(property.getJsonName(), new JSONArray(valueAsCollection).toString());
             }
         } catch (Exception e) {
@@ -74,20 +82,19 @@ public class JsonApplier {
 
     private void apply(Object source, JSONObject target, PropertyDefinition property) {
         try {
-            if (!isAllowed(source, target, property, source.getClass())) {
+            final PropertyAccessor accessor = PropertyAccessors.get(source.getClass(), property);
+            if (accessor == null) {
                 return;
             }
 
-            Field field = source.getClass().getDeclaredField(property.getJavaTargetPropertyName());
-            field.setAccessible(true);
-            Object value = field.get(source);
+            Object value = accessor.get(source);
 
             if (String.class.isAssignableFrom(property.getJavaType())) {
                 target.put(property.getJsonName(), value);
                 return;
             }
             if (Collection.class.isAssignableFrom(property.getJavaType())) {
-                Collection valueAsCollection = (Collection) field.get(source);
+                Collection valueAsCollection = (Collection) value;
                 target.put(property.getJsonName(), valueAsCollection);
             }
         } catch (Exception e) {
@@ -95,51 +102,26 @@ public class JsonApplier {
         }
     }
 
-    private boolean isAllowed(Object source, Object target, PropertyDefinition property, Class<?>... clazzesToCheck) {
-        if (source == null || target == null || property == null || clazzesToCheck == null || clazzesToCheck.length == 0) {
-            return false;
-        }
-
-        try {
-            final Set<String> allowedClasses = property.getJavaTargetsClassNamesAsStrings();
-
-            for (Class<?> clazzToCheck : clazzesToCheck) {
-                if (!allowedClasses.contains(clazzToCheck.getName())) {
-                    return false;
-                }
-
-                Field field = clazzToCheck.getDeclaredField(property.getJavaTargetPropertyName());
-
-                final Class javaType = property.getJavaType();
-                if (!field.getType().isAssignableFrom(javaType)) {
-                    return false;
-                }
-            }
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     public void apply(JSONObject source, Object target) {
-        for (PropertyDefinition definition : PropertyDefinition.values()) {
+        if (source == null || target == null) {
+            return;
+        }
+        for (PropertyDefinition definition : PropertyAccessors.definitions()) {
             apply(source, target, definition);
         }
     }
 
     public void apply(JSONObject source, Object target, PropertyDefinition property) {
         try {
-            if (!source.has(property.getJsonName())) {
+            if (source == null || target == null || property == null || !source.has(property.getJsonName())) {
                 return;
             }
-            if (!isAllowed(source, target, property, target.getClass())) {
+
+            final PropertyAccessor accessor = PropertyAccessors.get(target.getClass(), property);
+            if (accessor == null) {
                 return;
             }
 
-            Field field = target.getClass().getDeclaredField(property.getJavaTargetPropertyName());
-            field.setAccessible(true);
-
-
             Object valueToSet = null;
 
             if (String.class.isAssignableFrom(property.getJavaType())) {
@@ -150,7 +132,7 @@ public class JsonApplier {
                 valueToSet = jsonArray.toList();
             }
 
-            field.set(target, valueToSet);
+            accessor.set(target, valueToSet);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
@@ -160,32 +142,33 @@ public class JsonApplier {
      * Transfer between two java objects
      */
     public void transfer(Object source, Object target) {
-        for (PropertyDefinition definition : PropertyDefinition.values()) {
+        if (source == null || target == null) {
+            return;
+        }
+        for (PropertyDefinition definition : PropertyAccessors.definitions()) {
             transfer(source, target, definition);
         }
     }
 
     private void transfer(Object source, Object target, PropertyDefinition property) {
         try {
-            if (!isAllowed(source, target, property, source.getClass(), target.getClass())) {
+            final PropertyAccessor sourceAccessor = PropertyAccessors.get(source.getClass(), property);
+            if (sourceAccessor == null) {
+                return;
+            }
+            final PropertyAccessor targetAccessor = PropertyAccessors.get(target.getClass(), property);
+            if (targetAccessor == null) {
                 return;
             }
-
-            Field sourceField = source.getClass().getDeclaredField(property.getJavaTargetPropertyName());
-            sourceField.setAccessible(true);
-
-            Field targetField = target.getClass().getDeclaredField(property.getJavaTargetPropertyName());
-            targetField.setAccessible(true);
-
 
             Object valueToSet = null;
 
             if (String.class.isAssignableFrom(property.getJavaType()) || Collection.class.isAssignableFrom(property.getJavaType())) {
-                valueToSet = sourceField.get(source);
+                valueToSet = sourceAccessor.get(source);
             }
 
             if (valueToSet != null) {
-                targetField.set(target, valueToSet);
+                targetAccessor.set(target, valueToSet);
             }
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -0,0 +1,99 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.model.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Registry of field accessors used by {@link JsonApplier}. Accessors of all {@link PropertyDefinition}s are resolved
+ * once per class (field lookup, type checks and {@link MethodHandle} creation) and cached for class lifetime.
+ */
+final class PropertyAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final PropertyDefinition[] DEFINITIONS = PropertyDefinition.values();
+
+    private static final ClassValue<PropertyAccessor[]> ACCESSORS = new ClassValue<PropertyAccessor[]>() {
+        @Override
+        protected PropertyAccessor[] computeValue(Class<?> clazz) {
+            PropertyAccessor[] accessors = new PropertyAccessor[DEFINITIONS.length];
+            for (PropertyDefinition definition : DEFINITIONS) {
+                accessors[definition.ordinal()] = resolve(clazz, definition);
+            }
+            return accessors;
+        }
+    };
+
+    private PropertyAccessors() {
+    }
+
+    /**
+     * @return accessor or null if property is not applicable to class
+     */
+    static PropertyAccessor get(Class<?> clazz, PropertyDefinition definition) {
+        return ACCESSORS.get(clazz)[definition.ordinal()];
+    }
+
+    static PropertyDefinition[] definitions() {
+        return DEFINITIONS;
+    }
+
+    private static PropertyAccessor resolve(Class<?> clazz, PropertyDefinition definition) {
+        if (!definition.getJavaTargetsClassNamesAsStrings().contains(clazz.getName())) {
+            return null;
+        }
+
+        try {
+            Field field = clazz.getDeclaredField(definition.getJavaTargetPropertyName());
+            if (!field.getType().isAssignableFrom(definition.getJavaType())) {
+                return null;
+            }
+
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new PropertyAccessor(lookup.unreflectGetter(field).asType(GETTER_TYPE), lookup.unreflectSetter(field).asType(SETTER_TYPE));
+        } catch (NoSuchFieldException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    static final class PropertyAccessor {
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private PropertyAccessor(MethodHandle getter, MethodHandle setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Object get(Object source) {
+            try {
+                return (Object) getter.invokeExact(source);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
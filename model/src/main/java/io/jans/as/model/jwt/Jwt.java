@@ -57,21 +57,32 @@ public class Jwt extends JsonWebResponse {
             return null;
         }
 
-        String encodedHeader = null;
-        String encodedClaims = null;
-        String encodedSignature = null;
-
-        String[] jwtParts = encodedJwt.split("\\.");
-        if (jwtParts.length == 2) { // Signature Algorithm NONE
-            encodedHeader = jwtParts[0];
-            encodedClaims = jwtParts[1];
+        // Index based split, same result as split("\\.") (trailing empty parts are dropped) without intermediate arrays
+        int end = encodedJwt.length();
+        while (end > 0 && encodedJwt.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        final int firstDot = encodedJwt.indexOf('.');
+        if (firstDot < 0 || firstDot >= end) {
+            throw new InvalidJwtException("Invalid JWT format.");
+        }
+
+        final String encodedHeader = encodedJwt.substring(0, firstDot);
+        final String encodedClaims;
+        final String encodedSignature;
+
+        final int secondDot = encodedJwt.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || secondDot >= end) { // Signature Algorithm NONE
+            encodedClaims = encodedJwt.substring(firstDot + 1, end);
             encodedSignature = "";
-        } else if (jwtParts.length == 3) {
-            encodedHeader = jwtParts[0];
-            encodedClaims = jwtParts[1];
-            encodedSignature = jwtParts[2];
         } else {
-            throw new InvalidJwtException("Invalid JWT format.");
+            final int thirdDot = encodedJwt.indexOf('.', secondDot + 1);
+            if (thirdDot >= 0 && thirdDot < end) {
+                throw new InvalidJwtException("Invalid JWT format.");
+            }
+            encodedClaims = encodedJwt.substring(firstDot + 1, secondDot);
+            encodedSignature = encodedJwt.substring(secondDot + 1, end);
         }
 
         Jwt jwt = new Jwt();
@@ -6,8 +6,8 @@
 
 package io.jans.as.model.jwt;
 
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,9 +24,9 @@ import org.json.JSONObject;
 import com.google.common.collect.Lists;
 
 import io.jans.as.model.exception.InvalidJwtException;
+import io.jans.as.model.json.CompactJsonWriter;
 import io.jans.as.model.json.JsonApplier;
 import io.jans.as.model.util.Base64Util;
-import io.jans.as.model.util.Util;
 
 /**
  * @author Javier Rojas Blum
@@ -310,21 +310,62 @@ public abstract class JwtClaimSet {
     }
 
     public String toBase64JsonObject() throws InvalidJwtException {
+        byte[] jsonObjectBytes = toJsonString().getBytes(StandardCharsets.UTF_8);
+        return Base64Util.base64urlencode(jsonObjectBytes);
+    }
+
+    /**
+     * Writes claims directly as JSON without building {@link JSONObject}, forward slashes are not escaped.
+     * Members are written in claims insertion order.
+     */
+    public String toJsonString() throws InvalidJwtException {
+        StringBuilder builder = new StringBuilder(64 + claims.size() * 32);
         try {
-            String jsonObjectString = toJsonString();
-            byte[] jsonObjectBytes = jsonObjectString.getBytes(Util.UTF8_STRING_ENCODING);
-            return Base64Util.base64urlencode(jsonObjectBytes);
-        } catch (UnsupportedEncodingException e) {
-            return null;
+            writeTo(new CompactJsonWriter(builder));
+        } catch (InvalidJwtException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidJwtException(e);
         }
+
+        return builder.toString();
     }
 
-    public String toJsonString() throws InvalidJwtException {
-        JSONObject jsonObject = toJsonObject();
-        String jsonObjectString = jsonObject.toString();
-        jsonObjectString = jsonObjectString.replace("\\/", "/");
+    protected void writeTo(CompactJsonWriter writer) throws InvalidJwtException {
+        // Sub claim object is written under its name, so the same name may be met twice (last value wins as in JSONObject)
+        Map<String, Object> members = claims;
+        for (Object value : claims.values()) {
+            if (value instanceof JwtSubClaimObject) {
+                members = new LinkedHashMap<String, Object>();
+                for (Map.Entry<String, Object> claim : claims.entrySet()) {
+                    String name = claim.getValue() instanceof JwtSubClaimObject ? ((JwtSubClaimObject) claim.getValue()).getName() : claim.getKey();
+                    if (name == null) {
+                        throw new InvalidJwtException("Name of sub claim object is not set, claim: " + claim.getKey());
+                    }
+                    members.put(name, claim.getValue());
+                }
+                break;
+            }
+        }
+
+        writer.beginObject();
+        for (Map.Entry<String, Object> member : members.entrySet()) {
+            Object value = member.getValue();
+            if (value == null) {
+                // JSONObject.put(key, null) removes key
+                continue;
+            }
 
-        return jsonObjectString;
+            writer.name(member.getKey());
+            if (value instanceof Date) {
+                writer.value(((Date) value).getTime() / 1000);
+            } else if (value instanceof JwtSubClaimObject) {
+                ((JwtSubClaimObject) value).writeTo(writer);
+            } else {
+                writer.value(value);
+            }
+        }
+        writer.endObject();
     }
 
     public Map<String, List<String>> toMap() throws InvalidJwtException {
@@ -367,10 +408,8 @@ public abstract class JwtClaimSet {
 
     public void load(String base64JsonObject) throws InvalidJwtException {
         try {
-            String jsonObjectString = new String(Base64Util.base64urldecode(base64JsonObject), Util.UTF8_STRING_ENCODING);
+            String jsonObjectString = new String(Base64Util.base64urldecode(base64JsonObject), StandardCharsets.UTF_8);
             load(new JSONObject(jsonObjectString));
-        } catch (UnsupportedEncodingException e) {
-            throw new InvalidJwtException(e);
         } catch (JSONException e) {
             throw new InvalidJwtException(e);
         } catch (Exception e) {
@@ -0,0 +1,106 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.model.jwt;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+import java.util.Date;
+
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import io.jans.as.model.exception.InvalidJwtException;
+
+public class JwtTest {
+
+    @Test
+    public void toJsonString_withSlashes_shouldNotEscapeSlashes() throws InvalidJwtException {
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("iss", "https://jans.io/");
+        claims.setClaim("path", "a\\/b");
+
+        final String json = claims.toJsonString();
+
+        assertEquals(json, "{\"iss\":\"https://jans.io/\",\"path\":\"a\\\\/b\"}");
+        assertEquals(new JSONObject(json).getString("path"), "a\\/b");
+    }
+
+    @Test
+    public void toJsonString_withDifferentTypes_shouldMatchJSONObject() throws InvalidJwtException {
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("exp", new Date(1600000000000L));
+        claims.setClaim("aud", Lists.newArrayList("client1", "client2"));
+        claims.setClaim("verified", true);
+        claims.setClaim("nonce", "\"quoted\"\n");
+        claims.setNullClaim("missing");
+
+        final JSONObject parsed = new JSONObject(claims.toJsonString());
+
+        assertEquals(parsed.toString(), claims.toJsonObject().toString());
+        assertFalse(parsed.has("missing"));
+    }
+
+    @Test
+    public void toJsonString_withSubClaimObject_shouldMatchJSONObject() throws InvalidJwtException {
+        JwtSubClaimObject address = new JwtSubClaimObject();
+        address.setName("address");
+        address.setClaim("country", "US");
+        address.setClaim("updated_at", new Date(1600000000000L));
+
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("sub", "user");
+        claims.setClaim("address", address);
+
+        final String json = claims.toJsonString();
+
+        assertEquals(json, "{\"sub\":\"user\",\"address\":{\"country\":\"US\",\"updated_at\":1600000000}}");
+        assertEquals(new JSONObject(json).toString(), claims.toJsonObject().toString());
+    }
+
+    @Test(expectedExceptions = InvalidJwtException.class)
+    public void toJsonString_withUnnamedSubClaimObject_shouldFail() throws InvalidJwtException {
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("address", new JwtSubClaimObject());
+
+        claims.toJsonString();
+    }
+
+    @Test
+    public void parse_signedJwt_shouldSplitParts() throws InvalidJwtException {
+        final JwtClaims claims = new JwtClaims();
+        claims.setClaim("sub", "user");
+        final String encoded = "eyJhbGciOiJIUzI1NiJ9." + claims.toBase64JsonObject() + ".c2lnbmF0dXJl";
+
+        final Jwt jwt = Jwt.parse(encoded);
+
+        assertEquals(jwt.getEncodedSignature(), "c2lnbmF0dXJl");
+        assertEquals(jwt.getClaims().getClaimAsString("sub"), "user");
+        assertEquals(jwt.toString(), encoded);
+    }
+
+    @Test
+    public void parse_unsignedJwt_shouldHaveEmptySignature() throws InvalidJwtException {
+        final Jwt jwt = Jwt.parse("eyJhbGciOiJub25lIn0.eyJzdWIiOiJ1c2VyIn0.");
+
+        assertEquals(jwt.getEncodedSignature(), "");
+        assertEquals(jwt.getHeader().getClaimAsString("alg"), "none");
+    }
+
+    @Test(expectedExceptions = InvalidJwtException.class)
+    public void parse_tooManyParts_shouldFail() throws InvalidJwtException {
+        Jwt.parse("eyJhbGciOiJub25lIn0.eyJzdWIiOiJ1c2VyIn0.c2ln.c2ln");
+    }
+
+    @Test
+    public void parse_blank_shouldReturnNull() throws InvalidJwtException {
+        assertNull(Jwt.parse(" "));
+    }
+}
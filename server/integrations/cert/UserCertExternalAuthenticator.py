@@ -59,11 +59,16 @@ class PersonAuthentication(PersonAuthenticationType):
             crl_max_response_size = StringHelper.toInteger(configurationAttributes.get("crl_max_response_size").getValue2(), crl_max_response_size)
             print "Cert. Initialization. CRL max response size is '%d'" % crl_max_response_size
 
+        ocsp_cache_size = OCSPCertificateVerifier.DEFAULT_CACHE_SIZE  # 0 - OCSP responses are not cached
+        if configurationAttributes.containsKey("ocsp_cache_size"):
+            ocsp_cache_size = StringHelper.toInteger(configurationAttributes.get("ocsp_cache_size").getValue2(), ocsp_cache_size)
+            print "Cert. Initialization. OCSP cache size is '%d'" % ocsp_cache_size
+
         # Define array to order methods correctly
         self.validator_types = [ 'generic', 'path', 'ocsp', 'crl']
         self.validators = { 'generic' : [GenericCertificateVerifier(), False],
                             'path' : [PathCertificateVerifier(False), False],
-                            'ocsp' : [OCSPCertificateVerifier(), False],
+                            'ocsp' : [OCSPCertificateVerifier(ocsp_cache_size), False],
                             'crl' : [CRLCertificateVerifier(crl_max_response_size), False] }
 
         for type in self.validator_types:
@@ -12,7 +12,6 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
-import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
@@ -29,17 +28,17 @@ import javax.jms.TextMessage;
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.apache.activemq.pool.PooledConnectionFactory;
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang.BooleanUtils;
 import org.slf4j.Logger;
 
 import com.google.common.base.Objects;
 
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.server.model.audit.OAuth2AuditLog;
+import io.jans.as.server.model.config.AppConfigurationSnapshot;
+import io.jans.as.server.model.config.ConfigurationFactory;
 import io.jans.as.server.util.ServerUtil;
 import io.jans.service.cdi.async.Asynchronous;
 import io.jans.service.cdi.event.ConfigurationUpdate;
-import io.jans.util.StringHelper;
 
 @Named
 @ApplicationScoped
@@ -50,7 +49,7 @@ public class ApplicationAuditLogger {
 	private Logger log;
 
 	@Inject
-	private AppConfiguration appConfiguration;
+	private ConfigurationFactory configurationFactory;
 
 	private final String BROKER_URL_PREFIX = "failover:(";
 	private final String BROKER_URL_SUFFIX = ")?timeout=5000&jms.useAsyncSend=true";
@@ -66,23 +65,12 @@ public class ApplicationAuditLogger {
 
 	private final ReentrantLock lock = new ReentrantLock();
 
-	private boolean enabled;
-	private boolean sendAuditJms;
-
-	@PostConstruct
-	public void init() {
-		updateConfiguration(appConfiguration);
-	}
-
 	public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
-		this.enabled = BooleanUtils.isTrue(appConfiguration.getEnabledOAuthAuditLogging());
-		this.sendAuditJms = StringHelper.isNotEmpty(appConfiguration.getJmsUserName())
-				&& StringHelper.isNotEmpty(appConfiguration.getJmsPassword())
-				&& CollectionUtils.isNotEmpty(appConfiguration.getJmsBrokerURISet());
+		final AppConfigurationSnapshot snapshot = configurationFactory.getAppConfigurationSnapshot();
 
-		boolean configChanged = !Objects.equal(this.jmsUserName, appConfiguration.getJmsUserName())
-				|| !Objects.equal(this.jmsPassword, appConfiguration.getJmsPassword())
-				|| !Objects.equal(this.jmsBrokerURISet, appConfiguration.getJmsBrokerURISet());
+		boolean configChanged = !Objects.equal(this.jmsUserName, snapshot.getJmsUserName())
+				|| !Objects.equal(this.jmsPassword, snapshot.getJmsPassword())
+				|| !Objects.equal(this.jmsBrokerURISet, snapshot.getJmsBrokerURISet());
 
 		if (configChanged) {
 			destroy();
@@ -91,13 +79,14 @@ public class ApplicationAuditLogger {
 
 	@Asynchronous
 	public void sendMessage(OAuth2AuditLog oAuth2AuditLog) {
-		if (!enabled) {
+		final AppConfigurationSnapshot snapshot = configurationFactory.getAppConfigurationSnapshot();
+		if (snapshot == null || !snapshot.isOAuthAuditLoggingEnabled()) {
 			return;
 		}
 
 		boolean messageDelivered = false;
-		if (sendAuditJms) {
-			if (tryToEstablishJMSConnection()) {
+		if (snapshot.isSendAuditJms()) {
+			if (tryToEstablishJMSConnection(snapshot)) {
 				messageDelivered = loggingThroughJMS(oAuth2AuditLog);
 			}
 		}
@@ -117,7 +106,7 @@ public class ApplicationAuditLogger {
 		this.pooledConnectionFactory = null;
 	}
 
-	private boolean tryToEstablishJMSConnection() {
+	private boolean tryToEstablishJMSConnection(AppConfigurationSnapshot snapshot) {
 		if (this.pooledConnectionFactory != null) {
 			return true;
 		}
@@ -126,7 +115,7 @@ public class ApplicationAuditLogger {
 		try {
 			// Check if another thread initialized JMS pool already
 			if (this.pooledConnectionFactory == null) {
-				return tryToEstablishJMSConnectionImpl();
+				return tryToEstablishJMSConnectionImpl(snapshot);
 			}
 
 			return true;
@@ -135,15 +124,15 @@ public class ApplicationAuditLogger {
 		}
 	}
 
-	private boolean tryToEstablishJMSConnectionImpl() {
-		Set<String> jmsBrokerURISet = appConfiguration.getJmsBrokerURISet();
-		if (!enabled || CollectionUtils.isEmpty(jmsBrokerURISet)) {
+	private boolean tryToEstablishJMSConnectionImpl(AppConfigurationSnapshot snapshot) {
+		Set<String> jmsBrokerURISet = snapshot.getJmsBrokerURISet();
+		if (!snapshot.isOAuthAuditLoggingEnabled() || CollectionUtils.isEmpty(jmsBrokerURISet)) {
 			return false;
 		}
 
 		this.jmsBrokerURISet = new HashSet<String>(jmsBrokerURISet);
-		this.jmsUserName = appConfiguration.getJmsUserName();
-		this.jmsPassword = appConfiguration.getJmsPassword();
+		this.jmsUserName = snapshot.getJmsUserName();
+		this.jmsPassword = snapshot.getJmsPassword();
 
 		Iterator<String> jmsBrokerURIIterator = jmsBrokerURISet.iterator();
 
@@ -41,7 +41,7 @@ import io.jans.as.server.audit.debug.wrapper.ResponseWrapper;
  *
  * @author Yuriy Movchan Date: 06/09/2019
  */
-@WebFilter(urlPatterns = {"/*"})
+@WebFilter(filterName = "ServletLoggingFilter", urlPatterns = {"/*"})
 public class ServletLoggingFilter implements Filter {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -62,6 +62,7 @@ import static io.jans.as.model.ciba.BackchannelAuthenticationErrorResponseType.I
  * @version May 29, 2020
  */
 @WebFilter(
+        filterName = "AuthenticationFilter",
         asyncSupported = true,
         urlPatterns = {
                 "/restv1/authorize",
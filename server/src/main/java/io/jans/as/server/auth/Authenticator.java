@@ -23,6 +23,7 @@ import io.jans.as.server.service.ErrorHandlerService;
 import io.jans.as.server.service.RequestParameterService;
 import io.jans.as.server.service.SessionIdService;
 import io.jans.as.server.service.external.ExternalAuthenticationService;
+import io.jans.as.server.service.metric.LatencyMetrics;
 import io.jans.jsf2.message.FacesMessages;
 import io.jans.jsf2.service.FacesService;
 import io.jans.model.AuthenticationScriptUsageType;
@@ -203,7 +204,13 @@ public class Authenticator {
 							|| servletRequest.getRequestURI().endsWith("/bc-authorize")
                             || servletRequest.getRequestURI().endsWith("/stat")
 							|| servletRequest.getRequestURI().endsWith("/device_authorization")))) {
-				boolean authenticated = clientAuthentication(credentials, interactive, skipPassword);
+				final long start = System.nanoTime();
+				boolean authenticated;
+				try {
+					authenticated = clientAuthentication(credentials, interactive, skipPassword);
+				} finally {
+					LatencyMetrics.observe(LatencyMetrics.Phase.CLIENT_AUTHENTICATION, start);
+				}
 				if (authenticated) {
 					result = Constants.RESULT_SUCCESS;
 				}
@@ -0,0 +1,229 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.auth;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.model.crypto.AbstractCryptoProvider;
+import io.jans.as.model.jwk.JSONWebKey;
+import io.jans.as.model.jwk.JSONWebKeySet;
+import io.jans.as.model.util.Base64Util;
+import io.jans.as.model.util.CertUtils;
+import io.jans.as.server.service.net.OutboundHttpService;
+
+/**
+ * Caches parsed client certificates by SHA-256 thumbprint and, per client, fingerprints of public keys
+ * from client's JWKS which are allowed for <code>self_signed_tls_client_auth</code>.
+ * <p>
+ * Thumbprint is calculated from DER bytes of certificate without ASN.1 parsing, so repeated requests with
+ * the same certificate skip X.509 parsing and CN/subject DN extraction. Key match becomes set lookup instead of
+ * parsing JWKS and building public key for each JWK.
+ */
+@ApplicationScoped
+@Named
+public class MTLSCertificateCache {
+
+    // refresh of keys loaded from jwks_uri on key mismatch is not done more often, so bad certificates can't flood RP
+    private static final long MIN_JWKS_URI_REFRESH_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    @Inject
+    private AbstractCryptoProvider cryptoProvider;
+
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
+    private Cache<String, CertificateInfo> certificateCache;
+    private Cache<String, AuthorizedKeys> authorizedKeysCache;
+
+    @PostConstruct
+    public void init() {
+        final int size = appConfiguration.getMtlsCertificateCacheSize() > 0 ? appConfiguration.getMtlsCertificateCacheSize() : 10000;
+        this.certificateCache = CacheBuilder.newBuilder().maximumSize(size).expireAfterAccess(1, TimeUnit.HOURS).build();
+        this.authorizedKeysCache = CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    /**
+     * @param clientCertAsPem certificate from <code>X-ClientCert</code> header
+     * @return parsed certificate or null if it can't be parsed
+     */
+    public CertificateInfo getCertificate(String clientCertAsPem) {
+        final String thumbprint = CertUtils.confirmationMethodHashS256(clientCertAsPem);
+        if (StringUtils.isNotBlank(thumbprint)) {
+            final CertificateInfo cached = certificateCache.getIfPresent(thumbprint);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final X509Certificate cert = CertUtils.x509CertificateFromPem(clientCertAsPem);
+        if (cert == null) {
+            return null;
+        }
+
+        final CertificateInfo info = new CertificateInfo(cert, thumbprint);
+        if (StringUtils.isNotBlank(thumbprint)) {
+            certificateCache.put(thumbprint, info);
+        }
+        return info;
+    }
+
+    /**
+     * @return kid of client's key which matches public key of certificate or null if there is no such key
+     */
+    public String findAuthorizedKeyId(Client client, CertificateInfo certificate) {
+        AuthorizedKeys keys = getAuthorizedKeys(client, false);
+        if (keys == null) {
+            return null;
+        }
+
+        String kid = keys.fingerprints.get(certificate.getPublicKeyFingerprint());
+        if (kid == null && keys.isRemote() && keys.loadedAt + MIN_JWKS_URI_REFRESH_INTERVAL_IN_MILLIS < System.currentTimeMillis()) {
+            // client may have rotated keys published on jwks_uri
+            keys = getAuthorizedKeys(client, true);
+            kid = keys != null ? keys.fingerprints.get(certificate.getPublicKeyFingerprint()) : null;
+        }
+        return kid;
+    }
+
+    public void invalidate(String clientId) {
+        authorizedKeysCache.invalidate(clientId);
+    }
+
+    private AuthorizedKeys getAuthorizedKeys(Client client, boolean forceReload) {
+        final String source = StringUtils.isNotBlank(client.getJwks()) ? client.getJwks() : client.getJwksUri();
+        if (StringUtils.isBlank(source)) {
+            return null;
+        }
+
+        final AuthorizedKeys cached = authorizedKeysCache.getIfPresent(client.getClientId());
+        if (!forceReload && cached != null && cached.source.equals(source) && !cached.isExpired(appConfiguration.getMtlsAuthorizedKeysCacheLifetimeInSeconds())) {
+            return cached;
+        }
+
+        final ClientJwks clientJwks = client.getParsedJwks();
+        final boolean remote = clientJwks == null;
+        final JSONObject jsonWebKeys = remote ? outboundHttpService.getJSONWebKeys(client.getJwksUri()) : clientJwks.getJson();
+        if (jsonWebKeys == null) {
+            log.debug("Unable to load json web keys for client: {}, jwks_uri: {}, jks: {}", client.getClientId(),
+                    client.getJwksUri(), client.getJwks());
+            return null;
+        }
+
+        final Map<String, String> fingerprints = new HashMap<String, String>();
+        final JSONWebKeySet keySet = JSONWebKeySet.fromJSONObject(jsonWebKeys);
+        for (JSONWebKey key : keySet.getKeys()) {
+            try {
+                final PublicKey publicKey = remote ? cryptoProvider.getPublicKey(key.getKid(), jsonWebKeys, null)
+                        : clientJwks.getPublicKey(key.getKid(), cryptoProvider);
+                if (publicKey != null) {
+                    fingerprints.put(fingerprint(publicKey), key.getKid());
+                }
+            } catch (Exception e) {
+                log.debug("Failed to load public key, kid: {}, client: {}", key.getKid(), client.getClientId(), e);
+            }
+        }
+
+        final AuthorizedKeys keys = new AuthorizedKeys(source, remote, Collections.unmodifiableMap(fingerprints));
+        authorizedKeysCache.put(client.getClientId(), keys);
+        return keys;
+    }
+
+    private static String fingerprint(PublicKey publicKey) {
+        return Base64Util.base64urlencode(DigestUtils.sha256(publicKey.getEncoded()));
+    }
+
+    public static final class CertificateInfo {
+
+        private final X509Certificate certificate;
+        private final String thumbprint;
+        private final String cn;
+        private final String subjectDn;
+        private final String publicKeyFingerprint;
+
+        private CertificateInfo(X509Certificate certificate, String thumbprint) {
+            this.certificate = certificate;
+            this.thumbprint = thumbprint;
+            this.cn = CertUtils.getCN(certificate);
+            this.subjectDn = certificate.getSubjectDN().getName();
+            this.publicKeyFingerprint = fingerprint(certificate.getPublicKey());
+        }
+
+        public X509Certificate getCertificate() {
+            return certificate;
+        }
+
+        /**
+         * @return base64url encoded SHA-256 of DER encoded certificate (x5t#S256)
+         */
+        public String getThumbprint() {
+            return thumbprint;
+        }
+
+        public String getCn() {
+            return cn;
+        }
+
+        public String getSubjectDn() {
+            return subjectDn;
+        }
+
+        public String getPublicKeyFingerprint() {
+            return publicKeyFingerprint;
+        }
+    }
+
+    private static final class AuthorizedKeys {
+
+        private final String source;
+        private final boolean remote;
+        private final Map<String, String> fingerprints;
+        private final long loadedAt;
+
+        private AuthorizedKeys(String source, boolean remote, Map<String, String> fingerprints) {
+            this.source = source;
+            this.remote = remote;
+            this.fingerprints = fingerprints;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        private boolean isRemote() {
+            return remote;
+        }
+
+        private boolean isExpired(int lifetimeInSeconds) {
+            // keys defined inline are tied to client's jwks value, only keys from jwks_uri can go stale
+            return remote && loadedAt + TimeUnit.SECONDS.toMillis(Math.max(0, lifetimeInSeconds)) < System.currentTimeMillis();
+        }
+    }
+}
@@ -6,24 +6,17 @@
 
 package io.jans.as.server.auth;
 
-import com.google.common.base.Strings;
 import io.jans.as.common.model.registration.Client;
 import io.jans.as.model.authorize.AuthorizeRequestParam;
 import io.jans.as.model.common.AuthenticationMethod;
 import io.jans.as.model.common.Prompt;
-import io.jans.as.model.crypto.AbstractCryptoProvider;
 import io.jans.as.model.error.ErrorResponseFactory;
-import io.jans.as.model.jwk.JSONWebKey;
-import io.jans.as.model.jwk.JSONWebKeySet;
 import io.jans.as.model.token.TokenErrorResponseType;
-import io.jans.as.model.util.CertUtils;
-import io.jans.as.model.util.JwtUtil;
+import io.jans.as.server.auth.MTLSCertificateCache.CertificateInfo;
 import io.jans.as.server.model.common.SessionId;
 import io.jans.as.server.model.common.SessionIdState;
 import io.jans.as.server.service.SessionIdService;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import javax.ejb.DependsOn;
@@ -35,8 +28,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
-import java.security.PublicKey;
-import java.security.cert.X509Certificate;
 import java.util.List;
 
 /**
@@ -57,10 +48,10 @@ public class MTLSService {
     private SessionIdService sessionIdService;
 
     @Inject
-    private AbstractCryptoProvider cryptoProvider;
+    private ErrorResponseFactory errorResponseFactory;
 
     @Inject
-    private ErrorResponseFactory errorResponseFactory;
+    private MTLSCertificateCache certificateCache;
 
     public boolean processMTLS(HttpServletRequest httpRequest, HttpServletResponse httpResponse, FilterChain filterChain, Client client) throws Exception {
         log.debug("Trying to authenticate client {} via {} ...", client.getClientId(),
@@ -72,12 +63,12 @@ public class MTLSService {
             return false;
         }
 
-        X509Certificate cert = CertUtils.x509CertificateFromPem(clientCertAsPem);
+        final CertificateInfo cert = certificateCache.getCertificate(clientCertAsPem);
         if (cert == null) {
             log.debug("Failed to parse client certificate, client_id: {}.", client.getClientId());
             return false;
         }
-        final String cn = CertUtils.getCN(cert);
+        final String cn = cert.getCn();
         if (!cn.equals(client.getClientId())) {
             log.error("Client certificate CN does not match clientId. Reject call, CN: " + cn + ", clientId: " + client.getClientId());
             throw new WebApplicationException(Response.status(Response.Status.UNAUTHORIZED).entity(errorResponseFactory.getErrorAsJson(TokenErrorResponseType.INVALID_CLIENT, httpRequest.getParameter("state"), "")).build());
@@ -96,7 +87,7 @@ public class MTLSService {
 
             // we check only `subjectDn`, the PKI certificate validation is performed by
             // apache/httpd
-            if (io.jans.as.model.util.StringUtils.equalsIgnoringSpaces(subjectDn, cert.getSubjectDN().getName())) {
+            if (io.jans.as.model.util.StringUtils.equalsIgnoringSpaces(subjectDn, cert.getSubjectDn())) {
                 log.debug("Client {} authenticated via `tls_client_auth`.", client.getClientId());
                 authenticatedSuccessfully(client, httpRequest);
 
@@ -104,35 +95,19 @@ public class MTLSService {
                 return true;
             }
 
-            log.debug("Client's subject dn: {}, cert subject dn: {}", subjectDn, cert.getSubjectDN().getName());
+            log.debug("Client's subject dn: {}, cert subject dn: {}", subjectDn, cert.getSubjectDn());
         }
 
         if (client.getAuthenticationMethod() == AuthenticationMethod.SELF_SIGNED_TLS_CLIENT_AUTH) { // disable it
             log.debug("Authenticating with self_signed_tls_client_auth ...");
-            final PublicKey publicKey = cert.getPublicKey();
-            final byte[] encodedKey = publicKey.getEncoded();
-
-            JSONObject jsonWebKeys = Strings.isNullOrEmpty(client.getJwks())
-                    ? JwtUtil.getJSONWebKeys(client.getJwksUri())
-                    : new JSONObject(client.getJwks());
-
-            if (jsonWebKeys == null) {
-                log.debug("Unable to load json web keys for client: {}, jwks_uri: {}, jks: {}", client.getClientId(),
-                        client.getJwksUri(), client.getJwks());
-                return false;
-            }
+            final String kid = certificateCache.findAuthorizedKeyId(client, cert);
+            if (kid != null) {
+                log.debug("Client {} authenticated via `self_signed_tls_client_auth`, matched kid: {}.",
+                        client.getClientId(), kid);
+                authenticatedSuccessfully(client, httpRequest);
 
-            final JSONWebKeySet keySet = JSONWebKeySet.fromJSONObject(jsonWebKeys);
-            for (JSONWebKey key : keySet.getKeys()) {
-                if (ArrayUtils.isEquals(encodedKey,
-                        cryptoProvider.getPublicKey(key.getKid(), jsonWebKeys, null).getEncoded())) {
-                    log.debug("Client {} authenticated via `self_signed_tls_client_auth`, matched kid: {}.",
-                            client.getClientId(), key.getKid());
-                    authenticatedSuccessfully(client, httpRequest);
-
-                    filterChain.doFilter(httpRequest, httpResponse);
-                    return true;
-                }
+                filterChain.doFilter(httpRequest, httpResponse);
+                return true;
             }
         }
         log.debug("MTLS authentication failed.");
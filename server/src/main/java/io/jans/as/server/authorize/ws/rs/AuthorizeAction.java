@@ -30,14 +30,11 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.util.Strings;
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
 import org.slf4j.Logger;
 
 import io.jans.as.common.model.common.User;
@@ -49,8 +46,6 @@ import io.jans.as.model.crypto.AbstractCryptoProvider;
 import io.jans.as.model.error.ErrorResponseFactory;
 import io.jans.as.model.exception.InvalidJwtException;
 import io.jans.as.model.jwt.JwtClaimName;
-import io.jans.as.model.util.Base64Util;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.model.util.Util;
 import io.jans.as.persistence.model.Scope;
 import io.jans.as.server.auth.Authenticator;
@@ -74,6 +69,7 @@ import io.jans.as.server.service.CookieService;
 import io.jans.as.server.service.ErrorHandlerService;
 import io.jans.as.server.service.RedirectionUriService;
 import io.jans.as.server.service.RequestParameterService;
+import io.jans.as.server.service.RequestUriCache;
 import io.jans.as.server.service.SessionIdService;
 import io.jans.as.server.service.ciba.CibaRequestService;
 import io.jans.as.server.service.external.ExternalAuthenticationService;
@@ -186,6 +182,9 @@ public class AuthorizeAction {
     @Inject
     private AuthorizeRestWebServiceValidator authorizeRestWebServiceValidator;
 
+    @Inject
+    private RequestUriCache requestUriCache;
+
     // OAuth 2.0 request parameters
     private String scope;
     private String responseType;
@@ -488,6 +487,7 @@ public class AuthorizeAction {
     public List<String> getRequestedClaims() {
         Set<String> result = new HashSet<String>();
         String requestJwt = request;
+        RequestUriCache.FetchedRequest fetchedRequest = null;
 
         if (StringUtils.isBlank(requestJwt) && StringUtils.isNotBlank(requestUri)) {
             try {
@@ -495,23 +495,11 @@ public class AuthorizeAction {
                 String reqUriHash = reqUri.getFragment();
                 String reqUriWithoutFragment = reqUri.getScheme() + ":" + reqUri.getSchemeSpecificPart();
 
-                ClientRequest clientRequest = new ClientRequest(reqUriWithoutFragment);
-                clientRequest.setHttpMethod(HttpMethod.GET);
-
-                ClientResponse<String> clientResponse = clientRequest.get(String.class);
-                int status = clientResponse.getStatus();
-
-                if (status == 200) {
-                    String entity = clientResponse.getEntity(String.class);
+                RequestUriCache.FetchedRequest fetched = requestUriCache.fetch(reqUriWithoutFragment);
 
-                    if (StringUtils.isBlank(reqUriHash)) {
-                        requestJwt = entity;
-                    } else {
-                        String hash = Base64Util.base64urlencode(JwtUtil.getMessageDigestSHA256(entity));
-                        if (StringUtils.equals(reqUriHash, hash)) {
-                            requestJwt = entity;
-                        }
-                    }
+                if (!fetched.isFailed() && (StringUtils.isBlank(reqUriHash) || StringUtils.equals(reqUriHash, fetched.getContentHash()))) {
+                    fetchedRequest = fetched;
+                    requestJwt = fetched.getContent();
                 }
             } catch (Exception e) {
                 log.error(e.getMessage(), e);
@@ -523,7 +511,13 @@ public class AuthorizeAction {
                 Client client = clientService.getClient(clientId);
 
                 if (client != null) {
-                    JwtAuthorizationRequest jwtAuthorizationRequest = new JwtAuthorizationRequest(appConfiguration, cryptoProvider, request, client);
+                    JwtAuthorizationRequest jwtAuthorizationRequest = fetchedRequest != null ? fetchedRequest.getRequestObject(client.getClientId()) : null;
+                    if (jwtAuthorizationRequest == null) {
+                        jwtAuthorizationRequest = new JwtAuthorizationRequest(appConfiguration, cryptoProvider, requestJwt, client);
+                        if (fetchedRequest != null) {
+                            fetchedRequest.setRequestObject(client.getClientId(), jwtAuthorizationRequest);
+                        }
+                    }
 
                     if (jwtAuthorizationRequest.getUserInfoMember() != null) {
                         for (Claim claim : jwtAuthorizationRequest.getUserInfoMember().getClaims()) {
@@ -214,6 +214,7 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
                 acrValuesStr, amrValuesStr, originHeaders, codeChallenge, codeChallengeMethod, customRespHeaders, claims, tokenBindingHeader);
 
         ResponseBuilder builder = Response.ok();
+        final ExecutionContext executionContext = new ExecutionContext(httpRequest, httpResponse);
 
         List<String> uiLocales = Util.splittedStringAsList(uiLocalesStr, " ");
         List<ResponseType> responseTypes = ResponseType.fromString(responseType, " ");
@@ -225,15 +226,19 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
         Map<String, String> customParameters = requestParameterService.getCustomParameters(
                 QueryStringDecoder.decode(httpRequest.getQueryString()));
 
+        long phaseStart = System.nanoTime();
         SessionId sessionUser = identity.getSessionId();
         User user = sessionIdService.getUser(sessionUser);
+        executionContext.endPhase("user_lookup", phaseStart);
 
         try {
             Map<String, String> customResponseHeaders = Util.jsonObjectArrayStringAsMap(customRespHeaders);
 
             updateSessionForROPC(httpRequest, sessionUser);
 
+            phaseStart = System.nanoTime();
             Client client = authorizeRestWebServiceValidator.validateClient(clientId, state);
+            executionContext.endPhase("client_lookup", phaseStart);
             String deviceAuthzUserCode = deviceAuthorizationService.getUserCodeFromSession(httpRequest);
             redirectUri = authorizeRestWebServiceValidator.validateRedirectUri(client, redirectUri, state, deviceAuthzUserCode, httpRequest);
             checkAcrChanged(acrValuesStr, prompts, sessionUser); // check after redirect uri is validated
@@ -246,7 +251,9 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
             JwtAuthorizationRequest jwtRequest = null;
             if (StringUtils.isNotBlank(request) || StringUtils.isNotBlank(requestUri)) {
                 try {
+                    phaseStart = System.nanoTime();
                     jwtRequest = JwtAuthorizationRequest.createJwtRequest(request, requestUri, client, redirectUriResponse, cryptoProvider, appConfiguration);
+                    executionContext.endPhase("request_object", phaseStart);
 
                     if (jwtRequest == null) {
                         throw createInvalidJwtRequestException(redirectUriResponse, "Failed to parse jwt.");
@@ -523,6 +530,7 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
 
             AuthorizationCode authorizationCode = null;
             if (responseTypes.contains(io.jans.as.model.common.ResponseType.CODE)) {
+                phaseStart = System.nanoTime();
                 authorizationGrant = authorizationGrantList.createAuthorizationCodeGrant(user, client,
                         sessionUser.getAuthenticationTime());
                 authorizationGrant.setNonce(nonce);
@@ -537,6 +545,7 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
                 authorizationGrant.setAcrValues(getAcrForGrant(acrValuesStr, sessionUser));
                 authorizationGrant.setSessionDn(sessionUser.getDn());
                 authorizationGrant.save(); // call save after object modification!!!
+                executionContext.endPhase("code_grant", phaseStart);
 
                 authorizationCode = authorizationGrant.getAuthorizationCode();
 
@@ -558,7 +567,7 @@ public class AuthorizeRestWebServiceImpl implements AuthorizeRestWebService {
                     authorizationGrant.setSessionDn(sessionUser.getDn());
                     authorizationGrant.save(); // call save after object modification!!!
                 }
-                newAccessToken = authorizationGrant.createAccessToken(httpRequest.getHeader("X-ClientCert"), new ExecutionContext(httpRequest, httpResponse));
+                newAccessToken = authorizationGrant.createAccessToken(httpRequest.getHeader("X-ClientCert"), executionContext);
 
                 redirectUriResponse.getRedirectUri().addResponseParameter(AuthorizeResponseParam.ACCESS_TOKEN, newAccessToken.getCode());
                 redirectUriResponse.getRedirectUri().addResponseParameter(AuthorizeResponseParam.TOKEN_TYPE, newAccessToken.getTokenType().toString());
@@ -17,6 +17,7 @@ import io.jans.as.client.ciba.ping.PingCallbackClient;
 import io.jans.as.client.ciba.ping.PingCallbackRequest;
 import io.jans.as.client.ciba.ping.PingCallbackResponse;
 import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.service.net.OutboundHttpService;
 
 /**
  * @author Javier Rojas Blum
@@ -31,6 +32,9 @@ public class CIBAPingCallbackService {
     @Inject
     private AppConfiguration appConfiguration;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     public void pingCallback(String authReqId, String clientNotificationEndpoint, String clientNotificationToken) {
         PingCallbackRequest pingCallbackRequest = new PingCallbackRequest();
 
@@ -38,6 +42,8 @@ public class CIBAPingCallbackService {
         pingCallbackRequest.setAuthReqId(authReqId);
 
         PingCallbackClient pingCallbackClient = new PingCallbackClient(clientNotificationEndpoint, appConfiguration.getFapiCompatibility());
+        pingCallbackClient.setExecutor(appConfiguration.getFapiCompatibility() ?
+                outboundHttpService.getMtlsClientExecutor() : outboundHttpService.getClientExecutor());
         pingCallbackClient.setRequest(pingCallbackRequest);
         PingCallbackResponse pingCallbackResponse = pingCallbackClient.exec();
 
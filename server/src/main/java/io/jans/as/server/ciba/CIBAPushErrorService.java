@@ -7,6 +7,7 @@
 package io.jans.as.server.ciba;
 
 import javax.ejb.Stateless;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.slf4j.Logger;
@@ -16,6 +17,7 @@ import io.jans.as.client.ciba.push.PushErrorClient;
 import io.jans.as.client.ciba.push.PushErrorRequest;
 import io.jans.as.client.ciba.push.PushErrorResponse;
 import io.jans.as.model.ciba.PushErrorResponseType;
+import io.jans.as.server.service.net.OutboundHttpService;
 
 /**
  * @author Javier Rojas Blum
@@ -27,6 +29,9 @@ public class CIBAPushErrorService {
 
     private final static Logger log = LoggerFactory.getLogger(CIBAPushErrorService.class);
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     public void pushError(String authReqId, String clientNotificationEndpoint, String clientNotificationToken,
                           PushErrorResponseType error, String errorDescription) {
         PushErrorRequest pushErrorRequest = new PushErrorRequest();
@@ -37,6 +42,7 @@ public class CIBAPushErrorService {
         pushErrorRequest.setErrorDescription(errorDescription);
 
         PushErrorClient pushErrorClient = new PushErrorClient(clientNotificationEndpoint);
+        pushErrorClient.setExecutor(outboundHttpService.getClientExecutor());
         pushErrorClient.setRequest(pushErrorRequest);
         PushErrorResponse pushErrorResponse = pushErrorClient.exec();
 
@@ -7,6 +7,7 @@
 package io.jans.as.server.ciba;
 
 import javax.ejb.Stateless;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.slf4j.Logger;
@@ -16,6 +17,7 @@ import io.jans.as.client.ciba.push.PushTokenDeliveryClient;
 import io.jans.as.client.ciba.push.PushTokenDeliveryRequest;
 import io.jans.as.client.ciba.push.PushTokenDeliveryResponse;
 import io.jans.as.model.common.TokenType;
+import io.jans.as.server.service.net.OutboundHttpService;
 
 /**
  * @author Javier Rojas Blum
@@ -27,6 +29,9 @@ public class CIBAPushTokenDeliveryService {
 
     private final static Logger log = LoggerFactory.getLogger(CIBAPushTokenDeliveryService.class);
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     public void pushTokenDelivery(String authReqId, String clientNotificationEndpoint, String clientNotificationToken,
                                   String accessToken, String refreshToken, String idToken, Integer expiresIn) {
         PushTokenDeliveryRequest pushTokenDeliveryRequest = new PushTokenDeliveryRequest();
@@ -40,6 +45,7 @@ public class CIBAPushTokenDeliveryService {
         pushTokenDeliveryRequest.setIdToken(idToken);
 
         PushTokenDeliveryClient pushTokenDeliveryClient = new PushTokenDeliveryClient(clientNotificationEndpoint);
+        pushTokenDeliveryClient.setExecutor(outboundHttpService.getClientExecutor());
         pushTokenDeliveryClient.setRequest(pushTokenDeliveryRequest);
         PushTokenDeliveryResponse pushTokenDeliveryResponse = pushTokenDeliveryClient.exec();
 
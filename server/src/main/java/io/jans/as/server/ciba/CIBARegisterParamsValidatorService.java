@@ -16,11 +16,8 @@ import java.util.List;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.ws.rs.HttpMethod;
 
 import org.apache.logging.log4j.util.Strings;
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
 import org.json.JSONArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +28,8 @@ import io.jans.as.model.common.SubjectType;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.crypto.signature.AsymmetricSignatureAlgorithm;
 import io.jans.as.model.util.Util;
+import io.jans.as.server.model.net.OutboundHttpResponse;
+import io.jans.as.server.service.net.OutboundHttpService;
 
 /**
  * @author Javier Rojas Blum
@@ -45,6 +44,9 @@ public class CIBARegisterParamsValidatorService {
     @Inject
     private AppConfiguration appConfiguration;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     public boolean validateParams(
             BackchannelTokenDeliveryMode backchannelTokenDeliveryMode, String backchannelClientNotificationEndpoint,
             AsymmetricSignatureAlgorithm backchannelAuthenticationRequestSigningAlg, Boolean backchannelUserCodeParameter,
@@ -88,18 +90,13 @@ public class CIBARegisterParamsValidatorService {
                 }
 
                 if (Strings.isNotBlank(sectorIdentifierUri)) {
-                    ClientRequest clientRequest = new ClientRequest(sectorIdentifierUri);
-                    clientRequest.setHttpMethod(HttpMethod.GET);
-
-                    ClientResponse<String> clientResponse = clientRequest.get(String.class);
-                    int status = clientResponse.getStatus();
+                    OutboundHttpResponse response = outboundHttpService.get(sectorIdentifierUri);
 
-                    if (status != 200) {
+                    if (response == null || !response.isOk()) {
                         return false;
                     }
 
-                    String entity = clientResponse.getEntity(String.class);
-                    JSONArray sectorIdentifierJsonArray = new JSONArray(entity);
+                    JSONArray sectorIdentifierJsonArray = new JSONArray(response.getContent());
 
                     if (backchannelTokenDeliveryMode == PING || backchannelTokenDeliveryMode == POLL) {
                         // If a sector_identifier_uri is explicitly provided, then the jwks_uri must be included in the list of
@@ -0,0 +1,166 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.inject.Inject;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.service.metric.LatencyMetrics;
+import io.jans.as.server.service.metric.PhaseTimings;
+
+/**
+ * Records latency of endpoint requests into {@link LatencyMetrics}.
+ * <p>
+ * If {@code serverTimingHeaderEnabled} is set or request is selected by {@code phaseTimingLogSamplingPercentage},
+ * request is traced: phases are collected into {@link PhaseTimings} and written as {@code Server-Timing} response
+ * header and/or as log line.
+ * <p>
+ * Filter is mapped first in {@code web.xml}, so latency includes time spent in other filters (e.g. client
+ * authentication in {@code AuthenticationFilter}).
+ */
+@WebFilter(
+        filterName = "LatencyMetricsFilter",
+        asyncSupported = true,
+        urlPatterns = {"/restv1/authorize", "/restv1/token", "/restv1/userinfo", "/restv1/introspection",
+                "/restv1/jwks", "/restv1/end_session"})
+public class LatencyMetricsFilter implements Filter {
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        final LatencyMetrics.Endpoint endpoint = request instanceof HttpServletRequest ?
+                LatencyMetrics.Endpoint.fromRequestUri(((HttpServletRequest) request).getRequestURI()) : null;
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final boolean serverTimingHeader = Boolean.TRUE.equals(appConfiguration.getServerTimingHeaderEnabled())
+                && response instanceof HttpServletResponse;
+        final boolean logTimings = isSampled(appConfiguration.getPhaseTimingLogSamplingPercentage());
+        if (!serverTimingHeader && !logTimings) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                LatencyMetrics.observe(endpoint, start);
+            }
+            return;
+        }
+
+        final PhaseTimings timings = new PhaseTimings();
+        request.setAttribute(PhaseTimings.REQUEST_ATTRIBUTE, timings);
+        PhaseTimings.setCurrent(timings);
+        try {
+            if (serverTimingHeader) {
+                ServerTimingResponseWrapper responseWrapper = new ServerTimingResponseWrapper((HttpServletResponse) response, timings);
+                chain.doFilter(request, responseWrapper);
+                responseWrapper.addServerTimingHeader();
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            PhaseTimings.setCurrent(null);
+            LatencyMetrics.observe(endpoint, start);
+            if (logTimings) {
+                log.info("Phase timings: {}", timings.toLogString(endpoint.getValue()));
+            }
+        }
+    }
+
+    private static boolean isSampled(int percentage) {
+        return percentage > 0 && (percentage >= 100 || ThreadLocalRandom.current().nextInt(100) < percentage);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Adds Server-Timing header right before response is committed (when endpoint starts to write body, redirects
+     * or sends error), so it contains all phases of request.
+     */
+    private static class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final PhaseTimings timings;
+        private boolean headerAdded;
+
+        ServerTimingResponseWrapper(HttpServletResponse response, PhaseTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTimingHeader() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader("Server-Timing", timings.toServerTimingHeader());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
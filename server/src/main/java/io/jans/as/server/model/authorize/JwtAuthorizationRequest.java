@@ -6,9 +6,9 @@
 
 package io.jans.as.server.model.authorize;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
 import io.jans.as.model.authorize.AuthorizeErrorResponseType;
 import io.jans.as.model.common.Display;
 import io.jans.as.model.common.Prompt;
@@ -25,14 +25,13 @@ import io.jans.as.model.jwe.JweDecrypterImpl;
 import io.jans.as.model.jwt.JwtHeader;
 import io.jans.as.model.jwt.JwtHeaderName;
 import io.jans.as.model.util.Base64Util;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.model.util.Util;
 import io.jans.as.server.service.ClientService;
 import io.jans.as.server.service.RedirectUriResponse;
+import io.jans.as.server.service.RequestUriCache;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.service.cdi.util.CdiUtil;
 import org.apache.commons.lang.StringUtils;
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -40,7 +39,6 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
@@ -304,9 +302,11 @@ public class JwtAuthorizationRequest {
     private boolean validateSignature(AbstractCryptoProvider cryptoProvider, SignatureAlgorithm signatureAlgorithm, Client client, String signingInput, String signature) throws Exception {
         ClientService clientService = CdiUtil.bean(ClientService.class);
         String sharedSecret = clientService.decryptSecret(client.getClientSecret());
-        JSONObject jwks = Strings.isNullOrEmpty(client.getJwks()) ?
-                JwtUtil.getJSONWebKeys(client.getJwksUri()) :
-                new JSONObject(client.getJwks());
+        ClientJwks clientJwks = client.getParsedJwks();
+        if (clientJwks != null) {
+            return clientJwks.verifySignature(cryptoProvider, signingInput, signature, keyId, sharedSecret, signatureAlgorithm);
+        }
+        JSONObject jwks = CdiUtil.bean(OutboundHttpService.class).getJSONWebKeys(client.getJwksUri());
         return cryptoProvider.verifySignature(signingInput, signature, keyId, jwks, sharedSecret, signatureAlgorithm);
     }
 
@@ -440,8 +440,8 @@ public class JwtAuthorizationRequest {
     }
 
     @Nullable
-    private static String queryRequest(@Nullable String requestUri, @Nullable RedirectUriResponse redirectUriResponse,
-                                       AppConfiguration appConfiguration) {
+    private static RequestUriCache.FetchedRequest queryRequest(@Nullable String requestUri, @Nullable RedirectUriResponse redirectUriResponse,
+                                                               AppConfiguration appConfiguration) {
         if (StringUtils.isBlank(requestUri)) {
             return null;
         }
@@ -451,28 +451,26 @@ public class JwtAuthorizationRequest {
             String reqUriHash = reqUri.getFragment();
             String reqUriWithoutFragment = reqUri.getScheme() + ":" + reqUri.getSchemeSpecificPart();
 
-            ClientRequest clientRequest = new ClientRequest(reqUriWithoutFragment);
-            clientRequest.setHttpMethod(HttpMethod.GET);
-
-            ClientResponse<String> clientResponse = clientRequest.get(String.class);
-            int status = clientResponse.getStatus();
-
-            String request = null;
-            if (status == 200) {
-                request = clientResponse.getEntity(String.class);
-
+            RequestUriCache requestUriCache = CdiUtil.bean(RequestUriCache.class);
+            RequestUriCache.FetchedRequest request = requestUriCache.fetch(reqUriWithoutFragment);
+            if (!request.isFailed()) {
                 if (StringUtils.isBlank(reqUriHash) || !appConfiguration.getRequestUriHashVerificationEnabled()) {
                     validRequestUri = true;
                 } else {
-                    String hash = Base64Util.base64urlencode(JwtUtil.getMessageDigestSHA256(request));
-                    validRequestUri = StringUtils.equals(reqUriHash, hash);
+                    validRequestUri = StringUtils.equals(reqUriHash, request.getContentHash());
+                    if (!validRequestUri) {
+                        // cached content may be outdated, RP could have published new request object under same uri
+                        requestUriCache.invalidate(reqUriWithoutFragment);
+                        request = requestUriCache.fetch(reqUriWithoutFragment);
+                        validRequestUri = !request.isFailed() && StringUtils.equals(reqUriHash, request.getContentHash());
+                    }
                 }
             }
 
             if (!validRequestUri && redirectUriResponse != null) {
                 throw redirectUriResponse.createWebException(AuthorizeErrorResponseType.INVALID_REQUEST_URI, "Invalid request uri.");
             }
-            return request;
+            return request.isFailed() ? null : request;
         } catch (WebApplicationException e) {
             throw e;
         } catch (Exception e) {
@@ -482,9 +480,13 @@ public class JwtAuthorizationRequest {
     }
 
     public static JwtAuthorizationRequest createJwtRequest(String request, String requestUri, Client client, RedirectUriResponse redirectUriResponse, AbstractCryptoProvider cryptoProvider, AppConfiguration appConfiguration) {
-        final String requestFromClient = queryRequest(requestUri, redirectUriResponse, appConfiguration);
-        if (StringUtils.isNotBlank(requestFromClient)) {
-            request = requestFromClient;
+        final RequestUriCache.FetchedRequest requestFromClient = queryRequest(requestUri, redirectUriResponse, appConfiguration);
+        if (requestFromClient != null) {
+            final JwtAuthorizationRequest cached = requestFromClient.getRequestObject(client.getClientId());
+            if (cached != null) {
+                return cached;
+            }
+            request = requestFromClient.getContent();
         }
 
         if (StringUtils.isBlank(request)) {
@@ -492,7 +494,11 @@ public class JwtAuthorizationRequest {
         }
 
         try {
-            return new JwtAuthorizationRequest(appConfiguration, cryptoProvider, request, client);
+            final JwtAuthorizationRequest jwtRequest = new JwtAuthorizationRequest(appConfiguration, cryptoProvider, request, client);
+            if (requestFromClient != null) {
+                requestFromClient.setRequestObject(client.getClientId(), jwtRequest);
+            }
+            return jwtRequest;
         } catch (WebApplicationException e) {
             throw e;
         } catch (Exception e) {
@@ -10,6 +10,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import io.jans.as.common.model.registration.Client;
+import io.jans.as.server.service.metric.PhaseTimings;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -40,4 +41,23 @@ public class ExecutionContext {
     public void setClient(Client client) {
         this.client = client;
     }
+
+    /**
+     * @return phase timings of the request or null if request is not traced
+     */
+    public PhaseTimings getPhaseTimings() {
+        return PhaseTimings.from(httpRequest);
+    }
+
+    /**
+     * Marks end of request phase (e.g. grant_lookup). No-op if request is not traced.
+     *
+     * @param startNanos value of {@link System#nanoTime()} taken when phase was started
+     */
+    public void endPhase(String phase, long startNanos) {
+        final PhaseTimings timings = getPhaseTimings();
+        if (timings != null) {
+            timings.record(phase, startNanos);
+        }
+    }
 }
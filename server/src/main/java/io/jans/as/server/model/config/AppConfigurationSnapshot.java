@@ -0,0 +1,210 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.model.config;
+
+import io.jans.as.model.common.ComponentType;
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.model.util.URLPatternList;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang.BooleanUtils;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the application configuration values published by {@link ConfigurationFactory}.
+ * <p>
+ * A new snapshot is built every time configuration is (re)loaded and swapped in atomically,
+ * so request threads read one stable reference. Values are copied out of {@link AppConfiguration}
+ * when snapshot is built and structures derived from them (enabled components, supported algorithms,
+ * url pattern lists) are computed once per snapshot instead of on every call. Snapshot doesn't keep
+ * reference to {@link AppConfiguration}, so later changes of it are not visible here.
+ */
+public final class AppConfigurationSnapshot {
+
+    private final long revision;
+    private final long createdAt;
+
+    private final Set<ComponentType> enabledComponentTypes;
+
+    private final Set<String> idTokenSigningAlgValuesSupported;
+    private final Set<String> idTokenEncryptionAlgValuesSupported;
+    private final Set<String> idTokenEncryptionEncValuesSupported;
+    private final Set<String> userInfoSigningAlgValuesSupported;
+    private final Set<String> userInfoEncryptionAlgValuesSupported;
+    private final Set<String> userInfoEncryptionEncValuesSupported;
+    private final Set<String> requestObjectSigningAlgValuesSupported;
+    private final Set<String> requestObjectEncryptionAlgValuesSupported;
+    private final Set<String> requestObjectEncryptionEncValuesSupported;
+    private final Set<String> tokenEndpointAuthMethodsSupported;
+    private final Set<String> tokenEndpointAuthSigningAlgValuesSupported;
+
+    private final URLPatternList clientWhiteList;
+    private final URLPatternList clientBlackList;
+
+    private final int discoveryCacheLifetimeInMinutes;
+    private final int sectorIdentifierCacheLifetimeInMinutes;
+
+    private final boolean oAuthAuditLoggingEnabled;
+    private final boolean sendAuditJms;
+    private final String jmsUserName;
+    private final String jmsPassword;
+    private final Set<String> jmsBrokerURISet;
+
+    public AppConfigurationSnapshot(AppConfiguration appConfiguration, long revision) {
+        this.revision = revision;
+        this.createdAt = System.currentTimeMillis();
+
+        final Set<ComponentType> components = ComponentType.fromValues(appConfiguration.getEnabledComponents());
+        this.enabledComponentTypes = components.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(components));
+
+        this.idTokenSigningAlgValuesSupported = toSet(appConfiguration.getIdTokenSigningAlgValuesSupported());
+        this.idTokenEncryptionAlgValuesSupported = toSet(appConfiguration.getIdTokenEncryptionAlgValuesSupported());
+        this.idTokenEncryptionEncValuesSupported = toSet(appConfiguration.getIdTokenEncryptionEncValuesSupported());
+        this.userInfoSigningAlgValuesSupported = toSet(appConfiguration.getUserInfoSigningAlgValuesSupported());
+        this.userInfoEncryptionAlgValuesSupported = toSet(appConfiguration.getUserInfoEncryptionAlgValuesSupported());
+        this.userInfoEncryptionEncValuesSupported = toSet(appConfiguration.getUserInfoEncryptionEncValuesSupported());
+        this.requestObjectSigningAlgValuesSupported = toSet(appConfiguration.getRequestObjectSigningAlgValuesSupported());
+        this.requestObjectEncryptionAlgValuesSupported = toSet(appConfiguration.getRequestObjectEncryptionAlgValuesSupported());
+        this.requestObjectEncryptionEncValuesSupported = toSet(appConfiguration.getRequestObjectEncryptionEncValuesSupported());
+        this.tokenEndpointAuthMethodsSupported = toSet(appConfiguration.getTokenEndpointAuthMethodsSupported());
+        this.tokenEndpointAuthSigningAlgValuesSupported = toSet(appConfiguration.getTokenEndpointAuthSigningAlgValuesSupported());
+
+        this.clientWhiteList = new URLPatternList(appConfiguration.getClientWhiteList());
+        this.clientBlackList = new URLPatternList(appConfiguration.getClientBlackList());
+
+        this.discoveryCacheLifetimeInMinutes = appConfiguration.getDiscoveryCacheLifetimeInMinutes();
+        this.sectorIdentifierCacheLifetimeInMinutes = appConfiguration.getSectorIdentifierCacheLifetimeInMinutes();
+
+        this.oAuthAuditLoggingEnabled = BooleanUtils.isTrue(appConfiguration.getEnabledOAuthAuditLogging());
+        this.jmsUserName = appConfiguration.getJmsUserName();
+        this.jmsPassword = appConfiguration.getJmsPassword();
+        this.jmsBrokerURISet = toSet(appConfiguration.getJmsBrokerURISet());
+        this.sendAuditJms = StringUtils.isNotEmpty(jmsUserName) && StringUtils.isNotEmpty(jmsPassword)
+                && CollectionUtils.isNotEmpty(jmsBrokerURISet);
+    }
+
+    private static Set<String> toSet(Iterable<String> values) {
+        if (values == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            result.add(value);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Set<ComponentType> getEnabledComponentTypes() {
+        return enabledComponentTypes;
+    }
+
+    public boolean isEnabledComponent(ComponentType componentType) {
+        return enabledComponentTypes.isEmpty() || enabledComponentTypes.contains(componentType);
+    }
+
+    public Set<String> getIdTokenSigningAlgValuesSupported() {
+        return idTokenSigningAlgValuesSupported;
+    }
+
+    public Set<String> getIdTokenEncryptionAlgValuesSupported() {
+        return idTokenEncryptionAlgValuesSupported;
+    }
+
+    public Set<String> getIdTokenEncryptionEncValuesSupported() {
+        return idTokenEncryptionEncValuesSupported;
+    }
+
+    public Set<String> getUserInfoSigningAlgValuesSupported() {
+        return userInfoSigningAlgValuesSupported;
+    }
+
+    public Set<String> getUserInfoEncryptionAlgValuesSupported() {
+        return userInfoEncryptionAlgValuesSupported;
+    }
+
+    public Set<String> getUserInfoEncryptionEncValuesSupported() {
+        return userInfoEncryptionEncValuesSupported;
+    }
+
+    public Set<String> getRequestObjectSigningAlgValuesSupported() {
+        return requestObjectSigningAlgValuesSupported;
+    }
+
+    public Set<String> getRequestObjectEncryptionAlgValuesSupported() {
+        return requestObjectEncryptionAlgValuesSupported;
+    }
+
+    public Set<String> getRequestObjectEncryptionEncValuesSupported() {
+        return requestObjectEncryptionEncValuesSupported;
+    }
+
+    public Set<String> getTokenEndpointAuthMethodsSupported() {
+        return tokenEndpointAuthMethodsSupported;
+    }
+
+    public Set<String> getTokenEndpointAuthSigningAlgValuesSupported() {
+        return tokenEndpointAuthSigningAlgValuesSupported;
+    }
+
+    public URLPatternList getClientWhiteList() {
+        return clientWhiteList;
+    }
+
+    public URLPatternList getClientBlackList() {
+        return clientBlackList;
+    }
+
+    public int getDiscoveryCacheLifetimeInMinutes() {
+        return discoveryCacheLifetimeInMinutes;
+    }
+
+    public int getSectorIdentifierCacheLifetimeInMinutes() {
+        return sectorIdentifierCacheLifetimeInMinutes;
+    }
+
+    public boolean isOAuthAuditLoggingEnabled() {
+        return oAuthAuditLoggingEnabled;
+    }
+
+    public boolean isSendAuditJms() {
+        return sendAuditJms;
+    }
+
+    public String getJmsUserName() {
+        return jmsUserName;
+    }
+
+    public String getJmsPassword() {
+        return jmsPassword;
+    }
+
+    public Set<String> getJmsBrokerURISet() {
+        return jmsBrokerURISet;
+    }
+
+    @Override
+    public String toString() {
+        return "AppConfigurationSnapshot{" +
+                "revision=" + revision +
+                ", createdAt=" + createdAt +
+                ", enabledComponentTypes=" + enabledComponentTypes +
+                '}';
+    }
+}
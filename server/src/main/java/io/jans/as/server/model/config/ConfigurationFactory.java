@@ -53,6 +53,7 @@ import javax.servlet.ServletContext;
 import javax.servlet.ServletRegistration;
 import java.io.File;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static io.jans.as.model.config.Constants.BASE_PROPERTIES_FILE_NAME;
@@ -145,6 +146,8 @@ public class ConfigurationFactory {
 
 	private AtomicBoolean isActive;
 
+	private final AtomicReference<AppConfigurationSnapshot> snapshot = new AtomicReference<>();
+
 	private long baseConfigurationFileLastModifiedTime;
 
 	private long loadedRevision = -1;
@@ -317,6 +320,23 @@ public class ConfigurationFactory {
 		return errorResponseFactory;
 	}
 
+	/**
+	 * Returns immutable snapshot of currently active application configuration (or null if configuration is not
+	 * loaded yet). Snapshot is replaced atomically each time configuration is loaded, thus callers should not hold
+	 * it between requests.
+	 */
+	public AppConfigurationSnapshot getAppConfigurationSnapshot() {
+		return snapshot.get();
+	}
+
+	private void setConf(AppConfiguration newConf, long revision) {
+		conf = newConf;
+
+		final AppConfigurationSnapshot newSnapshot = new AppConfigurationSnapshot(newConf, revision);
+		snapshot.set(newSnapshot);
+		log.debug("Published configuration snapshot: {}", newSnapshot);
+	}
+
 	public BaseDnConfiguration getBaseDn() {
 		return getStaticConfiguration().getBaseDn();
 	}
@@ -375,7 +395,7 @@ public class ConfigurationFactory {
 		final AppConfiguration configFromFile = loadConfFromFile();
 		if (configFromFile != null) {
 			log.info("Reloaded configuration from file: " + configFilePath);
-			conf = configFromFile;
+			setConf(configFromFile, loadedRevision);
 			return true;
 		} else {
 			log.error("Failed to load configuration from file: " + configFilePath);
@@ -467,7 +487,7 @@ public class ConfigurationFactory {
 
 	private void initConfigurationConf(Conf p_conf) {
 		if (p_conf.getDynamic() != null) {
-			conf = p_conf.getDynamic();
+			setConf(p_conf.getDynamic(), p_conf.getRevision());
 		}
 		if (p_conf.getStatics() != null) {
 			staticConf = p_conf.getStatics();
@@ -0,0 +1,20 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.model.exception;
+
+/**
+ * Indicates that custom script method was executed longer than configured time budget
+ */
+public class ScriptTimeBudgetExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = -3847261295178542203L;
+
+	public ScriptTimeBudgetExceededException(String message) {
+		super(message);
+	}
+
+}
@@ -305,6 +305,33 @@ public class DeviceRegistration extends BaseEntry implements Serializable {
         this.deletable = deletable;
     }
 
+    /**
+     * @return copy of registration. Device configuration and device data are shared (they are not changed in place)
+     */
+    public DeviceRegistration copy() {
+        DeviceRegistration copy = new DeviceRegistration();
+        copy.setDn(getDn());
+        copy.id = id;
+        copy.displayName = displayName;
+        copy.description = description;
+        copy.nickname = nickname;
+        copy.userInum = userInum;
+        copy.deviceRegistrationConfiguration = deviceRegistrationConfiguration;
+        copy.deviceNotificationConf = deviceNotificationConf;
+        copy.counter = counter;
+        copy.status = status;
+        copy.application = application;
+        copy.keyHandle = keyHandle;
+        copy.keyHandleHashCode = keyHandleHashCode;
+        copy.deviceData = deviceData;
+        copy.creationDate = creationDate;
+        copy.lastAccessTime = lastAccessTime;
+        copy.expirationDate = expirationDate;
+        copy.deletable = deletable;
+        copy.ttl = ttl;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "DeviceRegistration{" +
@@ -0,0 +1,54 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.model.net;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Fully read response of outbound http call.
+ */
+public class OutboundHttpResponse {
+
+	private final int status;
+	private final String content;
+	private final Map<String, String> headers;
+
+	public OutboundHttpResponse(int status, String content, Map<String, String> headers) {
+		this.status = status;
+		this.content = content;
+		this.headers = headers != null ? headers : Collections.<String, String>emptyMap();
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public boolean isOk() {
+		return status == 200;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	/**
+	 * @param name header name, case insensitive
+	 */
+	public String getHeader(String name) {
+		return name != null ? headers.get(name.toLowerCase()) : null;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public String toString() {
+		return "OutboundHttpResponse{status=" + status + ", contentLength=" + (content != null ? content.length() : 0) + '}';
+	}
+}
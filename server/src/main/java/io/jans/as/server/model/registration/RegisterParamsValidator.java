@@ -15,14 +15,11 @@ import java.util.Set;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang.StringUtils;
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
 import org.json.JSONArray;
 import org.slf4j.Logger;
 
@@ -38,6 +35,10 @@ import io.jans.as.model.register.RegisterErrorResponseType;
 import io.jans.as.model.util.Pair;
 import io.jans.as.model.util.URLPatternList;
 import io.jans.as.model.util.Util;
+import io.jans.as.server.model.config.AppConfigurationSnapshot;
+import io.jans.as.server.model.config.ConfigurationFactory;
+import io.jans.as.server.model.net.OutboundHttpResponse;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.as.server.util.ServerUtil;
 
 /**
@@ -59,6 +60,12 @@ public class RegisterParamsValidator {
     @Inject
     private ErrorResponseFactory errorResponseFactory;
 
+    @Inject
+    private ConfigurationFactory configurationFactory;
+
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     private static final String HTTP = "http";
     private static final String HTTPS = "https";
     private static final String LOCALHOST = "localhost";
@@ -105,9 +112,11 @@ public class RegisterParamsValidator {
      * @param registerRequest Object containing all parameters received to register a client.
      */
     public void validateAlgorithms( RegisterRequest registerRequest ) {
+        final AppConfigurationSnapshot snapshot = configurationFactory.getAppConfigurationSnapshot();
+
         if ( registerRequest.getIdTokenSignedResponseAlg() != null
                 && registerRequest.getIdTokenSignedResponseAlg() != SignatureAlgorithm.NONE &&
-                ! appConfiguration.getIdTokenSigningAlgValuesSupported().contains(
+                ! snapshot.getIdTokenSigningAlgValuesSupported().contains(
                         registerRequest.getIdTokenSignedResponseAlg().toString()) ) {
             log.debug("Parameter id_token_signed_response_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -115,7 +124,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getIdTokenEncryptedResponseAlg() != null &&
-                ! appConfiguration.getIdTokenEncryptionAlgValuesSupported().contains(
+                ! snapshot.getIdTokenEncryptionAlgValuesSupported().contains(
                         registerRequest.getIdTokenEncryptedResponseAlg().toString()) ) {
             log.debug("Parameter id_token_encrypted_response_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -123,7 +132,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getIdTokenEncryptedResponseEnc() != null &&
-                ! appConfiguration.getIdTokenEncryptionEncValuesSupported().contains(
+                ! snapshot.getIdTokenEncryptionEncValuesSupported().contains(
                         registerRequest.getIdTokenEncryptedResponseEnc().toString()) ) {
             log.debug("Parameter id_token_encrypted_response_enc is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -131,7 +140,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getUserInfoSignedResponseAlg() != null &&
-                ! appConfiguration.getUserInfoSigningAlgValuesSupported().contains(
+                ! snapshot.getUserInfoSigningAlgValuesSupported().contains(
                         registerRequest.getUserInfoSignedResponseAlg().toString()) ) {
             log.debug("Parameter userinfo_signed_response_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -139,7 +148,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getUserInfoEncryptedResponseAlg() != null &&
-                ! appConfiguration.getUserInfoEncryptionAlgValuesSupported().contains(
+                ! snapshot.getUserInfoEncryptionAlgValuesSupported().contains(
                         registerRequest.getUserInfoEncryptedResponseAlg().toString()) ) {
             log.debug("Parameter userinfo_encrypted_response_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -147,7 +156,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getUserInfoEncryptedResponseEnc() != null &&
-                ! appConfiguration.getUserInfoEncryptionEncValuesSupported().contains(
+                ! snapshot.getUserInfoEncryptionEncValuesSupported().contains(
                         registerRequest.getUserInfoEncryptedResponseEnc().toString()) ) {
             log.debug("Parameter userinfo_encrypted_response_enc is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -155,7 +164,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getRequestObjectSigningAlg() != null &&
-                ! appConfiguration.getRequestObjectSigningAlgValuesSupported().contains(
+                ! snapshot.getRequestObjectSigningAlgValuesSupported().contains(
                         registerRequest.getRequestObjectSigningAlg().toString()) ) {
             log.debug("Parameter request_object_signing_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -163,7 +172,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getRequestObjectEncryptionAlg() != null &&
-                ! appConfiguration.getRequestObjectEncryptionAlgValuesSupported().contains(
+                ! snapshot.getRequestObjectEncryptionAlgValuesSupported().contains(
                         registerRequest.getRequestObjectEncryptionAlg().toString()) ) {
             log.debug("Parameter request_object_encryption_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -171,7 +180,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getRequestObjectEncryptionEnc() != null &&
-                ! appConfiguration.getRequestObjectEncryptionEncValuesSupported().contains(
+                ! snapshot.getRequestObjectEncryptionEncValuesSupported().contains(
                         registerRequest.getRequestObjectEncryptionEnc().toString()) ) {
             log.debug("Parameter request_object_encryption_enc is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -179,7 +188,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getTokenEndpointAuthMethod() != null &&
-                ! appConfiguration.getTokenEndpointAuthMethodsSupported().contains(
+                ! snapshot.getTokenEndpointAuthMethodsSupported().contains(
                         registerRequest.getTokenEndpointAuthMethod().toString()) ) {
             log.debug("Parameter token_endpoint_auth_method is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -187,7 +196,7 @@ public class RegisterParamsValidator {
         }
 
         if ( registerRequest.getTokenEndpointAuthSigningAlg() != null &&
-                ! appConfiguration.getTokenEndpointAuthSigningAlgValuesSupported().contains(
+                ! snapshot.getTokenEndpointAuthSigningAlgValuesSupported().contains(
                         registerRequest.getTokenEndpointAuthSigningAlg().toString()) ) {
             log.debug("Parameter token_endpoint_auth_signing_alg is not valid.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST,
@@ -293,16 +302,10 @@ public class RegisterParamsValidator {
                     valid = false;
                 }
 
-                ClientRequest clientRequest = new ClientRequest(sectorIdentifierUrl);
-                clientRequest.setHttpMethod(HttpMethod.GET);
-
-                ClientResponse<String> clientResponse = clientRequest.get(String.class);
-                int status = clientResponse.getStatus();
-
-                if (status == 200) {
-                    String entity = clientResponse.getEntity(String.class);
+                OutboundHttpResponse response = outboundHttpService.get(sectorIdentifierUrl);
 
-                    JSONArray sectorIdentifierJsonArray = new JSONArray(entity);
+                if (response != null && response.isOk()) {
+                    JSONArray sectorIdentifierJsonArray = new JSONArray(response.getContent());
                     valid = Util.asList(sectorIdentifierJsonArray).containsAll(redirectUris);
                 }
             } catch (Exception e) {
@@ -340,8 +343,7 @@ public class RegisterParamsValidator {
      */
     private boolean checkWhiteListRedirectUris(List<String> redirectUris) {
         boolean valid = true;
-        List<String> whiteList = appConfiguration.getClientWhiteList();
-        URLPatternList urlPatternList = new URLPatternList(whiteList);
+        URLPatternList urlPatternList = configurationFactory.getAppConfigurationSnapshot().getClientWhiteList();
 
         for (String redirectUri : redirectUris) {
             valid &= urlPatternList.isUrlListed(redirectUri);
@@ -355,8 +357,7 @@ public class RegisterParamsValidator {
      */
     private boolean checkBlackListRedirectUris(List<String> redirectUris) {
         boolean valid = true;
-        List<String> blackList = appConfiguration.getClientBlackList();
-        URLPatternList urlPatternList = new URLPatternList(blackList);
+        URLPatternList urlPatternList = configurationFactory.getAppConfigurationSnapshot().getClientBlackList();
 
         for (String redirectUri : redirectUris) {
             valid &= !urlPatternList.isUrlListed(redirectUri);
@@ -10,11 +10,9 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
-import org.json.JSONObject;
-
-import com.google.common.base.Strings;
 
 import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
 import io.jans.as.model.common.AuthenticationMethod;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.crypto.AbstractCryptoProvider;
@@ -26,8 +24,8 @@ import io.jans.as.model.jwt.JwtClaimName;
 import io.jans.as.model.jwt.JwtHeaderName;
 import io.jans.as.model.jwt.JwtType;
 import io.jans.as.model.token.ClientAssertionType;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.server.service.ClientService;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.service.cdi.util.CdiUtil;
 import io.jans.util.security.StringEncrypter;
 
@@ -109,12 +107,13 @@ public class ClientAssertion {
 
                                         // Validate the crypto segment
                                         String keyId = jwt.getHeader().getKeyId();
-                                        JSONObject jwks = Strings.isNullOrEmpty(client.getJwks()) ?
-                                                JwtUtil.getJSONWebKeys(client.getJwksUri()) :
-                                                new JSONObject(client.getJwks());
+                                        ClientJwks clientJwks = client.getParsedJwks();
                                         String sharedSecret = clientService.decryptSecret(client.getClientSecret());
-                                        boolean validSignature = cryptoProvider.verifySignature(jwt.getSigningInput(), jwt.getEncodedSignature(),
-                                                keyId, jwks, sharedSecret, signatureAlgorithm);
+                                        boolean validSignature = clientJwks != null ?
+                                                clientJwks.verifySignature(cryptoProvider, jwt.getSigningInput(), jwt.getEncodedSignature(),
+                                                        keyId, sharedSecret, signatureAlgorithm) :
+                                                cryptoProvider.verifySignature(jwt.getSigningInput(), jwt.getEncodedSignature(),
+                                                        keyId, CdiUtil.bean(OutboundHttpService.class).getJSONWebKeys(client.getJwksUri()), sharedSecret, signatureAlgorithm);
 
                                         if (validSignature) {
                                             result = true;
@@ -8,6 +8,7 @@ package io.jans.as.server.model.token;
 
 import com.google.common.base.Function;
 import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
 import io.jans.as.model.config.WebKeysConfiguration;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.crypto.AbstractCryptoProvider;
@@ -23,11 +24,12 @@ import io.jans.as.model.jwk.Use;
 import io.jans.as.model.jwt.Jwt;
 import io.jans.as.model.jwt.JwtType;
 import io.jans.as.model.token.JsonWebResponse;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.server.model.common.IAuthorizationGrant;
+import io.jans.as.server.model.config.ConfigurationFactory;
 import io.jans.as.server.service.ClientService;
 import io.jans.as.server.service.SectorIdentifierService;
 import io.jans.as.server.service.ServerCryptoProvider;
+import io.jans.as.server.service.net.OutboundHttpService;
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -60,12 +62,18 @@ public class JwrService {
     @Inject
     private AppConfiguration appConfiguration;
 
+    @Inject
+    private ConfigurationFactory configurationFactory;
+
     @Inject
     private WebKeysConfiguration webKeysConfiguration;
 
     @Inject
     private SectorIdentifierService sectorIdentifierService;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     /**
      * Encode means encrypt for Jwe and sign for Jwt, means it's implementaiton specific but we want to abstract it.
      *
@@ -82,8 +90,16 @@ public class JwrService {
         throw new IllegalArgumentException("Unknown Jwr instance.");
     }
 
+    private JwtSigner newJwtSigner(Client client) throws Exception {
+        return JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client, clientService, newServerCryptoProvider());
+    }
+
+    private ServerCryptoProvider newServerCryptoProvider() {
+        return new ServerCryptoProvider(configurationFactory, cryptoProvider);
+    }
+
     private Jwt signJwt(Jwt jwt, Client client) throws Exception {
-        JwtSigner jwtSigner = JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client);
+        JwtSigner jwtSigner = newJwtSigner(client);
         jwtSigner.setJwt(jwt);
         jwtSigner.sign();
         return jwt;
@@ -92,7 +108,7 @@ public class JwrService {
     private Jwe encryptJwe(Jwe jwe, Client client) throws Exception {
 
         if (appConfiguration.getUseNestedJwtDuringEncryption()) {
-            JwtSigner jwtSigner = JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client);
+            JwtSigner jwtSigner = newJwtSigner(client);
             Jwt jwt = jwtSigner.newJwt();
             jwt.setClaims(jwe.getClaims());
             jwe.setSignedJWTPayload(signJwt(jwt, client));
@@ -102,11 +118,21 @@ public class JwrService {
         final BlockEncryptionAlgorithm encryptionMethod = jwe.getHeader().getEncryptionMethod();
 
         if (keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA_OAEP || keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA1_5) {
-            JSONObject jsonWebKeys = JwtUtil.getJSONWebKeys(client.getJwksUri());
-            String keyId = new ServerCryptoProvider(cryptoProvider).getKeyId(JSONWebKeySet.fromJSONObject(jsonWebKeys),
-                    Algorithm.fromString(keyEncryptionAlgorithm.getName()),
-                    Use.ENCRYPTION);
-            PublicKey publicKey = cryptoProvider.getPublicKey(keyId, jsonWebKeys, null);
+            final ClientJwks clientJwks = client.getParsedJwks();
+            final String keyId;
+            final PublicKey publicKey;
+            if (clientJwks != null) {
+                keyId = newServerCryptoProvider().getKeyId(clientJwks.getKeySet(),
+                        Algorithm.fromString(keyEncryptionAlgorithm.getName()),
+                        Use.ENCRYPTION);
+                publicKey = clientJwks.getPublicKey(keyId, cryptoProvider);
+            } else {
+                JSONObject jsonWebKeys = outboundHttpService.getJSONWebKeys(client.getJwksUri());
+                keyId = newServerCryptoProvider().getKeyId(JSONWebKeySet.fromJSONObject(jsonWebKeys),
+                        Algorithm.fromString(keyEncryptionAlgorithm.getName()),
+                        Use.ENCRYPTION);
+                publicKey = cryptoProvider.getPublicKey(keyId, jsonWebKeys, null);
+            }
             jwe.getHeader().setKeyId(keyId);
 
             if (publicKey == null) {
@@ -138,7 +164,7 @@ public class JwrService {
                 jwe.getHeader().setEncryptionMethod(blockEncryptionAlgorithm);
                 return jwe;
             } else {
-                JwtSigner jwtSigner = JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client);
+                JwtSigner jwtSigner = newJwtSigner(client);
                 return jwtSigner.newJwt();
             }
         } catch (Exception e) {
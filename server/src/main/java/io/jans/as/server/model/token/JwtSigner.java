@@ -58,6 +58,14 @@ public class JwtSigner {
     }
 
     public static JwtSigner newJwtSigner(AppConfiguration appConfiguration, JSONWebKeySet webKeys, Client client) throws Exception {
+        return newJwtSigner(appConfiguration, webKeys, client, CdiUtil.bean(ClientService.class), null);
+    }
+
+    /**
+     * Creates signer without CDI lookups, crypto provider may be null (then server crypto provider is looked up).
+     */
+    public static JwtSigner newJwtSigner(AppConfiguration appConfiguration, JSONWebKeySet webKeys, Client client,
+                                         ClientService clientService, AbstractCryptoProvider cryptoProvider) throws Exception {
         Preconditions.checkNotNull(client);
 
         SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.fromString(appConfiguration.getDefaultSignatureAlgorithm());
@@ -65,8 +73,7 @@ public class JwtSigner {
             signatureAlgorithm = SignatureAlgorithm.fromString(client.getIdTokenSignedResponseAlg());
         }
 
-        ClientService clientService = CdiUtil.bean(ClientService.class);
-        return new JwtSigner(appConfiguration, webKeys, signatureAlgorithm, client.getClientId(), clientService.decryptSecret(client.getClientSecret()));
+        return new JwtSigner(appConfiguration, webKeys, signatureAlgorithm, client.getClientId(), clientService.decryptSecret(client.getClientSecret()), cryptoProvider);
     }
 
     public Jwt newJwt() throws Exception {
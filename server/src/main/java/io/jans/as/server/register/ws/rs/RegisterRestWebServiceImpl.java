@@ -27,7 +27,6 @@ import io.jans.as.model.json.JsonApplier;
 import io.jans.as.model.jwt.Jwt;
 import io.jans.as.model.register.RegisterErrorResponseType;
 import io.jans.as.model.register.RegisterResponseParam;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.model.util.Pair;
 import io.jans.as.model.util.Util;
 import io.jans.as.persistence.model.Scope;
@@ -46,6 +45,7 @@ import io.jans.as.server.service.ClientService;
 import io.jans.as.server.service.MetricService;
 import io.jans.as.server.service.ScopeService;
 import io.jans.as.server.service.external.ExternalDynamicClientRegistrationService;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.as.server.service.token.TokenService;
 import io.jans.as.server.util.ServerUtil;
 import io.jans.model.GluuAttribute;
@@ -150,6 +150,9 @@ public class RegisterRestWebServiceImpl implements RegisterRestWebService {
     @Inject
     private AuthorizationGrantList authorizationGrantList;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     @Override
     public Response requestRegister(String requestParams, HttpServletRequest httpRequest, SecurityContext securityContext) {
         com.codahale.metrics.Timer.Context timerContext = metricService.getTimer(MetricType.DYNAMIC_CLIENT_REGISTRATION_RATE).time();
@@ -405,7 +408,7 @@ public class RegisterRestWebServiceImpl implements RegisterRestWebService {
 
             JSONObject jwks = null;
             if (StringUtils.isNotBlank(jwksUri)) {
-                jwks = JwtUtil.getJSONWebKeys(jwksUri);
+                jwks = outboundHttpService.getJSONWebKeys(jwksUri);
             }
 
             if (jwks == null && StringUtils.isNotBlank(jwksStr)) {
@@ -526,7 +529,7 @@ public class RegisterRestWebServiceImpl implements RegisterRestWebService {
 
             JSONObject jwks = Strings.isNullOrEmpty(jwksUriClaim) ?
                     new JSONObject(jwksClaim) :
-                    JwtUtil.getJSONWebKeys(jwksUriClaim);
+                    outboundHttpService.getJSONWebKeys(jwksUriClaim);
 
             boolean validSignature = cryptoProvider.verifySignature(softwareStatement.getSigningInput(),
                     softwareStatement.getEncodedSignature(),
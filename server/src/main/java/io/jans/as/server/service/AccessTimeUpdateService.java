@@ -0,0 +1,264 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.ejb.DependsOn;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.slf4j.Logger;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.service.cdi.event.AccessTimeUpdateEvent;
+import io.jans.as.server.service.metric.MetricsRegistry;
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.exception.EntryPersistenceException;
+import io.jans.orm.model.base.CustomAttribute;
+import io.jans.orm.model.base.CustomEntry;
+import io.jans.service.cdi.async.Asynchronous;
+import io.jans.service.cdi.event.Scheduled;
+import io.jans.service.timer.event.TimerEvent;
+import io.jans.service.timer.schedule.TimerSchedule;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+/**
+ * Write-behind updater of user last logon and client last access times.
+ * <p>
+ * Updates are coalesced per entry DN and written by timer off the request thread. Only the latest
+ * time per attribute is kept, so N logins of the same user within one window result in one merge.
+ * Queue depth and update counters are exposed as <code>jans_auth_access_time_update_queue_depth</code> and
+ * <code>jans_auth_access_time_updates_total</code>.
+ */
+@ApplicationScoped
+@DependsOn("appInitializer")
+@Named
+public class AccessTimeUpdateService {
+
+	public static final String LAST_LOGON_TIME_ATTRIBUTE = "jansLastLogonTime";
+	public static final String LAST_ACCESS_TIME_ATTRIBUTE = "jansLastAccessTime";
+
+	private static final int DEFAULT_WINDOW_IN_SECONDS = 10;
+
+	private static final Gauge QUEUE_DEPTH = Gauge.build()
+			.name("jans_auth_access_time_update_queue_depth")
+			.help("Number of entries with pending last logon/access time update.")
+			.register(MetricsRegistry.getRegistry());
+
+	private static final Counter UPDATES = Counter.build()
+			.name("jans_auth_access_time_updates_total")
+			.help("Last logon/access time updates by result: scheduled, coalesced, dropped, written, failed.")
+			.labelNames("result")
+			.register(MetricsRegistry.getRegistry());
+
+	private static final Counter.Child SCHEDULED = UPDATES.labels("scheduled");
+	private static final Counter.Child COALESCED = UPDATES.labels("coalesced");
+	private static final Counter.Child DROPPED = UPDATES.labels("dropped");
+	private static final Counter.Child WRITTEN = UPDATES.labels("written");
+	private static final Counter.Child FAILED = UPDATES.labels("failed");
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private Event<TimerEvent> timerEvent;
+
+	@Inject
+	private PersistenceEntryManager ldapEntryManager;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	private final ConcurrentHashMap<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<String, PendingUpdate>();
+
+	// held while pending updates are written, so shutdown drain waits for flush in progress
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	public void initTimer() {
+		log.debug("Initializing Access Time Update Timer");
+
+		int interval = appConfiguration.getAccessTimeUpdateWindowInSeconds();
+		if (interval <= 0) {
+			interval = DEFAULT_WINDOW_IN_SECONDS;
+		}
+
+		timerEvent.fire(new TimerEvent(new TimerSchedule(interval, interval), new AccessTimeUpdateEvent(),
+				Scheduled.Literal.INSTANCE));
+	}
+
+	@Asynchronous
+	public void process(@Observes @Scheduled AccessTimeUpdateEvent event) {
+		flush();
+	}
+
+	/**
+	 * Queues update of time attributes of the entry. Falls back to synchronous merge if write-behind is
+	 * disabled (<code>accessTimeUpdateWindowInSeconds</code> is 0).
+	 *
+	 * @param dn            entry DN
+	 * @param objectClasses object classes of the entry
+	 * @param attributes    time attributes to set
+	 * @param onWritten     optional callback invoked after entry was written (e.g. cache invalidation)
+	 */
+	public void update(String dn, String[] objectClasses, String[] attributes, Runnable onWritten) {
+		final PendingUpdate update = new PendingUpdate(dn, objectClasses, attributes, now(), onWritten);
+
+		if (appConfiguration.getAccessTimeUpdateWindowInSeconds() <= 0) {
+			write(update);
+			return;
+		}
+
+		SCHEDULED.inc();
+
+		if (pendingUpdates.size() >= appConfiguration.getAccessTimeUpdateQueueSizeLimit() && !pendingUpdates.containsKey(dn)) {
+			DROPPED.inc();
+			log.trace("Access time update queue is full, dropped update of '{}'", dn);
+			return;
+		}
+
+		final PendingUpdate previous = pendingUpdates.putIfAbsent(dn, update);
+		if (previous != null) {
+			pendingUpdates.merge(dn, update, PendingUpdate::merge);
+			COALESCED.inc();
+		}
+		QUEUE_DEPTH.set(pendingUpdates.size());
+	}
+
+	/**
+	 * Writes all pending updates. Invoked by timer, skipped if another flush is in progress.
+	 */
+	public void flush() {
+		if (!flushLock.tryLock()) {
+			return;
+		}
+
+		try {
+			flushPending();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for flush in progress (if any) and writes all pending updates. Invoked on server shutdown.
+	 */
+	public void drain() {
+		flushLock.lock();
+		try {
+			flushPending();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void flushPending() {
+		try {
+			if (pendingUpdates.isEmpty()) {
+				return;
+			}
+
+			final long start = System.currentTimeMillis();
+			int count = 0;
+			for (Iterator<Map.Entry<String, PendingUpdate>> it = pendingUpdates.entrySet().iterator(); it.hasNext();) {
+				final Map.Entry<String, PendingUpdate> entry = it.next();
+				if (pendingUpdates.remove(entry.getKey(), entry.getValue())) {
+					write(entry.getValue());
+					count++;
+				}
+			}
+
+			log.debug("Flushed {} access time updates in {} ms, queue depth: {}", count,
+					System.currentTimeMillis() - start, pendingUpdates.size());
+		} catch (Exception ex) {
+			log.error("Exception happened while flushing access time updates", ex);
+		} finally {
+			QUEUE_DEPTH.set(pendingUpdates.size());
+		}
+	}
+
+	private void write(PendingUpdate update) {
+		CustomEntry customEntry = new CustomEntry();
+		customEntry.setDn(update.dn);
+		customEntry.setCustomObjectClasses(update.objectClasses);
+
+		for (Map.Entry<String, Date> attribute : update.times.entrySet()) {
+			String dateString = ldapEntryManager.encodeTime(update.dn, attribute.getValue());
+			customEntry.getCustomAttributes().add(new CustomAttribute(attribute.getKey(), dateString));
+		}
+
+		try {
+			ldapEntryManager.merge(customEntry);
+			WRITTEN.inc();
+		} catch (EntryPersistenceException epe) {
+			FAILED.inc();
+			log.error("Failed to update {} of entry '{}'", update.times.keySet(), update.dn);
+			log.trace("Failed to update entry:", epe);
+		}
+
+		if (update.onWritten != null) {
+			try {
+				update.onWritten.run();
+			} catch (Exception ex) {
+				log.error("Failed to execute post update callback of entry '{}'", update.dn, ex);
+			}
+		}
+	}
+
+	private static Date now() {
+		return new GregorianCalendar(TimeZone.getTimeZone("UTC")).getTime();
+	}
+
+	private static class PendingUpdate {
+
+		private final String dn;
+		private final String[] objectClasses;
+		private final Map<String, Date> times;
+		private final Runnable onWritten;
+
+		private PendingUpdate(String dn, String[] objectClasses, Map<String, Date> times, Runnable onWritten) {
+			this.dn = dn;
+			this.objectClasses = objectClasses;
+			this.times = times;
+			this.onWritten = onWritten;
+		}
+
+		private PendingUpdate(String dn, String[] objectClasses, String[] attributes, Date time, Runnable onWritten) {
+			this(dn, objectClasses, new ConcurrentHashMap<String, Date>(), onWritten);
+			for (String attribute : attributes) {
+				this.times.put(attribute, time);
+			}
+		}
+
+		/**
+		 * Combines two updates of the same entry keeping the latest time of each attribute.
+		 */
+		private static PendingUpdate merge(PendingUpdate older, PendingUpdate newer) {
+			final Map<String, Date> times = new ConcurrentHashMap<String, Date>(older.times);
+			for (Map.Entry<String, Date> entry : newer.times.entrySet()) {
+				Date current = times.get(entry.getKey());
+				if (current == null || current.before(entry.getValue())) {
+					times.put(entry.getKey(), entry.getValue());
+				}
+			}
+
+			return new PendingUpdate(newer.dn, newer.objectClasses, times,
+					newer.onWritten != null ? newer.onWritten : older.onWritten);
+		}
+	}
+
+}
@@ -25,6 +25,7 @@ import io.jans.as.server.service.logger.LoggerService;
 import io.jans.as.server.service.stat.StatService;
 import io.jans.as.server.service.stat.StatTimer;
 import io.jans.as.server.service.status.ldap.LdapStatusTimer;
+import io.jans.as.server.util.ServerUtil;
 import io.jans.exception.ConfigurationException;
 import io.jans.model.AuthenticationScriptUsageType;
 import io.jans.model.SimpleProperty;
@@ -75,6 +76,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -181,6 +187,12 @@ public class AppInitializer {
     @Inject
     private StatService statService;
 
+	@Inject
+	private AccessTimeUpdateService accessTimeUpdateService;
+
+	@Inject
+	private StartupWarmUpService startupWarmUpService;
+
 	private AtomicBoolean isActive;
 	private long lastFinishedTime;
 	private AuthenticationMode authenticationMode;
@@ -198,21 +210,158 @@ public class AppInitializer {
 
 	public void applicationInitialized(@Observes @Initialized(ApplicationScoped.class) Object init) {
 		log.debug("Initializing application services");
+		final StartupTimeline timeline = new StartupTimeline();
 
-		configurationFactory.create();
+		timeline.run("configuration", configurationFactory::create);
 
 		PersistenceEntryManager localPersistenceEntryManager = persistenceEntryManagerInstance.get();
 		log.trace("Attempting to use {}: {}", ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME, localPersistenceEntryManager.getOperationService());
 
-		GluuConfiguration newConfiguration = loadConfiguration(localPersistenceEntryManager, "jansDbAuth", "jansAuthMode");
+		initApplicationServices(timeline, localPersistenceEntryManager, appConfiguration.getStartupParallelInitEnabled(),
+				appConfiguration.getStartupParallelInitThreads(), () -> log.info("Application startup timeline:{}", timeline.format()));
+	}
+
+	/**
+	 * Runs startup steps after configuration is loaded. Steps are run by timeline, so tests can record their order
+	 * with timeline which doesn't run them.
+	 *
+	 * @param onFinished is called after last step, in parallel mode after background timers are started
+	 */
+	void initApplicationServices(StartupTimeline timeline, PersistenceEntryManager localPersistenceEntryManager, boolean parallel,
+			int parallelThreads, Runnable onFinished) {
+		final GluuConfiguration newConfiguration = parallel ? initServicesInParallel(timeline, localPersistenceEntryManager, parallelThreads)
+				: initServices(timeline, localPersistenceEntryManager);
+
+		// Set default authentication method after
+		timeline.run("default authentication method", () -> setDefaultAuthenticationMethod(newConfiguration));
+
+		// Load hot data into caches before node starts to serve requests
+		timeline.run("warm-up", () -> startupWarmUpService.warmUp());
+
+		// Notify plugins about finish application initialization
+		timeline.run("application initialized event", () -> eventApplicationInitialized.select(ApplicationInitialized.Literal.APPLICATION)
+				.fire(new ApplicationInitializedEvent()));
+
+		if (parallel) {
+			// Timers which don't serve requests are started in background, so they don't delay readiness of server
+			final ScheduledExecutorService backgroundExecutor = ServerUtil.createExecutor();
+			backgroundExecutor.execute(() -> {
+				initBackgroundTimers(timeline);
+				onFinished.run();
+			});
+			backgroundExecutor.shutdown();
+		} else {
+			onFinished.run();
+		}
+	}
+
+	/**
+	 * Initializes services one by one on initializing thread.
+	 */
+	private GluuConfiguration initServices(StartupTimeline timeline, PersistenceEntryManager localPersistenceEntryManager) {
+		GluuConfiguration newConfiguration = timeline.call("auth configuration",
+				() -> loadConfiguration(localPersistenceEntryManager, "jansDbAuth", "jansAuthMode"));
 
 		this.persistenceAuthConfigs = loadPersistenceAuthConfigs(newConfiguration);
 
 		// Initialize python interpreter
+		timeline.run("python interpreter", this::initPythonInterpreter);
+
+		// Initialize script manager
+		List<CustomScriptType> supportedCustomScriptTypes = getSupportedCustomScriptTypes();
+
+		timeline.run("stat service", () -> statService.init());
+
+		// Start timer
+		timeline.run("scheduler", this::initSchedulerService);
+
+		// Schedule timer tasks
+		timeline.run("metric timer", () -> metricService.initTimer());
+		timeline.run("configuration timer", () -> configurationFactory.initTimer());
+		timeline.run("logger timer", () -> loggerService.initTimer());
+		timeline.run("persistence status timer", () -> ldapStatusTimer.initTimer());
+		timeline.run("cleaner timer", () -> cleanerTimer.initTimer());
+		timeline.run("custom scripts", () -> customScriptManager.initTimer(supportedCustomScriptTypes));
+		timeline.run("key generator timer", () -> keyGeneratorTimer.initTimer());
+		timeline.run("stat timer", () -> statTimer.initTimer());
+		timeline.run("expiration notificator timer", () -> expirationNotificatorTimer.initTimer());
+		timeline.run("access time update timer", () -> accessTimeUpdateService.initTimer());
+		timeline.run("auth configuration timer", this::initTimer);
+		timeline.run("ciba requests processor", this::initCibaRequestsProcessor);
+
+		return newConfiguration;
+	}
+
+	/**
+	 * Initializes independent services on startup pool. Everything request processing depends on (including timers
+	 * which are used by request code, e.g. metric service) is initialized before method returns, timers which don't
+	 * serve requests are left for {@link #initBackgroundTimers(StartupTimeline)}.
+	 */
+	private GluuConfiguration initServicesInParallel(StartupTimeline timeline, PersistenceEntryManager localPersistenceEntryManager, int parallelThreads) {
+		List<CustomScriptType> supportedCustomScriptTypes = getSupportedCustomScriptTypes();
+
+		// Start timer
+		timeline.run("scheduler", this::initSchedulerService);
+
+		// Worker threads are created from this thread, so they inherit its context class loader (needed by python interpreter)
+		final ExecutorService startupExecutor = Executors.newFixedThreadPool(
+				Math.max(1, parallelThreads), ServerUtil.daemonThreadFactory());
+		GluuConfiguration newConfiguration;
+		try {
+			CompletableFuture<GluuConfiguration> configurationFuture = CompletableFuture.supplyAsync(() -> timeline.call("auth configuration",
+					() -> loadConfiguration(localPersistenceEntryManager, "jansDbAuth", "jansAuthMode")), startupExecutor);
+			CompletableFuture<Void> scriptsFuture = CompletableFuture.runAsync(() -> timeline.run("python interpreter", this::initPythonInterpreter), startupExecutor)
+					.thenRunAsync(() -> timeline.run("custom scripts", () -> customScriptManager.initTimer(supportedCustomScriptTypes)), startupExecutor);
+			CompletableFuture<Void> statFuture = CompletableFuture.runAsync(() -> timeline.run("stat service", () -> statService.init()), startupExecutor);
+
+			// Timers which are used by request processing
+			timeline.run("metric timer", () -> metricService.initTimer());
+			timeline.run("configuration timer", () -> configurationFactory.initTimer());
+			timeline.run("logger timer", () -> loggerService.initTimer());
+			timeline.run("key generator timer", () -> keyGeneratorTimer.initTimer());
+			timeline.run("access time update timer", () -> accessTimeUpdateService.initTimer());
+
+			newConfiguration = join(configurationFuture);
+			this.persistenceAuthConfigs = loadPersistenceAuthConfigs(newConfiguration);
+
+			join(scriptsFuture);
+			join(statFuture);
+		} finally {
+			startupExecutor.shutdown();
+		}
+
+		timeline.run("ciba requests processor", this::initCibaRequestsProcessor);
+
+		return newConfiguration;
+	}
+
+	/**
+	 * Starts timers which don't serve requests (persistence status, clean up, stat flush, expiration notification,
+	 * auth configuration reload). Each timer is started independently, so failure of one is logged and doesn't
+	 * prevent others from starting.
+	 */
+	private void initBackgroundTimers(StartupTimeline timeline) {
+		initBackgroundTimer(timeline, "persistence status timer", () -> ldapStatusTimer.initTimer());
+		initBackgroundTimer(timeline, "cleaner timer", () -> cleanerTimer.initTimer());
+		initBackgroundTimer(timeline, "stat timer", () -> statTimer.initTimer());
+		initBackgroundTimer(timeline, "expiration notificator timer", () -> expirationNotificatorTimer.initTimer());
+		initBackgroundTimer(timeline, "auth configuration timer", this::initTimer);
+	}
+
+	private void initBackgroundTimer(StartupTimeline timeline, String name, Runnable timer) {
+		try {
+			timeline.run(name, timer);
+		} catch (RuntimeException ex) {
+			log.error("Failed to start " + name, ex);
+		}
+	}
+
+	private void initPythonInterpreter() {
 		pythonService.initPythonInterpreter(configurationFactory.getBaseConfiguration()
 				.getString("pythonModulesDir", null));
+	}
 
-		// Initialize script manager
+	private List<CustomScriptType> getSupportedCustomScriptTypes() {
 		List<CustomScriptType> supportedCustomScriptTypes = Lists.newArrayList(CustomScriptType.values());
 
 		supportedCustomScriptTypes.remove(CustomScriptType.CACHE_REFRESH);
@@ -221,30 +370,18 @@ public class AppInitializer {
 		supportedCustomScriptTypes.remove(CustomScriptType.SCIM);
 		supportedCustomScriptTypes.remove(CustomScriptType.IDP);
 
-        statService.init();
-
-		// Start timer
-		initSchedulerService();
-
-		// Schedule timer tasks
-		metricService.initTimer();
-		configurationFactory.initTimer();
-		loggerService.initTimer();
-		ldapStatusTimer.initTimer();
-		cleanerTimer.initTimer();
-		customScriptManager.initTimer(supportedCustomScriptTypes);
-		keyGeneratorTimer.initTimer();
-        statTimer.initTimer();
-		expirationNotificatorTimer.initTimer();
-		initTimer();
-		initCibaRequestsProcessor();
-
-		// Set default authentication method after
-		setDefaultAuthenticationMethod(newConfiguration);
+		return supportedCustomScriptTypes;
+	}
 
-		// Notify plugins about finish application initialization
-		eventApplicationInitialized.select(ApplicationInitialized.Literal.APPLICATION)
-				.fire(new ApplicationInitializedEvent());
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
 	}
 
 	protected void initSchedulerService() {
@@ -688,6 +825,9 @@ public class AppInitializer {
 
 		metricService.close();
 
+		// Write pending last logon/access times before closing connections
+		accessTimeUpdateService.drain();
+
 		PersistenceEntryManager persistenceEntryManager = persistenceEntryManagerInstance.get();
 		closePersistenceEntryManager(persistenceEntryManager, ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME);
 
@@ -11,6 +11,7 @@ import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -21,6 +22,7 @@ import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.exception.AuthenticationException;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.service.cdi.event.ConfigurationUpdate;
 import io.jans.util.StringHelper;
 
 /**
@@ -41,7 +43,15 @@ public class AuthenticationFilterService extends BaseAuthFilterService {
 
     @PostConstruct
     public void init() {
-        super.init(appConfiguration.getAuthenticationFilters(), Boolean.TRUE.equals(appConfiguration.getAuthenticationFiltersEnabled()), true);
+        super.init(appConfiguration.getAuthenticationFilters(), Boolean.TRUE.equals(appConfiguration.getAuthenticationFiltersEnabled()), true,
+                appConfiguration.getAuthenticationFiltersEntryDnCacheLifetimeInSeconds());
+    }
+
+    /**
+     * Cached entry DNs may be stale after filters or their base DNs were changed.
+     */
+    public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
+        clearEntryDnCache();
     }
 
     public String processAuthenticationFilter(AuthenticationFilterWithParameters authenticationFilterWithParameters, Map<?, ?> attributeValues) throws SearchException {
@@ -10,14 +10,11 @@ import java.io.UnsupportedEncodingException;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TimeZone;
 
 import javax.ejb.Stateless;
 import javax.faces.context.ExternalContext;
@@ -52,9 +49,6 @@ import io.jans.model.security.Credentials;
 import io.jans.model.security.SimplePrincipal;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.exception.AuthenticationException;
-import io.jans.orm.exception.EntryPersistenceException;
-import io.jans.orm.model.base.CustomAttribute;
-import io.jans.orm.model.base.CustomEntry;
 import io.jans.orm.model.base.CustomObjectAttribute;
 import io.jans.util.ArrayHelper;
 import io.jans.util.Pair;
@@ -120,6 +114,9 @@ public class AuthenticationService {
 	@Inject
 	private AuthenticationProtectionService authenticationProtectionService;
 
+	@Inject
+	private AccessTimeUpdateService accessTimeUpdateService;
+
 	/**
 	 * Authenticate user.
 	 *
@@ -567,9 +564,7 @@ public class AuthenticationService {
 			return;
 		}
 
-		CustomEntry customEntry = new CustomEntry();
-		customEntry.setDn(user.getDn());
-
+		String[] objectClasses;
 		List<String> personCustomObjectClassList = userService.getPersonCustomObjectClassList();
 		if ((personCustomObjectClassList != null) && !personCustomObjectClassList.isEmpty()) {
 			// Combine object classes from LDAP and configuration in one list
@@ -580,23 +575,13 @@ public class AuthenticationService {
 				customPersonCustomObjectClassList.addAll(Arrays.asList(user.getCustomObjectClasses()));
 			}
 
-			customEntry.setCustomObjectClasses(
-					customPersonCustomObjectClassList.toArray(new String[customPersonCustomObjectClassList.size()]));
+			objectClasses = customPersonCustomObjectClassList.toArray(new String[customPersonCustomObjectClassList.size()]);
 		} else {
-			customEntry.setCustomObjectClasses(UserService.USER_OBJECT_CLASSES);
+			objectClasses = UserService.USER_OBJECT_CLASSES;
 		}
 
-		Date now = new GregorianCalendar(TimeZone.getTimeZone("UTC")).getTime();
-		String nowDateString = ldapEntryManager.encodeTime(customEntry.getDn(), now);
-		CustomAttribute customAttribute = new CustomAttribute("jansLastLogonTime", nowDateString);
-		customEntry.getCustomAttributes().add(customAttribute);
-
-		try {
-			ldapEntryManager.merge(customEntry);
-		} catch (EntryPersistenceException epe) {
-			log.error("Failed to update jansLastLogonTime of user '{}'", user.getUserId());
-			log.trace("Failed to update user:", epe);epe.printStackTrace();
-		}
+		accessTimeUpdateService.update(user.getDn(), objectClasses,
+				new String[] { AccessTimeUpdateService.LAST_LOGON_TIME_ATTRIBUTE }, null);
 	}
 
 	public SessionId configureSessionUser(SessionId sessionId, Map<String, String> sessionIdAttributes) {
@@ -13,13 +13,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.jans.as.model.configuration.BaseFilter;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.exception.operation.SearchException;
@@ -46,21 +51,27 @@ public abstract class BaseAuthFilterService {
 
     public static final Pattern PARAM_VALUE_PATTERN = Pattern.compile("([\\w]+)[\\s]*\\=[\\*\\s]*(\\{[\\s]*[\\d]+[\\s]*\\})[\\*\\s]*");
 
+    private static final int ENTRY_DN_CACHE_MAX_SIZE = 10000;
+
     private boolean enabled;
     private boolean filterAttributes = true;
 
     private List<AuthenticationFilterWithParameters> filterWithParameters;
 
+    private Cache<String, String> entryDnCache;
+
     public static class AuthenticationFilterWithParameters {
 
         private BaseFilter authenticationFilter;
         private List<String> variableNames;
         private List<AuthenticationFilterService.IndexedParameter> indexedVariables;
+        private FilterTemplate filterTemplate;
 
         public AuthenticationFilterWithParameters(BaseFilter authenticationFilter, List<String> variableNames, List<AuthenticationFilterService.IndexedParameter> indexedVariables) {
             this.authenticationFilter = authenticationFilter;
             this.variableNames = variableNames;
             this.indexedVariables = indexedVariables;
+            this.filterTemplate = FilterTemplate.compile(authenticationFilter.getFilter(), indexedVariables);
         }
 
         public BaseFilter getAuthenticationFilter() {
@@ -85,6 +96,11 @@ public abstract class BaseAuthFilterService {
 
         public void setIndexedVariables(List<AuthenticationFilterService.IndexedParameter> indexedVariables) {
             this.indexedVariables = indexedVariables;
+            this.filterTemplate = FilterTemplate.compile(authenticationFilter.getFilter(), indexedVariables);
+        }
+
+        public FilterTemplate getFilterTemplate() {
+            return filterTemplate;
         }
 
         public String toString() {
@@ -125,10 +141,117 @@ public abstract class BaseAuthFilterService {
         }
     }
 
+    /**
+     * Filter string split once into literal segments and parameter slots, e.g. <code>(&(uid={0})(o=x))</code> is
+     * compiled into segments <code>["(&(uid=", ")(o=x))"]</code> and a single slot bound to <code>uid</code>.
+     * Binding concatenates segments with slot values instead of re-scanning the whole filter for each parameter.
+     */
+    public static class FilterTemplate {
+
+        private final String[] segments;
+        private final String[] slotTokens;
+        private final String[][] slotParamNames;
+
+        private FilterTemplate(String[] segments, String[] slotTokens, String[][] slotParamNames) {
+            this.segments = segments;
+            this.slotTokens = slotTokens;
+            this.slotParamNames = slotParamNames;
+        }
+
+        public static FilterTemplate compile(String filter, List<IndexedParameter> indexedParameters) {
+            if (filter == null) {
+                return new FilterTemplate(new String[] { null }, new String[0], new String[0][]);
+            }
+
+            // Parameters which share the same placeholder are tried in declaration order
+            final Map<String, List<String>> paramNamesByToken = new HashMap<String, List<String>>();
+            final List<String> tokens = new ArrayList<String>();
+            if (indexedParameters != null) {
+                for (IndexedParameter indexedParameter : indexedParameters) {
+                    List<String> paramNames = paramNamesByToken.get(indexedParameter.getParamIndex());
+                    if (paramNames == null) {
+                        paramNames = new ArrayList<String>();
+                        paramNamesByToken.put(indexedParameter.getParamIndex(), paramNames);
+                        tokens.add(indexedParameter.getParamIndex());
+                    }
+                    paramNames.add(indexedParameter.getParamName());
+                }
+            }
+
+            final List<String> segments = new ArrayList<String>();
+            final List<String> slotTokens = new ArrayList<String>();
+            int position = 0;
+            while (true) {
+                int nextIndex = -1;
+                String nextToken = null;
+                for (String token : tokens) {
+                    int index = filter.indexOf(token, position);
+                    if (index >= 0 && (nextIndex < 0 || index < nextIndex)) {
+                        nextIndex = index;
+                        nextToken = token;
+                    }
+                }
+
+                if (nextToken == null) {
+                    segments.add(filter.substring(position));
+                    break;
+                }
+
+                segments.add(filter.substring(position, nextIndex));
+                slotTokens.add(nextToken);
+                position = nextIndex + nextToken.length();
+            }
+
+            final String[][] slotParamNames = new String[slotTokens.size()][];
+            for (int i = 0; i < slotTokens.size(); i++) {
+                slotParamNames[i] = paramNamesByToken.get(slotTokens.get(i)).toArray(new String[0]);
+            }
+
+            return new FilterTemplate(segments.toArray(new String[0]), slotTokens.toArray(new String[0]), slotParamNames);
+        }
+
+        public String bind(Map<String, String> normalizedAttributeValues) {
+            if (slotTokens.length == 0) {
+                return segments[0];
+            }
+
+            final StringBuilder result = new StringBuilder();
+            for (int i = 0; i < slotTokens.length; i++) {
+                result.append(segments[i]);
+
+                String value = null;
+                for (String paramName : slotParamNames[i]) {
+                    value = normalizedAttributeValues.get(paramName);
+                    if (value != null) {
+                        break;
+                    }
+                }
+                result.append(value != null ? value : slotTokens[i]);
+            }
+            result.append(segments[slotTokens.length]);
+
+            return result.toString();
+        }
+
+        public String toString() {
+            return String.format("FilterTemplate [slots=%s]", slotTokens.length);
+        }
+    }
+
     public void init(List<? extends BaseFilter> p_filterList, boolean p_enabled, boolean p_filterAttributes) {
+        init(p_filterList, p_enabled, p_filterAttributes, 0);
+    }
+
+    /**
+     * @param p_entryDnCacheLifetimeInSeconds lifetime of (filter, attribute values) -> entry DN cache entries, 0 disables the cache
+     */
+    public void init(List<? extends BaseFilter> p_filterList, boolean p_enabled, boolean p_filterAttributes, int p_entryDnCacheLifetimeInSeconds) {
         this.enabled = p_enabled;
         this.filterWithParameters = prepareAuthenticationFilterWithParameters(p_filterList);
         this.filterAttributes = p_filterAttributes;
+        this.entryDnCache = p_entryDnCacheLifetimeInSeconds > 0 ? CacheBuilder.newBuilder()
+                .expireAfterWrite(p_entryDnCacheLifetimeInSeconds, TimeUnit.SECONDS)
+                .maximumSize(ENTRY_DN_CACHE_MAX_SIZE).build() : null;
     }
 
     private List<AuthenticationFilterWithParameters> prepareAuthenticationFilterWithParameters(List<? extends BaseFilter> p_filterList) {
@@ -209,19 +332,34 @@ public abstract class BaseAuthFilterService {
     }
 
     public static String buildFilter(AuthenticationFilterWithParameters authenticationFilterWithParameters, Map<String, String> p_normalizedAttributeValues) {
-        String filter = authenticationFilterWithParameters.getAuthenticationFilter().getFilter();
-        for (IndexedParameter indexedParameter : authenticationFilterWithParameters.getIndexedVariables()) {
-            String attributeValue = p_normalizedAttributeValues.get(indexedParameter.getParamName());
-            if (attributeValue != null) {
-                filter = filter.replace(indexedParameter.getParamIndex(), attributeValue);
-            }
-        }
-        return filter;
+        return authenticationFilterWithParameters.getFilterTemplate().bind(p_normalizedAttributeValues);
     }
 
     public <T> String loadEntryDN(PersistenceEntryManager p_manager, Class<T> entryClass, AuthenticationFilterWithParameters authenticationFilterWithParameters, Map<String, String> normalizedAttributeValues) throws SearchException {
         final String filter = buildFilter(authenticationFilterWithParameters, normalizedAttributeValues);
 
+        final Cache<String, String> cache = this.entryDnCache;
+        if (cache == null) {
+            return findEntryDN(p_manager, entryClass, authenticationFilterWithParameters, filter);
+        }
+
+        // Bound filter contains attribute values (which may be credentials), so only its hash is kept
+        final String cacheKey = DigestUtils.sha256Hex(authenticationFilterWithParameters.getAuthenticationFilter().getBaseDn() + "|" + filter);
+        String entryDn = cache.getIfPresent(cacheKey);
+        if (entryDn != null) {
+            log.trace("Entry DN found in cache: '{}'", entryDn);
+            return entryDn;
+        }
+
+        entryDn = findEntryDN(p_manager, entryClass, authenticationFilterWithParameters, filter);
+        if (StringHelper.isNotEmpty(entryDn)) {
+            cache.put(cacheKey, entryDn);
+        }
+
+        return entryDn;
+    }
+
+    private <T> String findEntryDN(PersistenceEntryManager p_manager, Class<T> entryClass, AuthenticationFilterWithParameters authenticationFilterWithParameters, String filter) throws SearchException {
         Filter ldapFilter = ldapFilterConverter.convertRawLdapFilterToFilter(filter).multiValued(false);
         List<T> foundEntries = p_manager.findEntries(authenticationFilterWithParameters.getAuthenticationFilter().getBaseDn(), entryClass, ldapFilter, new String[0]);
 
@@ -266,6 +404,12 @@ public abstract class BaseAuthFilterService {
         return enabled;
     }
 
+    public void clearEntryDnCache() {
+        if (entryDnCache != null) {
+            entryDnCache.invalidateAll();
+        }
+    }
+
     public void setEnabled(boolean p_enabled) {
         enabled = p_enabled;
     }
@@ -200,8 +200,7 @@ public class CleanerTimer {
         cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getClients(), Client.class);
         cleanServiceBaseDns.put(umaPctService.branchBaseDn(), UmaPCT.class);
         cleanServiceBaseDns.put(umaResourceService.getBaseDnForResource(), UmaResource.class);
-        cleanServiceBaseDns.put(String.format("ou=registration_requests,%s", u2fBase), RegisterRequestMessageLdap.class);
-        cleanServiceBaseDns.put(String.format("ou=registered_devices,%s", u2fBase), DeviceRegistration.class);
+        cleanServiceBaseDns.putAll(createU2fCleanServiceBaseDns(u2fBase));
         // cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getPeople(), User.class);
         cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getMetric(), MetricEntry.class);
         cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getTokens(), TokenLdap.class);
@@ -212,6 +211,18 @@ public class CleanerTimer {
         return cleanServiceBaseDns;
     }
 
+    /**
+     * Registration requests are cleaned also if u2fRequestPersistInCache is set, because requests persisted before
+     * option was switched on (or by other nodes) are not expired by cache.
+     */
+    static Map<String, Class<?>> createU2fCleanServiceBaseDns(String u2fBase) {
+        final Map<String, Class<?>> cleanServiceBaseDns = Maps.newHashMap();
+        cleanServiceBaseDns.put(String.format("ou=registration_requests,%s", u2fBase), RegisterRequestMessageLdap.class);
+        cleanServiceBaseDns.put(String.format("ou=registered_devices,%s", u2fBase), DeviceRegistration.class);
+
+        return cleanServiceBaseDns;
+    }
+
     public int cleanup(final Map.Entry<String, Class<?>> baseDn, final Date now, final int batchSize) {
         try {
             Filter filter = Filter.createANDFilter(
@@ -11,6 +11,7 @@ import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -20,6 +21,7 @@ import io.jans.as.common.model.registration.Client;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.exception.operation.SearchException;
+import io.jans.service.cdi.event.ConfigurationUpdate;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -39,7 +41,15 @@ public class ClientFilterService extends BaseAuthFilterService {
 
     @PostConstruct
     public void init() {
-        super.init(appConfiguration.getClientAuthenticationFilters(), Boolean.TRUE.equals(appConfiguration.getClientAuthenticationFiltersEnabled()), false);
+        super.init(appConfiguration.getClientAuthenticationFilters(), Boolean.TRUE.equals(appConfiguration.getClientAuthenticationFiltersEnabled()), false,
+                appConfiguration.getAuthenticationFiltersEntryDnCacheLifetimeInSeconds());
+    }
+
+    /**
+     * Cached entry DNs may be stale after filters or their base DNs were changed.
+     */
+    public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
+        clearEntryDnCache();
     }
 
     public String processAuthenticationFilter(AuthenticationFilterWithParameters authenticationFilterWithParameters, Map<?, ?> attributeValues) throws SearchException {
@@ -8,10 +8,9 @@ package io.jans.as.server.service;
 
 import java.util.Collection;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Set;
-import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
@@ -30,10 +29,10 @@ import io.jans.as.model.config.StaticConfiguration;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.exception.InvalidClaimException;
 import io.jans.as.persistence.model.Scope;
+import io.jans.as.server.auth.MTLSCertificateCache;
 import io.jans.orm.PersistenceEntryManager;
-import io.jans.orm.exception.EntryPersistenceException;
 import io.jans.orm.model.base.CustomAttribute;
-import io.jans.orm.model.base.CustomEntry;
+import io.jans.orm.search.filter.Filter;
 import io.jans.service.BaseCacheService;
 import io.jans.service.CacheService;
 import io.jans.service.LocalCacheService;
@@ -78,12 +77,20 @@ public class ClientService {
 	@Inject
 	private StaticConfiguration staticConfiguration;
 
+	@Inject
+	private AccessTimeUpdateService accessTimeUpdateService;
+
+	@Inject
+	private MTLSCertificateCache mtlsCertificateCache;
+
 	public void persist(Client client) {
 		ldapEntryManager.persist(client);
 	}
 
 	public void merge(Client client) {
 		ldapEntryManager.merge(client);
+		client.clearParsedJwks();
+		mtlsCertificateCache.invalidate(client.getClientId());
 		removeFromCache(client);
 	}
 
@@ -237,6 +244,30 @@ public class ClientService {
 		return result;
 	}
 
+	/**
+	 * Puts clients accessed during last day into cache. Nothing is loaded if there are no such clients (e.g. access
+	 * time is not tracked), since arbitrary clients are unlikely to be hot.
+	 *
+	 * @return number of cached clients
+	 */
+	public int warmUpCache(int sizeLimit) {
+		String baseDn = staticConfiguration.getBaseDn().getClients();
+		Date accessedAfter = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+		Filter filter = Filter.createGreaterOrEqualFilter("jansLastAccessTime", ldapEntryManager.encodeTime(baseDn, accessedAfter));
+
+		List<Client> clients = ldapEntryManager.findEntries(baseDn, Client.class, filter, null, sizeLimit);
+		if (clients.isEmpty()) {
+			log.debug("Skipped warm-up of clients because there are no clients accessed during last day");
+			return 0;
+		}
+
+		BaseCacheService usedCacheService = getCacheService();
+		for (Client client : clients) {
+			usedCacheService.put(60, client.getDn(), client);
+		}
+		return clients.size();
+	}
+
 	public String buildClientDn(String p_clientId) {
 		final StringBuilder dn = new StringBuilder();
 		dn.append(String.format("inum=%s,", p_clientId));
@@ -262,36 +293,21 @@ public class ClientService {
 		}
 	}
 
-	public void updateAccessTime(Client client, boolean isUpdateLogonTime) {
+	public void updateAccessTime(final Client client, boolean isUpdateLogonTime) {
 		if (!appConfiguration.getUpdateClientAccessTime()) {
 			return;
 		}
 
-		String clientDn = client.getDn();
-
-		CustomEntry customEntry = new CustomEntry();
-		customEntry.setDn(clientDn);
-		customEntry.setCustomObjectClasses(CLIENT_OBJECT_CLASSES);
-
-		Date now = new GregorianCalendar(TimeZone.getTimeZone("UTC")).getTime();
-		String nowDateString = ldapEntryManager.encodeTime(customEntry.getDn(), now);
-
-		CustomAttribute customAttributeLastAccessTime = new CustomAttribute("jansLastAccessTime", nowDateString);
-		customEntry.getCustomAttributes().add(customAttributeLastAccessTime);
-
-		if (isUpdateLogonTime) {
-			CustomAttribute customAttributeLastLogonTime = new CustomAttribute("jansLastLogonTime", nowDateString);
-			customEntry.getCustomAttributes().add(customAttributeLastLogonTime);
-		}
-
-		try {
-			ldapEntryManager.merge(customEntry);
-		} catch (EntryPersistenceException epe) {
-			log.error("Failed to update jansLastAccessTime and jansLastLogonTime of client '{}'", clientDn);
-			log.trace("Failed to update user:", epe);epe.printStackTrace();
-		}
+		String[] attributes = isUpdateLogonTime ?
+				new String[] { AccessTimeUpdateService.LAST_ACCESS_TIME_ATTRIBUTE, AccessTimeUpdateService.LAST_LOGON_TIME_ATTRIBUTE } :
+				new String[] { AccessTimeUpdateService.LAST_ACCESS_TIME_ATTRIBUTE };
 
-		removeFromCache(client);
+		accessTimeUpdateService.update(client.getDn(), CLIENT_OBJECT_CLASSES, attributes, new Runnable() {
+			@Override
+			public void run() {
+				removeFromCache(client);
+			}
+		});
 	}
 
 	public Object getAttribute(Client client, String clientAttribute) throws InvalidClaimException {
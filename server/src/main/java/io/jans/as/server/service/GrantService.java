@@ -28,6 +28,7 @@ import io.jans.as.server.model.common.AuthorizationGrant;
 import io.jans.as.server.model.common.CacheGrant;
 import io.jans.as.server.model.ldap.TokenLdap;
 import io.jans.as.server.model.ldap.TokenType;
+import io.jans.as.server.service.metric.LatencyMetrics;
 import io.jans.as.server.util.TokenHashUtil;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.search.filter.Filter;
@@ -78,12 +79,17 @@ public class GrantService {
     }
 
     public void merge(TokenLdap p_token) {
-        persistenceEntryManager.merge(p_token);
+        final long start = System.nanoTime();
+        try {
+            persistenceEntryManager.merge(p_token);
+        } finally {
+            LatencyMetrics.observe(LatencyMetrics.Phase.PERSISTENCE, start);
+        }
     }
 
     public void mergeSilently(TokenLdap p_token) {
         try {
-            persistenceEntryManager.merge(p_token);
+            merge(p_token);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
@@ -108,7 +114,12 @@ public class GrantService {
     }
 
     public void persist(TokenLdap token) {
-        persistenceEntryManager.persist(token);
+        final long start = System.nanoTime();
+        try {
+            persistenceEntryManager.persist(token);
+        } finally {
+            LatencyMetrics.observe(LatencyMetrics.Phase.PERSISTENCE, start);
+        }
     }
 
     public void remove(TokenLdap p_token) {
@@ -178,11 +189,14 @@ public class GrantService {
     }
 
     private TokenLdap load(String p_tokenDn) {
+        final long start = System.nanoTime();
         try {
             final TokenLdap entry = persistenceEntryManager.find(TokenLdap.class, p_tokenDn);
             return entry;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
+        } finally {
+            LatencyMetrics.observe(LatencyMetrics.Phase.PERSISTENCE, start);
         }
         return null;
     }
@@ -2,7 +2,6 @@ package io.jans.as.server.service;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -14,7 +13,8 @@ import org.json.JSONObject;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
-import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.config.AppConfigurationSnapshot;
+import io.jans.as.server.model.config.ConfigurationFactory;
 import io.jans.as.server.service.cdi.event.AuthConfigurationEvent;
 import io.jans.service.cdi.async.Asynchronous;
 import io.jans.service.cdi.event.Scheduled;
@@ -32,63 +32,56 @@ public class LocalResponseCache {
     private static final String DISCOVERY_CACHE_KEY = "DISCOVERY_CACHE_KEY";
 
     @Inject
-    private AppConfiguration appConfiguration;
+    private ConfigurationFactory configurationFactory;
 
-    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
-    private Cache<String, JSONObject> discoveryCache = CacheBuilder.newBuilder()
-            .expireAfterWrite(DEFAULT_DISCOVERY_LIFETIME, TimeUnit.MINUTES).build();
-    private Cache<String, List<String>> sectorIdentifierCache = CacheBuilder.newBuilder()
-            .expireAfterWrite(DEFAULT_SECTOR_IDENTIFIER_LIFETIME, TimeUnit.MINUTES).build();
-
-    private int currentDiscoveryLifetime = DEFAULT_DISCOVERY_LIFETIME;
-    private int currentSectorIdentifierLifetime = DEFAULT_SECTOR_IDENTIFIER_LIFETIME;
+    private volatile Caches caches = new Caches(DEFAULT_DISCOVERY_LIFETIME, DEFAULT_SECTOR_IDENTIFIER_LIFETIME);
 
     @Asynchronous
     public void reloadConfigurationTimerEvent(@Observes @Scheduled AuthConfigurationEvent authConfigurationEvent) {
-        try {
-            if (rebuilding.get())
-                return;
-
-            rebuilding.set(true);
-
-            if (currentDiscoveryLifetime != appConfiguration.getDiscoveryCacheLifetimeInMinutes()) {
-                currentDiscoveryLifetime = appConfiguration.getDiscoveryCacheLifetimeInMinutes();
-                discoveryCache = CacheBuilder.newBuilder()
-                        .expireAfterWrite(appConfiguration.getDiscoveryCacheLifetimeInMinutes(), TimeUnit.MINUTES).build();
-            }
-            if (currentSectorIdentifierLifetime != appConfiguration.getSectorIdentifierCacheLifetimeInMinutes()) {
-                currentSectorIdentifierLifetime = appConfiguration.getSectorIdentifierCacheLifetimeInMinutes();
-                sectorIdentifierCache = CacheBuilder.newBuilder()
-                        .expireAfterWrite(appConfiguration.getSectorIdentifierCacheLifetimeInMinutes(), TimeUnit.MINUTES).build();
-            }
-        } finally {
-            rebuilding.set(false);
+        final AppConfigurationSnapshot snapshot = configurationFactory.getAppConfigurationSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+
+        final Caches current = caches;
+        final int discoveryLifetime = snapshot.getDiscoveryCacheLifetimeInMinutes();
+        final int sectorIdentifierLifetime = snapshot.getSectorIdentifierCacheLifetimeInMinutes();
+        if (current.discoveryLifetime != discoveryLifetime || current.sectorIdentifierLifetime != sectorIdentifierLifetime) {
+            // swap both caches at once, readers keep using the old instance until the reference is replaced
+            caches = new Caches(discoveryLifetime, sectorIdentifierLifetime);
         }
     }
 
     public List<String> getSectorRedirectUris(String sectorIdentifierUri) {
-        if (sectorIdentifierCache == null || rebuilding.get())
-            return null;
-        return sectorIdentifierCache.getIfPresent(sectorIdentifierUri);
+        return caches.sectorIdentifierCache.getIfPresent(sectorIdentifierUri);
     }
 
     public void putSectorRedirectUris(String sectorIdentifierUri, List<String> redirectUris) {
-        if (sectorIdentifierCache == null || rebuilding.get())
-            return;
-
-        sectorIdentifierCache.put(sectorIdentifierUri, redirectUris);
+        caches.sectorIdentifierCache.put(sectorIdentifierUri, redirectUris);
     }
 
     public JSONObject getDiscoveryResponse() {
-        if (discoveryCache == null || rebuilding.get())
-            return null;
-        return discoveryCache.getIfPresent(DISCOVERY_CACHE_KEY);
+        return caches.discoveryCache.getIfPresent(DISCOVERY_CACHE_KEY);
     }
 
     public void putDiscoveryResponse(JSONObject response) {
-        if (discoveryCache == null || rebuilding.get())
-            return;
+        caches.discoveryCache.put(DISCOVERY_CACHE_KEY, response);
+    }
+
+    private static final class Caches {
 
-        discoveryCache.put(DISCOVERY_CACHE_KEY, response);
+        private final int discoveryLifetime;
+        private final int sectorIdentifierLifetime;
+        private final Cache<String, JSONObject> discoveryCache;
+        private final Cache<String, List<String>> sectorIdentifierCache;
+
+        private Caches(int discoveryLifetime, int sectorIdentifierLifetime) {
+            this.discoveryLifetime = discoveryLifetime;
+            this.sectorIdentifierLifetime = sectorIdentifierLifetime;
+            this.discoveryCache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(discoveryLifetime, TimeUnit.MINUTES).build();
+            this.sectorIdentifierCache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(sectorIdentifierLifetime, TimeUnit.MINUTES).build();
+        }
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,8 @@ import io.jans.as.common.service.common.ConfigurationService;
 import io.jans.as.model.common.ComponentType;
 import io.jans.as.model.config.StaticConfiguration;
 import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.config.AppConfigurationSnapshot;
+import io.jans.as.server.model.config.ConfigurationFactory;
 import io.jans.model.ApplicationType;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.service.metric.inject.ReportMetric;
@@ -45,6 +47,9 @@ public class MetricService extends io.jans.service.metric.MetricService {
 	@Inject
 	private AppConfiguration appConfiguration;
 
+	@Inject
+	private ConfigurationFactory configurationFactory;
+
 	@Inject
     private StaticConfiguration staticConfiguration;
 
@@ -71,7 +76,11 @@ public class MetricService extends io.jans.service.metric.MetricService {
 
     @Override
     public boolean isMetricReporterEnabled() {
-        return appConfiguration.isEnabledComponent(ComponentType.METRIC);
+        final AppConfigurationSnapshot snapshot = configurationFactory.getAppConfigurationSnapshot();
+        if (snapshot == null) {
+            return appConfiguration.isEnabledComponent(ComponentType.METRIC);
+        }
+        return snapshot.isEnabledComponent(ComponentType.METRIC);
     }
 
     @Override
@@ -14,12 +14,9 @@ import java.util.Set;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang.StringUtils;
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
 import org.jetbrains.annotations.NotNull;
 import org.json.JSONArray;
 import org.slf4j.Logger;
@@ -35,6 +32,8 @@ import io.jans.as.model.error.ErrorResponseFactory;
 import io.jans.as.model.session.EndSessionErrorResponseType;
 import io.jans.as.model.util.Util;
 import io.jans.as.server.model.common.SessionId;
+import io.jans.as.server.model.net.OutboundHttpResponse;
+import io.jans.as.server.service.net.OutboundHttpService;
 
 /**
  * @author Javier Rojas Blum
@@ -59,6 +58,9 @@ public class RedirectionUriService {
     @Inject
     private LocalResponseCache localResponseCache;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     public String validateRedirectionUri(String clientIdentifier, String redirectionUri) {
         Client client = clientService.getClient(clientIdentifier);
         if (client == null) {
@@ -78,17 +80,12 @@ public class RedirectionUriService {
             return sectorRedirectUris;
         }
 
-        ClientRequest clientRequest = new ClientRequest(sectorIdentiferUri);
-        clientRequest.setHttpMethod(HttpMethod.GET);
-
-        ClientResponse<String> clientResponse = clientRequest.get(String.class);
-        int status = clientResponse.getStatus();
-        if (status != 200) {
+        OutboundHttpResponse response = outboundHttpService.get(sectorIdentiferUri);
+        if (response == null || !response.isOk()) {
             return result;
         }
 
-        String entity = clientResponse.getEntity(String.class);
-        JSONArray sectorIdentifierJsonArray = new JSONArray(entity);
+        JSONArray sectorIdentifierJsonArray = new JSONArray(response.getContent());
 
         for (int i = 0; i < sectorIdentifierJsonArray.length(); i++) {
             result.add(sectorIdentifierJsonArray.getString(i));
@@ -0,0 +1,272 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.model.util.Base64Util;
+import io.jans.as.model.util.JwtUtil;
+import io.jans.as.server.model.authorize.JwtAuthorizationRequest;
+import io.jans.as.server.model.net.OutboundHttpResponse;
+import io.jans.as.server.service.net.OutboundHttpService;
+import io.jans.as.server.util.ConfigKeyedHolder;
+
+/**
+ * Cache of request objects fetched from <code>request_uri</code>.
+ * <p>
+ * Entries are kept for the lifetime given by Cache-Control/Expires response headers, capped by
+ * <code>requestUriCacheLifetimeInSeconds</code>. Failed fetches are cached for
+ * <code>requestUriNegativeCacheLifetimeInSeconds</code>, so a broken RP endpoint is not hit on every
+ * authorization request. Concurrent requests of the same uri result in one fetch. Total size of cached
+ * content is limited by <code>requestUriCacheMaxSizeInBytes</code>.
+ * <p>
+ * Besides raw content, entry keeps request object which was already decrypted and validated for a client,
+ * so same content is not decrypted and verified again.
+ */
+@ApplicationScoped
+@Named
+public class RequestUriCache {
+
+    private static final int ENTRY_OVERHEAD_IN_BYTES = 128;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
+    private final ConfigKeyedHolder<CacheLimits, Cache<String, FetchedRequest>> cacheHolder = new ConfigKeyedHolder<>(
+            limits -> CacheBuilder.newBuilder()
+                    .maximumWeight(limits.maxSize)
+                    .weigher((Weigher<String, FetchedRequest>) (key, value) -> key.length() + value.getWeight())
+                    .expireAfterWrite(limits.maxLifetime, TimeUnit.SECONDS)
+                    .build());
+
+    /**
+     * @param uri request uri without fragment
+     * @return fetched request, never null. Check {@link FetchedRequest#isFailed()}.
+     */
+    public FetchedRequest fetch(final String uri) {
+        if (appConfiguration.getRequestUriCacheLifetimeInSeconds() <= 0) {
+            return load(uri);
+        }
+
+        final Cache<String, FetchedRequest> cache = getCache();
+        try {
+            final FetchedRequest cached = cache.getIfPresent(uri);
+            if (cached != null && cached.isExpired()) {
+                cache.asMap().remove(uri, cached);
+            }
+
+            final FetchedRequest fetched = cache.get(uri, () -> load(uri));
+            if (!fetched.isCacheable()) {
+                // e.g. Cache-Control: no-store, used by this call only
+                cache.asMap().remove(uri, fetched);
+            }
+            return fetched;
+        } catch (ExecutionException e) {
+            log.error("Failed to fetch request_uri: " + uri, e);
+            return FetchedRequest.failed(0, 0);
+        }
+    }
+
+    /**
+     * Drops cached entry, e.g. if content does not match hash provided in request_uri fragment.
+     */
+    public void invalidate(String uri) {
+        final Cache<String, FetchedRequest> cache = cacheHolder.getIfCreated();
+        if (cache != null) {
+            cache.invalidate(uri);
+        }
+    }
+
+    private FetchedRequest load(String uri) {
+        final long now = System.currentTimeMillis();
+        final OutboundHttpResponse response = outboundHttpService.get(uri, null, appConfiguration.getRequestUriFetchTimeoutInMillis());
+        if (response == null || !response.isOk() || StringUtils.isBlank(response.getContent())) {
+            log.debug("Failed to fetch request_uri: {}, response: {}", uri, response);
+            return FetchedRequest.failed(now, Math.max(0, appConfiguration.getRequestUriNegativeCacheLifetimeInSeconds()));
+        }
+
+        final int maxLifetime = Math.max(0, appConfiguration.getRequestUriCacheLifetimeInSeconds());
+        int lifetime = parseLifetime(response.getHeader("Cache-Control"), response.getHeader("Expires"), now);
+        if (lifetime < 0 || lifetime > maxLifetime) {
+            lifetime = maxLifetime;
+        }
+
+        final String content = response.getContent();
+        final String contentHash = Base64Util.base64urlencode(JwtUtil.getMessageDigestSHA256(content));
+        return new FetchedRequest(content, contentHash, now, lifetime);
+    }
+
+    /**
+     * @return lifetime in seconds allowed by response headers, 0 if response must not be cached or -1 if headers do not define it
+     */
+    public static int parseLifetime(String cacheControl, String expires, long now) {
+        if (StringUtils.isNotBlank(cacheControl)) {
+            // Directives which forbid caching win regardless of their position
+            int maxAge = -1;
+            for (String directive : cacheControl.split(",")) {
+                final String value = directive.trim().toLowerCase();
+                if (isDirective(value, "no-store") || isDirective(value, "no-cache") || isDirective(value, "private")) {
+                    return 0;
+                }
+                if (maxAge < 0 && value.startsWith("max-age=")) {
+                    try {
+                        maxAge = Math.max(0, Integer.parseInt(StringUtils.remove(value.substring(8), '"')));
+                    } catch (NumberFormatException e) {
+                        maxAge = 0;
+                    }
+                }
+            }
+            if (maxAge >= 0) {
+                return maxAge;
+            }
+        }
+
+        if (StringUtils.isNotBlank(expires)) {
+            final Date expiresDate = DateUtils.parseDate(expires);
+            if (expiresDate == null) {
+                // invalid date means "already expired"
+                return 0;
+            }
+            return (int) Math.max(0, TimeUnit.MILLISECONDS.toSeconds(expiresDate.getTime() - now));
+        }
+
+        return -1;
+    }
+
+    private static boolean isDirective(String value, String name) {
+        return value.equals(name) || value.startsWith(name + "=");
+    }
+
+    private Cache<String, FetchedRequest> getCache() {
+        final long maxSize = Math.max(1, appConfiguration.getRequestUriCacheMaxSizeInBytes());
+        final int maxLifetime = Math.max(appConfiguration.getRequestUriCacheLifetimeInSeconds(), appConfiguration.getRequestUriNegativeCacheLifetimeInSeconds());
+
+        return cacheHolder.get(new CacheLimits(maxSize, maxLifetime));
+    }
+
+    private static final class CacheLimits {
+
+        private final long maxSize;
+        private final int maxLifetime;
+
+        private CacheLimits(long maxSize, int maxLifetime) {
+            this.maxSize = maxSize;
+            this.maxLifetime = maxLifetime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final CacheLimits that = (CacheLimits) o;
+            return maxSize == that.maxSize && maxLifetime == that.maxLifetime;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxSize, maxLifetime);
+        }
+    }
+
+    public static final class FetchedRequest {
+
+        private final String content;
+        private final String contentHash;
+        private final long expiresAt;
+        private final boolean cacheable;
+
+        private volatile ValidatedRequest validatedRequest;
+
+        private FetchedRequest(String content, String contentHash, long fetchedAt, int lifetimeInSeconds) {
+            this.content = content;
+            this.contentHash = contentHash;
+            this.expiresAt = fetchedAt + TimeUnit.SECONDS.toMillis(lifetimeInSeconds);
+            this.cacheable = lifetimeInSeconds > 0;
+        }
+
+        private static FetchedRequest failed(long fetchedAt, int lifetimeInSeconds) {
+            return new FetchedRequest(null, null, fetchedAt, lifetimeInSeconds);
+        }
+
+        public boolean isFailed() {
+            return content == null;
+        }
+
+        public boolean isExpired() {
+            return expiresAt < System.currentTimeMillis();
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * @return base64url encoded SHA-256 of content
+         */
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        /**
+         * @return request object previously decrypted and validated for given client or null
+         */
+        public JwtAuthorizationRequest getRequestObject(String clientId) {
+            final ValidatedRequest validated = validatedRequest;
+            return validated != null && StringUtils.equals(validated.clientId, clientId) ? validated.requestObject : null;
+        }
+
+        public void setRequestObject(String clientId, JwtAuthorizationRequest requestObject) {
+            this.validatedRequest = new ValidatedRequest(clientId, requestObject);
+        }
+
+        private int getWeight() {
+            // content is stored as raw string and once more in the parsed request object
+            return ENTRY_OVERHEAD_IN_BYTES + (content != null ? content.length() * 2 : 0);
+        }
+    }
+
+    private static final class ValidatedRequest {
+
+        private final String clientId;
+        private final JwtAuthorizationRequest requestObject;
+
+        private ValidatedRequest(String clientId, JwtAuthorizationRequest requestObject) {
+            this.clientId = clientId;
+            this.requestObject = requestObject;
+        }
+    }
+}
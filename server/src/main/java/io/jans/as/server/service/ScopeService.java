@@ -65,6 +65,23 @@ public class ScopeService {
                 Filter.createPresenceFilter("inum"));
     }
 
+    /**
+     * Puts all scopes into cache (by dn and by id).
+     *
+     * @return number of cached scopes
+     */
+    public int warmUpCache() {
+        BaseCacheService usedCacheService = getCacheService();
+        final List<Scope> scopes = getAllScopesList();
+        for (Scope scope : scopes) {
+            usedCacheService.put(60, scope.getDn(), scope);
+            if (StringUtils.isNotBlank(scope.getId())) {
+                usedCacheService.put(scope.getId(), scope);
+            }
+        }
+        return scopes.size();
+    }
+
     public List<String> getDefaultScopesDn() {
         List<String> defaultScopes = new ArrayList<>();
 
@@ -14,6 +14,7 @@ import io.jans.as.model.jwk.JSONWebKey;
 import io.jans.as.model.jwk.JSONWebKeySet;
 import io.jans.as.model.jwk.Use;
 import io.jans.as.server.model.config.ConfigurationFactory;
+import io.jans.as.server.service.metric.LatencyMetrics;
 import io.jans.service.cdi.util.CdiUtil;
 import org.apache.log4j.Logger;
 import org.json.JSONObject;
@@ -21,6 +22,7 @@ import org.msgpack.core.Preconditions;
 
 import java.security.KeyStoreException;
 import java.security.PrivateKey;
+import java.security.PublicKey;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -33,7 +35,11 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
     private final AbstractCryptoProvider cryptoProvider;
 
     public ServerCryptoProvider(AbstractCryptoProvider cryptoProvider) {
-        this.configurationFactory = CdiUtil.bean(ConfigurationFactory.class);
+        this(CdiUtil.bean(ConfigurationFactory.class), cryptoProvider);
+    }
+
+    public ServerCryptoProvider(ConfigurationFactory configurationFactory, AbstractCryptoProvider cryptoProvider) {
+        this.configurationFactory = configurationFactory;
         this.cryptoProvider = cryptoProvider;
         Preconditions.checkNotNull(configurationFactory);
         Preconditions.checkNotNull(cryptoProvider);
@@ -81,7 +87,12 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
         if (configurationFactory.getAppConfiguration().getRejectJwtWithNoneAlg() && signatureAlgorithm == SignatureAlgorithm.NONE) {
             throw new UnsupportedOperationException("None algorithm is forbidden by `rejectJwtWithNoneAlg` configuration property.");
         }
-        return cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
+        final long start = System.nanoTime();
+        try {
+            return cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
+        } finally {
+            LatencyMetrics.observe(LatencyMetrics.Phase.SIGNING, start);
+        }
     }
 
     @Override
@@ -93,6 +104,15 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
         return cryptoProvider.verifySignature(signingInput, encodedSignature, keyId, jwks, sharedSecret, signatureAlgorithm);
     }
 
+    @Override
+    public boolean verifySignature(String signingInput, String encodedSignature, PublicKey publicKey, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        if (configurationFactory.getAppConfiguration().getRejectJwtWithNoneAlg() && signatureAlgorithm == SignatureAlgorithm.NONE) {
+            LOG.trace("None algorithm is forbidden by `rejectJwtWithNoneAlg` configuration property.");
+            return false;
+        }
+        return cryptoProvider.verifySignature(signingInput, encodedSignature, publicKey, signatureAlgorithm);
+    }
+
     @Override
     public boolean deleteKey(String keyId) throws Exception {
         return cryptoProvider.deleteKey(keyId);
@@ -0,0 +1,74 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Timeline of application startup: offset from start of initialization, duration and thread of each step.
+ * Steps can be recorded from different threads.
+ */
+public class StartupTimeline {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Queue<Step> steps = new ConcurrentLinkedQueue<>();
+
+    public void run(String name, Runnable task) {
+        call(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> T call(String name, Supplier<T> task) {
+        final long start = System.currentTimeMillis();
+        try {
+            return task.get();
+        } finally {
+            steps.add(new Step(name, Thread.currentThread().getName(), start - startedAt, System.currentTimeMillis() - start));
+        }
+    }
+
+    public long getElapsed() {
+        return System.currentTimeMillis() - startedAt;
+    }
+
+    /**
+     * @return steps sorted by start, one per line
+     */
+    public String format() {
+        final List<Step> sorted = new ArrayList<>(steps);
+        sorted.sort(Comparator.comparingLong(step -> step.offset));
+
+        final StringBuilder sb = new StringBuilder();
+        for (Step step : sorted) {
+            sb.append(String.format("%n  +%6d ms %6d ms  %-28s [%s]", step.offset, step.duration, step.name, step.thread));
+        }
+        sb.append(String.format("%n  total: %d ms", getElapsed()));
+        return sb.toString();
+    }
+
+    private static final class Step {
+
+        private final String name;
+        private final String thread;
+        private final long offset;
+        private final long duration;
+
+        private Step(String name, String thread, long offset, long duration) {
+            this.name = name;
+            this.thread = thread;
+            this.offset = offset;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+
+import io.jans.as.common.service.AttributeService;
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.service.external.ExternalAuthenticationService;
+import io.jans.as.server.service.external.ExternalDynamicScopeService;
+
+/**
+ * Loads hot data into caches on startup, before node starts to serve requests, so first requests don't go to
+ * persistence. Categories are set by <code>startupWarmUpCategories</code>:
+ * <ul>
+ * <li>clients - clients accessed during last day (up to <code>startupWarmUpClientsLimit</code>)</li>
+ * <li>scopes - all scopes</li>
+ * <li>attributes - all attributes</li>
+ * <li>discovery - discovery response</li>
+ * </ul>
+ * Categories are loaded in parallel by <code>startupWarmUpConcurrency</code> threads, warm-up which is not finished
+ * within <code>startupWarmUpTimeoutInSeconds</code> is cancelled.
+ */
+@ApplicationScoped
+@Named
+public class StartupWarmUpService {
+
+    public static final String CLIENTS = "clients";
+    public static final String SCOPES = "scopes";
+    public static final String ATTRIBUTES = "attributes";
+    public static final String DISCOVERY = "discovery";
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    @Inject
+    private ClientService clientService;
+
+    @Inject
+    private ScopeService scopeService;
+
+    @Inject
+    private AttributeService attributeService;
+
+    @Inject
+    private DiscoveryService discoveryService;
+
+    @Inject
+    private LocalResponseCache localResponseCache;
+
+    @Inject
+    private ExternalAuthenticationService externalAuthenticationService;
+
+    @Inject
+    private ExternalDynamicScopeService externalDynamicScopeService;
+
+    public StartupWarmUpService() {
+    }
+
+    StartupWarmUpService(Logger log, AppConfiguration appConfiguration, ClientService clientService, ScopeService scopeService,
+            AttributeService attributeService) {
+        this.log = log;
+        this.appConfiguration = appConfiguration;
+        this.clientService = clientService;
+        this.scopeService = scopeService;
+        this.attributeService = attributeService;
+    }
+
+    /**
+     * @return number of loaded entries of each category which is warmed up, failed and cancelled categories are
+     * not included
+     */
+    public Map<String, Integer> warmUp() {
+        final Map<String, Integer> result = new LinkedHashMap<>();
+        final Map<String, Callable<Integer>> tasks = createTasks(getCategories());
+        if (tasks.isEmpty()) {
+            return result;
+        }
+
+        log.info("Starting warm-up of {}", tasks.keySet());
+        final long start = System.currentTimeMillis();
+        final int concurrency = Math.max(1, Math.min(appConfiguration.getStartupWarmUpConcurrency(), tasks.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Integer>> futures = executor.invokeAll(new ArrayList<>(tasks.values()),
+                    Math.max(1, appConfiguration.getStartupWarmUpTimeoutInSeconds()), TimeUnit.SECONDS);
+
+            final Iterator<String> categories = tasks.keySet().iterator();
+            for (Future<Integer> future : futures) {
+                final String category = categories.next();
+                if (future.isCancelled()) {
+                    log.warn("Warm-up of {} is not finished in time and is cancelled", category);
+                    continue;
+                }
+                try {
+                    final Integer count = future.get();
+                    log.debug("Warmed up {}: {}", category, count);
+                    result.put(category, count);
+                } catch (ExecutionException e) {
+                    log.error("Failed to warm up " + category, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Finished warm-up in {} ms", System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private Set<String> getCategories() {
+        final Set<String> result = new HashSet<>();
+        for (String category : appConfiguration.getStartupWarmUpCategories()) {
+            if (StringUtils.isNotBlank(category)) {
+                result.add(category.trim().toLowerCase());
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Callable<Integer>> createTasks(Set<String> categories) {
+        final Map<String, Callable<Integer>> tasks = new LinkedHashMap<>();
+        if (categories.remove(CLIENTS)) {
+            tasks.put(CLIENTS, () -> clientService.warmUpCache(appConfiguration.getStartupWarmUpClientsLimit()));
+        }
+        if (categories.remove(SCOPES)) {
+            tasks.put(SCOPES, scopeService::warmUpCache);
+        }
+        if (categories.remove(ATTRIBUTES)) {
+            tasks.put(ATTRIBUTES, attributeService::warmUpCache);
+        }
+        if (categories.remove(DISCOVERY)) {
+            tasks.put(DISCOVERY, this::warmUpDiscovery);
+        }
+        if (!categories.isEmpty()) {
+            log.warn("Unknown warm-up categories: {}", categories);
+        }
+        return tasks;
+    }
+
+    private int warmUpDiscovery() {
+        if (!(externalAuthenticationService.isLoaded() && externalDynamicScopeService.isLoaded())) {
+            log.debug("Skipped warm-up of discovery response because scripts are not loaded yet");
+            return 0;
+        }
+
+        localResponseCache.putDiscoveryResponse(discoveryService.process());
+        return 1;
+    }
+}
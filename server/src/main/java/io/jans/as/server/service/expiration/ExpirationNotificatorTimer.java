@@ -8,10 +8,15 @@ package io.jans.as.server.service.expiration;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
@@ -27,24 +32,53 @@ import io.jans.as.server.service.cdi.event.ExpirationEvent;
 import io.jans.as.server.service.external.ExternalApplicationSessionService;
 import io.jans.as.server.service.external.session.SessionEvent;
 import io.jans.as.server.service.external.session.SessionEventType;
+import io.jans.as.server.service.metric.MetricsRegistry;
+import io.jans.as.server.util.ServerUtil;
 import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.model.ProcessBatchOperation;
+import io.jans.orm.model.SearchScope;
 import io.jans.orm.search.filter.Filter;
 import io.jans.service.cdi.async.Asynchronous;
 import io.jans.service.cdi.event.Scheduled;
 import io.jans.service.timer.event.TimerEvent;
 import io.jans.service.timer.schedule.TimerSchedule;
-import net.jodah.expiringmap.ExpirationListener;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 
 /**
+ * Fires GONE event of application session scripts when session expires.
+ * <p>
+ * All sessions expiring within <code>expirationNotificatorIntervalInSeconds</code> are read page by page and only
+ * (id, dn, user dn, expiration) of session is kept in map (see {@link ExpiringSessionTracker}). Sessions which are
+ * already in map with same expiration are skipped (they don't take place of other sessions in search), map is never
+ * filled over <code>expirationNotificatorMapSizeLimit</code>. Sessions which don't fit are read again by next run; if
+ * they expire before it, next run dispatches GONE event right away and removes them. Expired sessions are queued and
+ * dispatched to scripts in batches, full sessions of each batch are loaded by one search (session which is removed
+ * already gets event with id, dn, user dn and expiration only). Map size and notification lag are exposed by metrics
+ * endpoint.
+ *
  * @author Yuriy Zabrovarnyy
  */
 @ApplicationScoped
 @Named
-public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Object> {
+public class ExpirationNotificatorTimer {
 
     private static final int DEFAULT_INTERVAL = 600; // 10 min
+    private static final int CHUNK_SIZE = 100;
+    private static final int DISPATCH_BATCH_SIZE = 100;
+    private static final long DISPATCH_DELAY_IN_MILLIS = 1000;
+    private static final String[] SESSION_ATTRIBUTES = {"jansId", "jansUsrDN", "exp"};
+
+    private static final Gauge MAP_SIZE = Gauge.build()
+            .name("jans_auth_expiration_notificator_map_size")
+            .help("Number of sessions waiting for expiration notification.")
+            .register(MetricsRegistry.getRegistry());
+
+    private static final Histogram LAG = Histogram.build()
+            .name("jans_auth_expiration_notificator_lag_seconds")
+            .help("Delay between session expiration and dispatch of GONE event in seconds.")
+            .exponentialBuckets(0.01, 2, 16)
+            .register(MetricsRegistry.getRegistry());
 
     @Inject
     private Logger log;
@@ -64,10 +98,9 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
     @Inject
     private ExternalApplicationSessionService externalApplicationSessionService;
 
-    private ExpiringMap<ExpId, Object> expiringMap = ExpiringMap.builder()
-            .expirationPolicy(ExpirationPolicy.CREATED)
-            .variableExpiration()
-            .build();
+    private ExpiringSessionTracker tracker;
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean(false);
+    private ScheduledExecutorService dispatchExecutor;
 
     private AtomicBoolean isActive;
 
@@ -77,12 +110,8 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
         log.debug("Initializing ExpirationNotificatorTimer");
         this.isActive = new AtomicBoolean(false);
 
-        expiringMap = ExpiringMap.builder()
-                .expirationPolicy(ExpirationPolicy.CREATED)
-                .maxSize(appConfiguration.getExpirationNotificatorMapSizeLimit())
-                .variableExpiration()
-                .build();
-        expiringMap.addExpirationListener(this);
+        tracker = new ExpiringSessionTracker(appConfiguration.getExpirationNotificatorMapSizeLimit(), this::dispatchLater);
+        dispatchExecutor = ServerUtil.createExecutor();
 
         timerEvent.fire(new TimerEvent(new TimerSchedule(DEFAULT_INTERVAL, DEFAULT_INTERVAL), new ExpirationEvent(), Scheduled.Literal.INSTANCE));
 
@@ -129,27 +158,101 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
         final Filter filter = Filter.createANDFilter(
                 Filter.createEqualityFilter("del", true),
                 Filter.createLessOrEqualFilter("exp", persistenceEntryManager.encodeTime(baseDn, future)));
-        final List<SessionId> sessions = persistenceEntryManager.findEntries(baseDn, SessionId.class, filter);
-        if (sessions == null || sessions.isEmpty()) {
-            return;
+        final long now = System.currentTimeMillis();
+        final AtomicInteger notFit = new AtomicInteger();
+
+        // no size limit: sessions which are in map already must not hide other sessions expiring within interval
+        persistenceEntryManager.findEntries(baseDn, SessionId.class, filter, SearchScope.SUB, SESSION_ATTRIBUTES, new ProcessBatchOperation<SessionId>() {
+            @Override
+            public void performAction(List<SessionId> sessions) {
+                for (SessionId session : sessions) {
+                    if (!tracker.put(session, now)) {
+                        notFit.incrementAndGet();
+                    }
+                }
+            }
+        }, 0, 0, CHUNK_SIZE);
+
+        MAP_SIZE.set(tracker.size());
+        if (notFit.get() > 0) {
+            log.debug("Expiration map is full, {} sessions will be read again by next run", notFit.get());
+        }
+    }
+
+    private void dispatchLater() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatchExecutor.schedule(this::dispatchExpiredSessions, DISPATCH_DELAY_IN_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void dispatchExpiredSessions() {
+        dispatchScheduled.set(false);
+
+        List<ExpiringSession> batch;
+        while (!(batch = tracker.pollExpired(DISPATCH_BATCH_SIZE)).isEmpty()) {
+            dispatch(batch);
+        }
+
+        MAP_SIZE.set(tracker.size());
+    }
+
+    private void dispatch(List<ExpiringSession> sessions) {
+        final long now = System.currentTimeMillis();
+        for (ExpiringSession session : sessions) {
+            LAG.observe(Math.max(0, now - session.getExpirationTime()) / 1000d);
         }
 
-        long now = new Date().getTime();
-        for (SessionId session : sessions) {
-            final long duration = session.getExpirationDate().getTime() - now;
+        try {
+            externalApplicationSessionService.externalEvents(ExpiringSessionTracker.toGoneEvents(sessions, loadSessions(sessions)));
+        } catch (Exception e) {
+            log.error("Failed to dispatch session expiration events", e);
+        }
 
-            if (duration <= 0) {
-                remove(session);
-                continue;
+        for (ExpiringSession session : sessions) {
+            if (session.isRemoveOnDispatch()) {
+                try {
+                    persistenceEntryManager.remove(session.getDn());
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                }
             }
-            expiringMap.put(new ExpId(session.getId(), ExpType.SESSION), session, duration, TimeUnit.MILLISECONDS);
         }
     }
 
-    @Override
-    public void expired(ExpId key, Object value) {
-        if (key.getType() == ExpType.SESSION && value instanceof SessionId) {
-            externalApplicationSessionService.externalEvent(new SessionEvent(SessionEventType.GONE, (SessionId) value));
+    /**
+     * @return full sessions by id, loaded by one search
+     */
+    private Map<String, SessionId> loadSessions(List<ExpiringSession> sessions) {
+        final Map<String, SessionId> result = new HashMap<>();
+        if (!externalApplicationSessionService.isEnabled()) {
+            return result;
+        }
+
+        final Filter[] idFilters = new Filter[sessions.size()];
+        for (int i = 0; i < idFilters.length; i++) {
+            idFilters[i] = Filter.createEqualityFilter("jansId", sessions.get(i).getId());
+        }
+
+        try {
+            final List<SessionId> loaded = persistenceEntryManager.findEntries(staticConfiguration.getBaseDn().getSessions(), SessionId.class,
+                    Filter.createORFilter(idFilters), null, sessions.size());
+            for (SessionId session : loaded) {
+                result.put(session.getId(), session);
+            }
+        } catch (Exception e) {
+            log.error("Failed to load expired sessions, GONE events will have only session id, dn, user dn and expiration", e);
+        }
+
+        if (result.size() < sessions.size()) {
+            log.debug("{} expired sessions are removed already, their GONE events have only session id, dn, user dn and expiration", sessions.size() - result.size());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (dispatchExecutor != null) {
+            dispatchExecutor.shutdown();
         }
     }
 
@@ -0,0 +1,70 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.expiration;
+
+import java.util.Date;
+
+import io.jans.as.server.model.common.SessionId;
+
+/**
+ * Lightweight view of session kept in expiring map instead of full {@link SessionId}.
+ */
+class ExpiringSession {
+
+    private final String id;
+    private final String dn;
+    private final String userDn;
+    private final long expirationTime;
+    private final boolean removeOnDispatch;
+
+    ExpiringSession(String id, String dn, String userDn, long expirationTime, boolean removeOnDispatch) {
+        this.id = id;
+        this.dn = dn;
+        this.userDn = userDn;
+        this.expirationTime = expirationTime;
+        this.removeOnDispatch = removeOnDispatch;
+    }
+
+    static ExpiringSession of(SessionId sessionId) {
+        return of(sessionId, false);
+    }
+
+    static ExpiringSession of(SessionId sessionId, boolean removeOnDispatch) {
+        return new ExpiringSession(sessionId.getId(), sessionId.getDn(), sessionId.getUserDn(), sessionId.getExpirationDate().getTime(), removeOnDispatch);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDn() {
+        return dn;
+    }
+
+    /**
+     * @return true if session was found expired already and should be removed from persistence after GONE event is dispatched
+     */
+    public boolean isRemoveOnDispatch() {
+        return removeOnDispatch;
+    }
+
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    /**
+     * @return session with id, dn, user dn and expiration date (other attributes are not loaded)
+     */
+    public SessionId toSessionId() {
+        SessionId sessionId = new SessionId();
+        sessionId.setId(id);
+        sessionId.setDn(dn);
+        sessionId.setUserDn(userDn);
+        sessionId.setExpirationDate(new Date(expirationTime));
+        return sessionId;
+    }
+}
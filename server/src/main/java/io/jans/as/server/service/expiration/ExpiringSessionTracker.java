@@ -0,0 +1,123 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.expiration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.jans.as.server.model.common.SessionId;
+import io.jans.as.server.service.external.session.SessionEvent;
+import io.jans.as.server.service.external.session.SessionEventType;
+import net.jodah.expiringmap.ExpirationListener;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Keeps {@link ExpiringSession} of sessions which expire soon in expiring map and queues them when they expire.
+ * Map is never filled over size limit, so it never evicts sessions before their expiration.
+ */
+class ExpiringSessionTracker implements ExpirationListener<ExpId, Object> {
+
+    private final ExpiringMap<ExpId, Object> expiringMap;
+    private final int sizeLimit;
+    private final Runnable expiredListener;
+    private final Queue<ExpiringSession> expiredSessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param expiredListener is called after session is added to expired sessions queue
+     */
+    ExpiringSessionTracker(int sizeLimit, Runnable expiredListener) {
+        this.sizeLimit = sizeLimit;
+        this.expiredListener = expiredListener;
+        this.expiringMap = ExpiringMap.builder()
+                .expirationPolicy(ExpirationPolicy.CREATED)
+                .maxSize(Math.max(1, sizeLimit))
+                .variableExpiration()
+                .build();
+        this.expiringMap.addExpirationListener(this);
+    }
+
+    /**
+     * Adds session read from persistence. Session which is in map already with same expiration is skipped, session
+     * which expired already is queued right away.
+     *
+     * @return false if session doesn't fit into map
+     */
+    boolean put(SessionId session, long now) {
+        if (session.getExpirationDate() == null) {
+            return true;
+        }
+
+        final ExpId key = new ExpId(session.getId(), ExpType.SESSION);
+        final Object existing = expiringMap.get(key);
+        final long expirationTime = session.getExpirationDate().getTime();
+        if (existing instanceof ExpiringSession && ((ExpiringSession) existing).getExpirationTime() == expirationTime) {
+            return true; // put by one of previous runs
+        }
+
+        final long duration = expirationTime - now;
+        if (duration <= 0) {
+            expiringMap.remove(key);
+            expired(ExpiringSession.of(session, true));
+            return true;
+        }
+
+        if (existing == null && expiringMap.size() >= sizeLimit) {
+            return false; // don't let map evict sessions
+        }
+        expiringMap.put(key, ExpiringSession.of(session), duration, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    public void expired(ExpId key, Object value) {
+        if (key.getType() == ExpType.SESSION && value instanceof ExpiringSession) {
+            expired((ExpiringSession) value);
+        }
+    }
+
+    private void expired(ExpiringSession session) {
+        expiredSessions.add(session);
+        expiredListener.run();
+    }
+
+    /**
+     * @return up to maxCount expired sessions in order of expiration, empty list if there are no expired sessions
+     */
+    List<ExpiringSession> pollExpired(int maxCount) {
+        final List<ExpiringSession> result = new ArrayList<>();
+        ExpiringSession session;
+        while (result.size() < maxCount && (session = expiredSessions.poll()) != null) {
+            result.add(session);
+        }
+        return result;
+    }
+
+    int size() {
+        return expiringMap.size();
+    }
+
+    /**
+     * @param loadedSessions full sessions by id, session which is not there (e.g. removed already) gets event with
+     *                       session built from {@link ExpiringSession}
+     */
+    static List<SessionEvent> toGoneEvents(List<ExpiringSession> sessions, Map<String, SessionId> loadedSessions) {
+        final List<SessionEvent> events = new ArrayList<>(sessions.size());
+        for (ExpiringSession session : sessions) {
+            SessionId sessionId = loadedSessions.get(session.getId());
+            if (sessionId == null) {
+                sessionId = session.toSessionId();
+            }
+            events.add(new SessionEvent(SessionEventType.GONE, sessionId));
+        }
+        return events;
+    }
+}
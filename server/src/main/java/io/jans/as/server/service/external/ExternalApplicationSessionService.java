@@ -6,6 +6,7 @@
 
 package io.jans.as.server.service.external;
 
+import java.util.List;
 import java.util.Map;
 
 import javax.ejb.DependsOn;
@@ -14,6 +15,7 @@ import javax.inject.Named;
 import javax.servlet.http.HttpServletRequest;
 
 import io.jans.as.server.model.common.SessionId;
+import io.jans.as.server.service.external.session.ApplicationSessionBatchType;
 import io.jans.as.server.service.external.session.SessionEvent;
 import io.jans.model.SimpleCustomProperty;
 import io.jans.model.custom.script.CustomScriptType;
@@ -102,6 +104,40 @@ public class ExternalApplicationSessionService extends ExternalScriptService {
         }
     }
 
+    /**
+     * Dispatches batch of events script by script. Script which implements {@link ApplicationSessionBatchType} gets
+     * whole batch in one call, other scripts get events one by one.
+     */
+    public void externalEvents(List<SessionEvent> events) {
+        if (!isEnabled() || events.isEmpty()) {
+            return;
+        }
+
+        for (CustomScriptConfiguration scriptConfiguration : this.customScriptConfigurations) {
+            if (scriptConfiguration.getExternalType() instanceof ApplicationSessionBatchType) {
+                externalEvents(scriptConfiguration, events);
+            } else {
+                for (SessionEvent event : events) {
+                    externalEvent(scriptConfiguration, event);
+                }
+            }
+        }
+    }
+
+    private void externalEvents(CustomScriptConfiguration scriptConfiguration, List<SessionEvent> events) {
+        try {
+            log.trace("Executing python 'onEvents' method of script: " + scriptConfiguration.getName() + ", events count: " + events.size());
+            for (SessionEvent event : events) {
+                event.setScriptConfiguration(scriptConfiguration);
+            }
+            ApplicationSessionBatchType applicationSessionType = (ApplicationSessionBatchType) scriptConfiguration.getExternalType();
+            applicationSessionType.onEvents(events);
+        } catch (Exception ex) {
+            log.error(ex.getMessage(), ex);
+            saveScriptError(scriptConfiguration.getCustomScript(), ex);
+        }
+    }
+
     private void externalEvent(CustomScriptConfiguration scriptConfiguration, SessionEvent event) {
         try {
             log.trace("Executing python 'onEvent' method of script: " + scriptConfiguration.getName() + ", event: " + event);
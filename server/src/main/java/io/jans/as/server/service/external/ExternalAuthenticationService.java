@@ -7,6 +7,7 @@
 package io.jans.as.server.service.external;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,12 +56,21 @@ public class ExternalAuthenticationService extends ExternalScriptService {
     @Inject
     private InternalDefaultPersonAuthenticationType internalDefaultPersonAuthenticationType;
 
+    @Inject
+    private ScriptExecutionGuard scriptExecutionGuard;
+
 	private static final long serialVersionUID = 7339887464253044927L;
 
 	private Map<AuthenticationScriptUsageType, List<CustomScriptConfiguration>> customScriptConfigurationsMapByUsageType;
 	private Map<AuthenticationScriptUsageType, CustomScriptConfiguration> defaultExternalAuthenticators;
 	private Map<String, String> scriptAliasMap;
 
+	// Indexes rebuilt on scripts reload
+	private Map<AuthenticationScriptUsageType, Map<String, CustomScriptConfiguration>> customScriptConfigurationsByUsageTypeAndName = Collections.emptyMap();
+	private Map<AuthenticationScriptUsageType, Map<Integer, CustomScriptConfiguration>> customScriptConfigurationsByUsageTypeAndLevel = Collections.emptyMap();
+	private Map<Integer, Set<String>> levelToAcrMap = Collections.emptyMap();
+	private Map<String, Integer> acrToLevelMap = Collections.emptyMap();
+
 	public ExternalAuthenticationService() {
 		super(CustomScriptType.PERSON_AUTHENTICATION);
 	}
@@ -70,8 +80,9 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 	}
 
 	public String scriptName(String acr) {
-		if (scriptAliasMap.containsKey(acr)) {
-			return scriptAliasMap.get(acr);
+		String name = scriptAliasMap.get(acr);
+		if (name != null) {
+			return name;
 		}
 
 		return acr;
@@ -87,6 +98,49 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 
 		// Determine default authenticator for every usage type
 		this.defaultExternalAuthenticators = determineDefaultCustomScriptConfigurationsMap(this.customScriptConfigurationsNameMap);
+
+		// Build lookup indexes
+		buildIndexes();
+	}
+
+	private void buildIndexes() {
+		Map<AuthenticationScriptUsageType, Map<String, CustomScriptConfiguration>> newByUsageTypeAndName = new HashMap<AuthenticationScriptUsageType, Map<String, CustomScriptConfiguration>>();
+		Map<AuthenticationScriptUsageType, Map<Integer, CustomScriptConfiguration>> newByUsageTypeAndLevel = new HashMap<AuthenticationScriptUsageType, Map<Integer, CustomScriptConfiguration>>();
+		for (Entry<AuthenticationScriptUsageType, List<CustomScriptConfiguration>> entry : customScriptConfigurationsMapByUsageType.entrySet()) {
+			Map<String, CustomScriptConfiguration> byName = new HashMap<String, CustomScriptConfiguration>();
+			Map<Integer, CustomScriptConfiguration> byLevel = new HashMap<Integer, CustomScriptConfiguration>();
+			for (CustomScriptConfiguration customScriptConfiguration : entry.getValue()) {
+				// First script in list wins, the same as in linear search
+				byName.putIfAbsent(StringHelper.toLowerCase(customScriptConfiguration.getName()), customScriptConfiguration);
+				byLevel.putIfAbsent(customScriptConfiguration.getLevel(), customScriptConfiguration);
+			}
+			newByUsageTypeAndName.put(entry.getKey(), Collections.unmodifiableMap(byName));
+			newByUsageTypeAndLevel.put(entry.getKey(), Collections.unmodifiableMap(byLevel));
+		}
+
+		Map<Integer, Set<String>> newLevelToAcr = Maps.newHashMap();
+		Map<String, Integer> newAcrToLevel = Maps.newHashMap();
+		for (CustomScriptConfiguration script : getCustomScriptConfigurationsMap()) {
+			int level = script.getLevel();
+			String acr = script.getName();
+
+			Set<String> acrs = newLevelToAcr.get(level);
+			if (acrs == null) {
+				acrs = Sets.newHashSet();
+				newLevelToAcr.put(level, acrs);
+			}
+			acrs.add(acr);
+
+			newAcrToLevel.put(acr, script.getCustomScript().isInternal() ? -1 : level);
+		}
+		for (Entry<Integer, Set<String>> entry : newLevelToAcr.entrySet()) {
+			entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+		}
+
+		this.customScriptConfigurationsByUsageTypeAndName = Collections.unmodifiableMap(newByUsageTypeAndName);
+		this.customScriptConfigurationsByUsageTypeAndLevel = Collections.unmodifiableMap(newByUsageTypeAndLevel);
+		this.levelToAcrMap = Collections.unmodifiableMap(newLevelToAcr);
+		this.acrToLevelMap = Collections.unmodifiableMap(newAcrToLevel);
 	}
 
 	private HashMap<String, String> buildScriptAliases() {
@@ -205,12 +259,24 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 	}
 
 	public boolean executeExternalAuthenticate(CustomScriptConfiguration customScriptConfiguration, Map<String, String[]> requestParameters, int step) {
+		if (!scriptExecutionGuard.allowExecution(customScriptConfiguration)) {
+			log.debug("Authentication with script '{}' failed fast because its circuit is open", customScriptConfiguration.getName());
+			return false;
+		}
+
+		final long start = System.nanoTime();
 		try {
 			log.trace("Executing python 'authenticate' authenticator method");
 			PersonAuthenticationType externalAuthenticator = (PersonAuthenticationType) customScriptConfiguration.getExternalType();
 			Map<String, SimpleCustomProperty> configurationAttributes = customScriptConfiguration.getConfigurationAttributes();
-			return externalAuthenticator.authenticate(configurationAttributes, requestParameters, step);
+			final boolean result = externalAuthenticator.authenticate(configurationAttributes, requestParameters, step);
+			final Exception budgetExceeded = scriptExecutionGuard.executed(customScriptConfiguration, "authenticate", start);
+			if (budgetExceeded != null) {
+				saveScriptError(customScriptConfiguration.getCustomScript(), budgetExceeded);
+			}
+			return result;
 		} catch (Exception ex) {
+			scriptExecutionGuard.failed(customScriptConfiguration, start);
 			log.error(ex.getMessage(), ex);
             saveScriptError(customScriptConfiguration.getCustomScript(), ex);
 		}
@@ -321,19 +387,12 @@ public class ExternalAuthenticationService extends ExternalScriptService {
     }
 
 	public CustomScriptConfiguration getExternalAuthenticatorByAuthLevel(AuthenticationScriptUsageType usageType, int authLevel) {
-		CustomScriptConfiguration resultDefaultExternalAuthenticator = null;
-		for (CustomScriptConfiguration customScriptConfiguration : this.customScriptConfigurationsMapByUsageType.get(usageType)) {
-			// Determine authenticator
-			if (customScriptConfiguration.getLevel() != authLevel) {
-				continue;
-			}
-
-			if (resultDefaultExternalAuthenticator == null) {
-				resultDefaultExternalAuthenticator = customScriptConfiguration;
-			}
+		Map<Integer, CustomScriptConfiguration> byLevel = this.customScriptConfigurationsByUsageTypeAndLevel.get(usageType);
+		if (byLevel == null) {
+			return null;
 		}
 
-		return resultDefaultExternalAuthenticator;
+		return byLevel.get(authLevel);
 	}
 
 	public CustomScriptConfiguration determineCustomScriptConfiguration(AuthenticationScriptUsageType usageType, int authStep, String acr) {
@@ -354,13 +413,15 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 	public CustomScriptConfiguration determineCustomScriptConfiguration(AuthenticationScriptUsageType usageType, List<String> acrValues) {
 		List<String> authModes = getAuthModesByAcrValues(acrValues);
 		
-		if (authModes.size() > 0) {
-			for (String authMode : authModes) {
-				for (CustomScriptConfiguration customScriptConfiguration : this.customScriptConfigurationsMapByUsageType.get(usageType)) {
-					if (StringHelper.equalsIgnoreCase(authMode, customScriptConfiguration.getName())) {
-						return customScriptConfiguration;
-					}
-				}
+		Map<String, CustomScriptConfiguration> byName = this.customScriptConfigurationsByUsageTypeAndName.get(usageType);
+		if (byName == null) {
+			return null;
+		}
+
+		for (String authMode : authModes) {
+			CustomScriptConfiguration customScriptConfiguration = byName.get(StringHelper.toLowerCase(authMode));
+			if (customScriptConfiguration != null) {
+				return customScriptConfiguration;
 			}
 		}
 
@@ -430,23 +491,21 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 	}
 
 	public CustomScriptConfiguration getCustomScriptConfiguration(AuthenticationScriptUsageType usageType, String name) {
-		for (CustomScriptConfiguration customScriptConfiguration : this.customScriptConfigurationsMapByUsageType.get(usageType)) {
-			if (StringHelper.equalsIgnoreCase(scriptName(name), customScriptConfiguration.getName())) {
-				return customScriptConfiguration;
-			}
+		Map<String, CustomScriptConfiguration> byName = this.customScriptConfigurationsByUsageTypeAndName.get(usageType);
+		if ((byName == null) || (name == null)) {
+			return null;
 		}
-		
-		return null;
+
+		return byName.get(StringHelper.toLowerCase(scriptName(name)));
 	}
 
 	public CustomScriptConfiguration getCustomScriptConfigurationByName(String name) {
-		for (Entry<String, CustomScriptConfiguration> customScriptConfigurationEntry : this.customScriptConfigurationsNameMap.entrySet()) {
-			if (StringHelper.equalsIgnoreCase(scriptName(name), customScriptConfigurationEntry.getKey())) {
-				return customScriptConfigurationEntry.getValue();
-			}
+		if ((this.customScriptConfigurationsNameMap == null) || (name == null)) {
+			return null;
 		}
 
-		return null;
+		// Name map keys are in lower case
+		return this.customScriptConfigurationsNameMap.get(StringHelper.toLowerCase(scriptName(name)));
 	}
 
 	public List<CustomScriptConfiguration> getCustomScriptConfigurationsMap() {
@@ -490,31 +549,11 @@ public class ExternalAuthenticationService extends ExternalScriptService {
 	}
 
 	public Map<Integer, Set<String>> levelToAcrMapping() {
-		Map<Integer, Set<String>> map = Maps.newHashMap();
-		for (CustomScriptConfiguration script : getCustomScriptConfigurationsMap()) {
-			int level = script.getLevel();
-			String acr = script.getName();
-
-			Set<String> acrs = map.get(level);
-			if (acrs == null) {
-				acrs = Sets.newHashSet();
-				map.put(level, acrs);
-			}
-			acrs.add(acr);
-		}
-		return map;
+		return levelToAcrMap;
 	}
 
 	public Map<String, Integer> acrToLevelMapping() {
-		Map<String, Integer> map = Maps.newHashMap();
-		for (CustomScriptConfiguration script : getCustomScriptConfigurationsMap()) {
-			if (script.getCustomScript().isInternal()) {
-				map.put(script.getName(), -1);
-				continue;
-			}
-			map.put(script.getName(), script.getLevel());
-		}
-		return map;
+		return acrToLevelMap;
 	}
 	
 	private CustomScriptConfiguration getInternalCustomScriptConfiguration(GluuLdapConfiguration ldapAuthConfig) {
@@ -14,6 +14,7 @@ import java.util.Set;
 
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.google.common.collect.Sets;
@@ -38,17 +39,31 @@ public class ExternalDynamicScopeService extends ExternalScriptService {
 
 	private static final long serialVersionUID = 1416361273036208685L;
 
+	@Inject
+	private ScriptExecutionGuard scriptExecutionGuard;
+
 	public ExternalDynamicScopeService() {
 		super(CustomScriptType.DYNAMIC_SCOPE);
 	}
 
 	public boolean executeExternalUpdateMethod(CustomScriptConfiguration customScriptConfiguration, DynamicScopeExternalContext dynamicScopeContext) {
+		if (!scriptExecutionGuard.allowExecution(customScriptConfiguration)) {
+			return false;
+		}
+
+		final long start = System.nanoTime();
 		try {
 			log.trace("Executing python 'update' method");
 			DynamicScopeType dynamicScopeType = (DynamicScopeType) customScriptConfiguration.getExternalType();
 			Map<String, SimpleCustomProperty> configurationAttributes = customScriptConfiguration.getConfigurationAttributes();
-			return dynamicScopeType.update(dynamicScopeContext, configurationAttributes);
+			final boolean result = dynamicScopeType.update(dynamicScopeContext, configurationAttributes);
+			final Exception budgetExceeded = scriptExecutionGuard.executed(customScriptConfiguration, "update", start);
+			if (budgetExceeded != null) {
+				saveScriptError(customScriptConfiguration.getCustomScript(), budgetExceeded);
+			}
+			return result;
 		} catch (Exception ex) {
+			scriptExecutionGuard.failed(customScriptConfiguration, start);
 			log.error(ex.getMessage(), ex);
             saveScriptError(customScriptConfiguration.getCustomScript(), ex);
 		}
@@ -40,6 +40,10 @@ public class ExternalIntrospectionService extends ExternalScriptService {
     private Logger log;
     @Inject
     private AppConfiguration appConfiguration;
+    @Inject
+    private ScriptExecutionGuard scriptExecutionGuard;
+    @Inject
+    private IntrospectionScriptResultCache introspectionScriptResultCache;
 
     public ExternalIntrospectionService() {
         super(CustomScriptType.INTROSPECTION);
@@ -80,16 +84,36 @@ public class ExternalIntrospectionService extends ExternalScriptService {
         }
 
         for (CustomScriptConfiguration script : scripts) {
+            final String cacheKey = introspectionScriptResultCache.getKey(script, context.getTokenToIntrospect());
+            if (cacheKey != null) {
+                final IntrospectionScriptResultCache.ScriptResult cached = introspectionScriptResultCache.get(cacheKey);
+                if (cached != null) {
+                    log.trace("Applied cached result of introspection script {}", script.getName());
+                    cached.apply(responseAsJsonObject);
+                    continue;
+                }
+            }
+
+            final String responseBeforeScript = cacheKey != null ? responseAsJsonObject.toString() : null;
+            context.setCacheable(false);
             if (!executeExternalModifyResponse(script, responseAsJsonObject, context)) {
                 log.debug("Stopped running external interception scripts because script {} returns false.", script.getName());
                 return false;
             }
+            if (cacheKey != null && context.isCacheable()) {
+                introspectionScriptResultCache.put(cacheKey, responseBeforeScript, responseAsJsonObject, context.getTokenToIntrospect().getExpirationDate());
+            }
         }
 
         return true;
     }
 
     private boolean executeExternalModifyResponse(CustomScriptConfiguration scriptConf, JSONObject responseAsJsonObject, ExternalIntrospectionContext context) {
+        if (!scriptExecutionGuard.allowExecution(scriptConf)) {
+            return false;
+        }
+
+        final long start = System.nanoTime();
         try {
             log.trace("Executing external 'executeExternalModifyResponse' method, script name: {}, responseAsJsonObject: {} , context: {}",
                     scriptConf.getName(), responseAsJsonObject, context);
@@ -97,10 +121,15 @@ public class ExternalIntrospectionService extends ExternalScriptService {
             IntrospectionType script = (IntrospectionType) scriptConf.getExternalType();
             context.setScript(scriptConf);
             final boolean result = script.modifyResponse(responseAsJsonObject, context);
+            final Exception budgetExceeded = scriptExecutionGuard.executed(scriptConf, "modifyResponse", start);
+            if (budgetExceeded != null) {
+                saveScriptError(scriptConf.getCustomScript(), budgetExceeded);
+            }
             log.trace("Finished external 'executeExternalModifyResponse' method, script name: {}, responseAsJsonObject: {} , context: {}, result: {}",
                     scriptConf.getName(), responseAsJsonObject, context, result);
             return result;
         } catch (Exception ex) {
+            scriptExecutionGuard.failed(scriptConf, start);
             log.error(ex.getMessage(), ex);
             saveScriptError(scriptConf.getCustomScript(), ex);
             return false;
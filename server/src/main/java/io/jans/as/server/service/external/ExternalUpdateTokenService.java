@@ -31,21 +31,34 @@ public class ExternalUpdateTokenService extends ExternalScriptService {
 	@Inject
     private Logger log;
 
+    @Inject
+    private ScriptExecutionGuard scriptExecutionGuard;
+
     public ExternalUpdateTokenService() {
         super(CustomScriptType.UPDATE_TOKEN);
     }
 
     public boolean modifyIdTokenMethod(CustomScriptConfiguration script, JsonWebResponse jsonWebResponse, ExternalUpdateTokenContext context) {
+        if (!scriptExecutionGuard.allowExecution(script)) {
+            return false;
+        }
+
+        final long start = System.nanoTime();
         try {
             log.trace("Executing python 'updateToken' method, script name: {}, jsonWebResponse: {}, context: {}", script.getName(), jsonWebResponse, context);
             context.setScript(script);
 
             UpdateTokenType updateTokenType = (UpdateTokenType) script.getExternalType();
             final boolean result = updateTokenType.modifyIdToken(jsonWebResponse, context);
+            final Exception budgetExceeded = scriptExecutionGuard.executed(script, "modifyIdToken", start);
+            if (budgetExceeded != null) {
+                saveScriptError(script.getCustomScript(), budgetExceeded);
+            }
             log.trace("Finished 'updateToken' method, script name: {}, jsonWebResponse: {}, context: {}, result: {}", script.getName(), jsonWebResponse, context, result);
 
             return result;
         } catch (Exception ex) {
+            scriptExecutionGuard.failed(script, start);
             log.error(ex.getMessage(), ex);
             saveScriptError(script.getCustomScript(), ex);
         }
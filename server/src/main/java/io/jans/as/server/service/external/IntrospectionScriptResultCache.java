@@ -0,0 +1,159 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.common.AbstractToken;
+import io.jans.as.server.util.ConfigKeyedHolder;
+import io.jans.as.server.util.TokenHashUtil;
+import io.jans.model.custom.script.conf.CustomScriptConfiguration;
+import io.jans.model.custom.script.model.CustomScript;
+
+/**
+ * Cache of changes which introspection script made in introspection response, keyed by hash of introspected token,
+ * script inum and script revision. Used only for scripts which mark result as cacheable
+ * ({@code context.setCacheable(true)}), so next introspection of the same token replays changes without running script.
+ * <p>
+ * Entry lives <code>introspectionScriptCacheLifetimeInSeconds</code> (0 - cache is disabled) but not longer than
+ * introspected token.
+ */
+@ApplicationScoped
+@Named
+public class IntrospectionScriptResultCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private final ConfigKeyedHolder<Integer, Cache<String, ScriptResult>> cacheHolder = new ConfigKeyedHolder<>(
+            lifetime -> CacheBuilder.newBuilder()
+                    .maximumSize(MAX_SIZE)
+                    .expireAfterWrite(lifetime, TimeUnit.SECONDS)
+                    .<String, ScriptResult>build());
+
+    /**
+     * @return cache key or null if result of script for given token can't be cached
+     */
+    public String getKey(CustomScriptConfiguration script, AbstractToken token) {
+        if (appConfiguration.getIntrospectionScriptCacheLifetimeInSeconds() <= 0 || token == null || !token.isValid()
+                || StringUtils.isBlank(token.getCode())) {
+            return null;
+        }
+
+        final CustomScript customScript = script.getCustomScript();
+        if (customScript == null || StringUtils.isBlank(customScript.getInum())) {
+            return null;
+        }
+        return TokenHashUtil.hash(token.getCode()) + " " + customScript.getInum() + " " + customScript.getRevision();
+    }
+
+    /**
+     * @return cached changes or null
+     */
+    public ScriptResult get(String key) {
+        final Cache<String, ScriptResult> cache = getCache();
+        final ScriptResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.isExpired()) {
+            cache.asMap().remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * @param before introspection response (serialized) before script execution
+     * @param after  introspection response after script execution
+     */
+    public void put(String key, String before, JSONObject after, Date tokenExpirationDate) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(appConfiguration.getIntrospectionScriptCacheLifetimeInSeconds());
+        if (tokenExpirationDate != null) {
+            expiresAt = Math.min(expiresAt, tokenExpirationDate.getTime());
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        getCache().put(key, ScriptResult.diff(new JSONObject(before), new JSONObject(after.toString()), expiresAt));
+    }
+
+    private Cache<String, ScriptResult> getCache() {
+        return cacheHolder.get(Math.max(1, appConfiguration.getIntrospectionScriptCacheLifetimeInSeconds()));
+    }
+
+    /**
+     * Changes made by script: added or modified properties and removed properties. Kept serialized, so cached value
+     * can't be modified through response it was applied to.
+     */
+    public static final class ScriptResult {
+
+        private final String changed;
+        private final String removed;
+        private final long expiresAt;
+
+        private ScriptResult(String changed, String removed, long expiresAt) {
+            this.changed = changed;
+            this.removed = removed;
+            this.expiresAt = expiresAt;
+        }
+
+        public static ScriptResult diff(JSONObject before, JSONObject after, long expiresAt) {
+            final JSONObject changed = new JSONObject();
+            final Iterator<String> afterKeys = after.keys();
+            while (afterKeys.hasNext()) {
+                final String key = afterKeys.next();
+                final Object value = after.get(key);
+                if (!before.has(key) || !JSONObject.valueToString(before.get(key)).equals(JSONObject.valueToString(value))) {
+                    changed.put(key, value);
+                }
+            }
+
+            final JSONArray removed = new JSONArray();
+            final Iterator<String> beforeKeys = before.keys();
+            while (beforeKeys.hasNext()) {
+                final String key = beforeKeys.next();
+                if (!after.has(key)) {
+                    removed.put(key);
+                }
+            }
+            return new ScriptResult(changed.toString(), removed.toString(), expiresAt);
+        }
+
+        public void apply(JSONObject response) {
+            final JSONObject changedProperties = new JSONObject(changed);
+            final Iterator<String> keys = changedProperties.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                response.put(key, changedProperties.get(key));
+            }
+
+            final JSONArray removedProperties = new JSONArray(removed);
+            for (int i = 0; i < removedProperties.length(); i++) {
+                response.remove(removedProperties.getString(i));
+            }
+        }
+
+        public boolean isExpired() {
+            return expiresAt < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.slf4j.Logger;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.exception.ScriptTimeBudgetExceededException;
+import io.jans.as.server.service.metric.LatencyMetrics;
+import io.jans.model.custom.script.conf.CustomScriptConfiguration;
+
+/**
+ * Time budget and circuit breaker for custom script methods executed on request thread.
+ * <p>
+ * Script is not interrupted (it can depend on request thread contexts), instead execution longer than
+ * <code>customScriptTimeBudgetInMillis</code> is reported and counted as failure. After
+ * <code>customScriptCircuitBreakerFailureThreshold</code> failures in a row circuit is opened and script is skipped for
+ * <code>customScriptCircuitBreakerOpenIntervalInSeconds</code>, after that one trial execution is allowed: success
+ * closes circuit, failure opens it again.
+ * <p>
+ * State is kept per script name and belongs to script revision, so reloaded (e.g. fixed) script starts with closed
+ * circuit.
+ */
+@ApplicationScoped
+@Named
+public class ScriptExecutionGuard {
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private final ConcurrentMap<String, State> states = new ConcurrentHashMap<>();
+
+    public ScriptExecutionGuard() {
+    }
+
+    ScriptExecutionGuard(Logger log, AppConfiguration appConfiguration) {
+        this.log = log;
+        this.appConfiguration = appConfiguration;
+    }
+
+    /**
+     * @return true if script can be executed, false if circuit is open and script must be skipped
+     */
+    public boolean allowExecution(CustomScriptConfiguration script) {
+        final int threshold = appConfiguration.getCustomScriptCircuitBreakerFailureThreshold();
+        if (threshold <= 0) {
+            return true;
+        }
+
+        final State state = getState(script);
+        if (state == null || state.failures.get() < threshold) {
+            return true;
+        }
+
+        final long now = nanoTime();
+        final long openUntil = state.openUntil.get();
+        if (now - openUntil < 0) {
+            log.trace("Skipped script '{}' because circuit is open", script.getName());
+            return false;
+        }
+
+        // half open, let only one request try script
+        return state.openUntil.compareAndSet(openUntil, now + getOpenInterval());
+    }
+
+    /**
+     * Records successful execution of script method.
+     *
+     * @param startNanos value of {@link System#nanoTime()} taken before script method call
+     * @return exception to report if execution exceeded time budget (reported at most once per open interval), otherwise null
+     */
+    public ScriptTimeBudgetExceededException executed(CustomScriptConfiguration script, String method, long startNanos) {
+        final long duration = LatencyMetrics.observeScript(script.getName(), startNanos);
+
+        final int budget = appConfiguration.getCustomScriptTimeBudgetInMillis();
+        if (budget <= 0 || duration <= TimeUnit.MILLISECONDS.toNanos(budget)) {
+            final State state = getState(script);
+            if (state != null) {
+                state.failures.set(0);
+            }
+            return null;
+        }
+
+        final long durationInMillis = TimeUnit.NANOSECONDS.toMillis(duration);
+        log.warn("Script '{}' method '{}' was executed in {} ms, time budget is {} ms", script.getName(), method, durationInMillis, budget);
+
+        final State state = failed(script);
+        final long now = nanoTime();
+        final long reportedAt = state.reportedAt.get();
+        if (reportedAt != 0 && now - reportedAt < getOpenInterval()) {
+            return null;
+        }
+        if (!state.reportedAt.compareAndSet(reportedAt, now)) {
+            return null;
+        }
+        return new ScriptTimeBudgetExceededException(String.format("Method '%s' was executed in %d ms, time budget is %d ms",
+                method, durationInMillis, budget));
+    }
+
+    /**
+     * Records failed (thrown exception) execution of script method.
+     */
+    public void failed(CustomScriptConfiguration script, long startNanos) {
+        LatencyMetrics.observeScript(script.getName(), startNanos);
+        failed(script);
+    }
+
+    private State failed(CustomScriptConfiguration script) {
+        final long revision = getRevision(script);
+        final State state = states.compute(script.getName(),
+                (name, existing) -> existing != null && existing.revision == revision ? existing : new State(revision));
+        final int failures = state.failures.incrementAndGet();
+
+        final int threshold = appConfiguration.getCustomScriptCircuitBreakerFailureThreshold();
+        if (threshold > 0 && failures >= threshold) {
+            state.openUntil.set(nanoTime() + getOpenInterval());
+            if (failures == threshold) {
+                log.error("Opened circuit of script '{}' after {} failures in a row", script.getName(), failures);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @return state of current revision of script, null if there is no state or it belongs to previous revision
+     */
+    private State getState(CustomScriptConfiguration script) {
+        final State state = states.get(script.getName());
+        return state != null && state.revision == getRevision(script) ? state : null;
+    }
+
+    private static long getRevision(CustomScriptConfiguration script) {
+        return script.getCustomScript().getRevision();
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private long getOpenInterval() {
+        return TimeUnit.SECONDS.toNanos(Math.max(1, appConfiguration.getCustomScriptCircuitBreakerOpenIntervalInSeconds()));
+    }
+
+    private static final class State {
+
+        private final long revision;
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicLong openUntil = new AtomicLong();
+        private final AtomicLong reportedAt = new AtomicLong();
+
+        private State(long revision) {
+            this.revision = revision;
+        }
+    }
+}
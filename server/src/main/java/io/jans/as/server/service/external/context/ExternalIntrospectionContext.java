@@ -13,6 +13,7 @@ import io.jans.as.common.model.common.User;
 import io.jans.as.common.service.AttributeService;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.jwt.Jwt;
+import io.jans.as.server.model.common.AbstractToken;
 import io.jans.as.server.model.common.AuthorizationGrant;
 import io.jans.model.custom.script.conf.CustomScriptConfiguration;
 
@@ -29,6 +30,8 @@ public class ExternalIntrospectionContext extends ExternalScriptContext {
     private Jwt accessTokenAsJwt;
     private boolean tranferIntrospectionPropertiesIntoJwtClaims = true;
     private AuthorizationGrant grantOfIntrospectionToken;
+    private AbstractToken tokenToIntrospect;
+    private boolean cacheable;
 
     public ExternalIntrospectionContext(AuthorizationGrant tokenGrant, HttpServletRequest httpRequest, HttpServletResponse httpResponse,
                                         AppConfiguration appConfiguration, AttributeService attributeService) {
@@ -82,6 +85,27 @@ public class ExternalIntrospectionContext extends ExternalScriptContext {
         this.grantOfIntrospectionToken = grantOfIntrospectionToken;
     }
 
+    public AbstractToken getTokenToIntrospect() {
+        return tokenToIntrospect;
+    }
+
+    public void setTokenToIntrospect(AbstractToken tokenToIntrospect) {
+        this.tokenToIntrospect = tokenToIntrospect;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Script can mark its changes of introspection response as depending only on introspected token, so they are
+     * cached and replayed for next introspection of the same token without running script
+     * (see <code>introspectionScriptCacheLifetimeInSeconds</code>).
+     */
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
     public User getUser() {
         return grantOfIntrospectionToken != null ? grantOfIntrospectionToken.getUser() : null;
     }
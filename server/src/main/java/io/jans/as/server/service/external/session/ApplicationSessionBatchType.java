@@ -0,0 +1,23 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external.session;
+
+import java.util.List;
+
+/**
+ * Optional interface of application session script which handles batch of events in one call. Script opts in by
+ * extending it next to <code>ApplicationSessionType</code>:
+ * <pre>
+ * class ApplicationSession(ApplicationSessionType, ApplicationSessionBatchType):
+ *     def onEvents(self, events):
+ * </pre>
+ * Events of scripts which don't implement it are passed to <code>onEvent</code> one by one.
+ */
+public interface ApplicationSessionBatchType {
+
+    void onEvents(List<SessionEvent> events);
+}
@@ -154,6 +154,12 @@ public class AuthenticationService extends RequestService {
             throw new BadInputException("Failed to find DeviceRegistration for the given AuthenticateRequest");
         }
 
+        // User device registrations can be served from cache, status and counter should be checked against persisted entry
+        usedDeviceRegistration = deviceRegistrationService.findDeviceRegistration(usedDeviceRegistration.getDn());
+        if (usedDeviceRegistration == null) {
+            throw new BadInputException("Failed to find DeviceRegistration for the given AuthenticateRequest");
+        }
+
         if (usedDeviceRegistration.isCompromised()) {
             throw new DeviceCompromisedException(usedDeviceRegistration, "The device is marked as possibly compromised, and cannot be authenticated");
         }
@@ -208,13 +214,13 @@ public class AuthenticationService extends RequestService {
         AuthenticateRequestMessageLdap authenticateRequestMessageLdap = new AuthenticateRequestMessageLdap(getDnForAuthenticateRequestMessage(authenticateRequestMessageId),
                 authenticateRequestMessageId, now, sessionId, userInum, requestMessage);
 
-        ldapEntryManager.persist(authenticateRequestMessageLdap);
+        storeRequestMessage(getDnForAuthenticateRequestMessage(null), authenticateRequestMessageLdap);
     }
 
     public AuthenticateRequestMessage getAuthenticationRequestMessage(String jsId) {
         String requestDn = getDnForAuthenticateRequestMessage(jsId);
 
-        AuthenticateRequestMessageLdap authenticateRequestMessageLdap = ldapEntryManager.find(AuthenticateRequestMessageLdap.class, requestDn);
+        AuthenticateRequestMessageLdap authenticateRequestMessageLdap = findRequestMessage(requestDn, AuthenticateRequestMessageLdap.class);
         if (authenticateRequestMessageLdap == null) {
             return null;
         }
@@ -224,6 +230,10 @@ public class AuthenticationService extends RequestService {
 
     public AuthenticateRequestMessageLdap getAuthenticationRequestMessageByRequestId(String requestId) {
         String baseDn = getDnForAuthenticateRequestMessage(null);
+        if (isRequestPersistInCache()) {
+            return getRequestMessageFromCache(baseDn, requestId, AuthenticateRequestMessageLdap.class);
+        }
+
         Filter requestIdFilter = Filter.createEqualityFilter("jansReqId", requestId);
 
         List<AuthenticateRequestMessageLdap> authenticateRequestMessagesLdap = ldapEntryManager.findEntries(baseDn, AuthenticateRequestMessageLdap.class,
@@ -236,7 +246,7 @@ public class AuthenticationService extends RequestService {
     }
 
     public void removeAuthenticationRequestMessage(AuthenticateRequestMessageLdap authenticateRequestMessageLdap) {
-        removeRequestMessage(authenticateRequestMessageLdap);
+        removeRequestMessage(getDnForAuthenticateRequestMessage(null), authenticateRequestMessageLdap);
     }
 
     public String getUserInumByKeyHandle(String appId, String keyHandle) throws InvalidKeyHandleDeviceException {
@@ -0,0 +1,155 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.fido.u2f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.model.fido.u2f.DeviceRegistration;
+import io.jans.as.server.util.ConfigKeyedHolder;
+import io.jans.util.StringHelper;
+
+/**
+ * Short lived node local cache of user U2F device registrations keyed by (userInum, appId) and index
+ * keyHandle -> (device DN, device id), so start and finish of U2F authentication do not search persistence for the
+ * same user devices.
+ * <p>
+ * Cache is enabled by <code>u2fDeviceRegistrationCacheLifetimeInSeconds</code> (0 - disabled). It is kept up to date
+ * by {@link DeviceRegistrationService} which invalidates it on add/update/remove, other nodes see changes after lifetime expiration,
+ * so lifetime should be short. Registrations are copied on put and on get, callers are free to modify them.
+ */
+@ApplicationScoped
+@Named
+public class DeviceRegistrationCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private final ConfigKeyedHolder<Integer, Caches> caches = new ConfigKeyedHolder<>(Caches::new);
+
+    public boolean isEnabled() {
+        return appConfiguration.getU2fDeviceRegistrationCacheLifetimeInSeconds() > 0;
+    }
+
+    /**
+     * @return copy of cached user device registrations or null if they are not cached
+     */
+    public List<DeviceRegistration> getUserDeviceRegistrations(String userInum, String appId) {
+        final List<DeviceRegistration> cached = getCaches().devices.getIfPresent(devicesKey(userInum, appId));
+        return cached != null ? copy(cached) : null;
+    }
+
+    public void putUserDeviceRegistrations(String userInum, String appId, List<DeviceRegistration> deviceRegistrations) {
+        final Caches current = getCaches();
+        current.devices.put(devicesKey(userInum, appId), copy(deviceRegistrations));
+        for (DeviceRegistration deviceRegistration : deviceRegistrations) {
+            putKeyHandle(current, deviceRegistration);
+        }
+    }
+
+    /**
+     * @return cached entry of device with given keyHandle or null
+     */
+    public KeyHandleEntry getByKeyHandle(String appId, String keyHandle) {
+        return getCaches().keyHandles.getIfPresent(keyHandleKey(appId, keyHandle));
+    }
+
+    public void putKeyHandle(String appId, String keyHandle, String deviceDn, String deviceId) {
+        if (StringHelper.isNotEmpty(keyHandle) && StringHelper.isNotEmpty(deviceDn)) {
+            getCaches().keyHandles.put(keyHandleKey(appId, keyHandle), new KeyHandleEntry(deviceDn, deviceId));
+        }
+    }
+
+    /**
+     * Drops user device registrations which contain given device and keyHandle index entry of the device.
+     */
+    public void remove(DeviceRegistration deviceRegistration) {
+        final Caches current = getCaches();
+        current.devices.invalidate(devicesKey(deviceRegistration.getUserInum(), deviceRegistration.getApplication()));
+        if (StringHelper.isNotEmpty(deviceRegistration.getKeyHandle())) {
+            current.keyHandles.invalidate(keyHandleKey(deviceRegistration.getApplication(), deviceRegistration.getKeyHandle()));
+        }
+    }
+
+    public void invalidate(String userInum, String appId) {
+        getCaches().devices.invalidate(devicesKey(userInum, appId));
+    }
+
+    private static void putKeyHandle(Caches current, DeviceRegistration deviceRegistration) {
+        if (StringHelper.isNotEmpty(deviceRegistration.getKeyHandle()) && StringHelper.isNotEmpty(deviceRegistration.getDn())) {
+            current.keyHandles.put(keyHandleKey(deviceRegistration.getApplication(), deviceRegistration.getKeyHandle()),
+                    new KeyHandleEntry(deviceRegistration.getDn(), deviceRegistration.getId()));
+        }
+    }
+
+    private static List<DeviceRegistration> copy(List<DeviceRegistration> deviceRegistrations) {
+        final List<DeviceRegistration> result = new ArrayList<>(deviceRegistrations.size());
+        for (DeviceRegistration deviceRegistration : deviceRegistrations) {
+            result.add(deviceRegistration.copy());
+        }
+        return result;
+    }
+
+    private static String devicesKey(String userInum, String appId) {
+        return userInum + " " + appId;
+    }
+
+    private static String keyHandleKey(String appId, String keyHandle) {
+        return appId + " " + keyHandle;
+    }
+
+    private Caches getCaches() {
+        return caches.get(Math.max(1, appConfiguration.getU2fDeviceRegistrationCacheLifetimeInSeconds()));
+    }
+
+    private static final class Caches {
+
+        private final Cache<String, List<DeviceRegistration>> devices;
+        private final Cache<String, KeyHandleEntry> keyHandles;
+
+        private Caches(int lifetime) {
+            this.devices = CacheBuilder.newBuilder()
+                    .maximumSize(MAX_SIZE)
+                    .expireAfterWrite(lifetime, TimeUnit.SECONDS)
+                    .build();
+            this.keyHandles = CacheBuilder.newBuilder()
+                    .maximumSize(MAX_SIZE)
+                    .expireAfterWrite(lifetime, TimeUnit.SECONDS)
+                    .build();
+        }
+    }
+
+    public static final class KeyHandleEntry {
+
+        private final String deviceDn;
+        private final String deviceId;
+
+        private KeyHandleEntry(String deviceDn, String deviceId) {
+            this.deviceDn = deviceDn;
+            this.deviceId = deviceId;
+        }
+
+        public String getDeviceDn() {
+            return deviceDn;
+        }
+
+        public String getDeviceId() {
+            return deviceId;
+        }
+    }
+}
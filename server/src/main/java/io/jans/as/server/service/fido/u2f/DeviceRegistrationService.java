@@ -7,6 +7,7 @@
 package io.jans.as.server.service.fido.u2f;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -30,6 +31,11 @@ import io.jans.util.StringHelper;
 
 /**
  * Provides operations with user U2F devices
+ * <p>
+ * If {@link DeviceRegistrationCache} is enabled user device registrations and keyHandle lookups are served from it.
+ * Cached registrations are used only to find candidate device, state used for security decisions (status and counter,
+ * which is used for clone detection) must be read with {@link #findDeviceRegistration(String)}. Updates are always
+ * written to persistence synchronously and then cached user device registrations are invalidated.
  *
  * @author Yuriy Movchan Date: 05/14/2015
  */
@@ -49,6 +55,9 @@ public class DeviceRegistrationService {
 	@Inject
 	private StaticConfiguration staticConfiguration;
 
+	@Inject
+	private DeviceRegistrationCache deviceRegistrationCache;
+
 	public void addBranch(final String userInum) {
 		SimpleBranch branch = new SimpleBranch();
 		branch.setOrganizationalUnitName("fido");
@@ -82,6 +91,14 @@ public class DeviceRegistrationService {
 	}
 
 	public List<DeviceRegistration> findUserDeviceRegistrations(String userInum, String appId, String ... returnAttributes) {
+		final boolean useCache = deviceRegistrationCache.isEnabled() && StringHelper.isNotEmpty(userInum) && (returnAttributes == null || returnAttributes.length == 0);
+		if (useCache) {
+			List<DeviceRegistration> cached = deviceRegistrationCache.getUserDeviceRegistrations(userInum, appId);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
 		prepareBranch(userInum);
 
 		String baseDnForU2fDevices = getBaseDnForU2fUserDevices(userInum);
@@ -90,7 +107,12 @@ public class DeviceRegistrationService {
 
 		Filter filter = Filter.createANDFilter(userInumFilter, appIdFilter);
 
-		return ldapEntryManager.findEntries(baseDnForU2fDevices, DeviceRegistration.class, filter, returnAttributes);
+		List<DeviceRegistration> deviceRegistrations = ldapEntryManager.findEntries(baseDnForU2fDevices, DeviceRegistration.class, filter, returnAttributes);
+		if (useCache) {
+			deviceRegistrationCache.putUserDeviceRegistrations(userInum, appId, deviceRegistrations);
+		}
+
+		return deviceRegistrations;
 	}
 
 	public List<DeviceRegistration> findDeviceRegistrationsByKeyHandle(String appId, String keyHandle, String ... returnAttributes) {
@@ -98,6 +120,19 @@ public class DeviceRegistrationService {
 			return new ArrayList<DeviceRegistration>(0);
 		}
 
+		final boolean useCache = deviceRegistrationCache.isEnabled();
+		if (useCache) {
+			DeviceRegistrationCache.KeyHandleEntry cached = deviceRegistrationCache.getByKeyHandle(appId, keyHandle);
+			if (cached != null) {
+				DeviceRegistration deviceRegistration = new DeviceRegistration();
+				deviceRegistration.setDn(cached.getDeviceDn());
+				deviceRegistration.setId(cached.getDeviceId());
+				deviceRegistration.setApplication(appId);
+				deviceRegistration.setKeyHandle(keyHandle);
+				return Collections.singletonList(deviceRegistration);
+			}
+		}
+
 		byte[] keyHandleDecoded = Base64Util.base64urldecode(keyHandle);
 
 		String baseDn = userService.getDnForUser(null);
@@ -109,7 +144,17 @@ public class DeviceRegistrationService {
 
 		Filter filter = Filter.createANDFilter(deviceObjectClassFilter, deviceHashCodeFilter, appIdFilter, deviceKeyHandleFilter);
 
-		return ldapEntryManager.findEntries(baseDn, DeviceRegistration.class, filter, returnAttributes);
+		List<DeviceRegistration> deviceRegistrations = ldapEntryManager.findEntries(baseDn, DeviceRegistration.class, filter, returnAttributes);
+		if (useCache && deviceRegistrations.size() == 1) {
+			DeviceRegistration deviceRegistration = deviceRegistrations.get(0);
+			deviceRegistrationCache.putKeyHandle(appId, keyHandle, deviceRegistration.getDn(), deviceRegistration.getId());
+		}
+
+		return deviceRegistrations;
+	}
+
+	public DeviceRegistration findDeviceRegistration(String deviceDn) {
+		return ldapEntryManager.find(DeviceRegistration.class, deviceDn);
 	}
 
 	public DeviceRegistration findOneStepUserDeviceRegistration(String deviceId, String... returnAttributes) {
@@ -125,6 +170,11 @@ public class DeviceRegistrationService {
         deviceRegistration.clearExpiration();
 
 		ldapEntryManager.persist(deviceRegistration);
+
+		if (deviceRegistrationCache.isEnabled()) {
+			deviceRegistrationCache.invalidate(userInum, deviceRegistration.getApplication());
+			deviceRegistrationCache.putKeyHandle(deviceRegistration.getApplication(), deviceRegistration.getKeyHandle(), deviceRegistration.getDn(), deviceRegistration.getId());
+		}
 	}
 
 	public boolean attachUserDeviceRegistration(String userInum, String oneStepDeviceId) {
@@ -163,16 +213,28 @@ public class DeviceRegistrationService {
 		prepareBranch(userInum);
 
 		ldapEntryManager.merge(deviceRegistration);
+
+		if (deviceRegistrationCache.isEnabled()) {
+			deviceRegistrationCache.invalidate(userInum, deviceRegistration.getApplication());
+		}
 	}
 
 	public void disableUserDeviceRegistration(DeviceRegistration deviceRegistration) {
 		deviceRegistration.setStatus(DeviceRegistrationStatus.COMPROMISED);
 
 		ldapEntryManager.merge(deviceRegistration);
+
+		if (deviceRegistrationCache.isEnabled()) {
+			deviceRegistrationCache.invalidate(deviceRegistration.getUserInum(), deviceRegistration.getApplication());
+		}
 	}
 
 	public void removeUserDeviceRegistration(DeviceRegistration deviceRegistration) {
 		ldapEntryManager.remove(deviceRegistration);
+
+		if (deviceRegistrationCache.isEnabled()) {
+			deviceRegistrationCache.remove(deviceRegistration);
+		}
 	}
 
 	public List<DeviceRegistration> getExpiredDeviceRegistrations(BatchOperation<DeviceRegistration> batchOperation, Date expirationDate, String[] returnAttributes, int sizeLimit, int chunkSize) {
@@ -238,5 +300,9 @@ public class DeviceRegistrationService {
 
     public void merge(DeviceRegistration device) {
         ldapEntryManager.merge(device);
+
+        if (deviceRegistrationCache.isEnabled()) {
+            deviceRegistrationCache.invalidate(device.getUserInum(), device.getApplication());
+        }
     }
 }
@@ -187,14 +187,14 @@ public class RegistrationService extends RequestService {
         RequestMessageLdap registerRequestMessageLdap = new RegisterRequestMessageLdap(getDnForRegisterRequestMessage(registerRequestMessageId),
                 registerRequestMessageId, now, sessionId, userInum, requestMessage);
 
-        ldapEntryManager.persist(registerRequestMessageLdap);
+        storeRequestMessage(getDnForRegisterRequestMessage(null), registerRequestMessageLdap);
         return registerRequestMessageLdap;
     }
 
     public io.jans.as.model.fido.u2f.protocol.RegisterRequestMessage getRegisterRequestMessage(String jsId) {
         String requestDn = getDnForRegisterRequestMessage(jsId);
 
-        RegisterRequestMessageLdap registerRequestMessageLdap = ldapEntryManager.find(RegisterRequestMessageLdap.class, requestDn);
+        RegisterRequestMessageLdap registerRequestMessageLdap = findRequestMessage(requestDn, RegisterRequestMessageLdap.class);
         if (registerRequestMessageLdap == null) {
             return null;
         }
@@ -204,6 +204,10 @@ public class RegistrationService extends RequestService {
 
     public RegisterRequestMessageLdap getRegisterRequestMessageByRequestId(String requestId) {
         String baseDn = getDnForRegisterRequestMessage(null);
+        if (isRequestPersistInCache()) {
+            return getRequestMessageFromCache(baseDn, requestId, RegisterRequestMessageLdap.class);
+        }
+
         Filter requestIdFilter = Filter.createEqualityFilter("jansReqId", requestId);
 
         List<RegisterRequestMessageLdap> registerRequestMessagesLdap = ldapEntryManager.findEntries(baseDn, RegisterRequestMessageLdap.class,
@@ -216,7 +220,7 @@ public class RegistrationService extends RequestService {
     }
 
     public void removeRegisterRequestMessage(RequestMessageLdap registerRequestMessageLdap) {
-        removeRequestMessage(registerRequestMessageLdap);
+        removeRequestMessage(getDnForRegisterRequestMessage(null), registerRequestMessageLdap);
     }
 
     /**
@@ -232,6 +236,6 @@ public class RegistrationService extends RequestService {
     }
 
     public void merge(RequestMessageLdap request) {
-        ldapEntryManager.merge(request);
+        mergeRequestMessage(getDnForRegisterRequestMessage(null), request);
     }
 }
@@ -16,14 +16,22 @@ import javax.inject.Named;
 import org.slf4j.Logger;
 
 import io.jans.as.model.config.StaticConfiguration;
+import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.server.model.fido.u2f.RequestMessageLdap;
 import io.jans.orm.PersistenceEntryManager;
 import io.jans.orm.model.BatchOperation;
 import io.jans.orm.model.SearchScope;
 import io.jans.orm.search.filter.Filter;
+import io.jans.service.CacheService;
+import io.jans.util.StringHelper;
 
 /**
  * Provides generic operations with U2F requests
+ * <p>
+ * If u2fRequestPersistInCache is set request messages are kept in cache with expiration of message (instead of
+ * persistence) under key built from request id and under entry DN, so start/finish ceremony does not write to or
+ * delete from persistence and messages can still be looked up by id. Finish endpoints check that message found by
+ * request id belongs to calling user and session (see {@link #isRequestMessageOwner}).
  *
  * @author Yuriy Movchan Date: 05/19/2015
  */
@@ -40,6 +48,12 @@ public class RequestService {
 	@Inject
 	private StaticConfiguration staticConfiguration;
 
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	@Inject
+	private CacheService cacheService;
+
 	public List<RequestMessageLdap> getExpiredRequestMessages(BatchOperation<RequestMessageLdap> batchOperation, Date expirationDate, String[] returnAttributes, int sizeLimit, int chunkSize) {
 		final String u2fBaseDn = staticConfiguration.getBaseDn().getU2fBase(); // ou=u2f,o=jans
 		Filter expirationFilter = Filter.createLessOrEqualFilter("creationDate", ldapEntryManager.encodeTime(u2fBaseDn, expirationDate));
@@ -53,4 +67,84 @@ public class RequestService {
 		ldapEntryManager.remove(requestMessageLdap);
 	}
 
+	public boolean isRequestPersistInCache() {
+		return appConfiguration.getU2fRequestPersistInCache();
+	}
+
+	/**
+	 * Persists request message or puts it into cache under key built from base DN and request id and under entry DN
+	 */
+	protected void storeRequestMessage(String baseDn, RequestMessageLdap requestMessageLdap) {
+		if (isRequestPersistInCache()) {
+			cacheService.put(requestMessageLdap.getTtl(), getCacheKey(baseDn, requestMessageLdap.getRequestId()), requestMessageLdap);
+			cacheService.put(requestMessageLdap.getTtl(), requestMessageLdap.getDn(), requestMessageLdap);
+		} else {
+			ldapEntryManager.persist(requestMessageLdap);
+		}
+	}
+
+	protected <T extends RequestMessageLdap> T getRequestMessageFromCache(String baseDn, String requestId, Class<T> entryClass) {
+		return getRequestMessageFromCache(getCacheKey(baseDn, requestId), entryClass);
+	}
+
+	protected <T extends RequestMessageLdap> T getRequestMessageFromCache(String key, Class<T> entryClass) {
+		final Object requestMessageLdap = cacheService.get(key);
+		if (entryClass.isInstance(requestMessageLdap)) {
+			return entryClass.cast(requestMessageLdap);
+		}
+
+		log.trace("Failed to find request message '{}' in cache", key);
+		return null;
+	}
+
+	/**
+	 * Finds request message by entry DN in persistence or in cache
+	 */
+	protected <T extends RequestMessageLdap> T findRequestMessage(String dn, Class<T> entryClass) {
+		if (isRequestPersistInCache()) {
+			return getRequestMessageFromCache(dn, entryClass);
+		}
+
+		return ldapEntryManager.find(entryClass, dn);
+	}
+
+	protected void removeRequestMessage(String baseDn, RequestMessageLdap requestMessageLdap) {
+		if (isRequestPersistInCache()) {
+			cacheService.remove(getCacheKey(baseDn, requestMessageLdap.getRequestId()));
+			cacheService.remove(requestMessageLdap.getDn());
+		} else {
+			removeRequestMessage(requestMessageLdap);
+		}
+	}
+
+	protected void mergeRequestMessage(String baseDn, RequestMessageLdap requestMessageLdap) {
+		if (isRequestPersistInCache()) {
+			storeRequestMessage(baseDn, requestMessageLdap);
+		} else {
+			ldapEntryManager.merge(requestMessageLdap);
+		}
+	}
+
+	/**
+	 * Request message is looked up by request id sent in finish request, so it should be used only if it was started
+	 * by same user and session. User or session which is not known on either side (e.g. one step workflow, finish
+	 * request without session cookie) is not compared.
+	 *
+	 * @param userInum inum of user from finish request
+	 * @param sessionId session id from finish request
+	 */
+	public static boolean isRequestMessageOwner(RequestMessageLdap requestMessageLdap, String userInum, String sessionId) {
+		if (StringHelper.isNotEmpty(userInum) && StringHelper.isNotEmpty(requestMessageLdap.getUserInum())
+				&& !userInum.equals(requestMessageLdap.getUserInum())) {
+			return false;
+		}
+
+		return StringHelper.isEmpty(sessionId) || StringHelper.isEmpty(requestMessageLdap.getSessionId())
+				|| sessionId.equals(requestMessageLdap.getSessionId());
+	}
+
+	private static String getCacheKey(String baseDn, String requestId) {
+		return String.format("jansReqId=%s,%s", requestId, baseDn);
+	}
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.metric;
+
+import io.prometheus.client.Histogram;
+
+/**
+ * Latency histograms of endpoints, of request phases (client authentication, persistence, signing and custom
+ * script execution) and of each custom script, exposed in Prometheus format by {@code MetricsServlet}.
+ * <p>
+ * Histograms have exponential buckets (100 microseconds .. ~13 seconds, factor 1.5) and children are resolved once,
+ * so recording is a lock-free add without allocation and can stay on in production. Recording is static, so it is
+ * available to non CDI code (e.g. {@code JwtSigner}).
+ */
+public final class LatencyMetrics {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    public enum Endpoint {
+        AUTHORIZE("authorize"),
+        TOKEN("token"),
+        USERINFO("userinfo"),
+        INTROSPECTION("introspection"),
+        JWKS("jwks"),
+        END_SESSION("end_session");
+
+        private static final Endpoint[] VALUES = values();
+
+        private final String value;
+        private final String pathSuffix;
+
+        Endpoint(String value) {
+            this.value = value;
+            this.pathSuffix = "/" + value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * @param requestUri request uri, e.g. /jans-auth/restv1/token
+         * @return endpoint or null if request is not to one of measured endpoints
+         */
+        public static Endpoint fromRequestUri(String requestUri) {
+            if (requestUri == null) {
+                return null;
+            }
+            for (Endpoint endpoint : VALUES) {
+                if (requestUri.endsWith(endpoint.pathSuffix)) {
+                    return endpoint;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Phase {
+        CLIENT_AUTHENTICATION("client_authentication"),
+        PERSISTENCE("persistence"),
+        SIGNING("signing"),
+        SCRIPT("script");
+
+        private final String value;
+
+        Phase(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private static final Histogram ENDPOINT_LATENCY = Histogram.build()
+            .name("jans_auth_endpoint_latency_seconds")
+            .help("Latency of endpoint requests in seconds.")
+            .labelNames("endpoint")
+            .exponentialBuckets(0.0001, 1.5, 30)
+            .register(MetricsRegistry.getRegistry());
+
+    private static final Histogram PHASE_LATENCY = Histogram.build()
+            .name("jans_auth_phase_latency_seconds")
+            .help("Latency of request phases in seconds.")
+            .labelNames("phase")
+            .exponentialBuckets(0.0001, 1.5, 30)
+            .register(MetricsRegistry.getRegistry());
+
+    private static final Histogram SCRIPT_LATENCY = Histogram.build()
+            .name("jans_auth_script_latency_seconds")
+            .help("Latency of custom script methods in seconds.")
+            .labelNames("script")
+            .exponentialBuckets(0.0001, 1.5, 30)
+            .register(MetricsRegistry.getRegistry());
+
+    private static final Histogram.Child[] ENDPOINTS = new Histogram.Child[Endpoint.values().length];
+    private static final Histogram.Child[] PHASES = new Histogram.Child[Phase.values().length];
+
+    static {
+        for (Endpoint endpoint : Endpoint.values()) {
+            ENDPOINTS[endpoint.ordinal()] = ENDPOINT_LATENCY.labels(endpoint.getValue());
+        }
+        for (Phase phase : Phase.values()) {
+            PHASES[phase.ordinal()] = PHASE_LATENCY.labels(phase.getValue());
+        }
+    }
+
+    private LatencyMetrics() {
+    }
+
+    /**
+     * Registers histograms in {@link MetricsRegistry} (done by class initialization), so they are exposed before
+     * first request is recorded.
+     */
+    public static void register() {
+        // histograms are registered in static initializers
+    }
+
+    /**
+     * @param startNanos value of {@link System#nanoTime()} taken when request was started
+     */
+    public static void observe(Endpoint endpoint, long startNanos) {
+        ENDPOINTS[endpoint.ordinal()].observe((System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Records phase into histogram and into {@link PhaseTimings} of current request if it is traced.
+     *
+     * @param startNanos value of {@link System#nanoTime()} taken when phase was started
+     */
+    public static void observe(Phase phase, long startNanos) {
+        PHASES[phase.ordinal()].observe((System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+
+        final PhaseTimings timings = PhaseTimings.current();
+        if (timings != null) {
+            timings.record(phase.getValue(), startNanos);
+        }
+    }
+
+    /**
+     * Records script execution into {@link Phase#SCRIPT} and into histogram of given script.
+     *
+     * @return duration in nanoseconds
+     */
+    public static long observeScript(String scriptName, long startNanos) {
+        final long duration = System.nanoTime() - startNanos;
+        SCRIPT_LATENCY.labels(scriptName).observe(duration / NANOS_PER_SECOND);
+        observe(Phase.SCRIPT, startNanos);
+        return duration;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.metric;
+
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * Prometheus registry of all server metrics, exposed by {@code MetricsServlet}. Collectors of services (latency
+ * histograms, outbound HTTP, access time updates, session expiration) register here instead of in default registry.
+ */
+public final class MetricsRegistry {
+
+    private static final CollectorRegistry REGISTRY = new CollectorRegistry(true);
+
+    private MetricsRegistry() {
+    }
+
+    public static CollectorRegistry getRegistry() {
+        return REGISTRY;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.metric;
+
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Durations of phases of single request (e.g. grant_lookup, signing, persistence). Phases with the same name are
+ * summed up. Instance is created by {@code LatencyMetricsFilter} only when tracing is requested for the request
+ * (Server-Timing header or sampled log line), it is bound to the request thread and is available via
+ * {@link #current()} and request attribute (see {@code ExecutionContext}).
+ * <p>
+ * Not thread safe: phases are expected to be recorded by request thread.
+ */
+public final class PhaseTimings {
+
+    public static final String REQUEST_ATTRIBUTE = PhaseTimings.class.getName();
+
+    private static final ThreadLocal<PhaseTimings> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_PHASES = 16;
+
+    private final long startedAt = System.nanoTime();
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] durations = new long[MAX_PHASES];
+    private int size;
+
+    public static PhaseTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void setCurrent(PhaseTimings timings) {
+        if (timings != null) {
+            CURRENT.set(timings);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public static PhaseTimings from(HttpServletRequest request) {
+        if (request != null) {
+            final Object attribute = request.getAttribute(REQUEST_ATTRIBUTE);
+            if (attribute instanceof PhaseTimings) {
+                return (PhaseTimings) attribute;
+            }
+        }
+        return current();
+    }
+
+    /**
+     * @param phase      phase name, must be valid Server-Timing metric name (token)
+     * @param startNanos value of {@link System#nanoTime()} taken when phase was started
+     */
+    public void record(String phase, long startNanos) {
+        final long duration = System.nanoTime() - startNanos;
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                durations[i] += duration;
+                return;
+            }
+        }
+        if (size < MAX_PHASES) {
+            names[size] = phase;
+            durations[size] = duration;
+            size++;
+        }
+    }
+
+    public long getDurationNanos(String phase) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                return durations[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return value of Server-Timing header, e.g. {@code grant_lookup;dur=0.412, signing;dur=3.105, total;dur=7.830}
+     */
+    public String toServerTimingHeader() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.append(names[i]).append(";dur=").append(toMillis(durations[i])).append(", ");
+        }
+        return builder.append("total;dur=").append(toMillis(System.nanoTime() - startedAt)).toString();
+    }
+
+    /**
+     * @return structured log line, e.g. {@code endpoint=token total_ms=7.830 grant_lookup_ms=0.412 signing_ms=3.105}
+     */
+    public String toLogString(String endpoint) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("endpoint=").append(endpoint).append(" total_ms=").append(toMillis(System.nanoTime() - startedAt));
+        for (int i = 0; i < size; i++) {
+            builder.append(' ').append(names[i]).append("_ms=").append(toMillis(durations[i]));
+        }
+        return builder.toString();
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000d);
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.jboss.resteasy.client.ClientExecutor;
+import org.jboss.resteasy.client.core.executors.ApacheHttpClient4Executor;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.model.util.JwtUtil;
+import io.jans.as.server.model.net.OutboundHttpResponse;
+import io.jans.as.server.service.metric.MetricsRegistry;
+import io.jans.as.server.util.ServerUtil;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+/**
+ * Shared outbound http client used for all calls to RP endpoints (jwks_uri, request_uri,
+ * sector_identifier_uri, backchannel logout, CIBA notifications).
+ * <p>
+ * Connections are pooled and kept alive between calls. Pool size, per host limit, timeouts
+ * and maximum response size are taken from configuration on startup. Request counters and pool
+ * connections of shared client are exposed as <code>jans_auth_outbound_http_requests_total</code> and
+ * <code>jans_auth_outbound_http_pool_connections</code>.
+ */
+@ApplicationScoped
+@Named
+public class OutboundHttpService {
+
+	// Ciphers accepted by FAPI-CIBA specs and OpenJDK.
+	private static final String[] FAPI_CIPHERS = new String[] { "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384" };
+
+	private static final Counter REQUESTS = Counter.build()
+			.name("jans_auth_outbound_http_requests_total")
+			.help("Outbound GET requests to RP endpoints by result: sent, failed, oversized, timed_out.")
+			.labelNames("result")
+			.register(MetricsRegistry.getRegistry());
+
+	private static final Counter.Child SENT = REQUESTS.labels("sent");
+	private static final Counter.Child FAILED = REQUESTS.labels("failed");
+	private static final Counter.Child OVERSIZED = REQUESTS.labels("oversized");
+	private static final Counter.Child TIMED_OUT = REQUESTS.labels("timed_out");
+
+	private static final Gauge POOL_CONNECTIONS = Gauge.build()
+			.name("jans_auth_outbound_http_pool_connections")
+			.help("Connections of outbound http pool by state: leased, available, pending, max.")
+			.labelNames("state")
+			.register(MetricsRegistry.getRegistry());
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	private PoolingHttpClientConnectionManager connectionManager;
+	private CloseableHttpClient httpClient;
+	private ApacheHttpClient4Engine clientEngine;
+
+	private volatile PoolingHttpClientConnectionManager mtlsConnectionManager;
+	private volatile CloseableHttpClient mtlsHttpClient;
+
+	private ScheduledExecutorService abortScheduler;
+
+	@PostConstruct
+	public void init() {
+		this.connectionManager = createConnectionManager(null);
+		this.httpClient = createHttpClient(connectionManager, null);
+
+		this.clientEngine = new ApacheHttpClient4Engine(httpClient, false);
+		this.clientEngine.setFollowRedirects(true);
+
+		this.abortScheduler = Executors.newSingleThreadScheduledExecutor(ServerUtil.daemonThreadFactory());
+
+		final PoolingHttpClientConnectionManager cm = connectionManager;
+		POOL_CONNECTIONS.setChild(new Gauge.Child() {
+			@Override
+			public double get() {
+				return cm.getTotalStats().getLeased();
+			}
+		}, "leased");
+		POOL_CONNECTIONS.setChild(new Gauge.Child() {
+			@Override
+			public double get() {
+				return cm.getTotalStats().getAvailable();
+			}
+		}, "available");
+		POOL_CONNECTIONS.setChild(new Gauge.Child() {
+			@Override
+			public double get() {
+				return cm.getTotalStats().getPending();
+			}
+		}, "pending");
+		POOL_CONNECTIONS.setChild(new Gauge.Child() {
+			@Override
+			public double get() {
+				return cm.getTotalStats().getMax();
+			}
+		}, "max");
+
+		log.debug("Initialized outbound http client, maxConnections: {}, maxConnectionsPerRoute: {}",
+				connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute());
+	}
+
+	@PreDestroy
+	public void destroy() {
+		abortScheduler.shutdownNow();
+		close(httpClient);
+		close(mtlsHttpClient);
+	}
+
+	private void close(CloseableHttpClient client) {
+		if (client == null) {
+			return;
+		}
+
+		try {
+			client.close();
+		} catch (IOException ex) {
+			log.error("Failed to close outbound http client", ex);
+		}
+	}
+
+	private PoolingHttpClientConnectionManager createConnectionManager(Registry<ConnectionSocketFactory> registry) {
+		PoolingHttpClientConnectionManager cm = registry != null ? new PoolingHttpClientConnectionManager(registry) : new PoolingHttpClientConnectionManager();
+		cm.setMaxTotal(positiveOrDefault(appConfiguration.getOutboundHttpMaxConnections(), 200));
+		cm.setDefaultMaxPerRoute(positiveOrDefault(appConfiguration.getOutboundHttpMaxConnectionsPerRoute(), 20));
+
+		return cm;
+	}
+
+	private CloseableHttpClient createHttpClient(PoolingHttpClientConnectionManager cm, SSLContext sslContext) {
+		final int connectTimeout = positiveOrDefault(appConfiguration.getOutboundHttpConnectTimeoutInMillis(), 5000);
+		final int readTimeout = positiveOrDefault(appConfiguration.getOutboundHttpReadTimeoutInMillis(), 10000);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setCookieSpec(CookieSpecs.STANDARD)
+				.setConnectTimeout(connectTimeout)
+				.setConnectionRequestTimeout(connectTimeout)
+				.setSocketTimeout(readTimeout)
+				.build();
+
+		return HttpClients.custom()
+				.setSSLContext(sslContext)
+				.setDefaultRequestConfig(requestConfig)
+				.setConnectionManager(cm)
+				.build();
+	}
+
+	private static int positiveOrDefault(int value, int defaultValue) {
+		return value > 0 ? value : defaultValue;
+	}
+
+	/**
+	 * @return shared pooled client. Callers must not close it.
+	 */
+	public CloseableHttpClient getHttpClient() {
+		return httpClient;
+	}
+
+	/**
+	 * @return executor for legacy RESTEasy client requests backed by shared pool. Closing it does not close the pool.
+	 */
+	public ClientExecutor getClientExecutor() {
+		return new ApacheHttpClient4Executor(httpClient);
+	}
+
+	/**
+	 * @return engine for RESTEasy JAX-RS clients backed by shared pool. Closing the client does not close the pool.
+	 */
+	public ApacheHttpClient4Engine getClientEngine() {
+		return clientEngine;
+	}
+
+	/**
+	 * @return executor backed by pooled client which uses TLS version and ciphers defined in FAPI-CIBA specs.
+	 */
+	public ClientExecutor getMtlsClientExecutor() {
+		return new ApacheHttpClient4Executor(getMtlsHttpClient());
+	}
+
+	private CloseableHttpClient getMtlsHttpClient() {
+		if (mtlsHttpClient == null) {
+			synchronized (this) {
+				if (mtlsHttpClient == null) {
+					SSLContext sslContext = SSLContexts.createDefault();
+					SSLConnectionSocketFactory sslConnectionFactory = new SSLConnectionSocketFactory(sslContext,
+							new String[] { "TLSv1.2" }, FAPI_CIPHERS, NoopHostnameVerifier.INSTANCE);
+
+					Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory> create()
+							.register("https", sslConnectionFactory)
+							.register("http", new PlainConnectionSocketFactory())
+							.build();
+
+					mtlsConnectionManager = createConnectionManager(registry);
+					mtlsHttpClient = createHttpClient(mtlsConnectionManager, sslContext);
+				}
+			}
+		}
+
+		return mtlsHttpClient;
+	}
+
+	/**
+	 * Executes GET request and reads whole response. Response bigger than
+	 * <code>outboundHttpMaxResponseSizeInBytes</code> is rejected.
+	 *
+	 * @return response or null if request failed or response is too big
+	 */
+	public OutboundHttpResponse get(String uri) {
+		return get(uri, null);
+	}
+
+	public OutboundHttpResponse get(String uri, Map<String, String> headers) {
+		return get(uri, headers, 0);
+	}
+
+	/**
+	 * Executes GET request which is aborted if it is not completed within given time, regardless of
+	 * how slowly the remote side sends data.
+	 *
+	 * @param hardTimeoutInMillis overall time limit of the request, 0 means no limit except connect/read timeouts
+	 */
+	public OutboundHttpResponse get(String uri, Map<String, String> headers, int hardTimeoutInMillis) {
+		if (StringUtils.isBlank(uri)) {
+			return null;
+		}
+
+		SENT.inc();
+
+		final HttpGet httpGet = new HttpGet(uri);
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				httpGet.setHeader(header.getKey(), header.getValue());
+			}
+		}
+
+		ScheduledFuture<?> abortTask = null;
+		if (hardTimeoutInMillis > 0) {
+			abortTask = abortScheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					TIMED_OUT.inc();
+					httpGet.abort();
+				}
+			}, hardTimeoutInMillis, TimeUnit.MILLISECONDS);
+		}
+
+		try (CloseableHttpResponse httpResponse = httpClient.execute(httpGet)) {
+			final int status = httpResponse.getStatusLine().getStatusCode();
+
+			Map<String, String> responseHeaders = new HashMap<String, String>();
+			for (Header header : httpResponse.getAllHeaders()) {
+				responseHeaders.put(header.getName().toLowerCase(), header.getValue());
+			}
+
+			final String content = readContent(uri, httpResponse.getEntity());
+			if (content == null) {
+				// Too big, read was aborted and connection should not be reused
+				httpGet.abort();
+				return null;
+			}
+
+			log.trace("GET {}, status: {}", uri, status);
+			return new OutboundHttpResponse(status, content, responseHeaders);
+		} catch (Exception ex) {
+			FAILED.inc();
+			log.error("Failed to execute GET request: {}, message: {}", uri, ex.getMessage());
+			log.trace(ex.getMessage(), ex);
+		} finally {
+			if (abortTask != null) {
+				abortTask.cancel(false);
+			}
+		}
+
+		return null;
+	}
+
+	private String readContent(String uri, HttpEntity entity) throws IOException {
+		if (entity == null) {
+			return "";
+		}
+
+		final int maxSize = positiveOrDefault(appConfiguration.getOutboundHttpMaxResponseSizeInBytes(), 1048576);
+		if (entity.getContentLength() > maxSize) {
+			OVERSIZED.inc();
+			log.error("Response of {} is too big, content-length: {}, max allowed: {}", uri, entity.getContentLength(), maxSize);
+			return null;
+		}
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(entity.getContentLength() > 0 ? (int) entity.getContentLength() : 4096);
+		try (InputStream in = entity.getContent()) {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				if (out.size() + read > maxSize) {
+					OVERSIZED.inc();
+					log.error("Response of {} is too big, max allowed: {}", uri, maxSize);
+					return null;
+				}
+				out.write(buffer, 0, read);
+			}
+		}
+
+		Charset charset = null;
+		try {
+			ContentType contentType = ContentType.get(entity);
+			charset = contentType != null ? contentType.getCharset() : null;
+		} catch (Exception ex) {
+			log.trace("Failed to parse content type of response", ex);
+		}
+
+		return new String(out.toByteArray(), charset != null ? charset : StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Loads JSON Web Key Set from given uri.
+	 *
+	 * @return jwks or null if failed to load
+	 */
+	public JSONObject getJSONWebKeys(String jwksUri) {
+		log.debug("Retrieving jwks {}...", jwksUri);
+
+		OutboundHttpResponse response = get(jwksUri);
+		if (response == null || !response.isOk()) {
+			log.debug("Failed to retrieve jwks {}, response: {}", jwksUri, response);
+			return null;
+		}
+
+		try {
+			return JwtUtil.fromJson(response.getContent());
+		} catch (Exception ex) {
+			log.error("Failed to parse jwks {}", jwksUri, ex);
+			return null;
+		}
+	}
+
+}
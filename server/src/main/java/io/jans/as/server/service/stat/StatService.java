@@ -20,8 +20,13 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.text.SimpleDateFormat;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -38,8 +43,14 @@ public class StatService {
 
     // January - 202001, December - 202012
     private static final SimpleDateFormat PERIOD_DATE_FORMAT = new SimpleDateFormat("yyyyMM");
+    private static final DateTimeFormatter TIME_BUCKET_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
     private static final int regwidth = 5;
+    private static final String TIME_BUCKETS_OU = "buckets";
     private static final int log2m = 15;
+    private static final int DEFAULT_TIME_BUCKET_LOG2M = 11;
+    private static final int MIN_TIME_BUCKET_LOG2M = 4;
+    private static final int MAX_TIME_BUCKET_LOG2M = 16;
+    private static final int TIME_BUCKET_RETENTION_LOOKBACK_IN_MONTHS = 12;
 
     @Inject
     private Logger log;
@@ -58,6 +69,10 @@ public class StatService {
     private StatEntry currentEntry;
     private HLL hll;
     private ConcurrentMap<String, Map<String, Long>> tokenCounters;
+    private volatile StatTimeBuckets timeBuckets;
+    // accessed only by flushing thread
+    private final Set<String> preparedTimeBucketMonths = new HashSet<>();
+    private YearMonth timeBucketsCleanedMonth;
 
     private boolean initialized = false;
 
@@ -93,6 +108,7 @@ public class StatService {
             log.trace("Monthly branch created: " + monthlyDn);
 
             setupCurrentEntry(now);
+            configureTimeBuckets();
             log.info("Initialized Stat Service");
             initialized = true;
             return true;
@@ -125,9 +141,146 @@ public class StatService {
         currentEntry.setUserHllData(Base64.getEncoder().encodeToString(hll.toBytes()));
         entryManager.merge(currentEntry);
 
+        final StatTimeBuckets flushedTimeBuckets = timeBuckets;
+        configureTimeBuckets();
+        if (flushedTimeBuckets != null) {
+            flushTimeBuckets(flushedTimeBuckets, now);
+        }
+        removeExpiredTimeBuckets();
+
         log.trace("Finished updateStat.");
     }
 
+    private void configureTimeBuckets() {
+        final StatTimeBucketGranularity granularity = StatTimeBucketGranularity.fromString(appConfiguration.getStatTimeBucketGranularity());
+        if (granularity == null) {
+            timeBuckets = null;
+            return;
+        }
+
+        int bucketLog2m = appConfiguration.getStatTimeBucketHllLog2m();
+        if (bucketLog2m < MIN_TIME_BUCKET_LOG2M || bucketLog2m > MAX_TIME_BUCKET_LOG2M) {
+            bucketLog2m = DEFAULT_TIME_BUCKET_LOG2M;
+        }
+
+        final StatTimeBuckets current = timeBuckets;
+        if (current == null || current.getGranularity() != granularity || current.getLog2m() != bucketLog2m) {
+            timeBuckets = new StatTimeBuckets(granularity, bucketLog2m);
+            log.trace("Configured stat time buckets, granularity: {}, log2m: {}", granularity.getValue(), bucketLog2m);
+        }
+    }
+
+    private void flushTimeBuckets(StatTimeBuckets buckets, Date now) {
+        final List<StatTimeBuckets.Bucket> changed = buckets.takeChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        for (StatTimeBuckets.Bucket bucket : changed) {
+            try {
+                prepareTimeBucketsBranch(bucket.getMonth());
+                flushTimeBucket(bucket, now);
+            } catch (Exception e) {
+                log.error("Failed to flush stat time bucket: " + bucket.getKey(), e);
+                buckets.returnChanged(bucket);
+            }
+        }
+    }
+
+    private void prepareTimeBucketsBranch(String month) {
+        if (preparedTimeBucketMonths.contains(month)) {
+            return;
+        }
+
+        final String bucketsDn = getTimeBucketsBaseDn();
+        if (entryManager.hasBranchesSupport(bucketsDn)) {
+            if (!entryManager.contains(bucketsDn, SimpleBranch.class)) {
+                createBranch(bucketsDn, TIME_BUCKETS_OU);
+            }
+            final String monthlyBucketsDn = getTimeBucketsDn(month);
+            if (!entryManager.contains(monthlyBucketsDn, SimpleBranch.class)) {
+                createBranch(monthlyBucketsDn, month);
+            }
+        }
+        preparedTimeBucketMonths.add(month);
+    }
+
+    private void flushTimeBucket(StatTimeBuckets.Bucket bucket, Date now) {
+        final String id = bucket.getKey() + "_" + nodeId;
+        final String dn = String.format("jansId=%s,%s", id, getTimeBucketsDn(bucket.getMonth())); // jansId=<bucket>_<id>,ou=yyyyMM,ou=buckets,ou=stat,o=gluu
+
+        if (!bucket.isPersisted()) {
+            loadPersistedTimeBucket(bucket, dn);
+        }
+
+        final StatEntry entry = new StatEntry();
+        entry.setId(id);
+        entry.setDn(dn);
+        entry.setUserHllData(Base64.getEncoder().encodeToString(bucket.getHllBytes()));
+        entry.getStat().setMonth(bucket.getMonth());
+        entry.getStat().setTokenCountPerGrantType(bucket.getTokenCounts());
+        entry.getStat().setLastUpdatedAt(now.getTime());
+
+        if (bucket.isPersisted()) {
+            entryManager.merge(entry);
+        } else {
+            entryManager.persist(entry);
+            bucket.setPersisted(true);
+        }
+    }
+
+    /**
+     * Removes time buckets of months which are out of <code>statTimeBucketRetentionInMonths</code>. It's done once
+     * per month, all months of lookback period are checked, so months missed while node was down are removed too.
+     */
+    private void removeExpiredTimeBuckets() {
+        final YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        if (month.equals(timeBucketsCleanedMonth)) {
+            return;
+        }
+
+        final int retention = Math.max(1, appConfiguration.getStatTimeBucketRetentionInMonths());
+        for (int i = 0; i < TIME_BUCKET_RETENTION_LOOKBACK_IN_MONTHS; i++) {
+            final String expiredMonth = month.minusMonths(retention + i).format(TIME_BUCKET_MONTH_FORMAT);
+            final String dn = getTimeBucketsDn(expiredMonth);
+            try {
+                if (entryManager.hasBranchesSupport(dn) && !entryManager.contains(dn, SimpleBranch.class)) {
+                    continue;
+                }
+                entryManager.removeRecursively(dn, StatEntry.class);
+                preparedTimeBucketMonths.remove(expiredMonth);
+                log.trace("Removed stat time buckets of month: " + expiredMonth);
+            } catch (Exception e) {
+                log.error("Failed to remove stat time buckets: " + dn, e);
+                return;
+            }
+        }
+        timeBucketsCleanedMonth = month;
+    }
+
+    // bucket may be persisted before restart of node
+    private void loadPersistedTimeBucket(StatTimeBuckets.Bucket bucket, String dn) {
+        final StatEntry entryFromPersistence;
+        try {
+            entryFromPersistence = entryManager.find(StatEntry.class, dn);
+        } catch (EntryPersistenceException e) {
+            return;
+        }
+        if (entryFromPersistence == null) {
+            return;
+        }
+
+        bucket.setPersisted(true);
+        try {
+            final HLL persistedHll = StringUtils.isNotBlank(entryFromPersistence.getUserHllData()) ?
+                    HLL.fromBytes(Base64.getDecoder().decode(entryFromPersistence.getUserHllData())) : null;
+            bucket.load(persistedHll, entryFromPersistence.getStat().getTokenCountPerGrantType());
+            log.trace("Stat time bucket loaded: " + dn);
+        } catch (Exception e) {
+            log.warn("Failed to load persisted stat time bucket, it will be overwritten: " + dn, e);
+        }
+    }
+
     private void setupCurrentEntry() {
         setupCurrentEntry(new Date());
     }
@@ -155,7 +308,7 @@ public class StatService {
 
         if (currentEntry == null) {
             log.trace("Creating stat entry ...");
-            hll = new HLL(log2m, regwidth);
+            hll = newHll();
             tokenCounters = new ConcurrentHashMap<>();
 
             currentEntry = new StatEntry();
@@ -186,6 +339,13 @@ public class StatService {
         }
     }
 
+    /**
+     * @return empty HLL with parameters of HLLs persisted by stat service
+     */
+    public static HLL newHll() {
+        return new HLL(log2m, regwidth);
+    }
+
     public String getNodeId() {
         return nodeId;
     }
@@ -194,6 +354,17 @@ public class StatService {
         return staticConfiguration.getBaseDn().getStat();
     }
 
+    public String getTimeBucketsBaseDn() {
+        return String.format("ou=%s,%s", TIME_BUCKETS_OU, getBaseDn()); // ou=buckets,ou=stat,o=gluu
+    }
+
+    /**
+     * @param month month in format yyyyMM (UTC)
+     */
+    public String getTimeBucketsDn(String month) {
+        return String.format("ou=%s,%s", month, getTimeBucketsBaseDn()); // ou=yyyyMM,ou=buckets,ou=stat,o=gluu
+    }
+
     private void prepareMonthlyBranch(Date now) {
         final String baseDn = getBaseDn();
         if (!entryManager.hasBranchesSupport(baseDn)) {
@@ -241,6 +412,11 @@ public class StatService {
         try {
             setupCurrentEntry();
             hll.addRaw(id.hashCode());
+
+            final StatTimeBuckets buckets = timeBuckets;
+            if (buckets != null) {
+                buckets.reportActiveUser(System.currentTimeMillis(), id.hashCode());
+            }
         } catch (Exception e) {
             log.error("Failed to report active user.", e);
         }
@@ -288,5 +464,10 @@ public class StatService {
 
         tokenMap.put(tokenKey, counter);
 
+        final StatTimeBuckets buckets = timeBuckets;
+        if (buckets != null) {
+            buckets.reportToken(System.currentTimeMillis(), grantType.getValue(), tokenKey);
+        }
+
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package io.jans.as.server.service.stat;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Granularity of stat time buckets. Buckets are aligned to UTC.
+ */
+public enum StatTimeBucketGranularity {
+
+    HOUR("hour", "yyyyMMddHH", TimeUnit.HOURS.toMillis(1)),
+    DAY("day", "yyyyMMdd", TimeUnit.DAYS.toMillis(1));
+
+    private final String value;
+    private final DateTimeFormatter keyFormat;
+    private final int keyLength;
+    private final long lengthInMillis;
+
+    StatTimeBucketGranularity(String value, String keyPattern, long lengthInMillis) {
+        this.value = value;
+        this.keyFormat = DateTimeFormatter.ofPattern(keyPattern).withZone(ZoneOffset.UTC);
+        this.keyLength = keyPattern.length();
+        this.lengthInMillis = lengthInMillis;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getLengthInMillis() {
+        return lengthInMillis;
+    }
+
+    /**
+     * @return index of bucket which contains given time (number of buckets since epoch)
+     */
+    public long index(long timeInMillis) {
+        return timeInMillis / lengthInMillis;
+    }
+
+    /**
+     * @return key of bucket with given index, e.g. 2021011317 for hour and 20210113 for day
+     */
+    public String key(long index) {
+        return keyFormat.format(Instant.ofEpochMilli(index * lengthInMillis));
+    }
+
+    /**
+     * @return key of bucket of this granularity which contains bucket with given key or null if it can't be
+     * calculated (given bucket is coarser)
+     */
+    public String parentKey(String key) {
+        if (key == null || key.length() < keyLength) {
+            return null;
+        }
+        return key.substring(0, keyLength);
+    }
+
+    public static StatTimeBucketGranularity fromString(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        for (StatTimeBucketGranularity granularity : values()) {
+            if (granularity.value.equalsIgnoreCase(value.trim())) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,196 @@
+package io.jans.as.server.service.stat;
+
+import net.agkn.hll.HLL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ring of time buckets of node. Each bucket has own compact HLL of active users and token counters.
+ * <p>
+ * Reporting resolves bucket by time (division and array read), so it costs about the same as monthly reporting.
+ * Bucket which is pushed out of the ring is kept till next flush, so nothing is lost if flush is late.
+ */
+public class StatTimeBuckets {
+
+    private static final int RING_SIZE = 4;
+    private static final int REGWIDTH = 5;
+
+    private final StatTimeBucketGranularity granularity;
+    private final int log2m;
+    private final AtomicReferenceArray<Bucket> ring = new AtomicReferenceArray<>(RING_SIZE);
+    private final Queue<Bucket> pushedOut = new ConcurrentLinkedQueue<>();
+
+    public StatTimeBuckets(StatTimeBucketGranularity granularity, int log2m) {
+        this.granularity = granularity;
+        this.log2m = log2m;
+    }
+
+    public StatTimeBucketGranularity getGranularity() {
+        return granularity;
+    }
+
+    public int getLog2m() {
+        return log2m;
+    }
+
+    public void reportActiveUser(long timeInMillis, int userHash) {
+        final Bucket bucket = getBucket(timeInMillis);
+        synchronized (bucket.hll) {
+            bucket.hll.addRaw(userHash);
+        }
+        bucket.dirty = true;
+    }
+
+    public void reportToken(long timeInMillis, String grantType, String tokenKey) {
+        final Bucket bucket = getBucket(timeInMillis);
+        bucket.tokenCounters.computeIfAbsent(grantType, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tokenKey, k -> new LongAdder())
+                .increment();
+        bucket.dirty = true;
+    }
+
+    Bucket getBucket(long timeInMillis) {
+        final long index = granularity.index(timeInMillis);
+        final int slot = (int) (index % RING_SIZE);
+
+        Bucket current = ring.get(slot);
+        if (current != null && current.index == index) {
+            return current;
+        }
+
+        final Bucket created = new Bucket(index, granularity.key(index), new HLL(log2m, REGWIDTH));
+        while (true) {
+            current = ring.get(slot);
+            if (current != null && current.index >= index) {
+                return current;
+            }
+            if (ring.compareAndSet(slot, current, created)) {
+                if (current != null && current.dirty) {
+                    pushedOut.add(current);
+                }
+                return created;
+            }
+        }
+    }
+
+    /**
+     * @return buckets which were changed since previous call, change flag of returned buckets is reset
+     */
+    public List<Bucket> takeChanged() {
+        final List<Bucket> result = new ArrayList<>();
+        Bucket bucket;
+        while ((bucket = pushedOut.poll()) != null) {
+            if (bucket.takeChanged()) {
+                result.add(bucket);
+            }
+        }
+        for (int i = 0; i < RING_SIZE; i++) {
+            bucket = ring.get(i);
+            if (bucket != null && bucket.takeChanged()) {
+                result.add(bucket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns bucket which failed to flush, so it is flushed next time.
+     */
+    public void returnChanged(Bucket bucket) {
+        bucket.dirty = true;
+        pushedOut.add(bucket);
+    }
+
+    public static class Bucket {
+
+        private final long index;
+        private final String key;
+        private final HLL hll;
+        private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> tokenCounters = new ConcurrentHashMap<>();
+        private volatile boolean dirty;
+        private boolean persisted; // accessed only by flushing thread
+
+        private Bucket(long index, String key, HLL hll) {
+            this.index = index;
+            this.key = key;
+            this.hll = hll;
+        }
+
+        private boolean takeChanged() {
+            if (!dirty) {
+                return false;
+            }
+            dirty = false;
+            return true;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return month (UTC) of bucket in format yyyyMM
+         */
+        public String getMonth() {
+            return key.substring(0, 6);
+        }
+
+        public byte[] getHllBytes() {
+            synchronized (hll) {
+                return hll.toBytes();
+            }
+        }
+
+        public Map<String, Map<String, Long>> getTokenCounts() {
+            final Map<String, Map<String, Long>> result = new HashMap<>();
+            for (Map.Entry<String, ConcurrentMap<String, LongAdder>> en : tokenCounters.entrySet()) {
+                final Map<String, Long> tokenMap = new HashMap<>();
+                for (Map.Entry<String, LongAdder> tokenEntry : en.getValue().entrySet()) {
+                    tokenMap.put(tokenEntry.getKey(), tokenEntry.getValue().sum());
+                }
+                result.put(en.getKey(), tokenMap);
+            }
+            return result;
+        }
+
+        /**
+         * Adds data persisted before (e.g. before restart of node) into bucket.
+         */
+        public void load(HLL persistedHll, Map<String, Map<String, Long>> persistedTokenCounts) {
+            if (persistedHll != null) {
+                synchronized (hll) {
+                    hll.union(persistedHll);
+                }
+            }
+            for (Map.Entry<String, Map<String, Long>> en : persistedTokenCounts.entrySet()) {
+                if (en.getValue() == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Long> tokenEntry : en.getValue().entrySet()) {
+                    if (tokenEntry.getValue() != null) {
+                        tokenCounters.computeIfAbsent(en.getKey(), k -> new ConcurrentHashMap<>())
+                                .computeIfAbsent(tokenEntry.getKey(), k -> new LongAdder())
+                                .add(tokenEntry.getValue());
+                    }
+                }
+            }
+        }
+
+        public boolean isPersisted() {
+            return persisted;
+        }
+
+        public void setPersisted(boolean persisted) {
+            this.persisted = persisted;
+        }
+    }
+}
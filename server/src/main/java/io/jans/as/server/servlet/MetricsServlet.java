@@ -0,0 +1,61 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.servlet;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.as.server.service.metric.LatencyMetrics;
+import io.jans.as.server.service.metric.MetricsRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+
+/**
+ * Prometheus scrape endpoint. Exposes {@link MetricsRegistry} (e.g. {@link LatencyMetrics}) in text exposition format.
+ * Disabled unless {@code metricsEndpointEnabled} is set in configuration.
+ */
+@WebServlet(urlPatterns = "/metrics")
+public class MetricsServlet extends HttpServlet {
+
+    private static final long serialVersionUID = -3487513390736519412L;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    @Override
+    public void init() throws ServletException {
+        LatencyMetrics.register();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Boolean.TRUE.equals(appConfiguration.getMetricsEndpointEnabled())) {
+            log.trace("Metrics endpoint is disabled.");
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(TextFormat.CONTENT_TYPE_004);
+        response.setHeader("Cache-Control", "no-store");
+        try (Writer writer = response.getWriter()) {
+            TextFormat.write004(writer, MetricsRegistry.getRegistry().metricFamilySamples());
+        }
+    }
+}
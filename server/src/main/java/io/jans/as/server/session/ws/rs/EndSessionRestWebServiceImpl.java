@@ -21,7 +21,6 @@ import io.jans.as.model.jwt.Jwt;
 import io.jans.as.model.session.EndSessionErrorResponseType;
 import io.jans.as.model.session.EndSessionRequestParam;
 import io.jans.as.model.token.JsonWebResponse;
-import io.jans.as.model.util.URLPatternList;
 import io.jans.as.model.util.Util;
 import io.jans.as.server.audit.ApplicationAuditLogger;
 import io.jans.as.server.model.audit.Action;
@@ -29,6 +28,7 @@ import io.jans.as.server.model.audit.OAuth2AuditLog;
 import io.jans.as.server.model.common.AuthorizationGrant;
 import io.jans.as.server.model.common.AuthorizationGrantList;
 import io.jans.as.server.model.common.SessionId;
+import io.jans.as.server.model.config.ConfigurationFactory;
 import io.jans.as.server.model.config.Constants;
 import io.jans.as.server.service.ClientService;
 import io.jans.as.server.service.CookieService;
@@ -38,6 +38,7 @@ import io.jans.as.server.service.SessionIdService;
 import io.jans.as.server.service.external.ExternalApplicationSessionService;
 import io.jans.as.server.service.external.ExternalEndSessionService;
 import io.jans.as.server.service.external.context.EndSessionContext;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.as.server.util.ServerUtil;
 import io.jans.model.security.Identity;
 import io.jans.util.Pair;
@@ -109,9 +110,15 @@ public class EndSessionRestWebServiceImpl implements EndSessionRestWebService {
     @Inject
     private AppConfiguration appConfiguration;
 
+    @Inject
+    private ConfigurationFactory configurationFactory;
+
     @Inject
     private LogoutTokenFactory logoutTokenFactory;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     @Override
     public Response requestEndSession(String idTokenHint, String postLogoutRedirectUri, String state, String sid,
                                       HttpServletRequest httpRequest, HttpServletResponse httpResponse, SecurityContext sec) {
@@ -237,7 +244,7 @@ public class EndSessionRestWebServiceImpl implements EndSessionRestWebService {
                 log.error("Failed to create logout_token for client: " + entry.getValue().getClientId());
                 return;
             }
-            executorService.execute(() -> EndSessionUtils.callRpWithBackchannelUri(entry.getKey(), logoutToken.toString()));
+            executorService.execute(() -> EndSessionUtils.callRpWithBackchannelUri(outboundHttpService.getClientEngine(), entry.getKey(), logoutToken.toString()));
         }
         executorService.shutdown();
         executorService.awaitTermination(30, TimeUnit.SECONDS);
@@ -272,7 +279,7 @@ public class EndSessionRestWebServiceImpl implements EndSessionRestWebService {
         final Boolean allowPostLogoutRedirectWithoutValidation = appConfiguration.getAllowPostLogoutRedirectWithoutValidation();
         return allowPostLogoutRedirectWithoutValidation != null &&
                 allowPostLogoutRedirectWithoutValidation &&
-                new URLPatternList(appConfiguration.getClientWhiteList()).isUrlListed(postLogoutRedirectUri);
+                configurationFactory.getAppConfigurationSnapshot().getClientWhiteList().isUrlListed(postLogoutRedirectUri);
     }
 
     private void validateSidRequestParameter(String sid, String postLogoutRedirectUri) {
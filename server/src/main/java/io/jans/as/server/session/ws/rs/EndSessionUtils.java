@@ -17,6 +17,7 @@ import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.Response;
 
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +40,14 @@ public class EndSessionUtils {
     }
 
     public static void callRpWithBackchannelUri(final String backchannelLogoutUri, String logoutToken) {
-        javax.ws.rs.client.Client client = new ResteasyClientBuilder().httpEngine(ClientFactory.instance().createEngine(true)).build();
+        callRpWithBackchannelUri(ClientFactory.instance().createEngine(true), backchannelLogoutUri, logoutToken);
+    }
+
+    /**
+     * @param engine http engine, normally shared pooled engine of {@link io.jans.as.server.service.net.OutboundHttpService}
+     */
+    public static void callRpWithBackchannelUri(ClientHttpEngine engine, final String backchannelLogoutUri, String logoutToken) {
+        javax.ws.rs.client.Client client = new ResteasyClientBuilder().httpEngine(engine).build();
         WebTarget target = client.target(backchannelLogoutUri);
 
         log.debug("Calling RP with backchannel, backchannel_logout_uri: " + backchannelLogoutUri);
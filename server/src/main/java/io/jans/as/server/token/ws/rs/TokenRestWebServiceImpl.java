@@ -151,6 +151,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
 
         scope = ServerUtil.urlDecode(scope); // it may be encoded in uma case
         ResponseBuilder builder = Response.ok();
+        final ExecutionContext executionContext = new ExecutionContext(request, response);
 
         try {
             log.debug("Starting to validate request parameters");
@@ -181,7 +182,9 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
 
             final Function<JsonWebResponse, Void> idTokenTokingBindingPreprocessing = TokenBindingMessage.createIdTokenTokingBindingPreprocessing(
                     tokenBindingHeader, client.getIdTokenTokenBindingCnf()); // for all except authorization code grant
+            long phaseStart = System.nanoTime();
             final SessionId sessionIdObj = sessionIdService.getSessionId(request);
+            executionContext.endPhase("session_lookup", phaseStart);
             final Function<JsonWebResponse, Void> idTokenPreProcessing = JwrService.wrapWithSidFunction(idTokenTokingBindingPreprocessing, sessionIdObj != null ? sessionIdObj.getOutsideSid() : null);
 
 
@@ -191,7 +194,9 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                 }
 
                 log.debug("Attempting to find authorizationCodeGrant by clientId: '{}', code: '{}'", client.getClientId(), code);
+                phaseStart = System.nanoTime();
                 final AuthorizationCodeGrant authorizationCodeGrant = authorizationGrantList.getAuthorizationCodeGrant(code);
+                executionContext.endPhase("grant_lookup", phaseStart);
                 log.trace("AuthorizationCodeGrant : '{}'", authorizationCodeGrant);
 
                 if (authorizationCodeGrant == null) {
@@ -222,7 +227,9 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                     scope = authorizationCodeGrant.checkScopesPolicy(scope);
                 }
 
-                AccessToken accToken = authorizationCodeGrant.createAccessToken(request.getHeader("X-ClientCert"), new ExecutionContext(request, response)); // create token after scopes are checked
+                phaseStart = System.nanoTime();
+                AccessToken accToken = authorizationCodeGrant.createAccessToken(request.getHeader("X-ClientCert"), executionContext); // create token after scopes are checked
+                executionContext.endPhase("access_token", phaseStart);
 
                 IdToken idToken = null;
                 if (authorizationCodeGrant.getScopes().contains("openid")) {
@@ -240,10 +247,12 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                     ExternalUpdateTokenContext context = new ExternalUpdateTokenContext(request, authorizationCodeGrant, client, appConfiguration, attributeService);
                     Function<JsonWebResponse, Void> postProcessor = externalUpdateTokenService.buildModifyIdTokenProcessor(context);
 
+                    phaseStart = System.nanoTime();
                     idToken = authorizationCodeGrant.createIdToken(
                             nonce, authorizationCodeGrant.getAuthorizationCode(), accToken, null, null,
                             authorizationCodeGrant, includeIdTokenClaims, JwrService.wrapWithSidFunction(authorizationCodePreProcessing, sessionIdObj != null ? sessionIdObj.getOutsideSid() : null),
                             postProcessor);
+                    executionContext.endPhase("id_token", phaseStart);
                 }
 
                 oAuth2AuditLog.updateOAuth2AuditLog(authorizationCodeGrant, true);
@@ -259,7 +268,9 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                     return response(error(400, TokenErrorResponseType.INVALID_GRANT, "grant_type is not present in client."), oAuth2AuditLog);
                 }
 
+                phaseStart = System.nanoTime();
                 AuthorizationGrant authorizationGrant = authorizationGrantList.getAuthorizationGrantByRefreshToken(client.getClientId(), refreshToken);
+                executionContext.endPhase("grant_lookup", phaseStart);
 
                 if (authorizationGrant == null) {
                     log.trace("Grant object is not found by refresh token.");
@@ -287,7 +298,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                     scope = authorizationGrant.checkScopesPolicy(scope);
                 }
 
-                AccessToken accToken = authorizationGrant.createAccessToken(request.getHeader("X-ClientCert"), new ExecutionContext(request, response)); // create token after scopes are checked
+                AccessToken accToken = authorizationGrant.createAccessToken(request.getHeader("X-ClientCert"), executionContext); // create token after scopes are checked
 
                 IdToken idToken = null;
                 if (appConfiguration.getOpenidScopeBackwardCompatibility() && authorizationGrant.getScopes().contains("openid")) {
@@ -324,7 +335,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                     scope = clientCredentialsGrant.checkScopesPolicy(scope);
                 }
 
-                AccessToken accessToken = clientCredentialsGrant.createAccessToken(request.getHeader("X-ClientCert"), new ExecutionContext(request, response)); // create token after scopes are checked
+                AccessToken accessToken = clientCredentialsGrant.createAccessToken(request.getHeader("X-ClientCert"), executionContext); // create token after scopes are checked
 
                 IdToken idToken = null;
                 if (appConfiguration.getOpenidScopeBackwardCompatibility() && clientCredentialsGrant.getScopes().contains("openid")) {
@@ -407,7 +418,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                         scope = resourceOwnerPasswordCredentialsGrant.checkScopesPolicy(scope);
                     }
 
-                    AccessToken accessToken = resourceOwnerPasswordCredentialsGrant.createAccessToken(request.getHeader("X-ClientCert"), new ExecutionContext(request, response)); // create token after scopes are checked
+                    AccessToken accessToken = resourceOwnerPasswordCredentialsGrant.createAccessToken(request.getHeader("X-ClientCert"), executionContext); // create token after scopes are checked
 
                     IdToken idToken = null;
                     if (appConfiguration.getOpenidScopeBackwardCompatibility() && resourceOwnerPasswordCredentialsGrant.getScopes().contains("openid")) {
@@ -454,7 +465,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                             cibaGrant.getClient().getBackchannelTokenDeliveryMode() == io.jans.as.model.common.BackchannelTokenDeliveryMode.POLL) {
                         if (!cibaGrant.isTokensDelivered()) {
                             RefreshToken refToken = cibaGrant.createRefreshToken();
-                            AccessToken accessToken = cibaGrant.createAccessToken(request.getHeader("X-ClientCert"), new ExecutionContext(request, response));
+                            AccessToken accessToken = cibaGrant.createAccessToken(request.getHeader("X-ClientCert"), executionContext);
 
                             ExternalUpdateTokenContext context = new ExternalUpdateTokenContext(request, cibaGrant, client, appConfiguration, attributeService);
                             Function<JsonWebResponse, Void> postProcessor = externalUpdateTokenService.buildModifyIdTokenProcessor(context);
@@ -9,6 +9,7 @@ package io.jans.as.server.userinfo.ws.rs;
 import io.jans.as.common.claims.Audience;
 import io.jans.as.common.model.common.User;
 import io.jans.as.common.model.registration.Client;
+import io.jans.as.common.model.registration.ClientJwks;
 import io.jans.as.common.service.AttributeService;
 import io.jans.as.model.common.ComponentType;
 import io.jans.as.model.common.ScopeType;
@@ -34,7 +35,6 @@ import io.jans.as.model.jwt.JwtSubClaimObject;
 import io.jans.as.model.jwt.JwtType;
 import io.jans.as.model.token.JsonWebResponse;
 import io.jans.as.model.userinfo.UserInfoErrorResponseType;
-import io.jans.as.model.util.JwtUtil;
 import io.jans.as.model.util.Util;
 import io.jans.as.persistence.model.Scope;
 import io.jans.as.server.audit.ApplicationAuditLogger;
@@ -49,6 +49,7 @@ import io.jans.as.server.service.ServerCryptoProvider;
 import io.jans.as.server.service.UserService;
 import io.jans.as.server.service.external.ExternalDynamicScopeService;
 import io.jans.as.server.service.external.context.DynamicScopeExternalContext;
+import io.jans.as.server.service.net.OutboundHttpService;
 import io.jans.as.server.service.token.TokenService;
 import io.jans.as.server.util.ServerUtil;
 import io.jans.model.GluuAttribute;
@@ -121,6 +122,9 @@ public class UserInfoRestWebServiceImpl implements UserInfoRestWebService {
     @Inject
     private TokenService tokenService;
 
+    @Inject
+    private OutboundHttpService outboundHttpService;
+
     @Override
     public Response requestUserInfoGet(String accessToken, String authorization, HttpServletRequest request, SecurityContext securityContext) {
         return requestUserInfo(accessToken, authorization, request, securityContext);
@@ -140,6 +144,7 @@ public class UserInfoRestWebServiceImpl implements UserInfoRestWebService {
         log.debug("Attempting to request User Info, Access token = {}, Is Secure = {}", accessToken, securityContext.isSecure());
         errorResponseFactory.validateComponentEnabled(ComponentType.USERINFO);
         Response.ResponseBuilder builder = Response.ok();
+        final ExecutionContext executionContext = new ExecutionContext(request, null);
 
         OAuth2AuditLog oAuth2AuditLog = new OAuth2AuditLog(ServerUtil.getIpAddress(request), Action.USER_INFO);
 
@@ -148,7 +153,9 @@ public class UserInfoRestWebServiceImpl implements UserInfoRestWebService {
                 return response(400, UserInfoErrorResponseType.INVALID_REQUEST, "access token is not valid.");
             }
 
+            long phaseStart = System.nanoTime();
             AuthorizationGrant authorizationGrant = authorizationGrantList.getAuthorizationGrantByAccessToken(accessToken);
+            executionContext.endPhase("grant_lookup", phaseStart);
 
             if (authorizationGrant == null) {
                 log.trace("Failed to find authorization grant by access_token: " + accessToken);
@@ -180,11 +187,13 @@ public class UserInfoRestWebServiceImpl implements UserInfoRestWebService {
             builder.header("Pragma", "no-cache");
 
             User currentUser = authorizationGrant.getUser();
+            phaseStart = System.nanoTime();
             try {
                 currentUser = userService.getUserByDn(authorizationGrant.getUserDn());
             } catch (EntryPersistenceException ex) {
                 log.warn("Failed to reload user entry: '{}'", authorizationGrant.getUserDn());
             }
+            executionContext.endPhase("user_lookup", phaseStart);
 
             if (authorizationGrant.getClient() != null
                     && authorizationGrant.getClient().getUserInfoEncryptedResponseAlg() != null
@@ -287,11 +296,20 @@ public class UserInfoRestWebServiceImpl implements UserInfoRestWebService {
         // Encryption
         if (keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA_OAEP
                 || keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA1_5) {
-            JSONObject jsonWebKeys = JwtUtil.getJSONWebKeys(authorizationGrant.getClient().getJwksUri());
-            String keyId = new ServerCryptoProvider(cryptoProvider).getKeyId(JSONWebKeySet.fromJSONObject(jsonWebKeys),
-                    Algorithm.fromString(keyEncryptionAlgorithm.getName()),
-                    Use.ENCRYPTION);
-            PublicKey publicKey = cryptoProvider.getPublicKey(keyId, jsonWebKeys, null);
+            final ClientJwks clientJwks = authorizationGrant.getClient().getParsedJwks();
+            PublicKey publicKey;
+            if (clientJwks != null) {
+                String keyId = new ServerCryptoProvider(cryptoProvider).getKeyId(clientJwks.getKeySet(),
+                        Algorithm.fromString(keyEncryptionAlgorithm.getName()),
+                        Use.ENCRYPTION);
+                publicKey = clientJwks.getPublicKey(keyId, cryptoProvider);
+            } else {
+                JSONObject jsonWebKeys = outboundHttpService.getJSONWebKeys(authorizationGrant.getClient().getJwksUri());
+                String keyId = new ServerCryptoProvider(cryptoProvider).getKeyId(JSONWebKeySet.fromJSONObject(jsonWebKeys),
+                        Algorithm.fromString(keyEncryptionAlgorithm.getName()),
+                        Use.ENCRYPTION);
+                publicKey = cryptoProvider.getPublicKey(keyId, jsonWebKeys, null);
+            }
 
             if (publicKey != null) {
                 JweEncrypter jweEncrypter = new JweEncrypterImpl(keyEncryptionAlgorithm, blockEncryptionAlgorithm, publicKey);
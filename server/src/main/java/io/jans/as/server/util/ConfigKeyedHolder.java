@@ -0,0 +1,63 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.util;
+
+import java.util.function.Function;
+
+/**
+ * Lazily created value (e.g. cache with configured lifetime) which is recreated when configuration it is created from
+ * changes. Reads are lock-free, value is created at most once per configuration change.
+ *
+ * @param <K> configuration the value is created from, compared with equals
+ * @param <V> value
+ */
+public final class ConfigKeyedHolder<K, V> {
+
+    private final Function<K, V> factory;
+
+    private volatile Entry<K, V> entry;
+
+    public ConfigKeyedHolder(Function<K, V> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return value created from given configuration, previous value is dropped if it was created from another one
+     */
+    public V get(K key) {
+        Entry<K, V> current = entry;
+        if (current == null || !current.key.equals(key)) {
+            synchronized (this) {
+                current = entry;
+                if (current == null || !current.key.equals(key)) {
+                    current = new Entry<>(key, factory.apply(key));
+                    entry = current;
+                }
+            }
+        }
+        return current.value;
+    }
+
+    /**
+     * @return current value or null if it was not created yet
+     */
+    public V getIfCreated() {
+        final Entry<K, V> current = entry;
+        return current != null ? current.value : null;
+    }
+
+    private static final class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+
+        private Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
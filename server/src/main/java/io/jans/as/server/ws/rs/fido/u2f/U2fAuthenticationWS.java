@@ -23,8 +23,10 @@ import io.jans.as.server.model.config.Constants;
 import io.jans.as.server.model.fido.u2f.AuthenticateRequestMessageLdap;
 import io.jans.as.server.model.fido.u2f.DeviceRegistration;
 import io.jans.as.server.model.fido.u2f.DeviceRegistrationResult;
+import io.jans.as.server.service.CookieService;
 import io.jans.as.server.service.fido.u2f.AuthenticationService;
 import io.jans.as.server.service.fido.u2f.DeviceRegistrationService;
+import io.jans.as.server.service.fido.u2f.RequestService;
 import io.jans.as.server.service.fido.u2f.UserSessionIdService;
 import io.jans.as.server.service.fido.u2f.ValidationService;
 import io.jans.as.server.util.ServerUtil;
@@ -32,7 +34,9 @@ import io.jans.util.StringHelper;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 
 /**
@@ -68,6 +72,9 @@ public class U2fAuthenticationWS {
     @Inject
     private ValidationService u2fValidationService;
 
+    @Inject
+    private CookieService cookieService;
+
     @GET
     @Produces({"application/json"})
     public Response startAuthentication(@QueryParam("username") String userName, @QueryParam("keyhandle") String keyHandle, @QueryParam("application") String appId, @QueryParam("session_id") String sessionId) {
@@ -129,7 +136,8 @@ public class U2fAuthenticationWS {
 
     @POST
     @Produces({"application/json"})
-    public Response finishAuthentication(@FormParam("username") String userName, @FormParam("tokenResponse") String authenticateResponseString) {
+    public Response finishAuthentication(@FormParam("username") String userName, @FormParam("tokenResponse") String authenticateResponseString,
+                                         @Context HttpServletRequest httpRequest) {
         String sessionId = null;
         try {
             errorResponseFactory.validateComponentEnabled(ComponentType.U2F);
@@ -144,6 +152,9 @@ public class U2fAuthenticationWS {
                 throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN)
                         .entity(errorResponseFactory.getJsonErrorResponse(U2fErrorResponseType.SESSION_EXPIRED)).build());
             }
+            if (!RequestService.isRequestMessageOwner(authenticateRequestMessageLdap, getUserInum(userName), cookieService.getSessionIdFromCookie(httpRequest))) {
+                throw new BadInputException(String.format("Request '%s' was not started by user '%s' or by current session", requestId, userName));
+            }
             sessionId = authenticateRequestMessageLdap.getSessionId();
             u2fAuthenticationService.removeAuthenticationRequestMessage(authenticateRequestMessageLdap);
 
@@ -203,4 +214,8 @@ public class U2fAuthenticationWS {
                     .entity(errorResponseFactory.getJsonErrorResponse(U2fErrorResponseType.SERVER_ERROR)).build());
         }
     }
+
+    private String getUserInum(String userName) {
+        return StringHelper.isEmpty(userName) ? null : userService.getUserInum(userName);
+    }
 }
@@ -22,10 +22,12 @@ import io.jans.as.server.model.config.Constants;
 import io.jans.as.server.model.fido.u2f.DeviceRegistration;
 import io.jans.as.server.model.fido.u2f.DeviceRegistrationResult;
 import io.jans.as.server.model.fido.u2f.RegisterRequestMessageLdap;
+import io.jans.as.server.service.CookieService;
 import io.jans.as.server.service.SessionIdService;
 import io.jans.as.server.service.external.ExternalAuthenticationService;
 import io.jans.as.server.service.fido.u2f.DeviceRegistrationService;
 import io.jans.as.server.service.fido.u2f.RegistrationService;
+import io.jans.as.server.service.fido.u2f.RequestService;
 import io.jans.as.server.service.fido.u2f.UserSessionIdService;
 import io.jans.as.server.service.fido.u2f.ValidationService;
 import io.jans.as.server.util.ServerUtil;
@@ -34,7 +36,9 @@ import io.jans.util.StringHelper;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import java.util.List;
 
@@ -77,6 +81,9 @@ public class U2fRegistrationWS {
     @Inject
     private ExternalAuthenticationService service;
 
+    @Inject
+    private CookieService cookieService;
+
     @GET
     @Produces({"application/json"})
     public Response startRegistration(@QueryParam("username") String userName, @QueryParam("application") String appId, @QueryParam("session_id") String sessionId, @QueryParam("enrollment_code") String enrollmentCode) {
@@ -153,7 +160,8 @@ public class U2fRegistrationWS {
 
     @POST
     @Produces({"application/json"})
-    public Response finishRegistration(@FormParam("username") String userName, @FormParam("tokenResponse") String registerResponseString) {
+    public Response finishRegistration(@FormParam("username") String userName, @FormParam("tokenResponse") String registerResponseString,
+                                       @Context HttpServletRequest httpRequest) {
         String sessionId = null;
         try {
             errorResponseFactory.validateComponentEnabled(ComponentType.U2F);
@@ -168,6 +176,9 @@ public class U2fRegistrationWS {
                 throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN)
                         .entity(errorResponseFactory.getJsonErrorResponse(io.jans.as.model.fido.u2f.U2fErrorResponseType.SESSION_EXPIRED)).build());
             }
+            if (!RequestService.isRequestMessageOwner(registerRequestMessageLdap, getUserInum(userName), cookieService.getSessionIdFromCookie(httpRequest))) {
+                throw new BadInputException(String.format("Request '%s' was not started by user '%s' or by current session", requestId, userName));
+            }
             u2fRegistrationService.removeRegisterRequestMessage(registerRequestMessageLdap);
 
             String foundUserInum = registerRequestMessageLdap.getUserInum();
@@ -217,6 +228,10 @@ public class U2fRegistrationWS {
         }
     }
 
+    private String getUserInum(String userName) {
+        return StringHelper.isEmpty(userName) ? null : userService.getUserInum(userName);
+    }
+
     private boolean isCurrentAuthenticationLevelCorrespondsToU2fLevel(String session) {
         SessionId sessionId = sessionIdService.getSessionId(session);
         if (sessionId == null)
@@ -0,0 +1,99 @@
+package io.jans.as.server.ws.rs.stat;
+
+import io.jans.as.server.service.stat.StatService;
+import net.agkn.hll.HLL;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregate of per node stat entries of one month or time bucket: union of user HLLs and sum of token counters.
+ */
+public class StatAggregate {
+
+    private HLL hll;
+    private final Map<String, Map<String, Long>> tokenCountPerGrantType = new HashMap<>();
+    private int entryCount;
+
+    public StatAggregate() {
+        this(StatService.newHll());
+    }
+
+    /**
+     * @param hll HLL to union users into, if null first added HLL is used (it must not be shared then)
+     */
+    public StatAggregate(HLL hll) {
+        this.hll = hll;
+    }
+
+    public void add(HLL userHll, Map<String, Map<String, Long>> tokenCounts) {
+        if (userHll != null) {
+            if (hll == null) {
+                hll = userHll;
+            } else {
+                hll.union(userHll);
+            }
+        }
+        addTokenCounts(tokenCounts);
+        entryCount++;
+    }
+
+    private void addTokenCounts(Map<String, Map<String, Long>> tokenCounts) {
+        if (tokenCounts == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Map<String, Long>> en : tokenCounts.entrySet()) {
+            if (en.getValue() == null) {
+                continue;
+            }
+
+            final Map<String, Long> tokenMap = tokenCountPerGrantType.computeIfAbsent(en.getKey(), k -> new HashMap<>());
+            for (Map.Entry<String, Long> tokenEntry : en.getValue().entrySet()) {
+                if (tokenEntry.getValue() != null) {
+                    tokenMap.merge(tokenEntry.getKey(), tokenEntry.getValue(), Long::sum);
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    /**
+     * @return new response item, aggregate is not shared with it
+     */
+    public StatResponseItem toResponseItem() {
+        final StatResponseItem responseItem = new StatResponseItem();
+        responseItem.setMonthlyActiveUsers(getActiveUsers());
+        responseItem.setTokenCountPerGrantType(copy(tokenCountPerGrantType));
+        return responseItem;
+    }
+
+    public StatTimeBucketResponseItem toTimeBucketResponseItem() {
+        final StatTimeBucketResponseItem responseItem = new StatTimeBucketResponseItem();
+        responseItem.setActiveUsers(getActiveUsers());
+        responseItem.setTokenCountPerGrantType(copy(tokenCountPerGrantType));
+        return responseItem;
+    }
+
+    private long getActiveUsers() {
+        return hll != null ? hll.cardinality() : 0;
+    }
+
+    public static StatResponseItem copy(StatResponseItem item) {
+        final StatResponseItem copy = new StatResponseItem();
+        copy.setMonthlyActiveUsers(item.getMonthlyActiveUsers());
+        copy.setTokenCountPerGrantType(copy(item.getTokenCountPerGrantType()));
+        return copy;
+    }
+
+    private static Map<String, Map<String, Long>> copy(Map<String, Map<String, Long>> tokenCounts) {
+        final Map<String, Map<String, Long>> copy = new HashMap<>();
+        for (Map.Entry<String, Map<String, Long>> en : tokenCounts.entrySet()) {
+            copy.put(en.getKey(), new HashMap<>(en.getValue()));
+        }
+        return copy;
+    }
+}
@@ -3,6 +3,7 @@ package io.jans.as.server.ws.rs.stat;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -16,6 +17,10 @@ public class StatResponseItem {
     @JsonProperty("token_count_per_granttype")
     private Map<String, Map<String, Long>> tokenCountPerGrantType;
 
+    @JsonProperty("time_buckets") // bucket (yyyyMMdd or yyyyMMddHH, UTC) to stat item, set only if granularity is requested
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, StatTimeBucketResponseItem> timeBuckets;
+
     public long getMonthlyActiveUsers() {
         return monthlyActiveUsers;
     }
@@ -33,11 +38,20 @@ public class StatResponseItem {
         this.tokenCountPerGrantType = tokenCountPerGrantType;
     }
 
+    public Map<String, StatTimeBucketResponseItem> getTimeBuckets() {
+        return timeBuckets;
+    }
+
+    public void setTimeBuckets(Map<String, StatTimeBucketResponseItem> timeBuckets) {
+        this.timeBuckets = timeBuckets;
+    }
+
     @Override
     public String toString() {
         return "StatResponseItem{" +
                 "monthlyActiveUsers=" + monthlyActiveUsers +
                 ", tokenCountPerGrantType=" + tokenCountPerGrantType +
+                ", timeBuckets=" + timeBuckets +
                 '}';
     }
 }
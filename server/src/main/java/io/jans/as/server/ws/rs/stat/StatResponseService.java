@@ -0,0 +1,210 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.ws.rs.stat;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jans.as.common.model.stat.StatEntry;
+import io.jans.as.server.service.stat.StatService;
+import io.jans.as.server.service.stat.StatTimeBucketGranularity;
+import io.jans.orm.PersistenceEntryManager;
+import io.jans.orm.model.ProcessBatchOperation;
+import io.jans.orm.model.SearchScope;
+import io.jans.orm.search.filter.Filter;
+import net.agkn.hll.HLL;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds stat response items out of per node stat entries.
+ * <p>
+ * Entries are read page by page and HLL of each entry is decoded and unioned right away, so the whole month is never
+ * kept in memory. Completed months don't change anymore, they are rolled up once and aggregate is cached.
+ * Months which can still be updated by nodes (current month and previous one during first hour of new month)
+ * are aggregated incrementally: counters are read on each call, HLL of entry is read and decoded again only
+ * if entry was updated since last call.
+ */
+@ApplicationScoped
+@Named
+public class StatResponseService {
+
+    private static final DateTimeFormatter PERIOD_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long COMPLETED_MONTH_GRACE_PERIOD_IN_HOURS = 1;
+    private static final int CHUNK_SIZE = 100;
+    private static final int MAX_CACHED_MONTHS = 120;
+    private static final String[] COUNTER_ATTRIBUTES = {"jansId", "attr"};
+    private static final String[] HLL_ATTRIBUTES = {"dat"};
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private PersistenceEntryManager entryManager;
+
+    @Inject
+    private StatService statService;
+
+    private final Cache<String, StatResponseItem> completedMonths = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_MONTHS)
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    // entry dn -> decoded HLL of entry, for months which are not completed yet
+    private final ConcurrentMap<String, UserHll> liveEntries = new ConcurrentHashMap<>();
+
+    /**
+     * @param month month in format yyyyMM
+     * @return response item (caller is free to modify it) or null if there are no stat entries for given month
+     */
+    public StatResponseItem buildItem(String month) {
+        final String monthlyDn = String.format("ou=%s,%s", month, statService.getBaseDn());
+        if (isCompleted(month)) {
+            return buildCompletedMonthItem(month, monthlyDn);
+        }
+        return buildLiveMonthItem(monthlyDn);
+    }
+
+    private static boolean isCompleted(String month) {
+        final String lastLiveMonth = LocalDateTime.now().minusHours(COMPLETED_MONTH_GRACE_PERIOD_IN_HOURS).format(PERIOD_DATE_FORMAT);
+        return month.compareTo(lastLiveMonth) < 0;
+    }
+
+    private StatResponseItem buildCompletedMonthItem(String month, String monthlyDn) {
+        StatResponseItem rollup = completedMonths.getIfPresent(month);
+        if (rollup == null) {
+            final StatAggregate aggregate = new StatAggregate();
+            entryManager.findEntries(monthlyDn, StatEntry.class, Filter.createPresenceFilter("jansId"), SearchScope.SUB, null, new ProcessBatchOperation<StatEntry>() {
+                @Override
+                public void performAction(List<StatEntry> entries) {
+                    for (StatEntry entry : entries) {
+                        aggregate.add(decode(entry), entry.getStat().getTokenCountPerGrantType());
+                    }
+                }
+            }, 0, 0, CHUNK_SIZE);
+
+            liveEntries.keySet().removeIf(dn -> dn.endsWith(monthlyDn));
+            if (aggregate.isEmpty()) {
+                log.trace("Can't find stat entries for month: " + monthlyDn);
+                return null;
+            }
+
+            rollup = aggregate.toResponseItem();
+            completedMonths.put(month, rollup);
+            log.trace("Rolled up completed month: " + month);
+        }
+        return StatAggregate.copy(rollup);
+    }
+
+    private StatResponseItem buildLiveMonthItem(String monthlyDn) {
+        final StatAggregate aggregate = new StatAggregate();
+        final Set<String> processedDns = new HashSet<>();
+        entryManager.findEntries(monthlyDn, StatEntry.class, Filter.createPresenceFilter("jansId"), SearchScope.SUB, COUNTER_ATTRIBUTES, new ProcessBatchOperation<StatEntry>() {
+            @Override
+            public void performAction(List<StatEntry> entries) {
+                for (StatEntry entry : entries) {
+                    processedDns.add(entry.getDn());
+                    aggregate.add(getUserHll(entry), entry.getStat().getTokenCountPerGrantType());
+                }
+            }
+        }, 0, 0, CHUNK_SIZE);
+
+        liveEntries.keySet().removeIf(dn -> dn.endsWith(monthlyDn) && !processedDns.contains(dn));
+        if (aggregate.isEmpty()) {
+            log.trace("Can't find stat entries for month: " + monthlyDn);
+            return null;
+        }
+        return aggregate.toResponseItem();
+    }
+
+    /**
+     * Merges time buckets of all nodes within given month (buckets are aligned to UTC). Hourly buckets are merged
+     * into daily ones if day granularity is requested. Only monthly branch of buckets is searched.
+     *
+     * @return bucket key to item, sorted by key
+     */
+    public Map<String, StatTimeBucketResponseItem> buildTimeBuckets(String month, StatTimeBucketGranularity granularity) {
+        final Map<String, StatAggregate> aggregates = new TreeMap<>();
+        final Filter filter = Filter.createSubstringFilter("jansId", month, null, null); // jansId=<yyyyMM>*, bucket id is <bucket>_<nodeId>
+        entryManager.findEntries(statService.getTimeBucketsDn(month), StatEntry.class, filter, SearchScope.SUB, null, new ProcessBatchOperation<StatEntry>() {
+            @Override
+            public void performAction(List<StatEntry> entries) {
+                for (StatEntry entry : entries) {
+                    final String key = granularity.parentKey(StringUtils.substringBefore(entry.getId(), "_"));
+                    if (key == null || !key.startsWith(month)) {
+                        continue;
+                    }
+                    try {
+                        aggregates.computeIfAbsent(key, k -> new StatAggregate(null)).add(decode(entry), entry.getStat().getTokenCountPerGrantType());
+                    } catch (Exception e) {
+                        log.error("Failed to merge stat time bucket: " + entry.getDn(), e);
+                    }
+                }
+            }
+        }, 0, 0, CHUNK_SIZE);
+
+        final Map<String, StatTimeBucketResponseItem> result = new LinkedHashMap<>();
+        for (Map.Entry<String, StatAggregate> en : aggregates.entrySet()) {
+            result.put(en.getKey(), en.getValue().toTimeBucketResponseItem());
+        }
+        return result;
+    }
+
+    private HLL getUserHll(StatEntry entry) {
+        final long lastUpdatedAt = entry.getStat().getLastUpdatedAt();
+        final UserHll cached = liveEntries.get(entry.getDn());
+        if (cached != null && cached.lastUpdatedAt == lastUpdatedAt) {
+            return cached.hll;
+        }
+
+        final StatEntry entryWithHll = entryManager.find(entry.getDn(), StatEntry.class, HLL_ATTRIBUTES);
+        final HLL hll = entryWithHll != null ? decode(entryWithHll) : null;
+        if (hll != null) {
+            liveEntries.put(entry.getDn(), new UserHll(lastUpdatedAt, hll));
+        }
+        return hll;
+    }
+
+    private HLL decode(StatEntry entry) {
+        if (StringUtils.isBlank(entry.getUserHllData())) {
+            return null;
+        }
+        try {
+            return HLL.fromBytes(Base64.getDecoder().decode(entry.getUserHllData()));
+        } catch (Exception e) {
+            log.error("Failed to decode user HLL of stat entry: " + entry.getDn(), e);
+            return null;
+        }
+    }
+
+    private static final class UserHll {
+
+        // decoded HLL is shared between calls, so it is only read (unioned into aggregate) and never modified
+        private final long lastUpdatedAt;
+        private final HLL hll;
+
+        private UserHll(long lastUpdatedAt, HLL hll) {
+            this.lastUpdatedAt = lastUpdatedAt;
+            this.hll = hll;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.jans.as.server.ws.rs.stat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class StatTimeBucketResponseItem {
+
+    @JsonProperty(value = "active_users")
+    private long activeUsers;
+
+    @JsonProperty("token_count_per_granttype")
+    private Map<String, Map<String, Long>> tokenCountPerGrantType;
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public void setActiveUsers(long activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+
+    public Map<String, Map<String, Long>> getTokenCountPerGrantType() {
+        if (tokenCountPerGrantType == null) tokenCountPerGrantType = new HashMap<>();
+        return tokenCountPerGrantType;
+    }
+
+    public void setTokenCountPerGrantType(Map<String, Map<String, Long>> tokenCountPerGrantType) {
+        this.tokenCountPerGrantType = tokenCountPerGrantType;
+    }
+
+    @Override
+    public String toString() {
+        return "StatTimeBucketResponseItem{" +
+                "activeUsers=" + activeUsers +
+                ", tokenCountPerGrantType=" + tokenCountPerGrantType +
+                '}';
+    }
+}
@@ -1,17 +1,16 @@
 package io.jans.as.server.ws.rs.stat;
 
-import io.jans.as.common.model.stat.StatEntry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jans.as.model.common.ComponentType;
 import io.jans.as.model.configuration.AppConfiguration;
 import io.jans.as.model.error.ErrorResponseFactory;
 import io.jans.as.model.token.TokenErrorResponseType;
 import io.jans.as.server.model.session.SessionClient;
 import io.jans.as.server.security.Identity;
-import io.jans.as.server.service.stat.StatService;
+import io.jans.as.server.service.stat.StatTimeBucketGranularity;
+import io.jans.as.server.util.ConfigKeyedHolder;
 import io.jans.as.server.util.ServerUtil;
-import io.jans.orm.PersistenceEntryManager;
-import io.jans.orm.search.filter.Filter;
-import net.agkn.hll.HLL;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 
@@ -28,9 +27,10 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -44,9 +44,6 @@ public class StatWS {
     @Inject
     private Logger log;
 
-    @Inject
-    private PersistenceEntryManager entryManager;
-
     @Inject
     private ErrorResponseFactory errorResponseFactory;
 
@@ -54,42 +51,49 @@ public class StatWS {
     private Identity identity;
 
     @Inject
-    private StatService statService;
+    private StatResponseService statResponseService;
 
     @Inject
     private AppConfiguration appConfiguration;
 
-    private long lastProcessedAt;
+    // entry is not needed after interval is passed
+    private final ConfigKeyedHolder<Integer, Cache<String, Long>> rateLimiter = new ConfigKeyedHolder<>(
+            interval -> CacheBuilder.newBuilder()
+                    .expireAfterWrite(interval, TimeUnit.SECONDS)
+                    .<String, Long>build());
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response statGet(@HeaderParam("Authorization") String authorization, @QueryParam("month") String month) {
-        return stat(month);
+    public Response statGet(@HeaderParam("Authorization") String authorization, @QueryParam("month") String month, @QueryParam("granularity") String granularity) {
+        return stat(month, granularity);
     }
 
     @POST
     @Produces(MediaType.APPLICATION_JSON)
-    public Response statPost(@HeaderParam("Authorization") String authorization, @FormParam("month") String month) {
-        return stat(month);
+    public Response statPost(@HeaderParam("Authorization") String authorization, @FormParam("month") String month, @FormParam("granularity") String granularity) {
+        return stat(month, granularity);
     }
 
     public Response stat(String month) {
-        log.debug("Attempting to request stat, month: " + month);
+        return stat(month, null);
+    }
+
+    public Response stat(String month, String granularity) {
+        log.debug("Attempting to request stat, month: " + month + ", granularity: " + granularity);
 
         errorResponseFactory.validateComponentEnabled(ComponentType.STAT);
-        validateAuthorization();
+        final String clientId = validateAuthorization();
         final List<String> months = validateMonth(month);
+        final StatTimeBucketGranularity timeBucketGranularity = validateGranularity(granularity);
 
-        if (!allowToRun()) {
+        if (!allowToRun(clientId)) {
             log.trace("Interval request limit exceeded. Request is rejected. Current interval limit: " + appConfiguration.getStatWebServiceIntervalLimitInSeconds() + " (or 60 seconds if not set).");
             throw errorResponseFactory.createWebApplicationException(Response.Status.FORBIDDEN, TokenErrorResponseType.ACCESS_DENIED, "Interval request limit exceeded.");
         }
 
-        lastProcessedAt = System.currentTimeMillis();
-
         try {
             log.trace("Recognized months: " + months);
-            final String responseAsStr = ServerUtil.asJson(buildResponse(months));
+            final String responseAsStr = ServerUtil.asJson(buildResponse(months, timeBucketGranularity));
             log.trace("Stat: " + responseAsStr);
             return Response.ok().entity(responseAsStr).build();
         } catch (WebApplicationException e) {
@@ -101,11 +105,14 @@ public class StatWS {
         }
     }
 
-    private StatResponse buildResponse(List<String> months) {
+    private StatResponse buildResponse(List<String> months, StatTimeBucketGranularity granularity) {
         StatResponse response = new StatResponse();
         for (String month : months) {
             final StatResponseItem responseItem = buildItem(month);
             if (responseItem != null) {
+                if (granularity != null) {
+                    responseItem.setTimeBuckets(buildTimeBuckets(month, granularity));
+                }
                 response.getResponse().put(month, responseItem);
             }
         }
@@ -115,71 +122,29 @@ public class StatWS {
 
     private StatResponseItem buildItem(String month) {
         try {
-            String monthlyDn = String.format("ou=%s,%s", month, statService.getBaseDn());
-
-            final List<StatEntry> entries = entryManager.findEntries(monthlyDn, StatEntry.class, Filter.createPresenceFilter("jansId"));
-            if (entries == null || entries.isEmpty()) {
-                log.trace("Can't find stat entries for month: " + monthlyDn);
-                return null;
-            }
-
-            final StatResponseItem responseItem = new StatResponseItem();
-            responseItem.setMonthlyActiveUsers(userCardinality(entries));
-
-            unionTokenMapIntoResponseItem(entries, responseItem);
-
-            return responseItem;
+            return statResponseService.buildItem(month);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return null;
         }
     }
 
-    private void unionTokenMapIntoResponseItem(List<StatEntry> entries, StatResponseItem responseItem) {
-        for (StatEntry entry : entries) {
-            for (Map.Entry<String, Map<String, Long>> en : entry.getStat().getTokenCountPerGrantType().entrySet()) {
-                if (en.getValue() == null) {
-                    continue;
-                }
-
-                final Map<String, Long> tokenMap = responseItem.getTokenCountPerGrantType().get(en.getKey());
-                if (tokenMap == null) {
-                    responseItem.getTokenCountPerGrantType().put(en.getKey(), en.getValue());
-                    continue;
-                }
-
-                for (Map.Entry<String, Long> tokenEntry : en.getValue().entrySet()) {
-                    final Long counter = tokenMap.get(tokenEntry.getKey());
-                    if (counter == null) {
-                        tokenMap.put(tokenEntry.getKey(), tokenEntry.getValue());
-                        continue;
-                    }
-
-                    tokenMap.put(tokenEntry.getKey(), counter + tokenEntry.getValue());
-                }
-            }
-        }
-    }
-
-    private long userCardinality(List<StatEntry> entries) {
-        final StatEntry firstEntry = entries.get(0);
-        HLL hll = HLL.fromBytes(Base64.getDecoder().decode(firstEntry.getUserHllData()));
-
-        // Union hll
-        if (entries.size() > 1) {
-            for (int i = 1; i < entries.size(); i++) {
-                hll.union(HLL.fromBytes(Base64.getDecoder().decode(entries.get(i).getUserHllData())));
-            }
+    private Map<String, StatTimeBucketResponseItem> buildTimeBuckets(String month, StatTimeBucketGranularity granularity) {
+        try {
+            return statResponseService.buildTimeBuckets(month, granularity);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return null;
         }
-        return hll.cardinality();
     }
 
-    private void validateAuthorization() {
+    private String validateAuthorization() {
         SessionClient sessionClient = identity.getSessionClient();
         if (sessionClient == null || sessionClient.getClient() == null) {
             log.trace("Client is unknown. Skip stat processing.");
             throw errorResponseFactory.createWebApplicationException(Response.Status.UNAUTHORIZED, TokenErrorResponseType.INVALID_CLIENT, "Failed to authenticate client.");
         }
+        return sessionClient.getClient().getClientId();
     }
 
     private List<String> validateMonth(String month) {
@@ -204,16 +169,36 @@ public class StatWS {
         return months;
     }
 
-    private boolean allowToRun() {
+    private StatTimeBucketGranularity validateGranularity(String granularity) {
+        if (StringUtils.isBlank(granularity)) {
+            return null;
+        }
+
+        final StatTimeBucketGranularity result = StatTimeBucketGranularity.fromString(granularity);
+        if (result == null) {
+            throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST, TokenErrorResponseType.INVALID_REQUEST, "`granularity` parameter should be `hour` or `day`");
+        }
+        return result;
+    }
+
+    /**
+     * Interval limit is applied per client, so one client can't lock out others.
+     */
+    private boolean allowToRun(String clientId) {
         int interval = appConfiguration.getStatWebServiceIntervalLimitInSeconds();
         if (interval <= 0) {
             interval = DEFAULT_WS_INTERVAL_LIMIT_IN_SECONDS;
         }
 
-        long timerInterval = interval * 1000;
+        final ConcurrentMap<String, Long> lastProcessedAt = rateLimiter.get(interval).asMap();
+        final long now = System.currentTimeMillis();
+        final Long previous = lastProcessedAt.putIfAbsent(clientId, now);
+        if (previous == null) {
+            return true;
+        }
 
-        long timeDiff = System.currentTimeMillis() - lastProcessedAt;
+        long timeDiff = now - previous;
 
-        return timeDiff >= timerInterval;
+        return timeDiff >= TimeUnit.SECONDS.toMillis(interval) && lastProcessedAt.replace(clientId, previous, now);
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.testng.annotations.Test;
+
+public class AppInitializerStartupOrderTest {
+
+    private static final List<String> BACKGROUND_TIMERS = Arrays.asList("persistence status timer", "cleaner timer", "stat timer",
+            "expiration notificator timer", "auth configuration timer");
+
+    @Test
+    public void initApplicationServices_sequential_shouldKeepOriginalOrder() {
+        final RecordingTimeline timeline = new RecordingTimeline();
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        new AppInitializer().initApplicationServices(timeline, null, false, 1, finished::countDown);
+
+        // Original order of initialization, access time update timer and warm-up were added later
+        assertEquals(timeline.getFinishedSteps(), Arrays.asList("auth configuration", "python interpreter", "stat service", "scheduler",
+                "metric timer", "configuration timer", "logger timer", "persistence status timer", "cleaner timer", "custom scripts",
+                "key generator timer", "stat timer", "expiration notificator timer", "access time update timer", "auth configuration timer",
+                "ciba requests processor", "default authentication method", "warm-up", "application initialized event"));
+        assertEquals(finished.getCount(), 0);
+    }
+
+    @Test
+    public void initApplicationServices_parallel_shouldFinishDependenciesFirst() throws Exception {
+        final RecordingTimeline timeline = new RecordingTimeline();
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        new AppInitializer().initApplicationServices(timeline, null, true, 4, finished::countDown);
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+
+        timeline.assertBefore("scheduler", "python interpreter");
+        timeline.assertBefore("python interpreter", "custom scripts");
+        for (String step : Arrays.asList("auth configuration", "custom scripts", "stat service", "metric timer", "access time update timer")) {
+            timeline.assertBefore(step, "default authentication method");
+            timeline.assertBefore(step, "warm-up");
+        }
+        timeline.assertBefore("default authentication method", "warm-up");
+        timeline.assertBefore("warm-up", "application initialized event");
+        for (String timer : BACKGROUND_TIMERS) {
+            timeline.assertBefore("application initialized event", timer);
+        }
+        assertEquals(timeline.getFinishedSteps().size(), 19);
+    }
+
+    /**
+     * Records start and end of steps without running them. Custom scripts and auth configuration are slow, so steps
+     * which don't wait for them start earlier.
+     */
+    private static class RecordingTimeline extends StartupTimeline {
+
+        private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public <T> T call(String name, Supplier<T> task) {
+            events.add("start " + name);
+            if ("custom scripts".equals(name) || "auth configuration".equals(name)) {
+                sleep(100);
+            }
+            events.add("end " + name);
+            return null;
+        }
+
+        private List<String> getFinishedSteps() {
+            final List<String> steps = new ArrayList<>();
+            synchronized (events) {
+                for (String event : events) {
+                    if (event.startsWith("end ")) {
+                        steps.add(event.substring(4));
+                    }
+                }
+            }
+            return steps;
+        }
+
+        private void assertBefore(String step, String nextStep) {
+            final int end = events.indexOf("end " + step);
+            final int start = events.indexOf("start " + nextStep);
+            assertTrue(end >= 0 && start > end, String.format("'%s' should finish before '%s' starts: %s", step, nextStep, events));
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
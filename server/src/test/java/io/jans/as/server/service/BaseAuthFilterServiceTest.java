@@ -0,0 +1,63 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import io.jans.as.server.service.BaseAuthFilterService.FilterTemplate;
+import io.jans.as.server.service.BaseAuthFilterService.IndexedParameter;
+
+public class BaseAuthFilterServiceTest {
+
+    @Test
+    public void bind_withAllValues_shouldSubstituteEverySlot() {
+        FilterTemplate template = FilterTemplate.compile("(&(mail=*{0}*)(inum={1}))",
+                Lists.newArrayList(new IndexedParameter("mail", "{0}"), new IndexedParameter("inum", "{1}")));
+
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("mail", "test@example.com");
+        values.put("inum", "1234");
+
+        assertEquals(template.bind(values), "(&(mail=*test@example.com*)(inum=1234))");
+    }
+
+    @Test
+    public void bind_withMissingValue_shouldKeepPlaceholder() {
+        FilterTemplate template = FilterTemplate.compile("(&(uid={0})(o={ 1 }))",
+                Lists.newArrayList(new IndexedParameter("uid", "{0}"), new IndexedParameter("o", "{ 1 }")));
+
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("uid", "admin");
+
+        assertEquals(template.bind(values), "(&(uid=admin)(o={ 1 }))");
+    }
+
+    @Test
+    public void bind_withRepeatedPlaceholder_shouldSubstituteAllOccurrences() {
+        FilterTemplate template = FilterTemplate.compile("(|(uid={0})(mail={0}))",
+                Lists.newArrayList(new IndexedParameter("uid", "{0}"), new IndexedParameter("mail", "{0}")));
+
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("mail", "admin@example.com");
+
+        assertEquals(template.bind(values), "(|(uid=admin@example.com)(mail=admin@example.com))");
+    }
+
+    @Test
+    public void bind_withoutParameters_shouldReturnFilterAsIs() {
+        FilterTemplate template = FilterTemplate.compile("(objectClass=jansPerson)", Lists.<IndexedParameter>newArrayList());
+
+        assertEquals(template.bind(new HashMap<String, String>()), "(objectClass=jansPerson)");
+    }
+}
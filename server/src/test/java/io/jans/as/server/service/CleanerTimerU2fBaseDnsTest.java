@@ -0,0 +1,27 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.jans.as.server.model.fido.u2f.DeviceRegistration;
+import io.jans.as.server.model.fido.u2f.RegisterRequestMessageLdap;
+
+public class CleanerTimerU2fBaseDnsTest {
+
+    @Test
+    public void createU2fCleanServiceBaseDns_shouldAlwaysCleanRegistrationRequests() {
+        final Map<String, Class<?>> baseDns = CleanerTimer.createU2fCleanServiceBaseDns("ou=u2f,o=jans");
+
+        assertEquals(baseDns.get("ou=registration_requests,ou=u2f,o=jans"), RegisterRequestMessageLdap.class);
+        assertEquals(baseDns.get("ou=registered_devices,ou=u2f,o=jans"), DeviceRegistration.class);
+    }
+}
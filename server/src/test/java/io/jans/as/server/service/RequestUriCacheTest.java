@@ -0,0 +1,64 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Date;
+
+import org.apache.http.client.utils.DateUtils;
+import org.testng.annotations.Test;
+
+public class RequestUriCacheTest {
+
+    @Test
+    public void parseLifetime_withMaxAge_shouldReturnMaxAge() {
+        assertEquals(RequestUriCache.parseLifetime("public, max-age=120", null, System.currentTimeMillis()), 120);
+    }
+
+    @Test
+    public void parseLifetime_withNoStore_shouldNotCache() {
+        assertEquals(RequestUriCache.parseLifetime("no-store, max-age=120", null, System.currentTimeMillis()), 0);
+        assertEquals(RequestUriCache.parseLifetime("No-Cache", null, System.currentTimeMillis()), 0);
+    }
+
+    @Test
+    public void parseLifetime_withNoCacheAfterMaxAge_shouldNotCache() {
+        assertEquals(RequestUriCache.parseLifetime("max-age=600, no-cache", null, System.currentTimeMillis()), 0);
+        assertEquals(RequestUriCache.parseLifetime("max-age=600, no-store", null, System.currentTimeMillis()), 0);
+        assertEquals(RequestUriCache.parseLifetime("max-age=600, private", null, System.currentTimeMillis()), 0);
+        assertEquals(RequestUriCache.parseLifetime("max-age=600, private=\"Set-Cookie\"", null, System.currentTimeMillis()), 0);
+    }
+
+    @Test
+    public void parseLifetime_withMaxAgeAndExpires_shouldPreferMaxAge() {
+        final long now = System.currentTimeMillis();
+        final String expires = DateUtils.formatDate(new Date(now + 30000));
+
+        assertEquals(RequestUriCache.parseLifetime("public, max-age=600", expires, now), 600);
+    }
+
+    @Test
+    public void parseLifetime_withExpires_shouldReturnSecondsLeft() {
+        final long now = System.currentTimeMillis();
+        final String expires = DateUtils.formatDate(new Date(now + 30000));
+
+        final int lifetime = RequestUriCache.parseLifetime(null, expires, now);
+        // http date has seconds precision
+        assertEquals(lifetime >= 29 && lifetime <= 30, true);
+    }
+
+    @Test
+    public void parseLifetime_withInvalidExpires_shouldNotCache() {
+        assertEquals(RequestUriCache.parseLifetime(null, "0", System.currentTimeMillis()), 0);
+    }
+
+    @Test
+    public void parseLifetime_withoutHeaders_shouldBeUndefined() {
+        assertEquals(RequestUriCache.parseLifetime(null, null, System.currentTimeMillis()), -1);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import org.testng.annotations.Test;
+
+public class StartupTimelineTest {
+
+    @Test
+    public void call_shouldReturnValueAndRecordStep() {
+        final StartupTimeline timeline = new StartupTimeline();
+
+        assertEquals(timeline.call("configuration", () -> "value"), "value");
+
+        final String formatted = timeline.format();
+        assertTrue(formatted.contains("configuration"));
+        assertTrue(formatted.contains("[" + Thread.currentThread().getName() + "]"));
+        assertTrue(formatted.contains("total:"));
+    }
+
+    @Test
+    public void run_withFailingStep_shouldRecordStepAndRethrow() {
+        final StartupTimeline timeline = new StartupTimeline();
+
+        try {
+            timeline.run("failing step", () -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("Exception of step is expected");
+        } catch (IllegalStateException ex) {
+            assertEquals(ex.getMessage(), "failed");
+        }
+
+        assertTrue(timeline.format().contains("failing step"));
+    }
+
+    @Test
+    public void format_shouldListStepsInOrderOfStart() {
+        final StartupTimeline timeline = new StartupTimeline();
+
+        // outer step starts first but is finished (and recorded) last
+        timeline.run("outer", () -> {
+            sleep();
+            timeline.run("inner", () -> {
+            });
+        });
+
+        final String formatted = timeline.format();
+        assertTrue(formatted.indexOf("outer") < formatted.indexOf("inner"), formatted);
+    }
+
+    @Test
+    public void format_shouldListStepsFromOtherThreads() throws Exception {
+        final StartupTimeline timeline = new StartupTimeline();
+
+        final Thread thread = new Thread(() -> timeline.run("background step", () -> {
+        }), "startup-test-thread");
+        thread.start();
+        thread.join();
+
+        assertTrue(timeline.format().contains("[startup-test-thread]"));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import io.jans.as.common.service.AttributeService;
+import io.jans.as.model.configuration.AppConfiguration;
+
+public class StartupWarmUpServiceTest {
+
+    @Test
+    public void warmUp_withoutCategories_shouldDoNothing() {
+        final TestClientService clientService = new TestClientService();
+        final StartupWarmUpService service = service(config(), clientService, new TestScopeService(), new TestAttributeService());
+
+        assertTrue(service.warmUp().isEmpty());
+        assertEquals(clientService.sizeLimit, -1);
+    }
+
+    @Test
+    public void warmUp_shouldParseCategoriesAndSkipUnknown() {
+        final AppConfiguration config = config(" Clients ", "SCOPES", "", "unknown");
+        config.setStartupWarmUpClientsLimit(5);
+        final TestClientService clientService = new TestClientService();
+        final TestAttributeService attributeService = new TestAttributeService();
+
+        final Map<String, Integer> result = service(config, clientService, new TestScopeService(), attributeService).warmUp();
+
+        assertEquals(result, expected(StartupWarmUpService.CLIENTS, 5, StartupWarmUpService.SCOPES, 2));
+        assertEquals(clientService.sizeLimit, 5);
+        assertEquals(attributeService.calls, 0);
+    }
+
+    @Test
+    public void warmUp_withFailingCategory_shouldWarmUpOthers() {
+        final TestScopeService scopeService = new TestScopeService() {
+            @Override
+            public int warmUpCache() {
+                throw new IllegalStateException("Persistence is not available");
+            }
+        };
+
+        final Map<String, Integer> result = service(config("clients", "scopes", "attributes"), new TestClientService(), scopeService,
+                new TestAttributeService()).warmUp();
+
+        assertEquals(result, expected(StartupWarmUpService.CLIENTS, 1000, StartupWarmUpService.ATTRIBUTES, 3));
+    }
+
+    @Test
+    public void warmUp_notFinishedInTime_shouldBeCancelled() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final TestAttributeService attributeService = new TestAttributeService() {
+            @Override
+            public int warmUpCache() {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 0;
+            }
+        };
+        final AppConfiguration config = config("scopes", "attributes");
+        config.setStartupWarmUpTimeoutInSeconds(1);
+
+        final long start = System.currentTimeMillis();
+        final Map<String, Integer> result = service(config, new TestClientService(), new TestScopeService(), attributeService).warmUp();
+
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(10));
+        assertEquals(result, Collections.singletonMap(StartupWarmUpService.SCOPES, 2));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    private static StartupWarmUpService service(AppConfiguration config, ClientService clientService, ScopeService scopeService,
+            AttributeService attributeService) {
+        return new StartupWarmUpService(LoggerFactory.getLogger(StartupWarmUpService.class), config, clientService, scopeService,
+                attributeService);
+    }
+
+    private static AppConfiguration config(String... categories) {
+        final AppConfiguration config = new AppConfiguration();
+        config.setStartupWarmUpCategories(Arrays.asList(categories));
+        return config;
+    }
+
+    private static Map<String, Integer> expected(String category1, int count1, String category2, int count2) {
+        final Map<String, Integer> result = new LinkedHashMap<>();
+        result.put(category1, count1);
+        result.put(category2, count2);
+        return result;
+    }
+
+    private static class TestClientService extends ClientService {
+
+        private int sizeLimit = -1;
+
+        @Override
+        public int warmUpCache(int sizeLimit) {
+            this.sizeLimit = sizeLimit;
+            return sizeLimit;
+        }
+    }
+
+    private static class TestScopeService extends ScopeService {
+
+        @Override
+        public int warmUpCache() {
+            return 2;
+        }
+    }
+
+    private static class TestAttributeService extends AttributeService {
+
+        private static final long serialVersionUID = 1L;
+
+        private int calls;
+
+        @Override
+        public int warmUpCache() {
+            calls++;
+            return 3;
+        }
+    }
+}
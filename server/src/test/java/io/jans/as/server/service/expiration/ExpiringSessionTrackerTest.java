@@ -0,0 +1,144 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.expiration;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import io.jans.as.server.model.common.SessionId;
+import io.jans.as.server.model.common.SessionIdState;
+import io.jans.as.server.service.external.session.SessionEvent;
+import io.jans.as.server.service.external.session.SessionEventType;
+
+public class ExpiringSessionTrackerTest {
+
+    private static final long NOW = System.currentTimeMillis();
+    private static final long IN_ONE_HOUR = NOW + TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void put_pagesOverSizeLimit_shouldKeepSessionsWhichFit() {
+        final ExpiringSessionTracker tracker = new ExpiringSessionTracker(3, () -> { });
+
+        // first page
+        assertTrue(tracker.put(session("1", IN_ONE_HOUR), NOW));
+        assertTrue(tracker.put(session("2", IN_ONE_HOUR), NOW));
+        // second page
+        assertTrue(tracker.put(session("3", IN_ONE_HOUR), NOW));
+        assertFalse(tracker.put(session("4", IN_ONE_HOUR), NOW));
+
+        assertEquals(tracker.size(), 3);
+    }
+
+    @Test
+    public void put_sessionInMapAlready_shouldNotTakePlaceOfOtherSessions() {
+        final ExpiringSessionTracker tracker = new ExpiringSessionTracker(2, () -> { });
+        tracker.put(session("1", IN_ONE_HOUR), NOW);
+        tracker.put(session("2", IN_ONE_HOUR), NOW);
+
+        // next run reads same sessions again, one of them with prolonged expiration
+        assertTrue(tracker.put(session("1", IN_ONE_HOUR), NOW));
+        assertTrue(tracker.put(session("2", IN_ONE_HOUR + 1000), NOW));
+        assertFalse(tracker.put(session("3", IN_ONE_HOUR), NOW));
+
+        assertEquals(tracker.size(), 2);
+        assertTrue(tracker.pollExpired(10).isEmpty());
+    }
+
+    @Test
+    public void put_expiredSession_shouldBeQueuedForRemoval() {
+        final AtomicInteger notifications = new AtomicInteger();
+        final ExpiringSessionTracker tracker = new ExpiringSessionTracker(2, notifications::incrementAndGet);
+
+        assertTrue(tracker.put(session("1", NOW - 1000), NOW));
+
+        assertEquals(tracker.size(), 0);
+        assertEquals(notifications.get(), 1);
+
+        final List<ExpiringSession> expired = tracker.pollExpired(10);
+        assertEquals(expired.size(), 1);
+        assertEquals(expired.get(0).getId(), "1");
+        assertEquals(expired.get(0).getDn(), "jansId=1,ou=sessions,o=jans");
+        assertTrue(expired.get(0).isRemoveOnDispatch());
+    }
+
+    @Test
+    public void put_sessionWithoutExpiration_shouldBeSkipped() {
+        final ExpiringSessionTracker tracker = new ExpiringSessionTracker(2, () -> { });
+        final SessionId session = session("1", NOW);
+        session.setExpirationDate(null);
+
+        assertTrue(tracker.put(session, NOW));
+        assertEquals(tracker.size(), 0);
+    }
+
+    @Test
+    public void pollExpired_shouldReturnBatchesInOrder() {
+        final ExpiringSessionTracker tracker = new ExpiringSessionTracker(10, () -> { });
+        for (int i = 1; i <= 5; i++) {
+            tracker.put(session(String.valueOf(i), NOW - 1000), NOW);
+        }
+
+        assertEquals(ids(tracker.pollExpired(2)), Arrays.asList("1", "2"));
+        assertEquals(ids(tracker.pollExpired(2)), Arrays.asList("3", "4"));
+        assertEquals(ids(tracker.pollExpired(2)), Collections.singletonList("5"));
+        assertTrue(tracker.pollExpired(2).isEmpty());
+    }
+
+    @Test
+    public void toGoneEvents_shouldUseLoadedSessionsAndFallBackToTuple() {
+        final SessionId loaded = session("1", IN_ONE_HOUR);
+        loaded.setState(SessionIdState.AUTHENTICATED);
+        final Map<String, SessionId> loadedSessions = new HashMap<>();
+        loadedSessions.put("1", loaded);
+
+        final List<SessionEvent> events = ExpiringSessionTracker.toGoneEvents(
+                Arrays.asList(ExpiringSession.of(session("1", IN_ONE_HOUR)), ExpiringSession.of(session("2", IN_ONE_HOUR))), loadedSessions);
+
+        assertEquals(events.size(), 2);
+        assertEquals(events.get(0).getType(), SessionEventType.GONE);
+        assertSame(events.get(0).getSessionId(), loaded);
+
+        final SessionId removed = events.get(1).getSessionId();
+        assertEquals(events.get(1).getType(), SessionEventType.GONE);
+        assertEquals(removed.getId(), "2");
+        assertEquals(removed.getDn(), "jansId=2,ou=sessions,o=jans");
+        assertEquals(removed.getUserDn(), "inum=2,ou=people,o=jans");
+        assertEquals(removed.getExpirationDate().getTime(), IN_ONE_HOUR);
+        assertNull(removed.getState());
+    }
+
+    private static SessionId session(String id, long expirationTime) {
+        final SessionId session = new SessionId();
+        session.setId(id);
+        session.setDn("jansId=" + id + ",ou=sessions,o=jans");
+        session.setUserDn("inum=" + id + ",ou=people,o=jans");
+        session.setExpirationDate(new Date(expirationTime));
+        return session;
+    }
+
+    private static List<String> ids(List<ExpiringSession> sessions) {
+        final String[] ids = new String[sessions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sessions.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import io.jans.model.AuthenticationScriptUsageType;
+import io.jans.model.SimpleCustomProperty;
+import io.jans.model.custom.script.conf.CustomScriptConfiguration;
+import io.jans.model.custom.script.model.auth.AuthenticationCustomScript;
+
+public class ExternalAuthenticationServiceIndexTest {
+
+    @Test
+    public void buildIndexes_shouldIndexScriptsByUsageTypeNameAndLevel() {
+        final CustomScriptConfiguration basic = script("basic", 10, AuthenticationScriptUsageType.BOTH);
+        final CustomScriptConfiguration otp = script("otp", 20, AuthenticationScriptUsageType.INTERACTIVE);
+        final TestService service = new TestService();
+
+        service.load(basic, otp);
+
+        assertSame(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.INTERACTIVE, "OTP"), otp);
+        assertSame(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.SERVICE, "basic"), basic);
+        assertNull(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.SERVICE, "otp"));
+        assertSame(service.getExternalAuthenticatorByAuthLevel(AuthenticationScriptUsageType.INTERACTIVE, 20), otp);
+        assertNull(service.getExternalAuthenticatorByAuthLevel(AuthenticationScriptUsageType.SERVICE, 20));
+        assertEquals(service.acrToLevelMapping().get("otp"), Integer.valueOf(20));
+    }
+
+    @Test
+    public void buildIndexes_withDuplicateLevelAndAcr_shouldPreferFirstScript() {
+        final CustomScriptConfiguration first = script("otp", 20, AuthenticationScriptUsageType.INTERACTIVE);
+        final CustomScriptConfiguration sameAcr = script("OTP", 30, AuthenticationScriptUsageType.INTERACTIVE);
+        final CustomScriptConfiguration sameLevel = script("u2f", 20, AuthenticationScriptUsageType.INTERACTIVE);
+        final TestService service = new TestService();
+
+        service.load(first, sameAcr, sameLevel);
+
+        // First script in list wins, the same as in linear search
+        assertSame(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.INTERACTIVE, "otp"), first);
+        assertSame(service.getExternalAuthenticatorByAuthLevel(AuthenticationScriptUsageType.INTERACTIVE, 20), first);
+        assertEquals(service.levelToAcrMapping().get(20), new HashSet<>(Arrays.asList("otp", "u2f")));
+        assertEquals(service.levelToAcrMapping().get(30), new HashSet<>(Arrays.asList("OTP")));
+    }
+
+    @Test
+    public void buildIndexes_withInternalScript_shouldMapAcrToNegativeLevel() {
+        final CustomScriptConfiguration internal = script("simple_password_auth", 5, AuthenticationScriptUsageType.BOTH);
+        internal.getCustomScript().setInternal(true);
+        final TestService service = new TestService();
+
+        service.load(internal);
+
+        assertEquals(service.acrToLevelMapping().get("simple_password_auth"), Integer.valueOf(-1));
+        assertEquals(service.levelToAcrMapping().get(5), new HashSet<>(Arrays.asList("simple_password_auth")));
+    }
+
+    @Test
+    public void reload_withDisabledScript_shouldReplaceIndexes() {
+        final CustomScriptConfiguration basic = script("basic", 10, AuthenticationScriptUsageType.INTERACTIVE);
+        final CustomScriptConfiguration otp = script("otp", 20, AuthenticationScriptUsageType.INTERACTIVE);
+        final TestService service = new TestService();
+        service.load(basic, otp);
+
+        final Map<Integer, Set<String>> levelToAcrBeforeReload = service.levelToAcrMapping();
+
+        // Disabled scripts are not loaded by script manager, so they are not passed on reload
+        service.load(basic);
+
+        assertNull(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.INTERACTIVE, "otp"));
+        assertNull(service.getExternalAuthenticatorByAuthLevel(AuthenticationScriptUsageType.INTERACTIVE, 20));
+        assertNull(service.levelToAcrMapping().get(20));
+        assertNull(service.acrToLevelMapping().get("otp"));
+        assertSame(service.getCustomScriptConfiguration(AuthenticationScriptUsageType.INTERACTIVE, "basic"), basic);
+
+        // Indexes are replaced, not modified in place
+        assertEquals(levelToAcrBeforeReload.keySet(), new HashSet<>(Arrays.asList(10, 20)));
+    }
+
+    private static CustomScriptConfiguration script(String name, int level, AuthenticationScriptUsageType usageType) {
+        final AuthenticationCustomScript customScript = new AuthenticationCustomScript();
+        customScript.setName(name);
+        customScript.setLevel(level);
+        customScript.setUsageType(usageType);
+        return new CustomScriptConfiguration(customScript, null, new HashMap<String, SimpleCustomProperty>(0));
+    }
+
+    private static class TestService extends ExternalAuthenticationService {
+
+        private static final long serialVersionUID = 1L;
+
+        private void load(CustomScriptConfiguration... scripts) {
+            final Map<String, CustomScriptConfiguration> nameMap = new LinkedHashMap<>();
+            for (CustomScriptConfiguration script : scripts) {
+                nameMap.put(script.getName(), script);
+            }
+            this.customScriptConfigurationsNameMap = nameMap;
+            reloadExternal();
+        }
+    }
+}
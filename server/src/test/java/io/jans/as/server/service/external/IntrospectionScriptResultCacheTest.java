@@ -0,0 +1,55 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+public class IntrospectionScriptResultCacheTest {
+
+    @Test
+    public void diff_appliedToResponse_shouldReplayScriptChanges() {
+        final JSONObject before = new JSONObject("{\"active\":true,\"scope\":\"openid\",\"username\":\"admin\",\"exp\":100}");
+        final JSONObject after = new JSONObject("{\"active\":true,\"scope\":\"openid profile\",\"exp\":100,\"groups\":[\"a\",\"b\"]}");
+
+        final IntrospectionScriptResultCache.ScriptResult result = IntrospectionScriptResultCache.ScriptResult.diff(before, after, System.currentTimeMillis() + 1000);
+
+        final JSONObject response = new JSONObject("{\"active\":true,\"scope\":\"openid\",\"username\":\"admin\",\"exp\":200}");
+        result.apply(response);
+
+        assertEquals(response.getString("scope"), "openid profile");
+        assertEquals(response.getJSONArray("groups").length(), 2);
+        assertFalse(response.has("username"));
+        // not changed by script, so value of current response is kept
+        assertEquals(response.getInt("exp"), 200);
+    }
+
+    @Test
+    public void apply_shouldNotShareCachedValuesWithResponse() {
+        final JSONObject after = new JSONObject().put("groups", new JSONArray().put("a"));
+        final IntrospectionScriptResultCache.ScriptResult result = IntrospectionScriptResultCache.ScriptResult.diff(new JSONObject(), after, System.currentTimeMillis() + 1000);
+
+        final JSONObject first = new JSONObject();
+        result.apply(first);
+        first.getJSONArray("groups").put("changed");
+
+        final JSONObject second = new JSONObject();
+        result.apply(second);
+        assertEquals(second.getJSONArray("groups").length(), 1);
+    }
+
+    @Test
+    public void isExpired_shouldRespectExpirationTime() {
+        assertTrue(IntrospectionScriptResultCache.ScriptResult.diff(new JSONObject(), new JSONObject(), System.currentTimeMillis() - 1).isExpired());
+        assertFalse(IntrospectionScriptResultCache.ScriptResult.diff(new JSONObject(), new JSONObject(), System.currentTimeMillis() + 1000).isExpired());
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.external;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import io.jans.as.model.configuration.AppConfiguration;
+import io.jans.model.SimpleCustomProperty;
+import io.jans.model.custom.script.conf.CustomScriptConfiguration;
+import io.jans.model.custom.script.model.CustomScript;
+
+public class ScriptExecutionGuardTest {
+
+    private static final int OPEN_INTERVAL_IN_SECONDS = 10;
+
+    @Test
+    public void allowExecution_afterThresholdFailures_shouldOpenCircuit() {
+        final TestGuard guard = new TestGuard(config(2, 0));
+        final CustomScriptConfiguration script = script("open");
+
+        guard.failed(script, System.nanoTime());
+        assertTrue(guard.allowExecution(script));
+
+        guard.failed(script, System.nanoTime());
+        assertFalse(guard.allowExecution(script));
+
+        guard.advance(OPEN_INTERVAL_IN_SECONDS - 1);
+        assertFalse(guard.allowExecution(script));
+    }
+
+    @Test
+    public void allowExecution_afterOpenInterval_shouldAllowSingleTrial() {
+        final TestGuard guard = new TestGuard(config(2, 0));
+        final CustomScriptConfiguration script = script("halfOpen");
+        openCircuit(guard, script);
+
+        guard.advance(OPEN_INTERVAL_IN_SECONDS);
+
+        assertTrue(guard.allowExecution(script));
+        assertFalse(guard.allowExecution(script));
+        assertFalse(guard.allowExecution(script));
+    }
+
+    @Test
+    public void executed_successfulTrial_shouldCloseCircuit() {
+        final TestGuard guard = new TestGuard(config(2, 0));
+        final CustomScriptConfiguration script = script("close");
+        openCircuit(guard, script);
+
+        guard.advance(OPEN_INTERVAL_IN_SECONDS);
+        assertTrue(guard.allowExecution(script));
+        assertNull(guard.executed(script, "method", System.nanoTime()));
+
+        assertTrue(guard.allowExecution(script));
+        assertTrue(guard.allowExecution(script));
+
+        // failure counter is reset, so single failure doesn't open circuit again
+        guard.failed(script, System.nanoTime());
+        assertTrue(guard.allowExecution(script));
+    }
+
+    @Test
+    public void failed_trial_shouldReopenCircuit() {
+        final TestGuard guard = new TestGuard(config(2, 0));
+        final CustomScriptConfiguration script = script("reopen");
+        openCircuit(guard, script);
+
+        guard.advance(OPEN_INTERVAL_IN_SECONDS);
+        assertTrue(guard.allowExecution(script));
+        guard.failed(script, System.nanoTime());
+
+        assertFalse(guard.allowExecution(script));
+        guard.advance(OPEN_INTERVAL_IN_SECONDS - 1);
+        assertFalse(guard.allowExecution(script));
+
+        guard.advance(1);
+        assertTrue(guard.allowExecution(script));
+    }
+
+    @Test
+    public void allowExecution_afterScriptReload_shouldCloseCircuit() {
+        final TestGuard guard = new TestGuard(config(2, 0));
+        final CustomScriptConfiguration script = script("reload", 1);
+        openCircuit(guard, script);
+
+        final CustomScriptConfiguration reloadedScript = script("reload", 2);
+        assertTrue(guard.allowExecution(reloadedScript));
+
+        // failures of previous revision are not counted
+        guard.failed(reloadedScript, System.nanoTime());
+        assertTrue(guard.allowExecution(reloadedScript));
+        guard.failed(reloadedScript, System.nanoTime());
+        assertFalse(guard.allowExecution(reloadedScript));
+    }
+
+    @Test
+    public void allowExecution_withDisabledCircuitBreaker_shouldAlwaysAllow() {
+        final TestGuard guard = new TestGuard(config(0, 0));
+        final CustomScriptConfiguration script = script("disabled");
+
+        for (int i = 0; i < 5; i++) {
+            guard.failed(script, System.nanoTime());
+        }
+        assertTrue(guard.allowExecution(script));
+    }
+
+    @Test
+    public void executed_overBudget_shouldBeReportedOncePerInterval() {
+        final TestGuard guard = new TestGuard(config(0, 1));
+        final CustomScriptConfiguration script = script("budget");
+
+        assertNotNull(guard.executed(script, "method", slowStart()));
+        assertNull(guard.executed(script, "method", slowStart()));
+
+        guard.advance(OPEN_INTERVAL_IN_SECONDS - 1);
+        assertNull(guard.executed(script, "method", slowStart()));
+
+        guard.advance(1);
+        assertNotNull(guard.executed(script, "method", slowStart()));
+        assertNull(guard.executed(script, "method", slowStart()));
+    }
+
+    @Test
+    public void executed_withinBudget_shouldNotBeReported() {
+        final TestGuard guard = new TestGuard(config(0, 60000));
+        final CustomScriptConfiguration script = script("withinBudget");
+
+        assertNull(guard.executed(script, "method", System.nanoTime()));
+    }
+
+    private static void openCircuit(TestGuard guard, CustomScriptConfiguration script) {
+        guard.failed(script, System.nanoTime());
+        guard.failed(script, System.nanoTime());
+        assertFalse(guard.allowExecution(script));
+    }
+
+    private static long slowStart() {
+        return System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static AppConfiguration config(int failureThreshold, int timeBudgetInMillis) {
+        final AppConfiguration appConfiguration = new AppConfiguration();
+        appConfiguration.setCustomScriptCircuitBreakerFailureThreshold(failureThreshold);
+        appConfiguration.setCustomScriptCircuitBreakerOpenIntervalInSeconds(OPEN_INTERVAL_IN_SECONDS);
+        appConfiguration.setCustomScriptTimeBudgetInMillis(timeBudgetInMillis);
+        return appConfiguration;
+    }
+
+    private static CustomScriptConfiguration script(String name) {
+        return script(name, 1);
+    }
+
+    private static CustomScriptConfiguration script(String name, long revision) {
+        final CustomScript customScript = new CustomScript();
+        customScript.setName(name);
+        customScript.setRevision(revision);
+        return new CustomScriptConfiguration(customScript, null, new HashMap<String, SimpleCustomProperty>(0));
+    }
+
+    private static class TestGuard extends ScriptExecutionGuard {
+
+        private long now = TimeUnit.SECONDS.toNanos(1000);
+
+        private TestGuard(AppConfiguration appConfiguration) {
+            super(LoggerFactory.getLogger(ScriptExecutionGuard.class), appConfiguration);
+        }
+
+        private void advance(int seconds) {
+            now += TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        @Override
+        long nanoTime() {
+            return now;
+        }
+    }
+}
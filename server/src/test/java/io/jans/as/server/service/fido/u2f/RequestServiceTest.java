@@ -0,0 +1,50 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.fido.u2f;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.testng.annotations.Test;
+
+import io.jans.as.server.model.fido.u2f.RequestMessageLdap;
+
+public class RequestServiceTest {
+
+    @Test
+    public void isRequestMessageOwner_withSameUserAndSession_shouldReturnTrue() {
+        assertTrue(RequestService.isRequestMessageOwner(requestMessage("session", "user"), "user", "session"));
+    }
+
+    @Test
+    public void isRequestMessageOwner_withOtherUser_shouldReturnFalse() {
+        assertFalse(RequestService.isRequestMessageOwner(requestMessage("session", "user"), "other", "session"));
+        assertFalse(RequestService.isRequestMessageOwner(requestMessage("session", "user"), "other", null));
+    }
+
+    @Test
+    public void isRequestMessageOwner_withOtherSession_shouldReturnFalse() {
+        assertFalse(RequestService.isRequestMessageOwner(requestMessage("session", "user"), "user", "other"));
+        assertFalse(RequestService.isRequestMessageOwner(requestMessage("session", null), null, "other"));
+    }
+
+    @Test
+    public void isRequestMessageOwner_withUnknownUserOrSession_shouldNotCompareThem() {
+        // one step workflow: user is not sent in finish request
+        assertTrue(RequestService.isRequestMessageOwner(requestMessage("session", "user"), null, "session"));
+        // finish request without session cookie
+        assertTrue(RequestService.isRequestMessageOwner(requestMessage("session", "user"), "user", null));
+        // request was started without session
+        assertTrue(RequestService.isRequestMessageOwner(requestMessage(null, "user"), "user", "session"));
+    }
+
+    private static RequestMessageLdap requestMessage(String sessionId, String userInum) {
+        return new RequestMessageLdap("jansId=1,ou=registration_requests,ou=u2f,o=jans", "1", "requestId", new Date(), sessionId, userInum);
+    }
+}
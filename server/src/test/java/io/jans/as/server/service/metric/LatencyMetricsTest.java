@@ -0,0 +1,62 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.metric;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.testng.annotations.Test;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+public class LatencyMetricsTest {
+
+    @Test
+    public void fromRequestUri_withEndpointPath_shouldReturnEndpoint() {
+        assertEquals(LatencyMetrics.Endpoint.fromRequestUri("/jans-auth/restv1/token"), LatencyMetrics.Endpoint.TOKEN);
+        assertEquals(LatencyMetrics.Endpoint.fromRequestUri("/jans-auth/restv1/end_session"), LatencyMetrics.Endpoint.END_SESSION);
+    }
+
+    @Test
+    public void fromRequestUri_withOtherPath_shouldReturnNull() {
+        assertNull(LatencyMetrics.Endpoint.fromRequestUri("/jans-auth/restv1/revoke"));
+        assertNull(LatencyMetrics.Endpoint.fromRequestUri(null));
+    }
+
+    @Test
+    public void observe_shouldBeExposedInTextFormat() throws Exception {
+        LatencyMetrics.register();
+        final Double before = MetricsRegistry.getRegistry().getSampleValue("jans_auth_phase_latency_seconds_count",
+                new String[]{"phase"}, new String[]{"signing"});
+
+        LatencyMetrics.observe(LatencyMetrics.Phase.SIGNING, System.nanoTime());
+
+        final Double after = MetricsRegistry.getRegistry().getSampleValue("jans_auth_phase_latency_seconds_count",
+                new String[]{"phase"}, new String[]{"signing"});
+        assertEquals(after - before, 1d);
+
+        final StringWriter writer = new StringWriter();
+        TextFormat.write004(writer, MetricsRegistry.getRegistry().metricFamilySamples());
+        assertTrue(writer.toString().contains("jans_auth_endpoint_latency_seconds_bucket{endpoint=\"token\""));
+        assertTrue(writer.toString().contains("jans_auth_phase_latency_seconds_count{phase=\"signing\""));
+    }
+
+    @Test
+    public void observeScript_shouldRecordScriptAndScriptPhase() {
+        final long duration = LatencyMetrics.observeScript("test_script", System.nanoTime() - 1_000_000);
+        assertTrue(duration >= 1_000_000);
+
+        final Double count = MetricsRegistry.getRegistry().getSampleValue("jans_auth_script_latency_seconds_count",
+                new String[]{"script"}, new String[]{"test_script"});
+        assertEquals(count, 1d);
+        assertTrue(MetricsRegistry.getRegistry().getSampleValue("jans_auth_phase_latency_seconds_count",
+                new String[]{"phase"}, new String[]{"script"}) >= 1d);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.service.metric;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class PhaseTimingsTest {
+
+    @Test
+    public void record_samePhaseTwice_shouldSumDurations() {
+        PhaseTimings timings = new PhaseTimings();
+        final long start = System.nanoTime() - 2_000_000;
+        timings.record("signing", start);
+        final long first = timings.getDurationNanos("signing");
+        timings.record("signing", System.nanoTime() - 1_000_000);
+
+        assertTrue(first >= 2_000_000);
+        assertTrue(timings.getDurationNanos("signing") >= first + 1_000_000);
+        assertEquals(timings.getDurationNanos("persistence"), -1);
+    }
+
+    @Test
+    public void toServerTimingHeader_shouldContainPhasesAndTotal() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.record("grant_lookup", System.nanoTime());
+        timings.record("signing", System.nanoTime());
+
+        final String header = timings.toServerTimingHeader();
+        assertTrue(header.matches("grant_lookup;dur=\\d+\\.\\d{3}, signing;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+    }
+
+    @Test
+    public void toLogString_shouldContainEndpointAndPhases() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.record("grant_lookup", System.nanoTime());
+
+        final String line = timings.toLogString("token");
+        assertTrue(line.matches("endpoint=token total_ms=\\d+\\.\\d{3} grant_lookup_ms=\\d+\\.\\d{3}"), line);
+    }
+
+    @Test
+    public void observe_whenRequestIsTraced_shouldRecordPhaseIntoCurrentTimings() {
+        PhaseTimings timings = new PhaseTimings();
+        PhaseTimings.setCurrent(timings);
+        try {
+            assertSame(PhaseTimings.current(), timings);
+            LatencyMetrics.observe(LatencyMetrics.Phase.PERSISTENCE, System.nanoTime());
+            assertTrue(timings.getDurationNanos("persistence") >= 0);
+        } finally {
+            PhaseTimings.setCurrent(null);
+        }
+        assertNull(PhaseTimings.current());
+    }
+}
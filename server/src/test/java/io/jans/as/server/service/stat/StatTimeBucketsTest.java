@@ -0,0 +1,56 @@
+package io.jans.as.server.service.stat;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class StatTimeBucketsTest {
+
+    // 2021-01-13T17:30:00Z
+    private static final long TIME = 1610559000000L;
+
+    @Test
+    public void granularity_key_shouldBeAlignedToUtc() {
+        assertEquals(StatTimeBucketGranularity.HOUR.key(StatTimeBucketGranularity.HOUR.index(TIME)), "2021011317");
+        assertEquals(StatTimeBucketGranularity.DAY.key(StatTimeBucketGranularity.DAY.index(TIME)), "20210113");
+        assertEquals(StatTimeBucketGranularity.DAY.parentKey("2021011317"), "20210113");
+        assertNull(StatTimeBucketGranularity.HOUR.parentKey("20210113"));
+        assertEquals(StatTimeBucketGranularity.fromString(" Hour "), StatTimeBucketGranularity.HOUR);
+        assertNull(StatTimeBucketGranularity.fromString("week"));
+    }
+
+    @Test
+    public void report_withinBucket_shouldCountTokens() {
+        final StatTimeBuckets buckets = new StatTimeBuckets(StatTimeBucketGranularity.HOUR, 11);
+        buckets.reportToken(TIME, "authorization_code", "access_token");
+        buckets.reportToken(TIME + 1000, "authorization_code", "access_token");
+        buckets.reportActiveUser(TIME, "user".hashCode());
+
+        final List<StatTimeBuckets.Bucket> changed = buckets.takeChanged();
+        assertEquals(changed.size(), 1);
+        assertEquals(changed.get(0).getKey(), "2021011317");
+        assertEquals(changed.get(0).getMonth(), "202101");
+        assertEquals(changed.get(0).getTokenCounts().get("authorization_code").get("access_token"), Long.valueOf(2L));
+        assertTrue(changed.get(0).getHllBytes().length > 0);
+
+        assertTrue(buckets.takeChanged().isEmpty());
+    }
+
+    @Test
+    public void report_afterRingIsRotated_shouldKeepPushedOutBucketTillFlush() {
+        final StatTimeBuckets buckets = new StatTimeBuckets(StatTimeBucketGranularity.HOUR, 11);
+        buckets.reportToken(TIME, "authorization_code", "id_token");
+        // same ring slot, 4 hours later
+        buckets.reportToken(TIME + TimeUnit.HOURS.toMillis(4), "authorization_code", "id_token");
+
+        final List<StatTimeBuckets.Bucket> changed = buckets.takeChanged();
+        assertEquals(changed.size(), 2);
+        assertEquals(changed.get(0).getKey(), "2021011317");
+        assertEquals(changed.get(1).getKey(), "2021011321");
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Janssen Project software is available under the Apache License (2004). See http://www.apache.org/licenses/ for full text.
+ *
+ * Copyright (c) 2020, Janssen Project
+ */
+
+package io.jans.as.server.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+public class ConfigKeyedHolderTest {
+
+    @Test
+    public void get_sameConfiguration_shouldReturnSameValue() {
+        final AtomicInteger created = new AtomicInteger();
+        final ConfigKeyedHolder<Integer, StringBuilder> holder = new ConfigKeyedHolder<>(key -> {
+            created.incrementAndGet();
+            return new StringBuilder().append(key);
+        });
+
+        assertNull(holder.getIfCreated());
+
+        final StringBuilder value = holder.get(1000);
+        assertEquals(value.toString(), "1000");
+        assertSame(holder.get(1000), value);
+        assertSame(holder.getIfCreated(), value);
+        assertEquals(created.get(), 1);
+    }
+
+    @Test
+    public void get_changedConfiguration_shouldRecreateValue() {
+        final ConfigKeyedHolder<Integer, StringBuilder> holder = new ConfigKeyedHolder<>(key -> new StringBuilder().append(key));
+
+        final StringBuilder first = holder.get(1);
+        final StringBuilder second = holder.get(2);
+
+        assertNotSame(second, first);
+        assertEquals(second.toString(), "2");
+        assertSame(holder.getIfCreated(), second);
+    }
+}
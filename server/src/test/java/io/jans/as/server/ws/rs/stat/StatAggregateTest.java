@@ -0,0 +1,68 @@
+package io.jans.as.server.ws.rs.stat;
+
+import io.jans.as.server.service.stat.StatService;
+import net.agkn.hll.HLL;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class StatAggregateTest {
+
+    @Test
+    public void add_fewEntries_shouldUnionUsersAndSumCounters() {
+        final StatAggregate aggregate = new StatAggregate();
+        assertTrue(aggregate.isEmpty());
+
+        aggregate.add(hll(1, 2, 3), counters("authorization_code", "access_token", 2L));
+        aggregate.add(hll(3, 4), counters("authorization_code", "access_token", 3L));
+        aggregate.add(null, counters("client_credentials", "access_token", 1L));
+
+        final StatResponseItem item = aggregate.toResponseItem();
+        assertFalse(aggregate.isEmpty());
+        assertEquals(item.getMonthlyActiveUsers(), 4L);
+        assertEquals(item.getTokenCountPerGrantType().get("authorization_code").get("access_token"), Long.valueOf(5L));
+        assertEquals(item.getTokenCountPerGrantType().get("client_credentials").get("access_token"), Long.valueOf(1L));
+    }
+
+    @Test
+    public void toResponseItem_whenModified_shouldNotChangeAggregate() {
+        final StatAggregate aggregate = new StatAggregate();
+        aggregate.add(hll(1), counters("authorization_code", "id_token", 1L));
+
+        aggregate.toResponseItem().getTokenCountPerGrantType().get("authorization_code").put("id_token", 100L);
+
+        assertEquals(aggregate.toResponseItem().getTokenCountPerGrantType().get("authorization_code").get("id_token"), Long.valueOf(1L));
+    }
+
+    @Test
+    public void copy_whenModified_shouldNotChangeOriginal() {
+        final StatAggregate aggregate = new StatAggregate();
+        aggregate.add(hll(1), counters("authorization_code", "id_token", 1L));
+        final StatResponseItem rollup = aggregate.toResponseItem();
+
+        StatAggregate.copy(rollup).getTokenCountPerGrantType().get("authorization_code").put("id_token", 100L);
+
+        assertEquals(rollup.getTokenCountPerGrantType().get("authorization_code").get("id_token"), Long.valueOf(1L));
+    }
+
+    private static HLL hll(int... ids) {
+        final HLL hll = StatService.newHll();
+        for (int id : ids) {
+            hll.addRaw(("user" + id).hashCode());
+        }
+        return hll;
+    }
+
+    private static Map<String, Map<String, Long>> counters(String grantType, String token, Long count) {
+        final Map<String, Long> tokenMap = new HashMap<>();
+        tokenMap.put(token, count);
+        final Map<String, Map<String, Long>> result = new HashMap<>();
+        result.put(grantType, tokenMap);
+        return result;
+    }
+}